@@ -9,35 +9,35 @@
 -- -----------------------------------------------------------------------------
 -- INSERTAR CLIENTES DE PRUEBA
 -- -----------------------------------------------------------------------------
-INSERT INTO clientes (nombre, apellido, email, dni, telefono, fecha_nacimiento, eventos_asistidos, pases_gratuitos, activo, fecha_registro) VALUES
-('María', 'González', 'maria.gonzalez@email.com', '12345678', '+54911234567', '1985-03-15', 3, 0, TRUE, NOW()),
-('Juan', 'Pérez', 'juan.perez@email.com', '87654321', '+54911234568', '1990-07-22', 7, 1, TRUE, NOW()),
-('Ana', 'Rodríguez', 'ana.rodriguez@email.com', '11223344', '+54911234569', '1988-11-10', 2, 0, TRUE, NOW()),
-('Carlos', 'López', 'carlos.lopez@email.com', '44332211', '+54911234570', '1992-01-05', 5, 1, TRUE, NOW()),
-('Laura', 'Martínez', 'laura.martinez@email.com', '55667788', '+54911234571', '1987-09-18', 1, 0, TRUE, NOW()),
-('Diego', 'Sánchez', 'diego.sanchez@email.com', '88776655', '+54911234572', '1995-05-12', 4, 0, TRUE, NOW()),
-('Sofía', 'Fernández', 'sofia.fernandez@email.com', '99887766', '+54911234573', '1983-12-25', 6, 1, TRUE, NOW()),
-('Pablo', 'García', 'pablo.garcia@email.com', '66778899', '+54911234574', '1991-04-30', 8, 1, TRUE, NOW()),
-('Valentina', 'Romero', 'valentina.romero@email.com', '33445566', '+54911234575', '1994-08-14', 2, 0, TRUE, NOW()),
-('Martín', 'Silva', 'martin.silva@email.com', '77889900', '+54911234576', '1989-02-28', 3, 0, TRUE, NOW());
+INSERT INTO clientes (nombre, apellido, email, dni, telefono, fecha_nacimiento, eventos_asistidos, pases_gratuitos, activo, fecha_registro, version) VALUES
+('María', 'González', 'maria.gonzalez@email.com', '12345678', '+54911234567', '1985-03-15', 3, 0, TRUE, NOW(), 0),
+('Juan', 'Pérez', 'juan.perez@email.com', '87654321', '+54911234568', '1990-07-22', 7, 1, TRUE, NOW(), 0),
+('Ana', 'Rodríguez', 'ana.rodriguez@email.com', '11223344', '+54911234569', '1988-11-10', 2, 0, TRUE, NOW(), 0),
+('Carlos', 'López', 'carlos.lopez@email.com', '44332211', '+54911234570', '1992-01-05', 5, 1, TRUE, NOW(), 0),
+('Laura', 'Martínez', 'laura.martinez@email.com', '55667788', '+54911234571', '1987-09-18', 1, 0, TRUE, NOW(), 0),
+('Diego', 'Sánchez', 'diego.sanchez@email.com', '88776655', '+54911234572', '1995-05-12', 4, 0, TRUE, NOW(), 0),
+('Sofía', 'Fernández', 'sofia.fernandez@email.com', '99887766', '+54911234573', '1983-12-25', 6, 1, TRUE, NOW(), 0),
+('Pablo', 'García', 'pablo.garcia@email.com', '66778899', '+54911234574', '1991-04-30', 8, 1, TRUE, NOW(), 0),
+('Valentina', 'Romero', 'valentina.romero@email.com', '33445566', '+54911234575', '1994-08-14', 2, 0, TRUE, NOW(), 0),
+('Martín', 'Silva', 'martin.silva@email.com', '77889900', '+54911234576', '1989-02-28', 3, 0, TRUE, NOW(), 0);
 
 -- -----------------------------------------------------------------------------
 -- INSERTAR EVENTOS DE PRUEBA
 -- -----------------------------------------------------------------------------
-INSERT INTO eventos (nombre, descripcion, fecha_hora, tipo_evento, capacidad_total, precio_base, activo, fecha_creacion, fecha_actualizacion) VALUES
+INSERT INTO eventos (nombre, descripcion, fecha_hora, tipo_evento, capacidad_total, precio_base, activo, fecha_creacion, fecha_actualizacion, version) VALUES
 -- Obras de Teatro
-('Hamlet', 'Clásico drama de Shakespeare protagonizado por los mejores actores del país', '2025-07-15 20:00:00', 'OBRA_TEATRO', 200, 2500.00, TRUE, NOW(), NOW()),
-('El Fantasma de la Ópera', 'Musical romántico que ha cautivado audiencias por décadas', '2025-07-20 21:00:00', 'OBRA_TEATRO', 300, 3500.00, TRUE, NOW(), NOW()),
-('La Casa de Bernarda Alba', 'Drama intenso de García Lorca sobre secretos familiares', '2025-07-25 19:30:00', 'OBRA_TEATRO', 150, 2000.00, TRUE, NOW(), NOW()),
+('Hamlet', 'Clásico drama de Shakespeare protagonizado por los mejores actores del país', '2025-07-15 20:00:00', 'OBRA_TEATRO', 200, 2500.00, TRUE, NOW(), NOW(), 0),
+('El Fantasma de la Ópera', 'Musical romántico que ha cautivado audiencias por décadas', '2025-07-20 21:00:00', 'OBRA_TEATRO', 300, 3500.00, TRUE, NOW(), NOW(), 0),
+('La Casa de Bernarda Alba', 'Drama intenso de García Lorca sobre secretos familiares', '2025-07-25 19:30:00', 'OBRA_TEATRO', 150, 2000.00, TRUE, NOW(), NOW(), 0),
 -- Recitales
-('Fito Páez en Vivo', 'Concierto único del ícono del rock nacional argentino', '2025-08-05 21:30:00', 'RECITAL', 5000, 4500.00, TRUE, NOW(), NOW()),
-('Sinfónica de Buenos Aires', 'Concierto de música clásica con las mejores interpretaciones', '2025-08-10 20:00:00', 'RECITAL', 800, 3000.00, TRUE, NOW(), NOW()),
-('Divididos - Gira 2025', 'Rock argentino en su máxima expresión con todos sus éxitos', '2025-08-15 22:00:00', 'RECITAL', 3000, 5000.00, TRUE, NOW(), NOW()),
+('Fito Páez en Vivo', 'Concierto único del ícono del rock nacional argentino', '2025-08-05 21:30:00', 'RECITAL', 5000, 4500.00, TRUE, NOW(), NOW(), 0),
+('Sinfónica de Buenos Aires', 'Concierto de música clásica con las mejores interpretaciones', '2025-08-10 20:00:00', 'RECITAL', 800, 3000.00, TRUE, NOW(), NOW(), 0),
+('Divididos - Gira 2025', 'Rock argentino en su máxima expresión con todos sus éxitos', '2025-08-15 22:00:00', 'RECITAL', 3000, 5000.00, TRUE, NOW(), NOW(), 0),
 -- Charlas/Conferencias
-('Inteligencia Artificial y Futuro', 'Conferencia sobre el impacto de la IA en la sociedad moderna', '2025-07-30 18:00:00', 'CHARLA_CONFERENCIA', 100, 1500.00, TRUE, NOW(), NOW()),
-('Liderazgo en el Siglo XXI', 'Charla motivacional sobre habilidades de liderazgo moderno', '2025-08-01 19:00:00', 'CHARLA_CONFERENCIA', 120, 1800.00, TRUE, NOW(), NOW()),
-('Emprendimiento Digital', 'Workshop práctico para emprendedores del mundo digital', '2025-08-03 17:30:00', 'CHARLA_CONFERENCIA', 80, 2200.00, TRUE, NOW(), NOW()),
-('Sustentabilidad Ambiental', 'Charla sobre ecología y cuidado del medio ambiente', '2025-08-08 16:00:00', 'CHARLA_CONFERENCIA', 90, 1200.00, TRUE, NOW(), NOW());
+('Inteligencia Artificial y Futuro', 'Conferencia sobre el impacto de la IA en la sociedad moderna', '2025-07-30 18:00:00', 'CHARLA_CONFERENCIA', 100, 1500.00, TRUE, NOW(), NOW(), 0),
+('Liderazgo en el Siglo XXI', 'Charla motivacional sobre habilidades de liderazgo moderno', '2025-08-01 19:00:00', 'CHARLA_CONFERENCIA', 120, 1800.00, TRUE, NOW(), NOW(), 0),
+('Emprendimiento Digital', 'Workshop práctico para emprendedores del mundo digital', '2025-08-03 17:30:00', 'CHARLA_CONFERENCIA', 80, 2200.00, TRUE, NOW(), NOW(), 0),
+('Sustentabilidad Ambiental', 'Charla sobre ecología y cuidado del medio ambiente', '2025-08-08 16:00:00', 'CHARLA_CONFERENCIA', 90, 1200.00, TRUE, NOW(), NOW(), 0);
 
 -- -----------------------------------------------------------------------------
 -- INSERTAR PRECIOS POR TIPO DE ENTRADA
@@ -88,28 +88,35 @@ INSERT INTO evento_capacidades (evento_id, capacidades_KEY, capacidad) VALUES
 -- -----------------------------------------------------------------------------
 -- INSERTAR RESERVAS DE PRUEBA
 -- -----------------------------------------------------------------------------
-INSERT INTO reservas (cliente_id, evento_id, tipo_entrada, estado, precio_pagado, es_pase_gratuito, fecha_confirmacion, fecha_reserva, codigo_reserva) VALUES
-(1, 1, 'GENERAL', 'CONFIRMADA', 2500.00, FALSE, NOW(), NOW(), 'RES-ABC12345'),
-(1, 7, 'SIN_MEET_GREET', 'CONFIRMADA', 1500.00, FALSE, NOW(), NOW(), 'RES-DEF67890'),
-(1, 4, 'CAMPO', 'CONFIRMADA', 4500.00, FALSE, NOW(), NOW(), 'RES-GHI11111'),
-(2, 2, 'VIP', 'CONFIRMADA', 5500.00, FALSE, NOW(), NOW(), 'RES-JKL22222'),
-(2, 5, 'PLATEA', 'CONFIRMADA', 4500.00, FALSE, NOW(), NOW(), 'RES-MNO33333'),
-(2, 8, 'CON_MEET_GREET', 'CONFIRMADA', 2800.00, FALSE, NOW(), NOW(), 'RES-PQR44444'),
-(2, 3, 'GENERAL', 'CONFIRMADA', 0.00, TRUE, NOW(), NOW(), 'RES-STU55555'),
-(3, 6, 'CAMPO', 'CONFIRMADA', 5000.00, FALSE, NOW(), NOW(), 'RES-VWX66666'),
-(3, 9, 'SIN_MEET_GREET', 'CANCELADA', 2200.00, FALSE, NOW(), NOW(), 'RES-YZA77777'),
-(4, 1, 'VIP', 'CONFIRMADA', 4000.00, FALSE, NOW(), NOW(), 'RES-BCD88888'),
-(4, 4, 'PLATEA', 'CONFIRMADA', 6500.00, FALSE, NOW(), NOW(), 'RES-EFG99999'),
-(4, 7, 'CON_MEET_GREET', 'CONFIRMADA', 2500.00, FALSE, NOW(), NOW(), 'RES-HIJ00000'),
-(4, 10, 'SIN_MEET_GREET', 'CONFIRMADA', 0.00, TRUE, NOW(), NOW(), 'RES-KLM11111'),
-(5, 2, 'GENERAL', 'CONFIRMADA', 3500.00, FALSE, NOW(), NOW(), 'RES-NOP22222'),
-(6, 3, 'VIP', 'CONFIRMADA', 3200.00, FALSE, NOW(), NOW(), 'RES-QRS33333'),
-(6, 5, 'CAMPO', 'CONFIRMADA', 3000.00, FALSE, NOW(), NOW(), 'RES-TUV44444'),
-(6, 8, 'SIN_MEET_GREET', 'CONFIRMADA', 1800.00, FALSE, NOW(), NOW(), 'RES-WXY55555'),
-(7, 6, 'PLATEA', 'CONFIRMADA', 7500.00, FALSE, NOW(), NOW(), 'RES-ZAB66666'),
-(7, 9, 'CON_MEET_GREET', 'CONFIRMADA', 3500.00, FALSE, NOW(), NOW(), 'RES-CDE77777'),
-(7, 1, 'GENERAL', 'CONFIRMADA', 0.00, TRUE, NOW(), NOW(), 'RES-FGH88888'),
-(8, 4, 'PALCO', 'CONFIRMADA', 8500.00, FALSE, NOW(), NOW(), 'RES-IJK99999'),
-(8, 2, 'VIP', 'CONFIRMADA', 5500.00, FALSE, NOW(), NOW(), 'RES-LMN00000'),
-(8, 10, 'CON_MEET_GREET', 'CONFIRMADA', 2000.00, FALSE, NOW(), NOW(), 'RES-OPQ11111'),
-(8, 7, 'SIN_MEET_GREET', 'CONFIRMADA', 0.00, TRUE, NOW(), NOW(), 'RES-RST22222');
\ No newline at end of file
+INSERT INTO reservas (id, cliente_id, evento_id, tipo_entrada, estado, precio_pagado, es_pase_gratuito, fecha_confirmacion, fecha_reserva, codigo_reserva, version) VALUES
+(1, 1, 1, 'GENERAL', 'CONFIRMADA', 2500.00, FALSE, NOW(), NOW(), 'RES-ABC12345', 0),
+(2, 1, 7, 'SIN_MEET_GREET', 'CONFIRMADA', 1500.00, FALSE, NOW(), NOW(), 'RES-DEF67890', 0),
+(3, 1, 4, 'CAMPO', 'CONFIRMADA', 4500.00, FALSE, NOW(), NOW(), 'RES-GHI11111', 0),
+(4, 2, 2, 'VIP', 'CONFIRMADA', 5500.00, FALSE, NOW(), NOW(), 'RES-JKL22222', 0),
+(5, 2, 5, 'PLATEA', 'CONFIRMADA', 4500.00, FALSE, NOW(), NOW(), 'RES-MNO33333', 0),
+(6, 2, 8, 'CON_MEET_GREET', 'CONFIRMADA', 2800.00, FALSE, NOW(), NOW(), 'RES-PQR44444', 0),
+(7, 2, 3, 'GENERAL', 'CONFIRMADA', 0.00, TRUE, NOW(), NOW(), 'RES-STU55555', 0),
+(8, 3, 6, 'CAMPO', 'CONFIRMADA', 5000.00, FALSE, NOW(), NOW(), 'RES-VWX66666', 0),
+(9, 3, 9, 'SIN_MEET_GREET', 'CANCELADA', 2200.00, FALSE, NOW(), NOW(), 'RES-YZA77777', 0),
+(10, 4, 1, 'VIP', 'CONFIRMADA', 4000.00, FALSE, NOW(), NOW(), 'RES-BCD88888', 0),
+(11, 4, 4, 'PLATEA', 'CONFIRMADA', 6500.00, FALSE, NOW(), NOW(), 'RES-EFG99999', 0),
+(12, 4, 7, 'CON_MEET_GREET', 'CONFIRMADA', 2500.00, FALSE, NOW(), NOW(), 'RES-HIJ00000', 0),
+(13, 4, 10, 'SIN_MEET_GREET', 'CONFIRMADA', 0.00, TRUE, NOW(), NOW(), 'RES-KLM11111', 0),
+(14, 5, 2, 'GENERAL', 'CONFIRMADA', 3500.00, FALSE, NOW(), NOW(), 'RES-NOP22222', 0),
+(15, 6, 3, 'VIP', 'CONFIRMADA', 3200.00, FALSE, NOW(), NOW(), 'RES-QRS33333', 0),
+(16, 6, 5, 'CAMPO', 'CONFIRMADA', 3000.00, FALSE, NOW(), NOW(), 'RES-TUV44444', 0),
+(17, 6, 8, 'SIN_MEET_GREET', 'CONFIRMADA', 1800.00, FALSE, NOW(), NOW(), 'RES-WXY55555', 0),
+(18, 7, 6, 'PLATEA', 'CONFIRMADA', 7500.00, FALSE, NOW(), NOW(), 'RES-ZAB66666', 0),
+(19, 7, 9, 'CON_MEET_GREET', 'CONFIRMADA', 3500.00, FALSE, NOW(), NOW(), 'RES-CDE77777', 0),
+(20, 7, 1, 'GENERAL', 'CONFIRMADA', 0.00, TRUE, NOW(), NOW(), 'RES-FGH88888', 0),
+(21, 8, 4, 'PALCO', 'CONFIRMADA', 8500.00, FALSE, NOW(), NOW(), 'RES-IJK99999', 0),
+(22, 8, 2, 'VIP', 'CONFIRMADA', 5500.00, FALSE, NOW(), NOW(), 'RES-LMN00000', 0),
+(23, 8, 10, 'CON_MEET_GREET', 'CONFIRMADA', 2000.00, FALSE, NOW(), NOW(), 'RES-OPQ11111', 0),
+(24, 8, 7, 'SIN_MEET_GREET', 'CONFIRMADA', 0.00, TRUE, NOW(), NOW(), 'RES-RST22222', 0);
+
+-- -----------------------------------------------------------------------------
+-- ALINEAR EL GENERADOR DE IDS DE RESERVAS
+-- -----------------------------------------------------------------------------
+-- Las reservas toman su ID de la tabla reservas_seq en bloques de 50;
+-- el próximo bloque debe empezar después de los IDs cargados arriba.
+UPDATE reservas_seq SET next_val = (SELECT COALESCE(MAX(id), 0) + 51 FROM reservas);
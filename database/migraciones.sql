@@ -0,0 +1,20 @@
+-- =============================================================================
+-- MIGRACIONES PARA BASES EXISTENTES
+-- =============================================================================
+-- Cambios que ddl-auto=update no aplica por sí solo. Ejecutar una vez, en orden.
+-- =============================================================================
+
+-- -----------------------------------------------------------------------------
+-- IDS DE RESERVAS POR SECUENCIA (reservas_seq)
+-- -----------------------------------------------------------------------------
+-- El próximo bloque de IDs debe empezar después de las reservas existentes.
+UPDATE reservas_seq SET next_val = (SELECT COALESCE(MAX(id), 0) + 51 FROM reservas);
+
+-- -----------------------------------------------------------------------------
+-- RETENCIONES TEMPORALES (estado PENDIENTE)
+-- -----------------------------------------------------------------------------
+-- Las reservas retenidas todavía no tienen fecha de confirmación.
+ALTER TABLE reservas MODIFY fecha_confirmacion DATETIME(6) NULL;
+
+-- Nuevos estados de reserva (Hibernate crea la columna como ENUM en MySQL).
+ALTER TABLE reservas MODIFY estado ENUM('PENDIENTE', 'CONFIRMADA', 'CANCELADA', 'EXPIRADA') NOT NULL;
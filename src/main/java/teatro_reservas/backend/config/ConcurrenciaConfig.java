@@ -0,0 +1,11 @@
+package teatro_reservas.backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.retry.annotation.EnableRetry;
+
+// El interceptor de reintentos queda por fuera del transaccional:
+// cada intento corre en una transacción nueva con datos frescos
+@Configuration
+@EnableRetry
+public class ConcurrenciaConfig {
+}
@@ -0,0 +1,10 @@
+package teatro_reservas.backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Tareas periódicas en memoria (avance de la rueda de retenciones)
+@Configuration
+@EnableScheduling
+public class PlanificacionConfig {
+}
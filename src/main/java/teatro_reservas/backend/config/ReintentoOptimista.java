@@ -0,0 +1,26 @@
+package teatro_reservas.backend.config;
+
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
+
+import java.lang.annotation.*;
+
+/**
+ * Reintenta la operación cuando falla por un conflicto de versión (@Version)
+ * o un bloqueo de la base, con espera exponencial acotada y aleatorizada.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Retryable(
+        retryFor = ConcurrencyFailureException.class,
+        maxAttemptsExpression = "${teatro.concurrencia.reintentos.max-intentos:4}",
+        backoff = @Backoff(
+                delayExpression = "${teatro.concurrencia.reintentos.espera-inicial-ms:20}",
+                multiplierExpression = "${teatro.concurrencia.reintentos.multiplicador:2}",
+                maxDelayExpression = "${teatro.concurrencia.reintentos.espera-maxima-ms:250}",
+                random = true),
+        listeners = "registroReintentos")
+public @interface ReintentoOptimista {
+}
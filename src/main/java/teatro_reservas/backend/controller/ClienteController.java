@@ -15,6 +15,7 @@ import org.springframework.web.bind.annotation.*;
 import teatro_reservas.backend.dto.ClienteRequestDTO;
 import teatro_reservas.backend.dto.ClienteResponseDTO;
 import teatro_reservas.backend.dto.ClienteResumenDTO;
+import teatro_reservas.backend.dto.PaginaDTO;
 import teatro_reservas.backend.service.ClienteService;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -117,11 +118,13 @@ public class ClienteController {
     @GetMapping
     @Operation(
             summary = "Obtener todos los clientes",
-            description = "Lista todos los clientes registrados en el sistema"
+            description = "Lista los clientes registrados ordenados por id, paginados por cursor"
     )
-    @ApiResponse(responseCode = "200", description = "Lista de clientes obtenida exitosamente")
-    public ResponseEntity<List<ClienteResponseDTO>> obtenerTodosLosClientes() {
-        List<ClienteResponseDTO> clientes = clienteService.obtenerTodosLosClientes();
+    @ApiResponse(responseCode = "200", description = "Página de clientes obtenida exitosamente")
+    public ResponseEntity<PaginaDTO<ClienteResponseDTO>> obtenerTodosLosClientes(
+            @RequestParam(required = false) @Parameter(description = "Cursor devuelto en siguienteCursor por la página anterior") String cursor,
+            @RequestParam(defaultValue = "50") @Parameter(description = "Tamaño de página (máximo 500)", example = "50") int tamanio) {
+        PaginaDTO<ClienteResponseDTO> clientes = clienteService.obtenerTodosLosClientes(cursor, tamanio);
         return ResponseEntity.ok(clientes);
     }
 
@@ -155,7 +158,8 @@ public class ClienteController {
     @GetMapping("/buscar")
     @Operation(
             summary = "Buscar clientes por nombre",
-            description = "Busca clientes que contengan el término especificado en nombre o apellido"
+            description = "Busca clientes cuyo nombre completo contenga el término, sin distinguir tildes ni mayúsculas. " +
+                    "Si ninguno lo contiene devuelve los nombres más parecidos (tolera errores de tipeo)."
     )
     @ApiResponse(responseCode = "200", description = "Búsqueda realizada exitosamente")
     public ResponseEntity<List<ClienteResumenDTO>> buscarClientesPorNombre(
@@ -2,21 +2,32 @@ package teatro_reservas.backend.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import teatro_reservas.backend.dto.EventoFiltroDTO;
 import teatro_reservas.backend.dto.EventoRequestDTO;
 import teatro_reservas.backend.dto.EventoResponseDTO;
 import teatro_reservas.backend.dto.EventoResumenDTO;
+import teatro_reservas.backend.dto.PaginaDTO;
 import teatro_reservas.backend.entity.enums.TipoEntrada;
 import teatro_reservas.backend.entity.enums.TipoEvento;
 import teatro_reservas.backend.service.EventoService;
+import teatro_reservas.backend.service.RespuestasCatalogo;
+import teatro_reservas.backend.service.RespuestasCatalogo.RespuestaSerializada;
+import teatro_reservas.backend.service.VersionesCatalogo;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -30,9 +41,15 @@ import java.util.Map;
 public class EventoController {
 
     private final EventoService eventoService;
+    private final VersionesCatalogo versionesCatalogo;
+    private final RespuestasCatalogo respuestasCatalogo;
 
-    public EventoController(EventoService eventoService) {
+    public EventoController(EventoService eventoService,
+                            VersionesCatalogo versionesCatalogo,
+                            RespuestasCatalogo respuestasCatalogo) {
         this.eventoService = eventoService;
+        this.versionesCatalogo = versionesCatalogo;
+        this.respuestasCatalogo = respuestasCatalogo;
     }
 
     // CRUD básico
@@ -54,16 +71,23 @@ public class EventoController {
     @GetMapping("/{id}")
     @Operation(
             summary = "Obtener evento por ID",
-            description = "Recupera la información completa de un evento específico"
+            description = "Recupera la información completa de un evento específico. " +
+                    "Responde con ETag; si If-None-Match coincide devuelve 304 sin consultar la base."
     )
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Evento encontrado"),
+            @ApiResponse(responseCode = "304", description = "El evento no cambió desde el ETag indicado"),
             @ApiResponse(responseCode = "404", description = "Evento no encontrado")
     })
     public ResponseEntity<EventoResponseDTO> obtenerEvento(
-            @PathVariable @Parameter(description = "ID del evento", example = "1") Long id) {
+            @PathVariable @Parameter(description = "ID del evento", example = "1") Long id,
+            WebRequest request) {
+        String etag = versionesCatalogo.etagEvento(id);
+        if (request.checkNotModified(etag)) {
+            return noModificado(etag);
+        }
         EventoResponseDTO evento = eventoService.obtenerEventoPorId(id);
-        return ResponseEntity.ok(evento);
+        return ResponseEntity.ok().eTag(etag).body(evento);
     }
 
     @PutMapping("/{id}")
@@ -103,41 +127,64 @@ public class EventoController {
     @GetMapping
     @Operation(
             summary = "Obtener todos los eventos",
-            description = "Lista todos los eventos registrados en el sistema"
+            description = "Lista los eventos registrados ordenados por id, paginados por cursor"
     )
-    @ApiResponse(responseCode = "200", description = "Lista de eventos obtenida exitosamente")
-    public ResponseEntity<List<EventoResponseDTO>> obtenerTodosLosEventos() {
-        List<EventoResponseDTO> eventos = eventoService.obtenerTodosLosEventos();
+    @ApiResponse(responseCode = "200", description = "Página de eventos obtenida exitosamente")
+    public ResponseEntity<PaginaDTO<EventoResponseDTO>> obtenerTodosLosEventos(
+            @RequestParam(required = false) @Parameter(description = "Cursor devuelto en siguienteCursor por la página anterior") String cursor,
+            @RequestParam(defaultValue = "50") @Parameter(description = "Tamaño de página (máximo 500)", example = "50") int tamanio) {
+        PaginaDTO<EventoResponseDTO> eventos = eventoService.obtenerTodosLosEventos(cursor, tamanio);
         return ResponseEntity.ok(eventos);
     }
 
     @GetMapping("/vigentes")
     @Operation(
             summary = "Obtener eventos vigentes",
-            description = "Lista solo los eventos activos con fecha futura"
+            description = "Lista solo los eventos activos con fecha futura. " +
+                    "Responde con ETag; si If-None-Match coincide devuelve 304 sin consultar la base."
     )
-    @ApiResponse(responseCode = "200", description = "Lista de eventos vigentes obtenida")
-    public ResponseEntity<List<EventoResumenDTO>> obtenerEventosVigentes() {
-        List<EventoResumenDTO> eventos = eventoService.obtenerEventosVigentes();
-        return ResponseEntity.ok(eventos);
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Lista de eventos vigentes obtenida",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            array = @ArraySchema(schema = @Schema(implementation = EventoResumenDTO.class)))),
+            @ApiResponse(responseCode = "304", description = "El catálogo no cambió desde el ETag indicado")
+    })
+    public ResponseEntity<byte[]> obtenerEventosVigentes(WebRequest request) {
+        String etag = versionesCatalogo.etagCatalogo();
+        if (request.checkNotModified(etag)) {
+            return noModificado(etag);
+        }
+        RespuestaSerializada eventos = respuestasCatalogo.obtener("vigentes", etag, eventoService::obtenerEventosVigentes);
+        return serializada(eventos, etag, request);
     }
 
     @GetMapping("/tipo/{tipoEvento}")
     @Operation(
             summary = "Obtener eventos por tipo",
-            description = "Lista eventos filtrados por tipo específico"
+            description = "Lista eventos filtrados por tipo específico. " +
+                    "Responde con ETag; si If-None-Match coincide devuelve 304 sin consultar la base."
     )
-    @ApiResponse(responseCode = "200", description = "Lista de eventos del tipo especificado")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Lista de eventos del tipo especificado"),
+            @ApiResponse(responseCode = "304", description = "El catálogo no cambió desde el ETag indicado")
+    })
     public ResponseEntity<List<EventoResumenDTO>> obtenerEventosPorTipo(
-            @PathVariable @Parameter(description = "Tipo de evento", example = "OBRA_TEATRO") TipoEvento tipoEvento) {
+            @PathVariable @Parameter(description = "Tipo de evento", example = "OBRA_TEATRO") TipoEvento tipoEvento,
+            WebRequest request) {
+        String etag = versionesCatalogo.etagCatalogo();
+        if (request.checkNotModified(etag)) {
+            return noModificado(etag);
+        }
         List<EventoResumenDTO> eventos = eventoService.obtenerEventosPorTipo(tipoEvento);
-        return ResponseEntity.ok(eventos);
+        return ResponseEntity.ok().eTag(etag).body(eventos);
     }
 
     @GetMapping("/buscar")
     @Operation(
             summary = "Buscar eventos por nombre",
-            description = "Busca eventos que contengan el término especificado en el nombre"
+            description = "Busca eventos activos cuyo nombre o descripción contengan todas las palabras indicadas, " +
+                    "sin distinguir tildes ni mayúsculas. La última palabra puede estar incompleta. " +
+                    "Los resultados se ordenan por relevancia (primero las coincidencias en el nombre)."
     )
     @ApiResponse(responseCode = "200", description = "Búsqueda realizada exitosamente")
     public ResponseEntity<List<EventoResumenDTO>> buscarEventosPorNombre(
@@ -150,12 +197,20 @@ public class EventoController {
     @GetMapping("/con-disponibilidad")
     @Operation(
             summary = "Eventos con disponibilidad",
-            description = "Lista eventos que tienen al menos una entrada disponible"
+            description = "Lista eventos que tienen al menos una entrada disponible. " +
+                    "Responde con ETag; si If-None-Match coincide devuelve 304 sin consultar la base."
     )
-    @ApiResponse(responseCode = "200", description = "Lista de eventos con disponibilidad")
-    public ResponseEntity<List<EventoResumenDTO>> obtenerEventosConDisponibilidad() {
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Lista de eventos con disponibilidad"),
+            @ApiResponse(responseCode = "304", description = "El catálogo no cambió desde el ETag indicado")
+    })
+    public ResponseEntity<List<EventoResumenDTO>> obtenerEventosConDisponibilidad(WebRequest request) {
+        String etag = versionesCatalogo.etagCatalogo();
+        if (request.checkNotModified(etag)) {
+            return noModificado(etag);
+        }
         List<EventoResumenDTO> eventos = eventoService.obtenerEventosConDisponibilidad();
-        return ResponseEntity.ok(eventos);
+        return ResponseEntity.ok().eTag(etag).body(eventos);
     }
 
     @GetMapping("/{id}/disponibilidad/{tipoEntrada}")
@@ -187,13 +242,22 @@ public class EventoController {
     @GetMapping("/{id}/disponibilidad-por-tipo")
     @Operation(
             summary = "Disponibilidad por todos los tipos",
-            description = "Obtiene la disponibilidad de todos los tipos de entrada del evento"
+            description = "Obtiene la disponibilidad de todos los tipos de entrada del evento. " +
+                    "Responde con ETag; si If-None-Match coincide devuelve 304 sin consultar la base."
     )
-    @ApiResponse(responseCode = "200", description = "Mapa de disponibilidad obtenido")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Mapa de disponibilidad obtenido"),
+            @ApiResponse(responseCode = "304", description = "La disponibilidad no cambió desde el ETag indicado")
+    })
     public ResponseEntity<Map<TipoEntrada, Long>> obtenerDisponibilidadPorTipo(
-            @PathVariable @Parameter(description = "ID del evento") Long id) {
+            @PathVariable @Parameter(description = "ID del evento") Long id,
+            WebRequest request) {
+        String etag = versionesCatalogo.etagDisponibilidad(id);
+        if (request.checkNotModified(etag)) {
+            return noModificado(etag);
+        }
         Map<TipoEntrada, Long> disponibilidad = eventoService.obtenerDisponibilidadPorTipo(id);
-        return ResponseEntity.ok(disponibilidad);
+        return ResponseEntity.ok().eTag(etag).body(disponibilidad);
     }
 
     @GetMapping("/proximos")
@@ -201,11 +265,15 @@ public class EventoController {
             summary = "Eventos próximos",
             description = "Obtiene eventos que ocurrirán en los próximos días especificados"
     )
-    @ApiResponse(responseCode = "200", description = "Lista de eventos próximos")
-    public ResponseEntity<List<EventoResumenDTO>> obtenerEventosProximos(
-            @RequestParam(defaultValue = "7") @Parameter(description = "Días hacia adelante", example = "7") int dias) {
-        List<EventoResumenDTO> eventos = eventoService.obtenerEventosProximos(dias);
-        return ResponseEntity.ok(eventos);
+    @ApiResponse(responseCode = "200", description = "Lista de eventos próximos",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    array = @ArraySchema(schema = @Schema(implementation = EventoResumenDTO.class))))
+    public ResponseEntity<byte[]> obtenerEventosProximos(
+            @RequestParam(defaultValue = "7") @Parameter(description = "Días hacia adelante", example = "7") int dias,
+            WebRequest request) {
+        RespuestaSerializada eventos = respuestasCatalogo.obtener("proximos?dias=" + dias,
+                versionesCatalogo.etagCatalogo(), () -> eventoService.obtenerEventosProximos(dias));
+        return serializada(eventos, null, request);
     }
 
     @GetMapping("/en-rango")
@@ -223,6 +291,25 @@ public class EventoController {
         return ResponseEntity.ok(eventos);
     }
 
+    @PostMapping("/filtrar")
+    @Operation(
+            summary = "Filtrar eventos",
+            description = "Combina en una sola consulta los criterios indicados (tipo de evento, rango de fechas, " +
+                    "solo con disponibilidad, tipo de entrada y precio máximo). Los criterios vacíos no filtran; " +
+                    "sin fecha desde se listan los eventos futuros. Ordenado por fecha, paginado por cursor."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Página de eventos que cumplen el filtro"),
+            @ApiResponse(responseCode = "400", description = "Filtro o cursor inválido")
+    })
+    public ResponseEntity<PaginaDTO<EventoResumenDTO>> filtrarEventos(
+            @Valid @RequestBody @Parameter(description = "Criterios de filtrado") EventoFiltroDTO filtro,
+            @RequestParam(required = false) @Parameter(description = "Cursor devuelto en siguienteCursor por la página anterior") String cursor,
+            @RequestParam(defaultValue = "50") @Parameter(description = "Tamaño de página (máximo 500)", example = "50") int tamanio) {
+        PaginaDTO<EventoResumenDTO> eventos = eventoService.filtrarEventos(filtro, cursor, tamanio);
+        return ResponseEntity.ok(eventos);
+    }
+
     // Precios
     @GetMapping("/{id}/precio/{tipoEntrada}")
     @Operation(
@@ -304,15 +391,20 @@ public class EventoController {
     @GetMapping("/mas-populares")
     @Operation(
             summary = "Eventos más populares",
-            description = "Obtiene los eventos más populares (con más reservas) en un período específico"
+            description = "Obtiene los eventos con función en el período que tienen más reservas confirmadas, " +
+                    "de más a menos (ranking mantenido en memoria)"
     )
-    @ApiResponse(responseCode = "200", description = "Lista de eventos populares obtenida")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Lista de eventos populares obtenida"),
+            @ApiResponse(responseCode = "400", description = "Cantidad fuera de rango")
+    })
     public ResponseEntity<List<EventoResumenDTO>> obtenerEventosMasPopulares(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
             @Parameter(description = "Fecha desde") LocalDateTime desde,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
-            @Parameter(description = "Fecha hasta") LocalDateTime hasta) {
-        List<EventoResumenDTO> eventos = eventoService.obtenerEventosMasPopulares(desde, hasta);
+            @Parameter(description = "Fecha hasta") LocalDateTime hasta,
+            @RequestParam(defaultValue = "10") @Parameter(description = "Cantidad de eventos", example = "10") int cantidad) {
+        List<EventoResumenDTO> eventos = eventoService.obtenerEventosMasPopulares(desde, hasta, cantidad);
         return ResponseEntity.ok(eventos);
     }
 
@@ -322,9 +414,12 @@ public class EventoController {
             summary = "Obtener tipos de evento",
             description = "Lista todos los tipos de evento disponibles en el sistema"
     )
-    @ApiResponse(responseCode = "200", description = "Lista de tipos de evento")
-    public ResponseEntity<TipoEvento[]> obtenerTiposEvento() {
-        return ResponseEntity.ok(TipoEvento.values());
+    @ApiResponse(responseCode = "200", description = "Lista de tipos de evento",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    array = @ArraySchema(schema = @Schema(implementation = TipoEvento.class))))
+    public ResponseEntity<byte[]> obtenerTiposEvento(WebRequest request) {
+        RespuestaSerializada tipos = respuestasCatalogo.obtener("tipos-evento", RespuestasCatalogo.SIN_VERSION, TipoEvento::values);
+        return serializada(tipos, null, request);
     }
 
     @GetMapping("/tipos-entrada")
@@ -332,28 +427,73 @@ public class EventoController {
             summary = "Obtener tipos de entrada",
             description = "Lista todos los tipos de entrada disponibles en el sistema"
     )
-    @ApiResponse(responseCode = "200", description = "Lista de tipos de entrada")
-    public ResponseEntity<TipoEntrada[]> obtenerTiposEntrada() {
-        return ResponseEntity.ok(TipoEntrada.values());
+    @ApiResponse(responseCode = "200", description = "Lista de tipos de entrada",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    array = @ArraySchema(schema = @Schema(implementation = TipoEntrada.class))))
+    public ResponseEntity<byte[]> obtenerTiposEntrada(WebRequest request) {
+        RespuestaSerializada tipos = respuestasCatalogo.obtener("tipos-entrada", RespuestasCatalogo.SIN_VERSION, TipoEntrada::values);
+        return serializada(tipos, null, request);
     }
 
     @GetMapping("/{id}/info-completa")
     @Operation(
             summary = "Información completa del evento",
-            description = "Obtiene toda la información del evento incluyendo disponibilidad y precios en un solo endpoint"
+            description = "Obtiene toda la información del evento incluyendo disponibilidad y precios en un solo endpoint. " +
+                    "Responde con ETag; si If-None-Match coincide devuelve 304 sin consultar la base."
     )
-    @ApiResponse(responseCode = "200", description = "Información completa obtenida")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Información completa obtenida"),
+            @ApiResponse(responseCode = "304", description = "El evento no cambió desde el ETag indicado")
+    })
     public ResponseEntity<Map<String, Object>> obtenerInfoCompleta(
-            @PathVariable @Parameter(description = "ID del evento") Long id) {
+            @PathVariable @Parameter(description = "ID del evento") Long id,
+            WebRequest request) {
+        String etag = versionesCatalogo.etagEvento(id);
+        if (request.checkNotModified(etag)) {
+            return noModificado(etag);
+        }
+        // Disponibilidad y precios ya vienen en el evento: no hace falta volver a pedirlos
         EventoResponseDTO evento = eventoService.obtenerEventoPorId(id);
-        Map<TipoEntrada, Long> disponibilidad = eventoService.obtenerDisponibilidadPorTipo(id);
-        Map<TipoEntrada, BigDecimal> precios = eventoService.obtenerTodosLosPrecios(id);
 
         Map<String, Object> info = new HashMap<>();
         info.put("evento", evento);
-        info.put("disponibilidad", disponibilidad);
-        info.put("precios", precios);
+        info.put("disponibilidad", evento.getDisponibilidadPorTipo());
+        info.put("precios", evento.getPrecios());
+
+        return ResponseEntity.ok().eTag(etag).body(info);
+    }
+
+    // Bytes ya serializados: el conversor de byte[] los copia a la salida sin pasar por Jackson
+    private static ResponseEntity<byte[]> serializada(RespuestaSerializada respuesta, String etag, WebRequest request) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (etag != null) {
+            builder.eTag(etag);
+        }
+        if (respuesta.gzip() != null && aceptaGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .contentLength(respuesta.gzip().length)
+                    .body(respuesta.gzip());
+        }
+        return builder.contentLength(respuesta.json().length).body(respuesta.json());
+    }
+
+    private static boolean aceptaGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String codificacion : acceptEncoding.split(",")) {
+            String[] partes = codificacion.trim().toLowerCase().split(";");
+            if (partes[0].trim().equals("gzip")) {
+                return partes.length == 1 || !partes[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
 
-        return ResponseEntity.ok(info);
+    // El ETag se calcula antes de tocar el servicio: un sondeo sin cambios no llega a la base
+    private static <T> ResponseEntity<T> noModificado(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
     }
 }
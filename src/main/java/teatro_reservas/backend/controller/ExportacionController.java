@@ -0,0 +1,89 @@
+package teatro_reservas.backend.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import teatro_reservas.backend.entity.enums.FormatoExportacion;
+import teatro_reservas.backend.service.ExportacionService;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/api/exportar")
+@Validated
+@Tag(name = "Exportación", description = "Descarga de reservas y clientes en NDJSON o CSV, enviada por streaming")
+public class ExportacionController {
+
+    private final ExportacionService exportacionService;
+
+    public ExportacionController(ExportacionService exportacionService) {
+        this.exportacionService = exportacionService;
+    }
+
+    @GetMapping("/reservas/evento/{eventoId}")
+    @Operation(
+            summary = "Exportar reservas de un evento",
+            description = "Descarga todas las reservas del evento, una por línea, ordenadas por fecha de reserva. " +
+                    "La respuesta se envía a medida que se leen las filas."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Exportación en curso"),
+            @ApiResponse(responseCode = "404", description = "Evento no encontrado")
+    })
+    public ResponseEntity<StreamingResponseBody> exportarReservasPorEvento(
+            @PathVariable @Parameter(description = "ID del evento") Long eventoId,
+            @RequestParam(defaultValue = "NDJSON") @Parameter(description = "Formato del archivo") FormatoExportacion formato) {
+        StreamingResponseBody cuerpo = exportacionService.exportarReservasPorEvento(eventoId, formato);
+        return descarga("reservas-evento-" + eventoId, formato, cuerpo);
+    }
+
+    @GetMapping("/reservas")
+    @Operation(
+            summary = "Exportar reservas por rango de fechas",
+            description = "Descarga las reservas realizadas entre las fechas indicadas, una por línea, ordenadas por fecha de reserva"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Exportación en curso"),
+            @ApiResponse(responseCode = "400", description = "Rango de fechas inválido")
+    })
+    public ResponseEntity<StreamingResponseBody> exportarReservasEnRango(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            @Parameter(description = "Fecha desde") LocalDateTime desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            @Parameter(description = "Fecha hasta") LocalDateTime hasta,
+            @RequestParam(defaultValue = "NDJSON") @Parameter(description = "Formato del archivo") FormatoExportacion formato) {
+        StreamingResponseBody cuerpo = exportacionService.exportarReservasEnRango(desde, hasta, formato);
+        return descarga("reservas", formato, cuerpo);
+    }
+
+    @GetMapping("/clientes")
+    @Operation(
+            summary = "Exportar clientes",
+            description = "Descarga todos los clientes, uno por línea, ordenados por id"
+    )
+    @ApiResponse(responseCode = "200", description = "Exportación en curso")
+    public ResponseEntity<StreamingResponseBody> exportarClientes(
+            @RequestParam(defaultValue = "NDJSON") @Parameter(description = "Formato del archivo") FormatoExportacion formato) {
+        return descarga("clientes", formato, exportacionService.exportarClientes(formato));
+    }
+
+    private ResponseEntity<StreamingResponseBody> descarga(String nombre, FormatoExportacion formato, StreamingResponseBody cuerpo) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(formato.getTipoContenido() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(nombre + "." + formato.getExtension())
+                        .build()
+                        .toString())
+                .body(cuerpo);
+    }
+}
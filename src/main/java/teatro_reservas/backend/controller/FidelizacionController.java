@@ -9,6 +9,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import teatro_reservas.backend.dto.ClienteResponseDTO;
 import teatro_reservas.backend.dto.ClienteResumenDTO;
+import teatro_reservas.backend.dto.EstadisticasFidelizacionDTO;
+import teatro_reservas.backend.dto.InconsistenciaFidelizacionDTO;
+import teatro_reservas.backend.dto.PaginaDTO;
 import teatro_reservas.backend.service.FidelizacionService;
 import java.time.LocalDateTime;
 import java.util.Map;
@@ -75,11 +78,14 @@ public class FidelizacionController {
                 - Total de pases otorgados y usados
                 - Promedio de eventos por cliente
                 - Porcentaje de fidelización
+
+                Se calculan con una sola consulta agregada y se reutilizan durante el intervalo configurado
+                en teatro.fidelizacion.estadisticas.vigencia.
                 """
     )
     @ApiResponse(responseCode = "200", description = "Estadísticas obtenidas exitosamente")
-    public ResponseEntity<Map<String, Long>> obtenerEstadisticasFidelizacion() {
-        Map<String, Long> estadisticas = fidelizacionService.obtenerEstadisticasFidelizacion();
+    public ResponseEntity<EstadisticasFidelizacionDTO> obtenerEstadisticasFidelizacion() {
+        EstadisticasFidelizacionDTO estadisticas = fidelizacionService.obtenerEstadisticasFidelizacion();
         return ResponseEntity.ok(estadisticas);
     }
 
@@ -133,7 +139,7 @@ public class FidelizacionController {
         reporte.put("mes", mesActual);
 
         // Estadísticas del período
-        Map<String, Long> estadisticas = fidelizacionService.obtenerEstadisticasFidelizacion();
+        EstadisticasFidelizacionDTO estadisticas = fidelizacionService.obtenerEstadisticasFidelizacion();
         reporte.put("estadisticas", estadisticas);
 
         // Ranking de clientes frecuentes
@@ -153,14 +159,13 @@ public class FidelizacionController {
                 - Ranking de clientes frecuentes
                 - Lista de clientes elegibles para pases
                 
-                Nota: En una implementación real, esto generaría un archivo Excel o CSV para descarga.
+                Para descargar reservas o clientes completos en CSV o NDJSON usar los endpoints de /api/exportar.
                 """
     )
     @ApiResponse(responseCode = "200", description = "Datos de exportación preparados exitosamente")
     public ResponseEntity<Map<String, Object>> exportarDatosFidelizacion() {
         Map<String, Object> exportacion = new HashMap<>();
 
-        // En una implementación real, esto generaría un archivo Excel o CSV
         exportacion.put("mensaje", "Exportación preparada");
         exportacion.put("estadisticas", fidelizacionService.obtenerEstadisticasFidelizacion());
         exportacion.put("ranking", fidelizacionService.obtenerRankingClientesFrecuentes());
@@ -190,11 +195,15 @@ public class FidelizacionController {
     @GetMapping("/validar-integridad")
     @Operation(
             summary = "Validar integridad del sistema",
-            description = "Verifica que no haya inconsistencias en el sistema de fidelización y genera un reporte de auditoría"
+            description = "Lista los clientes cuyos pases disponibles más los usados no alcanzan los que corresponden " +
+                    "por sus asistencias, ordenados por id y paginados por cursor. El sistema está íntegro si la " +
+                    "primera página llega vacía."
     )
-    @ApiResponse(responseCode = "200", description = "Validación completada")
-    public ResponseEntity<Map<String, Object>> validarIntegridadSistema() {
-        Map<String, Object> reporte = fidelizacionService.validarIntegridadSistema();
-        return ResponseEntity.ok(reporte);
+    @ApiResponse(responseCode = "200", description = "Página de inconsistencias obtenida")
+    public ResponseEntity<PaginaDTO<InconsistenciaFidelizacionDTO>> validarIntegridadSistema(
+            @RequestParam(required = false) @Parameter(description = "Cursor devuelto en siguienteCursor por la página anterior") String cursor,
+            @RequestParam(defaultValue = "100") @Parameter(description = "Tamaño de página (máximo 500)", example = "100") int tamanio) {
+        PaginaDTO<InconsistenciaFidelizacionDTO> inconsistencias = fidelizacionService.validarIntegridadSistema(cursor, tamanio);
+        return ResponseEntity.ok(inconsistencias);
     }
 }
\ No newline at end of file
@@ -13,16 +13,25 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import teatro_reservas.backend.dto.PaginaDTO;
+import teatro_reservas.backend.dto.ReservaLoteRequestDTO;
+import teatro_reservas.backend.dto.ReservaLoteResponseDTO;
 import teatro_reservas.backend.dto.ReservaRequestDTO;
 import teatro_reservas.backend.dto.ReservaResponseDTO;
 import teatro_reservas.backend.dto.ReservaResumenDTO;
+import teatro_reservas.backend.dto.TurnoSalaEsperaDTO;
+import teatro_reservas.backend.dto.VentasPorFechaDTO;
 import teatro_reservas.backend.entity.enums.EstadoReserva;
 import teatro_reservas.backend.entity.enums.TipoEntrada;
+import teatro_reservas.backend.service.RegistroIdempotencia;
+import teatro_reservas.backend.service.RegistroReintentos;
 import teatro_reservas.backend.service.ReservaService;
+import teatro_reservas.backend.service.SalaDeEspera;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/reservas")
@@ -31,9 +40,18 @@ import java.util.*;
 public class ReservaController {
 
     private final ReservaService reservaService;
-
-    public ReservaController(ReservaService reservaService) {
+    private final RegistroReintentos registroReintentos;
+    private final SalaDeEspera salaDeEspera;
+    private final RegistroIdempotencia registroIdempotencia;
+
+    public ReservaController(ReservaService reservaService,
+                             RegistroReintentos registroReintentos,
+                             SalaDeEspera salaDeEspera,
+                             RegistroIdempotencia registroIdempotencia) {
         this.reservaService = reservaService;
+        this.registroReintentos = registroReintentos;
+        this.salaDeEspera = salaDeEspera;
+        this.registroIdempotencia = registroIdempotencia;
     }
 
     @PostMapping
@@ -44,12 +62,123 @@ public class ReservaController {
     @ApiResponses({
             @ApiResponse(responseCode = "201", description = "Reserva creada exitosamente"),
             @ApiResponse(responseCode = "400", description = "Datos inválidos, sin disponibilidad o tipo de entrada incompatible"),
-            @ApiResponse(responseCode = "404", description = "Cliente o evento no encontrado")
+            @ApiResponse(responseCode = "404", description = "Cliente o evento no encontrado"),
+            @ApiResponse(responseCode = "429", description = "El evento tiene sala de espera y el turno todavía no fue admitido")
     })
     public ResponseEntity<ReservaResponseDTO> crearReserva(
-            @Valid @RequestBody @Parameter(description = "Datos de la reserva a crear") ReservaRequestDTO reservaDTO) {
-        ReservaResponseDTO reserva = reservaService.crearReserva(reservaDTO);
-        return new ResponseEntity<>(reserva, HttpStatus.CREATED);
+            @Valid @RequestBody @Parameter(description = "Datos de la reserva a crear") ReservaRequestDTO reservaDTO,
+            @RequestHeader(value = SalaDeEspera.ENCABEZADO_TURNO, required = false)
+            @Parameter(description = "Turno entregado por la sala de espera del evento") String turno,
+            @RequestHeader(value = RegistroIdempotencia.ENCABEZADO_CLAVE, required = false)
+            @Parameter(description = "Clave para reintentar sin duplicar la reserva") String claveIdempotencia) {
+        return registroIdempotencia.ejecutar(claveIdempotencia, "crearReserva", reservaDTO, () -> {
+            ReservaResponseDTO reserva = salaDeEspera.admitir(reservaDTO.getEventoId(), turno,
+                    () -> reservaService.crearReserva(reservaDTO));
+            return new ResponseEntity<>(reserva, HttpStatus.CREATED);
+        });
+    }
+
+    @PostMapping("/retener")
+    @Operation(
+            summary = "Retener entradas",
+            description = "Reserva la entrada por unos minutos (estado PENDIENTE) mientras el cliente completa la compra. " +
+                    "Si no se confirma antes del vencimiento, la retención expira y la entrada vuelve a estar disponible."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", description = "Retención creada exitosamente"),
+            @ApiResponse(responseCode = "400", description = "Datos inválidos, sin disponibilidad o tipo de entrada incompatible"),
+            @ApiResponse(responseCode = "404", description = "Cliente o evento no encontrado"),
+            @ApiResponse(responseCode = "429", description = "El evento tiene sala de espera y el turno todavía no fue admitido")
+    })
+    public ResponseEntity<ReservaResponseDTO> retenerReserva(
+            @Valid @RequestBody @Parameter(description = "Datos de la reserva a retener") ReservaRequestDTO reservaDTO,
+            @RequestHeader(value = SalaDeEspera.ENCABEZADO_TURNO, required = false)
+            @Parameter(description = "Turno entregado por la sala de espera del evento") String turno,
+            @RequestHeader(value = RegistroIdempotencia.ENCABEZADO_CLAVE, required = false)
+            @Parameter(description = "Clave para reintentar sin duplicar la retención") String claveIdempotencia) {
+        return registroIdempotencia.ejecutar(claveIdempotencia, "retenerReserva", reservaDTO, () -> {
+            ReservaResponseDTO reserva = salaDeEspera.admitir(reservaDTO.getEventoId(), turno,
+                    () -> reservaService.retenerReserva(reservaDTO));
+            return new ResponseEntity<>(reserva, HttpStatus.CREATED);
+        });
+    }
+
+    @PutMapping("/{id}/confirmar")
+    @Operation(
+            summary = "Confirmar retención",
+            description = "Confirma una reserva PENDIENTE antes de su vencimiento. Recién aquí se consume el pase gratuito y se suma la asistencia."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Reserva confirmada exitosamente"),
+            @ApiResponse(responseCode = "400", description = "La reserva no está pendiente o la retención expiró"),
+            @ApiResponse(responseCode = "404", description = "Reserva no encontrada")
+    })
+    public ResponseEntity<ReservaResponseDTO> confirmarReserva(
+            @PathVariable @Parameter(description = "ID de la reserva") Long id) {
+        ReservaResponseDTO reserva = reservaService.confirmarReserva(id);
+        return ResponseEntity.ok(reserva);
+    }
+
+    // Sala de espera
+    @PostMapping("/sala-espera/{eventoId}")
+    @Operation(
+            summary = "Solicitar turno en la sala de espera",
+            description = "Entrega un turno numerado para reservar en un evento con alta demanda. Los turnos se admiten en orden " +
+                    "a un ritmo fijo; una vez admitido, el turno se envía en el encabezado X-Turno-Sala-Espera al reservar."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", description = "Turno entregado"),
+            @ApiResponse(responseCode = "404", description = "Evento no encontrado")
+    })
+    public ResponseEntity<TurnoSalaEsperaDTO> solicitarTurno(
+            @PathVariable @Parameter(description = "ID del evento") Long eventoId) {
+        return new ResponseEntity<>(salaDeEspera.solicitarTurno(eventoId), HttpStatus.CREATED);
+    }
+
+    @GetMapping("/sala-espera/{eventoId}/posicion")
+    @Operation(
+            summary = "Consultar posición en la sala de espera",
+            description = "Devuelve cuántos clientes quedan por delante y la espera estimada. No consulta la base de datos."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Posición obtenida"),
+            @ApiResponse(responseCode = "400", description = "Turno inválido o vencido")
+    })
+    public ResponseEntity<TurnoSalaEsperaDTO> consultarPosicion(
+            @PathVariable @Parameter(description = "ID del evento") Long eventoId,
+            @RequestParam @Parameter(description = "Turno entregado por la sala de espera") String turno) {
+        return ResponseEntity.ok(salaDeEspera.consultarTurno(eventoId, turno));
+    }
+
+    @PostMapping("/lote")
+    @Operation(
+            summary = "Crear reservas en lote",
+            description = "Crea varias reservas en una sola transacción, validándolas contra una única lectura de cada cliente y evento. " +
+                    "En modo TODO_O_NADA cualquier falla descarta el lote completo; en MEJOR_ESFUERZO se crean las válidas. " +
+                    "Devuelve el resultado de cada reserva en el orden recibido."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", description = "Todas las reservas del lote fueron creadas"),
+            @ApiResponse(responseCode = "207", description = "Se crearon solo algunas reservas (modo MEJOR_ESFUERZO)"),
+            @ApiResponse(responseCode = "400", description = "Datos inválidos o ninguna reserva pudo crearse"),
+            @ApiResponse(responseCode = "429", description = "Algún evento del lote tiene sala de espera y el turno todavía no fue admitido")
+    })
+    public ResponseEntity<ReservaLoteResponseDTO> crearReservasEnLote(
+            @Valid @RequestBody @Parameter(description = "Reservas a crear y modo del lote") ReservaLoteRequestDTO loteDTO,
+            @RequestHeader(value = SalaDeEspera.ENCABEZADO_TURNO, required = false)
+            @Parameter(description = "Turno entregado por la sala de espera; solo para lotes de un único evento") String turno,
+            @RequestHeader(value = RegistroIdempotencia.ENCABEZADO_CLAVE, required = false)
+            @Parameter(description = "Clave para reintentar sin duplicar el lote") String claveIdempotencia) {
+        return registroIdempotencia.ejecutar(claveIdempotencia, "crearReservasEnLote", loteDTO, () -> {
+            ReservaLoteResponseDTO lote = salaDeEspera.admitirLote(loteDTO.getReservas().stream()
+                    .map(ReservaRequestDTO::getEventoId)
+                    .collect(Collectors.toList()), turno, () -> reservaService.crearReservasEnLote(loteDTO));
+
+            HttpStatus estado = lote.getFallidas() == 0 ? HttpStatus.CREATED
+                    : lote.getExitosas() > 0 ? HttpStatus.MULTI_STATUS
+                    : HttpStatus.BAD_REQUEST;
+            return new ResponseEntity<>(lote, estado);
+        });
     }
 
     @GetMapping("/{id}")
@@ -87,35 +216,41 @@ public class ReservaController {
     @GetMapping
     @Operation(
             summary = "Obtener todas las reservas",
-            description = "Lista todas las reservas registradas en el sistema"
+            description = "Lista las reservas registradas ordenadas por id, paginadas por cursor"
     )
-    @ApiResponse(responseCode = "200", description = "Lista de reservas obtenida exitosamente")
-    public ResponseEntity<List<ReservaResponseDTO>> obtenerTodasLasReservas() {
-        List<ReservaResponseDTO> reservas = reservaService.obtenerTodasLasReservas();
+    @ApiResponse(responseCode = "200", description = "Página de reservas obtenida exitosamente")
+    public ResponseEntity<PaginaDTO<ReservaResponseDTO>> obtenerTodasLasReservas(
+            @RequestParam(required = false) @Parameter(description = "Cursor devuelto en siguienteCursor por la página anterior") String cursor,
+            @RequestParam(defaultValue = "50") @Parameter(description = "Tamaño de página (máximo 500)", example = "50") int tamanio) {
+        PaginaDTO<ReservaResponseDTO> reservas = reservaService.obtenerTodasLasReservas(cursor, tamanio);
         return ResponseEntity.ok(reservas);
     }
 
     @GetMapping("/cliente/{clienteId}")
     @Operation(
             summary = "Reservas por cliente",
-            description = "Obtiene todas las reservas de un cliente específico, ordenadas por fecha"
+            description = "Obtiene las reservas de un cliente específico, de la más reciente a la más antigua, paginadas por cursor"
     )
-    @ApiResponse(responseCode = "200", description = "Lista de reservas del cliente obtenida")
-    public ResponseEntity<List<ReservaResumenDTO>> obtenerReservasPorCliente(
-            @PathVariable @Parameter(description = "ID del cliente") Long clienteId) {
-        List<ReservaResumenDTO> reservas = reservaService.obtenerReservasPorCliente(clienteId);
+    @ApiResponse(responseCode = "200", description = "Página de reservas del cliente obtenida")
+    public ResponseEntity<PaginaDTO<ReservaResumenDTO>> obtenerReservasPorCliente(
+            @PathVariable @Parameter(description = "ID del cliente") Long clienteId,
+            @RequestParam(required = false) @Parameter(description = "Cursor devuelto en siguienteCursor por la página anterior") String cursor,
+            @RequestParam(defaultValue = "50") @Parameter(description = "Tamaño de página (máximo 500)", example = "50") int tamanio) {
+        PaginaDTO<ReservaResumenDTO> reservas = reservaService.obtenerReservasPorCliente(clienteId, cursor, tamanio);
         return ResponseEntity.ok(reservas);
     }
 
     @GetMapping("/evento/{eventoId}")
     @Operation(
             summary = "Reservas por evento",
-            description = "Obtiene todas las reservas de un evento específico"
+            description = "Obtiene las reservas de un evento específico, de la más reciente a la más antigua, paginadas por cursor"
     )
-    @ApiResponse(responseCode = "200", description = "Lista de reservas del evento obtenida")
-    public ResponseEntity<List<ReservaResumenDTO>> obtenerReservasPorEvento(
-            @PathVariable @Parameter(description = "ID del evento") Long eventoId) {
-        List<ReservaResumenDTO> reservas = reservaService.obtenerReservasPorEvento(eventoId);
+    @ApiResponse(responseCode = "200", description = "Página de reservas del evento obtenida")
+    public ResponseEntity<PaginaDTO<ReservaResumenDTO>> obtenerReservasPorEvento(
+            @PathVariable @Parameter(description = "ID del evento") Long eventoId,
+            @RequestParam(required = false) @Parameter(description = "Cursor devuelto en siguienteCursor por la página anterior") String cursor,
+            @RequestParam(defaultValue = "50") @Parameter(description = "Tamaño de página (máximo 500)", example = "50") int tamanio) {
+        PaginaDTO<ReservaResumenDTO> reservas = reservaService.obtenerReservasPorEvento(eventoId, cursor, tamanio);
         return ResponseEntity.ok(reservas);
     }
 
@@ -129,7 +264,7 @@ public class ReservaController {
             @ApiResponse(responseCode = "404", description = "Reserva no encontrada")
     })
     public ResponseEntity<ReservaResponseDTO> obtenerReservaPorCodigo(
-            @PathVariable @Parameter(description = "Código de la reserva", example = "RES-ABC12345") String codigoReserva) {
+            @PathVariable @Parameter(description = "Código de la reserva", example = "RES-06JEJ7HWW0000M") String codigoReserva) {
         Optional<ReservaResponseDTO> reserva = reservaService.obtenerReservaPorCodigo(codigoReserva);
         return reserva.map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -138,12 +273,14 @@ public class ReservaController {
     @GetMapping("/estado/{estado}")
     @Operation(
             summary = "Reservas por estado",
-            description = "Lista todas las reservas que tienen un estado específico"
+            description = "Lista las reservas que tienen un estado específico, ordenadas por id y paginadas por cursor"
     )
-    @ApiResponse(responseCode = "200", description = "Lista de reservas con el estado especificado")
-    public ResponseEntity<List<ReservaResponseDTO>> obtenerReservasPorEstado(
-            @PathVariable @Parameter(description = "Estado de la reserva", example = "CONFIRMADA") EstadoReserva estado) {
-        List<ReservaResponseDTO> reservas = reservaService.obtenerReservasPorEstado(estado);
+    @ApiResponse(responseCode = "200", description = "Página de reservas con el estado especificado")
+    public ResponseEntity<PaginaDTO<ReservaResponseDTO>> obtenerReservasPorEstado(
+            @PathVariable @Parameter(description = "Estado de la reserva", example = "CONFIRMADA") EstadoReserva estado,
+            @RequestParam(required = false) @Parameter(description = "Cursor devuelto en siguienteCursor por la página anterior") String cursor,
+            @RequestParam(defaultValue = "50") @Parameter(description = "Tamaño de página (máximo 500)", example = "50") int tamanio) {
+        PaginaDTO<ReservaResponseDTO> reservas = reservaService.obtenerReservasPorEstado(estado, cursor, tamanio);
         return ResponseEntity.ok(reservas);
     }
 
@@ -173,14 +310,23 @@ public class ReservaController {
     @ApiResponses({
             @ApiResponse(responseCode = "201", description = "Reserva con pase gratuito creada exitosamente"),
             @ApiResponse(responseCode = "400", description = "Cliente no tiene pases gratuitos disponibles"),
-            @ApiResponse(responseCode = "404", description = "Cliente o evento no encontrado")
+            @ApiResponse(responseCode = "404", description = "Cliente o evento no encontrado"),
+            @ApiResponse(responseCode = "429", description = "El evento tiene sala de espera y el turno todavía no fue admitido")
     })
     public ResponseEntity<ReservaResponseDTO> crearReservaConPaseGratuito(
             @RequestParam @Parameter(description = "ID del cliente") Long clienteId,
             @RequestParam @Parameter(description = "ID del evento") Long eventoId,
-            @RequestParam @Parameter(description = "Tipo de entrada") TipoEntrada tipoEntrada) {
-        ReservaResponseDTO reserva = reservaService.crearReservaConPaseGratuito(clienteId, eventoId, tipoEntrada);
-        return new ResponseEntity<>(reserva, HttpStatus.CREATED);
+            @RequestParam @Parameter(description = "Tipo de entrada") TipoEntrada tipoEntrada,
+            @RequestHeader(value = SalaDeEspera.ENCABEZADO_TURNO, required = false)
+            @Parameter(description = "Turno entregado por la sala de espera del evento") String turno,
+            @RequestHeader(value = RegistroIdempotencia.ENCABEZADO_CLAVE, required = false)
+            @Parameter(description = "Clave para reintentar sin consumir otro pase") String claveIdempotencia) {
+        return registroIdempotencia.ejecutar(claveIdempotencia, "crearReservaConPaseGratuito",
+                List.of(clienteId, eventoId, tipoEntrada), () -> {
+                    ReservaResponseDTO reserva = salaDeEspera.admitir(eventoId, turno,
+                            () -> reservaService.crearReservaConPaseGratuito(clienteId, eventoId, tipoEntrada));
+                    return new ResponseEntity<>(reserva, HttpStatus.CREATED);
+                });
     }
 
     // Consultas específicas
@@ -255,18 +401,46 @@ public class ReservaController {
     @GetMapping("/estadisticas-por-fecha")
     @Operation(
             summary = "Estadísticas por rango de fechas",
-            description = "Obtiene estadísticas de reservas agrupadas por fecha en un período específico"
+            description = "Obtiene la cantidad de reservas confirmadas, los ingresos y los pases gratuitos usados " +
+                    "por día de reserva, entre los días de las fechas indicadas (inclusive). Se lee del resumen " +
+                    "diario de ventas, que se actualiza al procesar cada reserva confirmada o cancelada."
     )
     @ApiResponse(responseCode = "200", description = "Estadísticas obtenidas exitosamente")
-    public ResponseEntity<List<Object[]>> obtenerEstadisticasPorFecha(
+    public ResponseEntity<List<VentasPorFechaDTO>> obtenerEstadisticasPorFecha(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
             @Parameter(description = "Fecha desde") LocalDateTime desde,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
             @Parameter(description = "Fecha hasta") LocalDateTime hasta) {
-        List<Object[]> estadisticas = reservaService.obtenerEstadisticasPorFecha(desde, hasta);
+        List<VentasPorFechaDTO> estadisticas = reservaService.obtenerEstadisticasPorFecha(desde, hasta);
         return ResponseEntity.ok(estadisticas);
     }
 
+    @PostMapping("/estadisticas-por-fecha/reconstruir")
+    @Operation(
+            summary = "Reconstruir resumen diario de ventas",
+            description = "Vuelve a calcular el resumen diario de ventas a partir de todas las reservas. " +
+                    "Útil tras una carga masiva o una corrección manual de datos."
+    )
+    @ApiResponse(responseCode = "200", description = "Resumen reconstruido; devuelve la cantidad de filas")
+    public ResponseEntity<Map<String, Object>> reconstruirVentasDiarias() {
+        int filas = reservaService.reconstruirVentasDiarias();
+
+        Map<String, Object> resultado = new HashMap<>();
+        resultado.put("filas", filas);
+        resultado.put("timestamp", LocalDateTime.now());
+        return ResponseEntity.ok(resultado);
+    }
+
+    @GetMapping("/estadisticas-reintentos")
+    @Operation(
+            summary = "Estadísticas de reintentos por concurrencia",
+            description = "Conflictos de versión detectados por operación, cuántos se resolvieron reintentando y cuántos agotaron los reintentos"
+    )
+    @ApiResponse(responseCode = "200", description = "Estadísticas obtenidas exitosamente")
+    public ResponseEntity<Map<String, Map<String, Long>>> obtenerEstadisticasReintentos() {
+        return ResponseEntity.ok(registroReintentos.obtenerEstadisticas());
+    }
+
     // Endpoints útiles para el frontend
     @GetMapping("/estados")
     @Operation(
@@ -0,0 +1,24 @@
+package teatro_reservas.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Fila de la exportación de clientes (proyección directa desde la consulta, sin entidades)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClienteExportacionDTO {
+    private Long id;
+    private String nombre;
+    private String apellido;
+    private String email;
+    private String dni;
+    private String telefono;
+    private LocalDateTime fechaRegistro;
+    private Integer eventosAsistidos;
+    private Integer pasesGratuitos;
+    private Boolean activo;
+}
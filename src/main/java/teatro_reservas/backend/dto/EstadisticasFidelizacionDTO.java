@@ -0,0 +1,32 @@
+package teatro_reservas.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadisticasFidelizacionDTO {
+    private Long totalClientes;
+    private Long clientesFrecuentes;
+    private Long clientesConPasesDisponibles;
+    private Long totalPasesOtorgados;
+    private Long totalPasesUsados;
+    private Long promedioEventosPorCliente;
+    private Long porcentajeFidelizacion;
+
+    // Proyección de ClienteRepository: una sola fila agregada sobre todos los clientes
+    // (las sumas y el promedio llegan en null si no hay clientes)
+    public EstadisticasFidelizacionDTO(Long totalClientes, Long clientesFrecuentes, Long clientesConPasesDisponibles,
+                                       Long totalPasesOtorgados, Double promedioEventos, Long totalPasesUsados) {
+        this.totalClientes = totalClientes;
+        this.clientesFrecuentes = clientesFrecuentes != null ? clientesFrecuentes : 0L;
+        this.clientesConPasesDisponibles = clientesConPasesDisponibles != null ? clientesConPasesDisponibles : 0L;
+        this.totalPasesOtorgados = totalPasesOtorgados != null ? totalPasesOtorgados : 0L;
+        this.totalPasesUsados = totalPasesUsados;
+        this.promedioEventosPorCliente = Math.round(promedioEventos != null ? promedioEventos : 0.0);
+        this.porcentajeFidelizacion = totalClientes > 0 ?
+                Math.round((double) this.clientesFrecuentes / totalClientes * 100) : 0L;
+    }
+}
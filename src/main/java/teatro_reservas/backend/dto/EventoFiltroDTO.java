@@ -1,5 +1,6 @@
 package teatro_reservas.backend.dto;
 
+import jakarta.validation.constraints.DecimalMin;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -18,5 +19,6 @@ public class EventoFiltroDTO {
     private LocalDateTime fechaHasta;
     private Boolean soloDisponibles;
     private TipoEntrada tipoEntrada;
+    @DecimalMin(value = "0.00", message = "El precio máximo no puede ser negativo")
     private BigDecimal precioMaximo;
 }
@@ -20,4 +20,18 @@ public class EventoResumenDTO {
     private Long capacidadDisponible;
     private Boolean estaVigente;
     private BigDecimal precioDesde;
+
+    // Proyección del catálogo en EventoRepository: una fila agregada por evento
+    public EventoResumenDTO(Long id, String nombre, LocalDateTime fechaHora, TipoEvento tipoEvento,
+                            Integer capacidadTotal, Boolean estaVigente, BigDecimal precioDesde,
+                            Long reservasConfirmadas) {
+        this.id = id;
+        this.nombre = nombre;
+        this.fechaHora = fechaHora;
+        this.tipoEvento = tipoEvento;
+        this.capacidadTotal = capacidadTotal;
+        this.capacidadDisponible = capacidadTotal - reservasConfirmadas;
+        this.estaVigente = estaVigente;
+        this.precioDesde = precioDesde != null ? precioDesde : BigDecimal.ZERO;
+    }
 }
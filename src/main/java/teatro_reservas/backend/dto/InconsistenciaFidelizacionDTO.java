@@ -0,0 +1,33 @@
+package teatro_reservas.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InconsistenciaFidelizacionDTO {
+    private Long clienteId;
+    private String nombre;
+    private String apellido;
+    private Integer eventosAsistidos;
+    private Integer pasesQueDebeTener;
+    private Integer pasesDisponibles;
+    private Long pasesUsados;
+    private String detalle;
+
+    // Proyección de la auditoría en ClienteRepository: una fila agrupada por cliente
+    public InconsistenciaFidelizacionDTO(Long clienteId, String nombre, String apellido,
+                                         Integer eventosAsistidos, Integer pasesDisponibles, Long pasesUsados) {
+        this.clienteId = clienteId;
+        this.nombre = nombre;
+        this.apellido = apellido;
+        this.eventosAsistidos = eventosAsistidos;
+        this.pasesQueDebeTener = eventosAsistidos / 5;
+        this.pasesDisponibles = pasesDisponibles;
+        this.pasesUsados = pasesUsados;
+        this.detalle = String.format("Cliente %s (%s): Debe tener %d pases pero solo tiene %d disponibles + %d usados",
+                nombre + " " + apellido, clienteId, pasesQueDebeTener, pasesDisponibles, pasesUsados);
+    }
+}
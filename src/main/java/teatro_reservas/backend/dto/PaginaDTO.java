@@ -0,0 +1,17 @@
+package teatro_reservas.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Página de un listado paginado por cursor: siguienteCursor se envía tal cual para pedir la próxima
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaDTO<T> {
+    private List<T> contenido;
+    private String siguienteCursor;
+    private boolean hayMas;
+}
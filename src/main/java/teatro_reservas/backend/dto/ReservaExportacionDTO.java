@@ -0,0 +1,31 @@
+package teatro_reservas.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import teatro_reservas.backend.entity.enums.EstadoReserva;
+import teatro_reservas.backend.entity.enums.TipoEntrada;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Fila de la exportación de reservas (proyección directa desde la consulta, sin entidades)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservaExportacionDTO {
+    private Long id;
+    private String codigoReserva;
+    private Long clienteId;
+    private String emailCliente;
+    private Long eventoId;
+    private String nombreEvento;
+    private LocalDateTime fechaEvento;
+    private TipoEntrada tipoEntrada;
+    private EstadoReserva estado;
+    private Boolean esPaseGratuito;
+    private BigDecimal precioPagado;
+    private LocalDateTime fechaReserva;
+    private LocalDateTime fechaConfirmacion;
+    private LocalDateTime fechaCancelacion;
+}
@@ -0,0 +1,31 @@
+package teatro_reservas.backend.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservaLoteRequestDTO {
+    @NotEmpty(message = "El lote debe contener al menos una reserva")
+    @Size(max = 500, message = "El lote no puede superar las 500 reservas")
+    private List<@Valid @NotNull ReservaRequestDTO> reservas = new ArrayList<>();
+
+    @NotNull(message = "El modo del lote es obligatorio")
+    private Modo modo = Modo.TODO_O_NADA;
+
+    public enum Modo {
+        // Si alguna reserva falla no se crea ninguna
+        TODO_O_NADA,
+        // Se crean las reservas válidas y se informan las que fallaron
+        MEJOR_ESFUERZO
+    }
+}
@@ -0,0 +1,18 @@
+package teatro_reservas.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservaLoteResponseDTO {
+    private ReservaLoteRequestDTO.Modo modo;
+    private int total;
+    private int exitosas;
+    private int fallidas;
+    private List<ReservaLoteResultadoDTO> resultados;
+}
@@ -0,0 +1,16 @@
+package teatro_reservas.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservaLoteResultadoDTO {
+    // Posición de la reserva dentro del lote recibido
+    private int indice;
+    private boolean exitosa;
+    private ReservaResumenDTO reserva;
+    private String error;
+}
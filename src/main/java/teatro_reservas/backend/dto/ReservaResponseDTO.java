@@ -23,6 +23,7 @@ public class ReservaResponseDTO {
     private Boolean esPaseGratuito;
     private BigDecimal precioPagado;
     private LocalDateTime fechaConfirmacion;
+    private LocalDateTime fechaExpiracion;
     private LocalDateTime fechaCancelacion;
     private String motivoCancelacion;
     private Boolean puedeSerCancelada;
@@ -0,0 +1,18 @@
+package teatro_reservas.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TurnoSalaEsperaDTO {
+    private Long eventoId;
+    // Valor a enviar en el encabezado X-Turno-Sala-Espera al reservar
+    private String turno;
+    // Clientes por delante; 0 cuando ya fue admitido
+    private long posicion;
+    private boolean admitido;
+    private long esperaEstimadaSegundos;
+}
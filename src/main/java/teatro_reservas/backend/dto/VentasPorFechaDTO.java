@@ -0,0 +1,18 @@
+package teatro_reservas.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VentasPorFechaDTO {
+    private LocalDate fecha;
+    private Long cantidadReservas;
+    private BigDecimal ingresos;
+    private Long pasesGratuitos;
+}
@@ -75,6 +75,11 @@ public class Cliente {
     @Column(nullable = false)
     private Boolean activo = true;
 
+    // Control de concurrencia optimista
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     // Relaciones
     @OneToMany(mappedBy = "cliente", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JsonManagedReference("cliente-reservas")
@@ -23,7 +23,12 @@ import java.util.*;
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "eventos")
+@Table(name = "eventos",
+        indexes = {
+                // Índices del catálogo filtrado (orden por fecha e id)
+                @Index(name = "idx_eventos_activo_fecha", columnList = "activo, fecha_hora, id"),
+                @Index(name = "idx_eventos_tipo_fecha", columnList = "tipo_evento, activo, fecha_hora, id")
+        })
 public class Evento {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -73,8 +78,14 @@ public class Evento {
     @UpdateTimestamp
     private LocalDateTime fechaActualizacion;
 
+    // Control de concurrencia optimista
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @ElementCollection
-    @CollectionTable(name = "evento_precios", joinColumns = @JoinColumn(name = "evento_id"))
+    @CollectionTable(name = "evento_precios", joinColumns = @JoinColumn(name = "evento_id"),
+            indexes = @Index(name = "idx_evento_precios_evento_tipo_precio", columnList = "evento_id, precios_key, precio"))
     @MapKeyEnumerated(EnumType.STRING)
     @Column(name = "precio")
     private Map<TipoEntrada, BigDecimal> precios = new HashMap<>();
@@ -86,30 +97,6 @@ public class Evento {
     private Map<TipoEntrada, Integer> capacidades = new HashMap<>();
 
     // Métodos útiles
-    public boolean tieneDisponibilidad(TipoEntrada tipoEntrada) {
-        Integer capacidadTipo = capacidades.get(tipoEntrada);
-        if (capacidadTipo == null) return false;
-
-        long reservasConfirmadas = reservas.stream()
-                .filter(r -> r.getEstado() == EstadoReserva.CONFIRMADA)
-                .filter(r -> r.getTipoEntrada() == tipoEntrada)
-                .count();
-
-        return reservasConfirmadas < capacidadTipo;
-    }
-
-    public long getCapacidadDisponible(TipoEntrada tipoEntrada) {
-        Integer capacidadTipo = capacidades.get(tipoEntrada);
-        if (capacidadTipo == null) return 0;
-
-        long reservasConfirmadas = reservas.stream()
-                .filter(r -> r.getEstado() == EstadoReserva.CONFIRMADA)
-                .filter(r -> r.getTipoEntrada() == tipoEntrada)
-                .count();
-
-        return capacidadTipo - reservasConfirmadas;
-    }
-
     public BigDecimal getPrecio(TipoEntrada tipoEntrada) {
         return precios.get(tipoEntrada);
     }
@@ -0,0 +1,88 @@
+package teatro_reservas.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+import teatro_reservas.backend.entity.enums.TipoEntrada;
+import teatro_reservas.backend.entity.enums.TipoEventoReserva;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Evento de reserva guardado en la misma transacción que lo origina y despachado después
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "eventos_outbox",
+        indexes = @Index(name = "idx_outbox_pendientes", columnList = "fecha_procesado, id"))
+public class EventoOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "eventos_outbox_seq")
+    @SequenceGenerator(name = "eventos_outbox_seq", sequenceName = "eventos_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private TipoEventoReserva tipo;
+
+    @Column(name = "reserva_id", nullable = false)
+    private Long reservaId;
+
+    @Column(name = "cliente_id", nullable = false)
+    private Long clienteId;
+
+    @Column(name = "evento_id", nullable = false)
+    private Long eventoId;
+
+    // Indica si la reserva consumió un pase gratuito (en una cancelación, si hay que devolverlo)
+    @Column(name = "pase_gratuito", nullable = false)
+    private Boolean paseGratuito = false;
+
+    // Datos de la reserva al registrar el evento: alcanzan para actualizar las ventas diarias
+    // aunque la reserva se elimine antes de procesarlo. Solo quedan vacíos en los eventos
+    // registrados antes de que existieran estas columnas.
+    @Column(name = "fecha_reserva")
+    private LocalDateTime fechaReserva;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo_entrada", length = 30)
+    private TipoEntrada tipoEntrada;
+
+    @Column(name = "precio_pagado", precision = 10, scale = 2)
+    private BigDecimal precioPagado;
+
+    @Column(name = "reserva_con_pase")
+    private Boolean reservaConPase;
+
+    @Column(name = "fecha_creacion", nullable = false, updatable = false)
+    @CreationTimestamp
+    private LocalDateTime fechaCreacion;
+
+    // Vacía hasta que todos los manejadores lo procesaron
+    @Column(name = "fecha_procesado")
+    private LocalDateTime fechaProcesado;
+
+    @Column(nullable = false)
+    private Integer intentos = 0;
+
+    @Column(name = "ultimo_error", length = 500)
+    private String ultimoError;
+
+    public EventoOutbox(TipoEventoReserva tipo, Reserva reserva, boolean paseGratuito) {
+        this.tipo = tipo;
+        this.reservaId = reserva.getId();
+        this.clienteId = reserva.getCliente().getId();
+        this.eventoId = reserva.getEvento().getId();
+        this.paseGratuito = paseGratuito;
+        this.fechaReserva = reserva.getFechaReserva();
+        this.tipoEntrada = reserva.getTipoEntrada();
+        this.precioPagado = reserva.getPrecioPagado();
+        this.reservaConPase = reserva.getEsPaseGratuito();
+    }
+}
@@ -0,0 +1,57 @@
+package teatro_reservas.backend.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import teatro_reservas.backend.entity.enums.TipoEntrada;
+
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "inventario_entradas",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_inventario_evento_tipo",
+                columnNames = {"evento_id", "tipo_entrada"}))
+public class InventarioEntrada {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "evento_id", nullable = false)
+    @NotNull(message = "El evento es obligatorio")
+    private Evento evento;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo_entrada", nullable = false)
+    @NotNull(message = "El tipo de entrada es obligatorio")
+    private TipoEntrada tipoEntrada;
+
+    @Column(nullable = false)
+    @Min(value = 0, message = "La capacidad no puede ser negativa")
+    private Integer capacidad;
+
+    // Contadores mantenidos con UPDATE condicionales desde InventarioEntradaRepository
+    @Column(nullable = false)
+    @Min(value = 0, message = "Las entradas vendidas no pueden ser negativas")
+    private Integer vendidas = 0;
+
+    @Column(nullable = false)
+    @Min(value = 0, message = "Las entradas disponibles no pueden ser negativas")
+    private Integer disponibles;
+
+    public InventarioEntrada(Evento evento, TipoEntrada tipoEntrada, int capacidad, int vendidas) {
+        this.evento = evento;
+        this.tipoEntrada = tipoEntrada;
+        this.capacidad = capacidad;
+        this.vendidas = vendidas;
+        this.disponibles = Math.max(capacidad - vendidas, 0);
+    }
+}
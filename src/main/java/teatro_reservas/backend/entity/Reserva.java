@@ -7,23 +7,33 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
-import org.hibernate.annotations.CreationTimestamp;
 import teatro_reservas.backend.entity.enums.EstadoReserva;
 import teatro_reservas.backend.entity.enums.TipoEntrada;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.UUID;
 
 @Entity
 @Getter
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "reservas")
+@Table(name = "reservas",
+        indexes = {
+                // Índices de los listados paginados por cursor
+                @Index(name = "idx_reservas_cliente_fecha", columnList = "cliente_id, fecha_reserva, id"),
+                @Index(name = "idx_reservas_evento_fecha", columnList = "evento_id, fecha_reserva, id"),
+                @Index(name = "idx_reservas_estado", columnList = "estado, id"),
+                // Pases gratuitos usados por cliente (auditoría de fidelización)
+                @Index(name = "idx_reservas_cliente_pase", columnList = "cliente_id, es_pase_gratuito"),
+                // Exportación por rango de fechas
+                @Index(name = "idx_reservas_fecha", columnList = "fecha_reserva, id")
+        })
 public class Reserva {
+    // Secuencia con asignación por bloques: permite agrupar los INSERT en lotes JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reservas_seq")
+    @SequenceGenerator(name = "reservas_seq", sequenceName = "reservas_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -43,8 +53,9 @@ public class Reserva {
     @NotNull(message = "El tipo de entrada es obligatorio")
     private TipoEntrada tipoEntrada;
 
+    // La asigna ReservaService al armar la reserva: con IDs por secuencia el INSERT se
+    // demora hasta el flush y la respuesta y el outbox se arman antes
     @Column(name = "fecha_reserva", nullable = false, updatable = false)
-    @CreationTimestamp
     private LocalDateTime fechaReserva;
 
     @Enumerated(EnumType.STRING)
@@ -61,10 +72,14 @@ public class Reserva {
     @NotNull(message = "El precio pagado es obligatorio")
     private BigDecimal precioPagado = BigDecimal.ZERO;
 
-    @Column(name = "fecha_confirmacion", nullable = false)
-    @NotNull(message = "La fecha de confirmación es obligatoria")
+    // Vacía mientras la reserva está retenida (PENDIENTE)
+    @Column(name = "fecha_confirmacion")
     private LocalDateTime fechaConfirmacion;
 
+    // Vencimiento de la retención; solo aplica a reservas PENDIENTE
+    @Column(name = "fecha_expiracion")
+    private LocalDateTime fechaExpiracion;
+
     @Column(name = "fecha_cancelacion")
     private LocalDateTime fechaCancelacion;
 
@@ -76,16 +91,28 @@ public class Reserva {
     @NotBlank(message = "El código de reserva es obligatorio")
     private String codigoReserva;
 
+    // Control de concurrencia optimista
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    // El código lo asigna ReservaService con un GeneradorCodigoReserva
     @PrePersist
-    private void generarCodigoReserva() {
-        if (codigoReserva == null) {
-            codigoReserva = "RES-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    private void onCreate() {
+        if (fechaReserva == null) {
+            fechaReserva = LocalDateTime.now();
         }
-        if (fechaConfirmacion == null) {
+        if (fechaConfirmacion == null && estado == EstadoReserva.CONFIRMADA) {
             fechaConfirmacion = LocalDateTime.now();
         }
     }
 
+    public void confirmar() {
+        this.estado = EstadoReserva.CONFIRMADA;
+        this.fechaConfirmacion = LocalDateTime.now();
+        this.fechaExpiracion = null;
+    }
+
     public void cancelar(String motivo) {
         this.estado = EstadoReserva.CANCELADA;
         this.fechaCancelacion = LocalDateTime.now();
@@ -93,7 +120,15 @@ public class Reserva {
     }
 
     public boolean puedeSerCancelada() {
-        return estado == EstadoReserva.CONFIRMADA;
+        return estado == EstadoReserva.CONFIRMADA || estado == EstadoReserva.PENDIENTE;
+    }
+
+    public boolean estaPendiente() {
+        return estado == EstadoReserva.PENDIENTE;
+    }
+
+    public boolean retencionVencida() {
+        return estaPendiente() && fechaExpiracion != null && !fechaExpiracion.isAfter(LocalDateTime.now());
     }
 
     public boolean estaVigente() {
@@ -0,0 +1,65 @@
+package teatro_reservas.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import teatro_reservas.backend.entity.enums.TipoEntrada;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Resumen de ventas por día de reserva, evento y tipo de entrada (reservas CONFIRMADA).
+// Lo mantiene VentasDiariasEventosReserva al procesar el outbox; ReservaService lo reconstruye.
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "ventas_diarias",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_ventas_diarias_fecha_evento_tipo",
+                columnNames = {"fecha", "evento_id", "tipo_entrada"}))
+public class VentaDiaria {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate fecha;
+
+    @Column(name = "evento_id", nullable = false)
+    private Long eventoId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo_entrada", nullable = false, length = 30)
+    private TipoEntrada tipoEntrada;
+
+    @Column(nullable = false)
+    private Long cantidad = 0L;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal ingresos = BigDecimal.ZERO;
+
+    @Column(name = "pases_gratuitos", nullable = false)
+    private Long pasesGratuitos = 0L;
+
+    // Proyección de las consultas agrupadas de reservas y de eventos pendientes del outbox
+    public VentaDiaria(LocalDate fecha, Long eventoId, TipoEntrada tipoEntrada,
+                       Long cantidad, BigDecimal ingresos, Long pasesGratuitos) {
+        this.fecha = fecha;
+        this.eventoId = eventoId;
+        this.tipoEntrada = tipoEntrada;
+        this.cantidad = cantidad;
+        this.ingresos = ingresos != null ? ingresos : BigDecimal.ZERO;
+        this.pasesGratuitos = pasesGratuitos;
+    }
+
+    public void sumar(VentaDiaria otra) {
+        cantidad += otra.cantidad;
+        ingresos = ingresos.add(otra.ingresos);
+        pasesGratuitos += otra.pasesGratuitos;
+    }
+}
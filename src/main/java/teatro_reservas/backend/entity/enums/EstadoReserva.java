@@ -1,7 +1,10 @@
 package teatro_reservas.backend.entity.enums;
 
 public enum EstadoReserva {
+    // Entradas retenidas por unos minutos mientras el cliente completa la compra
+    PENDIENTE,
     CONFIRMADA,
     CANCELADA,
+    // Retención que venció sin confirmarse
+    EXPIRADA,
 }
-
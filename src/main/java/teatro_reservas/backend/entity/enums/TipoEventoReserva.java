@@ -0,0 +1,10 @@
+package teatro_reservas.backend.entity.enums;
+
+// Eventos de reserva publicados a través de la tabla outbox
+public enum TipoEventoReserva {
+    // Reserva confirmada, ya sea directa o al confirmar una retención
+    RESERVA_CREADA,
+    // Reserva confirmada que se cancela o se elimina (las retenciones canceladas no generan evento)
+    RESERVA_CANCELADA,
+    PASE_USADO,
+}
@@ -0,0 +1,15 @@
+package teatro_reservas.backend.exception;
+
+import lombok.Getter;
+
+// El cliente todavía no fue admitido por la sala de espera del evento
+@Getter
+public class AdmisionPendienteException extends RuntimeException {
+
+    private final long esperaEstimadaSegundos;
+
+    public AdmisionPendienteException(String message, long esperaEstimadaSegundos) {
+        super(message);
+        this.esperaEstimadaSegundos = esperaEstimadaSegundos;
+    }
+}
@@ -0,0 +1,52 @@
+package teatro_reservas.backend.mapper;
+
+import org.springframework.stereotype.Component;
+import teatro_reservas.backend.dto.ClienteRequestDTO;
+import teatro_reservas.backend.dto.ClienteResponseDTO;
+import teatro_reservas.backend.dto.ClienteResumenDTO;
+import teatro_reservas.backend.entity.Cliente;
+
+// Copia explícita de campos: no recorre la colección de reservas (las activas las cuenta el servicio)
+@Component
+public class ClienteMapper {
+
+    public Cliente toEntity(ClienteRequestDTO dto) {
+        Cliente cliente = new Cliente();
+        cliente.setNombre(dto.getNombre());
+        cliente.setApellido(dto.getApellido());
+        cliente.setEmail(dto.getEmail());
+        cliente.setTelefono(dto.getTelefono());
+        cliente.setDni(dto.getDni());
+        cliente.setFechaNacimiento(dto.getFechaNacimiento());
+        return cliente;
+    }
+
+    public ClienteResponseDTO toResponse(Cliente cliente, long reservasActivas) {
+        ClienteResponseDTO dto = new ClienteResponseDTO();
+        dto.setId(cliente.getId());
+        dto.setNombre(cliente.getNombre());
+        dto.setApellido(cliente.getApellido());
+        dto.setEmail(cliente.getEmail());
+        dto.setTelefono(cliente.getTelefono());
+        dto.setDni(cliente.getDni());
+        dto.setFechaNacimiento(cliente.getFechaNacimiento());
+        dto.setFechaRegistro(cliente.getFechaRegistro());
+        dto.setEventosAsistidos(cliente.getEventosAsistidos());
+        dto.setPasesGratuitos(cliente.getPasesGratuitos());
+        dto.setActivo(cliente.getActivo());
+        dto.setEsClienteFrecuente(cliente.esClienteFrecuente());
+        dto.setReservasActivas(reservasActivas);
+        return dto;
+    }
+
+    public ClienteResumenDTO toResumen(Cliente cliente) {
+        ClienteResumenDTO dto = new ClienteResumenDTO();
+        dto.setId(cliente.getId());
+        dto.setNombre(cliente.getNombre());
+        dto.setApellido(cliente.getApellido());
+        dto.setEmail(cliente.getEmail());
+        dto.setEventosAsistidos(cliente.getEventosAsistidos());
+        dto.setPasesGratuitos(cliente.getPasesGratuitos());
+        return dto;
+    }
+}
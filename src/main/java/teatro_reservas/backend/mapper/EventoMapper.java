@@ -0,0 +1,71 @@
+package teatro_reservas.backend.mapper;
+
+import org.springframework.stereotype.Component;
+import teatro_reservas.backend.dto.EventoRequestDTO;
+import teatro_reservas.backend.dto.EventoResponseDTO;
+import teatro_reservas.backend.dto.EventoResumenDTO;
+import teatro_reservas.backend.entity.Evento;
+import teatro_reservas.backend.entity.enums.TipoEntrada;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+// Copia explícita de campos: no recorre las reservas del evento (disponibilidad y activas las calcula el servicio)
+@Component
+public class EventoMapper {
+
+    // Precios y capacidades se cargan aparte desde la configuración de entradas
+    public Evento toEntity(EventoRequestDTO dto) {
+        Evento evento = new Evento();
+        evento.setNombre(dto.getNombre());
+        evento.setDescripcion(dto.getDescripcion());
+        evento.setFechaHora(dto.getFechaHora());
+        evento.setTipoEvento(dto.getTipoEvento());
+        evento.setCapacidadTotal(dto.getCapacidadTotal());
+        return evento;
+    }
+
+    public EventoResponseDTO toResponse(Evento evento, Map<TipoEntrada, Long> disponibilidadPorTipo, long reservasActivas) {
+        EventoResponseDTO dto = new EventoResponseDTO();
+        dto.setId(evento.getId());
+        dto.setNombre(evento.getNombre());
+        dto.setDescripcion(evento.getDescripcion());
+        dto.setFechaHora(evento.getFechaHora());
+        dto.setTipoEvento(evento.getTipoEvento());
+        dto.setCapacidadTotal(evento.getCapacidadTotal());
+        dto.setActivo(evento.getActivo());
+        dto.setFechaCreacion(evento.getFechaCreacion());
+        dto.setTiposEntrada(new HashSet<>(evento.getPrecios().keySet()));
+        dto.setPrecios(new HashMap<>(evento.getPrecios()));
+        dto.setCapacidades(new HashMap<>(evento.getCapacidades()));
+        dto.setDisponibilidadPorTipo(disponibilidadPorTipo);
+        dto.setEstaVigente(evento.estaVigente());
+        dto.setTotalReservasActivas(reservasActivas);
+        return dto;
+    }
+
+    // Resumen embebido en las reservas (los listados del catálogo usan la proyección de EventoRepository)
+    public EventoResumenDTO toResumen(Evento evento) {
+        EventoResumenDTO dto = new EventoResumenDTO();
+        dto.setId(evento.getId());
+        dto.setNombre(evento.getNombre());
+        dto.setFechaHora(evento.getFechaHora());
+        dto.setTipoEvento(evento.getTipoEvento());
+        dto.setCapacidadTotal(evento.getCapacidadTotal());
+        dto.setEstaVigente(evento.estaVigente());
+        dto.setPrecioDesde(precioMinimo(evento.getPrecios()));
+        return dto;
+    }
+
+    private BigDecimal precioMinimo(Map<TipoEntrada, BigDecimal> precios) {
+        BigDecimal minimo = null;
+        for (BigDecimal precio : precios.values()) {
+            if (minimo == null || precio.compareTo(minimo) < 0) {
+                minimo = precio;
+            }
+        }
+        return minimo != null ? minimo : BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,52 @@
+package teatro_reservas.backend.mapper;
+
+import org.springframework.stereotype.Component;
+import teatro_reservas.backend.dto.ReservaResponseDTO;
+import teatro_reservas.backend.dto.ReservaResumenDTO;
+import teatro_reservas.backend.entity.Reserva;
+
+// Copia explícita de campos; cliente y evento son los únicos datos relacionados que se leen
+@Component
+public class ReservaMapper {
+
+    private final ClienteMapper clienteMapper;
+    private final EventoMapper eventoMapper;
+
+    public ReservaMapper(ClienteMapper clienteMapper, EventoMapper eventoMapper) {
+        this.clienteMapper = clienteMapper;
+        this.eventoMapper = eventoMapper;
+    }
+
+    public ReservaResponseDTO toResponse(Reserva reserva) {
+        ReservaResponseDTO dto = new ReservaResponseDTO();
+        dto.setId(reserva.getId());
+        dto.setCodigoReserva(reserva.getCodigoReserva());
+        dto.setCliente(clienteMapper.toResumen(reserva.getCliente()));
+        dto.setEvento(eventoMapper.toResumen(reserva.getEvento()));
+        dto.setTipoEntrada(reserva.getTipoEntrada());
+        dto.setFechaReserva(reserva.getFechaReserva());
+        dto.setEstado(reserva.getEstado());
+        dto.setEsPaseGratuito(reserva.getEsPaseGratuito());
+        dto.setPrecioPagado(reserva.getPrecioPagado());
+        dto.setFechaConfirmacion(reserva.getFechaConfirmacion());
+        dto.setFechaExpiracion(reserva.getFechaExpiracion());
+        dto.setFechaCancelacion(reserva.getFechaCancelacion());
+        dto.setMotivoCancelacion(reserva.getMotivoCancelacion());
+        dto.setPuedeSerCancelada(reserva.puedeSerCancelada());
+        dto.setEstaVigente(reserva.estaVigente());
+        return dto;
+    }
+
+    public ReservaResumenDTO toResumen(Reserva reserva) {
+        ReservaResumenDTO dto = new ReservaResumenDTO();
+        dto.setId(reserva.getId());
+        dto.setCodigoReserva(reserva.getCodigoReserva());
+        dto.setNombreEvento(reserva.getEvento().getNombre());
+        dto.setFechaEvento(reserva.getEvento().getFechaHora());
+        dto.setTipoEntrada(reserva.getTipoEntrada());
+        dto.setEstado(reserva.getEstado());
+        dto.setPrecioPagado(reserva.getPrecioPagado());
+        dto.setEsPaseGratuito(reserva.getEsPaseGratuito());
+        return dto;
+    }
+}
@@ -1,15 +1,24 @@
 package teatro_reservas.backend.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import teatro_reservas.backend.dto.ClienteExportacionDTO;
+import teatro_reservas.backend.dto.ClienteResponseDTO;
+import teatro_reservas.backend.dto.EstadisticasFidelizacionDTO;
+import teatro_reservas.backend.dto.InconsistenciaFidelizacionDTO;
 import teatro_reservas.backend.entity.Cliente;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ClienteRepository extends JpaRepository<Cliente, Long> {
@@ -20,6 +29,31 @@ public interface ClienteRepository extends JpaRepository<Cliente, Long> {
     // Verificar si existe email
     boolean existsByEmail(String email);
 
+    // Página de clientes por id (cursor keyset, tamaño + 1 filas)
+    @Query("SELECT c FROM Cliente c WHERE c.id > :despuesDeId ORDER BY c.id")
+    List<Cliente> findPaginaDesde(@Param("despuesDeId") long despuesDeId, Pageable pageable);
+
+    // Exportación por streaming: filas proyectadas leídas de a bloques con un cursor JDBC
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new teatro_reservas.backend.dto.ClienteExportacionDTO(" +
+            "c.id, c.nombre, c.apellido, c.email, c.dni, c.telefono, c.fechaRegistro, " +
+            "c.eventosAsistidos, c.pasesGratuitos, c.activo) FROM Cliente c ORDER BY c.id")
+    Stream<ClienteExportacionDTO> streamExportacion();
+
+    // Auditoría de fidelización: clientes cuyos pases disponibles más los usados no alcanzan los que
+    // corresponden por asistencias (uno cada 5). Los pases usados se cuentan agrupados en la misma
+    // consulta; el WHERE descarta antes del join a los clientes que ya tienen sus pases disponibles.
+    // Página por id (cursor keyset, tamaño + 1 filas)
+    @Query("SELECT new teatro_reservas.backend.dto.InconsistenciaFidelizacionDTO(" +
+            "c.id, c.nombre, c.apellido, c.eventosAsistidos, c.pasesGratuitos, COUNT(r.id)) " +
+            "FROM Cliente c LEFT JOIN Reserva r ON r.cliente = c AND r.esPaseGratuito = true " +
+            "WHERE c.id > :despuesDeId AND c.pasesGratuitos < FLOOR(c.eventosAsistidos / 5) " +
+            "GROUP BY c.id, c.nombre, c.apellido, c.eventosAsistidos, c.pasesGratuitos " +
+            "HAVING c.pasesGratuitos + COUNT(r.id) < FLOOR(c.eventosAsistidos / 5) " +
+            "ORDER BY c.id")
+    List<InconsistenciaFidelizacionDTO> findInconsistenciasFidelizacionDesde(
+            @Param("despuesDeId") long despuesDeId, Pageable pageable);
+
     // Clientes activos
     List<Cliente> findByActivoTrue();
 
@@ -31,11 +65,30 @@ public interface ClienteRepository extends JpaRepository<Cliente, Long> {
     @Query("SELECT c FROM Cliente c WHERE c.pasesGratuitos > 0")
     List<Cliente> findClientesConPasesGratuitos();
 
-    // Buscar por nombre/apellido
-    @Query("SELECT c FROM Cliente c WHERE " +
-            "LOWER(c.nombre) LIKE LOWER(CONCAT('%', :termino, '%')) OR " +
-            "LOWER(c.apellido) LIKE LOWER(CONCAT('%', :termino, '%'))")
-    List<Cliente> findByNombreOrApellidoContainingIgnoreCase(@Param("termino") String termino);
+    // Nombres de todos los clientes para construir el índice de búsqueda (filas: id, nombre, apellido)
+    @Query("SELECT c.id, c.nombre, c.apellido FROM Cliente c")
+    List<Object[]> findNombresParaBusqueda();
+
+    // Estadísticas de fidelización en una sola pasada: conteos, sumas y promedio sobre los clientes
+    // y los pases usados (reservas con pase gratuito) como subconsulta escalar
+    @Query("SELECT new teatro_reservas.backend.dto.EstadisticasFidelizacionDTO(" +
+            "COUNT(c), " +
+            "SUM(CASE WHEN c.eventosAsistidos >= 5 THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN c.pasesGratuitos > 0 THEN 1 ELSE 0 END), " +
+            "SUM(c.pasesGratuitos), " +
+            "AVG(c.eventosAsistidos), " +
+            "(SELECT COUNT(r) FROM Reserva r WHERE r.esPaseGratuito = true)) " +
+            "FROM Cliente c")
+    EstadisticasFidelizacionDTO calcularEstadisticasFidelizacion();
+
+    // Ranking de clientes frecuentes proyectado, con sus reservas confirmadas (sin cargar entidades ni COUNT de página)
+    @Query("SELECT new teatro_reservas.backend.dto.ClienteResponseDTO(" +
+            "c.id, c.nombre, c.apellido, c.email, c.telefono, c.dni, c.fechaNacimiento, c.fechaRegistro, " +
+            "c.eventosAsistidos, c.pasesGratuitos, c.activo, " +
+            "CASE WHEN c.eventosAsistidos >= 5 THEN true ELSE false END, " +
+            "(SELECT COUNT(r) FROM Reserva r WHERE r.cliente = c AND r.estado = 'CONFIRMADA')) " +
+            "FROM Cliente c ORDER BY c.eventosAsistidos DESC, c.id")
+    List<ClienteResponseDTO> findRankingPorEventosAsistidos(Pageable pageable);
 
     // Top clientes por eventos asistidos
     @Query("SELECT c FROM Cliente c ORDER BY c.eventosAsistidos DESC")
@@ -46,4 +99,31 @@ public interface ClienteRepository extends JpaRepository<Cliente, Long> {
     List<Cliente> findByFechaRegistroBetween(
             @Param("desde") LocalDateTime desde,
             @Param("hasta") LocalDateTime hasta);
+
+    // Suma asistencias, otorga un pase por cada múltiplo de 5 alcanzado y descuenta los pases usados
+    // en un solo UPDATE (devuelve 0 si no tiene pases suficientes). Los pases se asignan antes que
+    // los eventos porque MySQL evalúa el SET de izquierda a derecha con los valores ya modificados.
+    @Modifying
+    @Query("UPDATE Cliente c SET " +
+            "c.pasesGratuitos = c.pasesGratuitos - :pasesUsados + " +
+            "FLOOR((c.eventosAsistidos + :asistencias) / 5) - FLOOR(c.eventosAsistidos / 5), " +
+            "c.eventosAsistidos = c.eventosAsistidos + :asistencias, " +
+            "c.version = c.version + 1 " +
+            "WHERE c.id = :clienteId AND c.pasesGratuitos >= :pasesUsados")
+    int registrarAsistencias(
+            @Param("clienteId") Long clienteId,
+            @Param("asistencias") int asistencias,
+            @Param("pasesUsados") int pasesUsados);
+
+    // Consume un pase gratuito (devuelve 0 si no le quedan)
+    @Modifying
+    @Query("UPDATE Cliente c SET c.pasesGratuitos = c.pasesGratuitos - 1, c.version = c.version + 1 " +
+            "WHERE c.id = :clienteId AND c.pasesGratuitos > 0")
+    int consumirPaseGratuito(@Param("clienteId") Long clienteId);
+
+    // Devuelve los pases gratuitos de reservas canceladas
+    @Modifying
+    @Query("UPDATE Cliente c SET c.pasesGratuitos = c.pasesGratuitos + :cantidad, c.version = c.version + 1 " +
+            "WHERE c.id = :clienteId")
+    int devolverPasesGratuitos(@Param("clienteId") Long clienteId, @Param("cantidad") int cantidad);
 }
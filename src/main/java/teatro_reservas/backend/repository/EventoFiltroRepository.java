@@ -0,0 +1,18 @@
+package teatro_reservas.backend.repository;
+
+import teatro_reservas.backend.dto.EventoFiltroDTO;
+import teatro_reservas.backend.dto.EventoResumenDTO;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Fragmento de EventoRepository con la consulta armada a partir de un EventoFiltroDTO
+public interface EventoFiltroRepository {
+
+    // Catálogo filtrado ordenado por (fecha, id); con despuesDeFecha/despuesDeId arranca después de esa fila
+    List<EventoResumenDTO> filtrarCatalogo(EventoFiltroDTO filtro,
+                                           LocalDateTime despuesDeFecha,
+                                           Long despuesDeId,
+                                           int limite,
+                                           LocalDateTime ahora);
+}
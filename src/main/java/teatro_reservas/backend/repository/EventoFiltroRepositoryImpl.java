@@ -0,0 +1,92 @@
+package teatro_reservas.backend.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import teatro_reservas.backend.dto.EventoFiltroDTO;
+import teatro_reservas.backend.dto.EventoResumenDTO;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Arma la consulta del catálogo filtrado: cada criterio presente en el filtro
+ * agrega su condición y su parámetro, y todo se resuelve en una sola sentencia
+ * (el precio por tipo de entrada contra evento_precios y la disponibilidad contra
+ * inventario_entradas, como subconsultas EXISTS). Sin fecha desde se listan solo
+ * los eventos que todavía no ocurrieron.
+ */
+public class EventoFiltroRepositoryImpl implements EventoFiltroRepository {
+
+    private final EntityManager entityManager;
+
+    public EventoFiltroRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<EventoResumenDTO> filtrarCatalogo(EventoFiltroDTO filtro,
+                                                  LocalDateTime despuesDeFecha,
+                                                  Long despuesDeId,
+                                                  int limite,
+                                                  LocalDateTime ahora) {
+        List<String> condiciones = new ArrayList<>();
+        Map<String, Object> parametros = new HashMap<>();
+        parametros.put("ahora", ahora);
+
+        condiciones.add("e.activo = true");
+        if (filtro.getTipoEvento() != null) {
+            condiciones.add("e.tipoEvento = :tipoEvento");
+            parametros.put("tipoEvento", filtro.getTipoEvento());
+        }
+        if (filtro.getFechaDesde() != null) {
+            condiciones.add("e.fechaHora >= :fechaDesde");
+            parametros.put("fechaDesde", filtro.getFechaDesde());
+        } else {
+            condiciones.add("e.fechaHora > :ahora");
+        }
+        if (filtro.getFechaHasta() != null) {
+            condiciones.add("e.fechaHora <= :fechaHasta");
+            parametros.put("fechaHasta", filtro.getFechaHasta());
+        }
+
+        // Precio: del tipo de entrada pedido, o de cualquier tipo si no se indicó ninguno
+        if (filtro.getTipoEntrada() != null || filtro.getPrecioMaximo() != null) {
+            StringBuilder precio = new StringBuilder(
+                    "EXISTS (SELECT 1 FROM Evento ep JOIN ep.precios pr WHERE ep.id = e.id");
+            if (filtro.getTipoEntrada() != null) {
+                precio.append(" AND KEY(pr) = :tipoEntrada");
+                parametros.put("tipoEntrada", filtro.getTipoEntrada());
+            }
+            if (filtro.getPrecioMaximo() != null) {
+                precio.append(" AND VALUE(pr) <= :precioMaximo");
+                parametros.put("precioMaximo", filtro.getPrecioMaximo());
+            }
+            condiciones.add(precio.append(")").toString());
+        }
+
+        // Disponibilidad leída de los contadores de inventario, no contando reservas
+        if (Boolean.TRUE.equals(filtro.getSoloDisponibles())) {
+            StringBuilder disponibles = new StringBuilder(
+                    "EXISTS (SELECT 1 FROM InventarioEntrada i WHERE i.evento.id = e.id AND i.disponibles > 0");
+            if (filtro.getTipoEntrada() != null) {
+                disponibles.append(" AND i.tipoEntrada = :tipoEntrada");
+            }
+            condiciones.add(disponibles.append(")").toString());
+        }
+
+        if (despuesDeFecha != null) {
+            condiciones.add("(e.fechaHora > :despuesDeFecha OR (e.fechaHora = :despuesDeFecha AND e.id > :despuesDeId))");
+            parametros.put("despuesDeFecha", despuesDeFecha);
+            parametros.put("despuesDeId", despuesDeId);
+        }
+
+        String jpql = EventoRepository.CATALOGO + "WHERE " + String.join(" AND ", condiciones) + " " +
+                EventoRepository.AGRUPAR_CATALOGO + "ORDER BY e.fechaHora, e.id";
+        TypedQuery<EventoResumenDTO> consulta = entityManager.createQuery(jpql, EventoResumenDTO.class);
+        parametros.forEach(consulta::setParameter);
+        return consulta.setMaxResults(limite).getResultList();
+    }
+}
@@ -0,0 +1,61 @@
+package teatro_reservas.backend.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import teatro_reservas.backend.entity.EventoOutbox;
+import teatro_reservas.backend.entity.VentaDiaria;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EventoOutboxRepository extends JpaRepository<EventoOutbox, Long> {
+
+    // Próximos eventos a despachar, en orden de creación
+    @Query("SELECT e.id FROM EventoOutbox e " +
+            "WHERE e.fechaProcesado IS NULL AND e.intentos < :maximoIntentos ORDER BY e.id")
+    List<Long> findIdsPendientes(@Param("maximoIntentos") int maximoIntentos, Pageable pageable);
+
+    // Bloquea los eventos a procesar; SKIP LOCKED saltea los que ya toma otra instancia
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM EventoOutbox e WHERE e.id IN :ids AND e.fechaProcesado IS NULL ORDER BY e.id")
+    List<EventoOutbox> findPendientesParaProcesar(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE EventoOutbox e SET e.fechaProcesado = :ahora WHERE e.id IN :ids")
+    int marcarProcesados(@Param("ids") Collection<Long> ids, @Param("ahora") LocalDateTime ahora);
+
+    @Modifying
+    @Query("UPDATE EventoOutbox e SET e.intentos = e.intentos + 1, e.ultimoError = :error WHERE e.id = :id")
+    int registrarFallo(@Param("id") Long id, @Param("error") String error);
+
+    // Eventos que agotaron los reintentos y requieren revisión manual
+    @Query("SELECT COUNT(e) FROM EventoOutbox e WHERE e.fechaProcesado IS NULL AND e.intentos >= :maximoIntentos")
+    long countAgotados(@Param("maximoIntentos") int maximoIntentos);
+
+    // Ventas que los eventos sin procesar todavía van a restar (creaciones) o sumar (cancelaciones)
+    // a ventas_diarias: con signo opuesto, para que una reconstrucción no las cuente dos veces
+    @Query("SELECT new teatro_reservas.backend.entity.VentaDiaria(" +
+            "CAST(e.fechaReserva AS LocalDate), e.eventoId, e.tipoEntrada, " +
+            "SUM(CASE WHEN e.tipo = 'RESERVA_CREADA' THEN -1 ELSE 1 END), " +
+            "SUM(CASE WHEN e.tipo = 'RESERVA_CREADA' THEN -e.precioPagado ELSE e.precioPagado END), " +
+            "SUM(CASE WHEN e.reservaConPase = false THEN 0 WHEN e.tipo = 'RESERVA_CREADA' THEN -1 ELSE 1 END)) " +
+            "FROM EventoOutbox e WHERE e.fechaProcesado IS NULL AND e.fechaReserva IS NOT NULL " +
+            "AND e.tipo IN ('RESERVA_CREADA', 'RESERVA_CANCELADA') " +
+            "GROUP BY CAST(e.fechaReserva AS LocalDate), e.eventoId, e.tipoEntrada")
+    List<VentaDiaria> sumarVentasPendientes();
+
+    @Modifying
+    @Query("DELETE FROM EventoOutbox e WHERE e.fechaProcesado < :limite")
+    int deleteProcesadosAntesDe(@Param("limite") LocalDateTime limite);
+}
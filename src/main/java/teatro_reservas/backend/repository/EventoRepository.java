@@ -1,59 +1,110 @@
 package teatro_reservas.backend.repository;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import teatro_reservas.backend.dto.EventoResumenDTO;
 import teatro_reservas.backend.entity.Evento;
 import teatro_reservas.backend.entity.enums.TipoEntrada;
 import teatro_reservas.backend.entity.enums.TipoEvento;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Repository
-public interface EventoRepository extends JpaRepository<Evento, Long> {
+public interface EventoRepository extends JpaRepository<Evento, Long>, EventoFiltroRepository {
 
-    // Eventos vigentes (activos y fecha futura)
-    @Query("SELECT e FROM Evento e WHERE e.activo = true AND e.fechaHora > :ahora")
-    List<Evento> findEventosVigentes(@Param("ahora") LocalDateTime ahora);
+    // Catálogo: una fila por evento con su precio mínimo y las reservas confirmadas, sin cargar entidades
+    String CATALOGO = "SELECT new teatro_reservas.backend.dto.EventoResumenDTO(" +
+            "e.id, e.nombre, e.fechaHora, e.tipoEvento, e.capacidadTotal, " +
+            "CASE WHEN e.activo = true AND e.fechaHora > :ahora THEN true ELSE false END, " +
+            "MIN(p), " +
+            "(SELECT COUNT(r) FROM Reserva r WHERE r.evento = e AND r.estado = 'CONFIRMADA')) " +
+            "FROM Evento e LEFT JOIN e.precios p ";
+    String AGRUPAR_CATALOGO = "GROUP BY e.id, e.nombre, e.fechaHora, e.tipoEvento, e.capacidadTotal, e.activo ";
 
-    // Eventos por tipo
-    List<Evento> findByTipoEventoAndActivoTrue(TipoEvento tipoEvento);
+    // Evento leído para reservar: su versión se verifica al confirmar la transacción
+    @Lock(LockModeType.OPTIMISTIC)
+    @Query("SELECT e FROM Evento e WHERE e.id = :id")
+    Optional<Evento> findByIdParaReserva(@Param("id") Long id);
 
-    // Eventos en un rango de fechas
-    @Query("SELECT e FROM Evento e WHERE e.activo = true AND " +
-            "e.fechaHora BETWEEN :desde AND :hasta ORDER BY e.fechaHora")
-    List<Evento> findEventosByFechaBetween(
-            @Param("desde") LocalDateTime desde,
-            @Param("hasta") LocalDateTime hasta);
-
-    // Eventos con disponibilidad
-    @Query("SELECT DISTINCT e FROM Evento e " +
-            "LEFT JOIN e.reservas r ON r.estado = 'CONFIRMADA' " +
-            "WHERE e.activo = true AND e.fechaHora > :ahora " +
-            "GROUP BY e.id " +
-            "HAVING COUNT(r) < e.capacidadTotal")
-    List<Evento> findEventosConDisponibilidad(@Param("ahora") LocalDateTime ahora);
-
-    // Buscar por nombre
-    @Query("SELECT e FROM Evento e WHERE " +
-            "LOWER(e.nombre) LIKE LOWER(CONCAT('%', :nombre, '%')) AND e.activo = true")
-    List<Evento> findByNombreContainingIgnoreCase(@Param("nombre") String nombre);
-
-    // Eventos próximos (siguientes 7 días)
-    @Query("SELECT e FROM Evento e WHERE e.activo = true AND " +
-            "e.fechaHora BETWEEN :ahora AND :limite ORDER BY e.fechaHora")
-    List<Evento> findEventosProximos(
-            @Param("ahora") LocalDateTime ahora,
-            @Param("limite") LocalDateTime limite);
-
-    // Para estadísticas - eventos más populares
-    @Query("SELECT e, COUNT(r) as reservas FROM Evento e " +
-            "LEFT JOIN e.reservas r ON r.estado = 'CONFIRMADA' " +
-            "WHERE e.fechaHora BETWEEN :desde AND :hasta " +
-            "GROUP BY e.id ORDER BY reservas DESC")
-    List<Object[]> findEventosMasPopulares(
+    // Eventos de un lote de reservas, con sus precios, en una sola consulta
+    @Lock(LockModeType.OPTIMISTIC)
+    @Query("SELECT DISTINCT e FROM Evento e LEFT JOIN FETCH e.precios WHERE e.id IN :ids")
+    List<Evento> findAllByIdParaReserva(@Param("ids") Collection<Long> ids);
+
+    // Eventos con precios y capacidades en una sola consulta (CargadorEntidades)
+    @Query("SELECT DISTINCT e FROM Evento e LEFT JOIN FETCH e.precios LEFT JOIN FETCH e.capacidades WHERE e.id IN :ids")
+    List<Evento> findAllConEntradasById(@Param("ids") Collection<Long> ids);
+
+    // Página de eventos por id (cursor keyset, tamaño + 1 filas): se eligen los ids y después se
+    // cargan los eventos con precios y capacidades en una consulta (con límite paginaría en memoria)
+    @Query("SELECT e.id FROM Evento e WHERE e.id > :despuesDeId ORDER BY e.id")
+    List<Long> findIdsPaginaDesde(@Param("despuesDeId") long despuesDeId, Pageable pageable);
+
+    default List<Evento> findPaginaDesde(long despuesDeId, Pageable pageable) {
+        List<Long> ids = findIdsPaginaDesde(despuesDeId, pageable);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Evento> porId = new HashMap<>();
+        for (Evento evento : findAllConEntradasById(ids)) {
+            porId.put(evento.getId(), evento);
+        }
+        List<Evento> eventos = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Evento evento = porId.get(id);
+            if (evento != null) {
+                eventos.add(evento);
+            }
+        }
+        return eventos;
+    }
+
+    // Textos de todos los eventos para construir el índice de búsqueda (filas: id, nombre, descripción, activo)
+    @Query("SELECT e.id, e.nombre, e.descripcion, e.activo FROM Evento e")
+    List<Object[]> findTextosParaBusqueda();
+
+    // Listados del catálogo (proyección directa a EventoResumenDTO)
+    @Query(CATALOGO + "WHERE e.activo = true AND e.fechaHora > :ahora " +
+            AGRUPAR_CATALOGO + "ORDER BY e.fechaHora")
+    List<EventoResumenDTO> findCatalogoVigentes(@Param("ahora") LocalDateTime ahora);
+
+    @Query(CATALOGO + "WHERE e.activo = true AND e.tipoEvento = :tipoEvento " +
+            AGRUPAR_CATALOGO + "ORDER BY e.fechaHora")
+    List<EventoResumenDTO> findCatalogoPorTipo(
+            @Param("tipoEvento") TipoEvento tipoEvento,
+            @Param("ahora") LocalDateTime ahora);
+
+    // Eventos elegidos por los índices en memoria (búsqueda, popularidad), que ya filtran los inactivos
+    // donde corresponde; el orden lo aplica el servicio
+    @Query(CATALOGO + "WHERE e.id IN :ids " + AGRUPAR_CATALOGO)
+    List<EventoResumenDTO> findCatalogoPorIds(
+            @Param("ids") Collection<Long> ids,
+            @Param("ahora") LocalDateTime ahora);
+
+    @Query(CATALOGO + "WHERE e.activo = true AND e.fechaHora > :ahora AND " +
+            "e.capacidadTotal > (SELECT COUNT(r) FROM Reserva r WHERE r.evento = e AND r.estado = 'CONFIRMADA') " +
+            AGRUPAR_CATALOGO + "ORDER BY e.fechaHora")
+    List<EventoResumenDTO> findCatalogoConDisponibilidad(@Param("ahora") LocalDateTime ahora);
+
+    @Query(CATALOGO + "WHERE e.activo = true AND e.fechaHora BETWEEN :desde AND :hasta " +
+            AGRUPAR_CATALOGO + "ORDER BY e.fechaHora")
+    List<EventoResumenDTO> findCatalogoEnRango(
             @Param("desde") LocalDateTime desde,
-            @Param("hasta") LocalDateTime hasta);
+            @Param("hasta") LocalDateTime hasta,
+            @Param("ahora") LocalDateTime ahora);
+
+    // Fecha y reservas confirmadas de cada evento (carga del ranking de popularidad al iniciar)
+    @Query("SELECT e.id, e.fechaHora, " +
+            "(SELECT COUNT(r) FROM Reserva r WHERE r.evento = e AND r.estado = 'CONFIRMADA') FROM Evento e")
+    List<Object[]> findConfirmadasPorEvento();
 }
\ No newline at end of file
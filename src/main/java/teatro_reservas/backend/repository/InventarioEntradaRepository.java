@@ -0,0 +1,94 @@
+package teatro_reservas.backend.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import teatro_reservas.backend.entity.InventarioEntrada;
+import teatro_reservas.backend.entity.enums.TipoEntrada;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface InventarioEntradaRepository extends JpaRepository<InventarioEntrada, Long> {
+
+    // Inventario de un evento
+    List<InventarioEntrada> findByEventoId(Long eventoId);
+
+    // Inventario de varios eventos en una consulta (listados)
+    List<InventarioEntrada> findByEventoIdIn(Collection<Long> eventoIds);
+
+    Optional<InventarioEntrada> findByEventoIdAndTipoEntrada(Long eventoId, TipoEntrada tipoEntrada);
+
+    boolean existsByEventoId(Long eventoId);
+
+    // Lectura directa del contador (no devuelve la entidad que pudo quedar desactualizada en la sesión)
+    @Query("SELECT i.disponibles FROM InventarioEntrada i " +
+            "WHERE i.evento.id = :eventoId AND i.tipoEntrada = :tipoEntrada")
+    Optional<Integer> findDisponibles(
+            @Param("eventoId") Long eventoId,
+            @Param("tipoEntrada") TipoEntrada tipoEntrada);
+
+    // Inventario de los eventos vigentes
+    @Query("SELECT i FROM InventarioEntrada i JOIN i.evento e " +
+            "WHERE e.activo = true AND e.fechaHora > :ahora")
+    List<InventarioEntrada> findInventarioEventosVigentes(@Param("ahora") LocalDateTime ahora);
+
+    // Eventos vigentes que todavía no tienen inventario
+    @Query("SELECT e.id FROM Evento e WHERE e.activo = true AND e.fechaHora > :ahora AND " +
+            "NOT EXISTS (SELECT i.id FROM InventarioEntrada i WHERE i.evento = e)")
+    List<Long> findEventosVigentesSinInventario(@Param("ahora") LocalDateTime ahora);
+
+    // Descuenta entradas solo si alcanzan (devuelve 0 si no hay disponibilidad)
+    @Modifying
+    @Query("UPDATE InventarioEntrada i SET " +
+            "i.vendidas = i.vendidas + :cantidad, i.disponibles = i.disponibles - :cantidad " +
+            "WHERE i.evento.id = :eventoId AND i.tipoEntrada = :tipoEntrada AND i.disponibles >= :cantidad")
+    int descontarDisponibles(
+            @Param("eventoId") Long eventoId,
+            @Param("tipoEntrada") TipoEntrada tipoEntrada,
+            @Param("cantidad") int cantidad);
+
+    // Repone entradas liberadas por cancelaciones o eliminaciones
+    @Modifying
+    @Query("UPDATE InventarioEntrada i SET " +
+            "i.vendidas = i.vendidas - :cantidad, i.disponibles = i.disponibles + :cantidad " +
+            "WHERE i.evento.id = :eventoId AND i.tipoEntrada = :tipoEntrada AND i.vendidas >= :cantidad")
+    int reponerDisponibles(
+            @Param("eventoId") Long eventoId,
+            @Param("tipoEntrada") TipoEntrada tipoEntrada,
+            @Param("cantidad") int cantidad);
+
+    // Corrige el contador de vendidas cuando no coincide con las reservas registradas
+    @Modifying
+    @Query("UPDATE InventarioEntrada i SET " +
+            "i.vendidas = :vendidas, i.disponibles = CASE WHEN i.capacidad > :vendidas THEN i.capacidad - :vendidas ELSE 0 END " +
+            "WHERE i.id = :id")
+    int corregirVendidas(@Param("id") Long id, @Param("vendidas") int vendidas);
+
+    // Cambia la capacidad sin perder ventas concurrentes (devuelve 0 si quedaría por debajo de lo vendido)
+    @Modifying
+    @Query("UPDATE InventarioEntrada i SET " +
+            "i.capacidad = :capacidad, i.disponibles = :capacidad - i.vendidas " +
+            "WHERE i.evento.id = :eventoId AND i.tipoEntrada = :tipoEntrada AND i.vendidas <= :capacidad")
+    int actualizarCapacidad(
+            @Param("eventoId") Long eventoId,
+            @Param("tipoEntrada") TipoEntrada tipoEntrada,
+            @Param("capacidad") int capacidad);
+
+    // Quita un tipo de entrada que ya no se vende (solo si no tiene ventas)
+    @Modifying
+    @Query("DELETE FROM InventarioEntrada i WHERE i.evento.id = :eventoId AND " +
+            "i.tipoEntrada = :tipoEntrada AND i.vendidas = 0")
+    int eliminarTipoSinVentas(
+            @Param("eventoId") Long eventoId,
+            @Param("tipoEntrada") TipoEntrada tipoEntrada);
+
+    @Modifying
+    @Query("DELETE FROM InventarioEntrada i WHERE i.evento.id = :eventoId")
+    int deleteByEventoId(@Param("eventoId") Long eventoId);
+}
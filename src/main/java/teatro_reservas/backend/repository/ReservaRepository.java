@@ -1,51 +1,218 @@
 package teatro_reservas.backend.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import teatro_reservas.backend.dto.ReservaExportacionDTO;
 import teatro_reservas.backend.entity.Cliente;
 import teatro_reservas.backend.entity.Evento;
 import teatro_reservas.backend.entity.Reserva;
+import teatro_reservas.backend.entity.VentaDiaria;
 import teatro_reservas.backend.entity.enums.EstadoReserva;
 import teatro_reservas.backend.entity.enums.TipoEntrada;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ReservaRepository extends JpaRepository<Reserva, Long> {
 
+    // Exportación: filas proyectadas que se leen de a bloques con un cursor JDBC
+    String EXPORTACION = "SELECT new teatro_reservas.backend.dto.ReservaExportacionDTO(" +
+            "r.id, r.codigoReserva, c.id, c.email, e.id, e.nombre, e.fechaHora, r.tipoEntrada, r.estado, " +
+            "r.esPaseGratuito, r.precioPagado, r.fechaReserva, r.fechaConfirmacion, r.fechaCancelacion) " +
+            "FROM Reserva r JOIN r.cliente c JOIN r.evento e ";
+    String FILAS_POR_LECTURA = "1000";
+
     // Buscar por código de reserva
     Optional<Reserva> findByCodigoReserva(String codigoReserva);
 
-    // Reservas de un cliente
-    List<Reserva> findByClienteIdOrderByFechaReservaDesc(Long clienteId);
+    // Reservas con su cliente y su evento (y los precios del evento) en una sola consulta (CargadorEntidades)
+    @EntityGraph(attributePaths = {"cliente", "evento", "evento.precios"})
+    @Query("SELECT r FROM Reserva r WHERE r.id IN :ids")
+    List<Reserva> findAllConRelacionesById(@Param("ids") Collection<Long> ids);
+
+    // Listados paginados por cursor (keyset): piden tamaño + 1 filas con un Pageable de página 0.
+    // La página se elige leyendo solo ids y después se cargan las reservas con cliente, evento y
+    // precios del evento en una consulta (un fetch de colección con límite paginaría en memoria)
 
-    // Reservas de un evento
-    List<Reserva> findByEventoIdOrderByFechaReservaDesc(Long eventoId);
+    // Todas las reservas por id
+    @Query("SELECT r.id FROM Reserva r WHERE r.id > :despuesDeId ORDER BY r.id")
+    List<Long> findIdsPaginaDesde(@Param("despuesDeId") long despuesDeId, Pageable pageable);
+
+    default List<Reserva> findPaginaDesde(long despuesDeId, Pageable pageable) {
+        return conRelacionesEnOrden(findIdsPaginaDesde(despuesDeId, pageable));
+    }
 
     // Reservas por estado
-    List<Reserva> findByEstado(EstadoReserva estado);
+    @Query("SELECT r.id FROM Reserva r WHERE r.estado = :estado AND r.id > :despuesDeId ORDER BY r.id")
+    List<Long> findIdsPaginaPorEstado(
+            @Param("estado") EstadoReserva estado,
+            @Param("despuesDeId") long despuesDeId,
+            Pageable pageable);
+
+    default List<Reserva> findPaginaPorEstado(EstadoReserva estado, long despuesDeId, Pageable pageable) {
+        return conRelacionesEnOrden(findIdsPaginaPorEstado(estado, despuesDeId, pageable));
+    }
+
+    // Reservas de un cliente, de la más reciente a la más antigua
+    @Query("SELECT r.id FROM Reserva r WHERE r.cliente.id = :clienteId ORDER BY r.fechaReserva DESC, r.id DESC")
+    List<Long> findIdsPorCliente(@Param("clienteId") Long clienteId, Pageable pageable);
+
+    @Query("SELECT r.id FROM Reserva r WHERE r.cliente.id = :clienteId AND " +
+            "(r.fechaReserva < :fecha OR (r.fechaReserva = :fecha AND r.id < :id)) " +
+            "ORDER BY r.fechaReserva DESC, r.id DESC")
+    List<Long> findIdsPorClienteAntesDe(
+            @Param("clienteId") Long clienteId,
+            @Param("fecha") LocalDateTime fecha,
+            @Param("id") long id,
+            Pageable pageable);
+
+    default List<Reserva> findByClienteIdOrderByFechaReservaDescIdDesc(Long clienteId, Pageable pageable) {
+        return conRelacionesEnOrden(findIdsPorCliente(clienteId, pageable));
+    }
+
+    default List<Reserva> findPaginaPorClienteAntesDe(Long clienteId, LocalDateTime fecha, long id, Pageable pageable) {
+        return conRelacionesEnOrden(findIdsPorClienteAntesDe(clienteId, fecha, id, pageable));
+    }
+
+    // Reservas de un evento, de la más reciente a la más antigua
+    @Query("SELECT r.id FROM Reserva r WHERE r.evento.id = :eventoId ORDER BY r.fechaReserva DESC, r.id DESC")
+    List<Long> findIdsPorEvento(@Param("eventoId") Long eventoId, Pageable pageable);
+
+    @Query("SELECT r.id FROM Reserva r WHERE r.evento.id = :eventoId AND " +
+            "(r.fechaReserva < :fecha OR (r.fechaReserva = :fecha AND r.id < :id)) " +
+            "ORDER BY r.fechaReserva DESC, r.id DESC")
+    List<Long> findIdsPorEventoAntesDe(
+            @Param("eventoId") Long eventoId,
+            @Param("fecha") LocalDateTime fecha,
+            @Param("id") long id,
+            Pageable pageable);
+
+    default List<Reserva> findByEventoIdOrderByFechaReservaDescIdDesc(Long eventoId, Pageable pageable) {
+        return conRelacionesEnOrden(findIdsPorEvento(eventoId, pageable));
+    }
+
+    default List<Reserva> findPaginaPorEventoAntesDe(Long eventoId, LocalDateTime fecha, long id, Pageable pageable) {
+        return conRelacionesEnOrden(findIdsPorEventoAntesDe(eventoId, fecha, id, pageable));
+    }
+
+    // Las reservas de los ids con sus relaciones, en el orden de los ids
+    private List<Reserva> conRelacionesEnOrden(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Reserva> porId = new HashMap<>();
+        for (Reserva reserva : findAllConRelacionesById(ids)) {
+            porId.put(reserva.getId(), reserva);
+        }
+        List<Reserva> reservas = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Reserva reserva = porId.get(id);
+            if (reserva != null) {
+                reservas.add(reserva);
+            }
+        }
+        return reservas;
+    }
+
+    // Exportaciones por streaming (el Stream debe cerrarse dentro de la transacción)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = FILAS_POR_LECTURA))
+    @Query(EXPORTACION + "WHERE e.id = :eventoId ORDER BY r.fechaReserva, r.id")
+    Stream<ReservaExportacionDTO> streamExportacionPorEvento(@Param("eventoId") Long eventoId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = FILAS_POR_LECTURA))
+    @Query(EXPORTACION + "WHERE r.fechaReserva BETWEEN :desde AND :hasta ORDER BY r.fechaReserva, r.id")
+    Stream<ReservaExportacionDTO> streamExportacionEnRango(
+            @Param("desde") LocalDateTime desde,
+            @Param("hasta") LocalDateTime hasta);
 
     // Reservas confirmadas de un cliente
+    @EntityGraph(attributePaths = {"cliente", "evento", "evento.precios"})
     @Query("SELECT r FROM Reserva r WHERE r.cliente.id = :clienteId AND r.estado = 'CONFIRMADA'")
     List<Reserva> findReservasConfirmadasByCliente(@Param("clienteId") Long clienteId);
 
+    // Reservas confirmadas agrupadas por cliente y por evento (filas: id, cantidad)
+    @Query("SELECT r.cliente.id, COUNT(r) FROM Reserva r WHERE r.cliente.id IN :clienteIds AND " +
+            "r.estado = 'CONFIRMADA' GROUP BY r.cliente.id")
+    List<Object[]> countConfirmadasAgrupadasPorCliente(@Param("clienteIds") Collection<Long> clienteIds);
+
+    @Query("SELECT r.evento.id, COUNT(r) FROM Reserva r WHERE r.evento.id IN :eventoIds AND " +
+            "r.estado = 'CONFIRMADA' GROUP BY r.evento.id")
+    List<Object[]> countConfirmadasAgrupadasPorEvento(@Param("eventoIds") Collection<Long> eventoIds);
+
+    default Map<Long, Long> contarConfirmadasPorCliente(Collection<Long> clienteIds) {
+        return clienteIds.isEmpty() ? Map.of() : aMapa(countConfirmadasAgrupadasPorCliente(clienteIds));
+    }
+
+    default Map<Long, Long> contarConfirmadasPorEvento(Collection<Long> eventoIds) {
+        return eventoIds.isEmpty() ? Map.of() : aMapa(countConfirmadasAgrupadasPorEvento(eventoIds));
+    }
+
+    private static Map<Long, Long> aMapa(List<Object[]> filas) {
+        Map<Long, Long> cantidades = new HashMap<>();
+        for (Object[] fila : filas) {
+            cantidades.put((Long) fila[0], (Long) fila[1]);
+        }
+        return cantidades;
+    }
+
     // Reservas pendientes (para recordatorios de pago)
     @Query("SELECT r FROM Reserva r WHERE r.estado = 'PENDIENTE' AND " +
             "r.fechaReserva < :limite")
     List<Reserva> findReservasPendientesVencidas(@Param("limite") LocalDateTime limite);
 
-    // Contar reservas confirmadas por evento y tipo de entrada
+    // Ventas por evento y tipo de entrada para los contadores en memoria
+    // (filas: evento, tipo, confirmadas, ingresos sin pases gratuitos)
+    @Query("SELECT r.evento.id, r.tipoEntrada, COUNT(r), " +
+            "SUM(CASE WHEN r.esPaseGratuito = false THEN r.precioPagado ELSE 0 END) " +
+            "FROM Reserva r WHERE r.estado = 'CONFIRMADA' GROUP BY r.evento.id, r.tipoEntrada")
+    List<Object[]> sumarVentasPorEventoYTipo();
+
+    // Entradas ocupadas (confirmadas o retenidas) por evento y tipo de entrada
     @Query("SELECT COUNT(r) FROM Reserva r WHERE r.evento.id = :eventoId AND " +
-            "r.tipoEntrada = :tipoEntrada AND r.estado = 'CONFIRMADA'")
-    long countReservasConfirmadasByEventoAndTipo(
+            "r.tipoEntrada = :tipoEntrada AND r.estado IN ('CONFIRMADA', 'PENDIENTE')")
+    long countEntradasOcupadasByEventoAndTipo(
             @Param("eventoId") Long eventoId,
             @Param("tipoEntrada") TipoEntrada tipoEntrada);
 
+    // Entradas ocupadas agrupadas por evento y tipo (reconciliación del inventario)
+    @Query("SELECT r.evento.id, r.tipoEntrada, COUNT(r) FROM Reserva r WHERE r.estado IN ('CONFIRMADA', 'PENDIENTE') " +
+            "GROUP BY r.evento.id, r.tipoEntrada")
+    List<Object[]> countEntradasOcupadasAgrupadasPorEventoYTipo();
+
+    // Retenciones activas con su vencimiento (para reprogramar la expiración al iniciar)
+    @Query("SELECT r.id, r.fechaExpiracion FROM Reserva r WHERE r.estado = 'PENDIENTE'")
+    List<Object[]> findRetencionesActivas();
+
+    // Retenciones vencidas de un lote: id, evento y tipo de entrada
+    @Query("SELECT r.id, r.evento.id, r.tipoEntrada FROM Reserva r WHERE r.id IN :ids AND " +
+            "r.estado = 'PENDIENTE' AND r.fechaExpiracion <= :ahora")
+    List<Object[]> findRetencionesVencidas(
+            @Param("ids") Collection<Long> ids,
+            @Param("ahora") LocalDateTime ahora);
+
+    // Expira retenciones en un solo UPDATE; la condición evita pisar confirmaciones concurrentes
+    @Modifying
+    @Query("UPDATE Reserva r SET r.estado = 'EXPIRADA', r.version = r.version + 1 " +
+            "WHERE r.id IN :ids AND r.estado = 'PENDIENTE' AND r.fechaExpiracion <= :ahora")
+    int expirarRetenciones(
+            @Param("ids") Collection<Long> ids,
+            @Param("ahora") LocalDateTime ahora);
+
     // Reservas de un cliente en un año (para fidelización)
     @Query("SELECT r FROM Reserva r WHERE r.cliente.id = :clienteId AND " +
             "r.estado = 'ASISTIO' AND r.fechaReserva >= :inicioAno")
@@ -53,19 +220,14 @@ public interface ReservaRepository extends JpaRepository<Reserva, Long> {
             @Param("clienteId") Long clienteId,
             @Param("inicioAno") LocalDateTime inicioAno);
 
-    // Ingresos por evento
-    @Query("SELECT SUM(r.precioPagado) FROM Reserva r WHERE r.evento.id = :eventoId AND " +
-            "r.estado IN ('CONFIRMADA', 'ASISTIO') AND r.esPaseGratuito = false")
-    BigDecimal calcularIngresosPorEvento(@Param("eventoId") Long eventoId);
-
     // Estadísticas por período
-    @Query("SELECT DATE(r.fechaReserva), COUNT(r), SUM(r.precioPagado) " +
-            "FROM Reserva r WHERE r.fechaReserva BETWEEN :desde AND :hasta " +
-            "AND r.estado IN ('CONFIRMADA', 'ASISTIO') " +
-            "GROUP BY DATE(r.fechaReserva) ORDER BY DATE(r.fechaReserva)")
-    List<Object[]> getEstadisticasPorFecha(
-            @Param("desde") LocalDateTime desde,
-            @Param("hasta") LocalDateTime hasta);
+    // Reconstrucción de ventas_diarias: una pasada agrupada por día, evento y tipo de entrada
+    @Query("SELECT new teatro_reservas.backend.entity.VentaDiaria(" +
+            "CAST(r.fechaReserva AS LocalDate), r.evento.id, r.tipoEntrada, COUNT(r), SUM(r.precioPagado), " +
+            "SUM(CASE WHEN r.esPaseGratuito = true THEN 1 ELSE 0 END)) " +
+            "FROM Reserva r WHERE r.estado = 'CONFIRMADA' " +
+            "GROUP BY CAST(r.fechaReserva AS LocalDate), r.evento.id, r.tipoEntrada")
+    List<VentaDiaria> sumarVentasDiarias();
 
     // Buscar reservas que expiran pronto (para recordatorios)
     @Query("SELECT r FROM Reserva r WHERE r.estado = 'PENDIENTE' AND " +
@@ -0,0 +1,37 @@
+package teatro_reservas.backend.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import teatro_reservas.backend.dto.VentasPorFechaDTO;
+import teatro_reservas.backend.entity.VentaDiaria;
+import teatro_reservas.backend.entity.enums.TipoEntrada;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface VentaDiariaRepository extends JpaRepository<VentaDiaria, Long> {
+
+    // Suma (o resta) al resumen existente; devuelve 0 si la fila todavía no existe
+    @Modifying
+    @Query("UPDATE VentaDiaria v SET v.cantidad = v.cantidad + :cantidad, v.ingresos = v.ingresos + :ingresos, " +
+            "v.pasesGratuitos = v.pasesGratuitos + :pasesGratuitos " +
+            "WHERE v.fecha = :fecha AND v.eventoId = :eventoId AND v.tipoEntrada = :tipoEntrada")
+    int sumar(@Param("fecha") LocalDate fecha,
+              @Param("eventoId") Long eventoId,
+              @Param("tipoEntrada") TipoEntrada tipoEntrada,
+              @Param("cantidad") long cantidad,
+              @Param("ingresos") BigDecimal ingresos,
+              @Param("pasesGratuitos") long pasesGratuitos);
+
+    // Rango sobre la primera columna de uk_ventas_diarias_fecha_evento_tipo
+    @Query("SELECT new teatro_reservas.backend.dto.VentasPorFechaDTO(" +
+            "v.fecha, SUM(v.cantidad), SUM(v.ingresos), SUM(v.pasesGratuitos)) " +
+            "FROM VentaDiaria v WHERE v.fecha BETWEEN :desde AND :hasta " +
+            "GROUP BY v.fecha HAVING SUM(v.cantidad) > 0 ORDER BY v.fecha")
+    List<VentasPorFechaDTO> findVentasPorFecha(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+}
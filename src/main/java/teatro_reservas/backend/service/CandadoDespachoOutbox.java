@@ -0,0 +1,36 @@
+package teatro_reservas.backend.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Excluye el despacho del outbox de esta instancia mientras se reconstruye una tabla que
+ * mantienen sus manejadores (ventas_diarias). Un evento procesado entre la lectura de los
+ * pendientes y el borrado de la tabla perdería su cambio, que la reconstrucción ya descontó.
+ * El despachador toma el candado en cada ciclo y la reconstrucción lo retiene hasta confirmar.
+ */
+@Component
+public class CandadoDespachoOutbox {
+
+    private final ReentrantLock candado = new ReentrantLock();
+
+    public void ejecutar(Runnable accion) {
+        candado.lock();
+        try {
+            accion.run();
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    public <T> T ejecutar(Supplier<T> accion) {
+        candado.lock();
+        try {
+            return accion.get();
+        } finally {
+            candado.unlock();
+        }
+    }
+}
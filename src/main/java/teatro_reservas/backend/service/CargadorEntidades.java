@@ -0,0 +1,130 @@
+package teatro_reservas.backend.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import teatro_reservas.backend.entity.Cliente;
+import teatro_reservas.backend.entity.Evento;
+import teatro_reservas.backend.entity.Reserva;
+import teatro_reservas.backend.exception.ResourceNotFoundException;
+import teatro_reservas.backend.repository.ClienteRepository;
+import teatro_reservas.backend.repository.EventoRepository;
+import teatro_reservas.backend.repository.ReservaRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Carga de eventos, clientes y reservas para las lecturas de un mismo request HTTP.
+ * Cada entidad se busca una sola vez por request: las siguientes consultas de los
+ * servicios la toman de memoria, y los pedidos de varios ids se resuelven con una
+ * única consulta por los que falten. Al cargar una reserva se traen en la misma
+ * consulta su cliente y su evento, que quedan disponibles para el resto del request.
+ * Fuera de un request (tareas programadas, tests de servicio) no guarda nada y
+ * cada llamada va a la base.
+ */
+@Component
+public class CargadorEntidades {
+
+    private static final String ATRIBUTO = CargadorEntidades.class.getName() + ".cargadas";
+
+    private final EventoRepository eventoRepository;
+    private final ClienteRepository clienteRepository;
+    private final ReservaRepository reservaRepository;
+
+    public CargadorEntidades(EventoRepository eventoRepository,
+                             ClienteRepository clienteRepository,
+                             ReservaRepository reservaRepository) {
+        this.eventoRepository = eventoRepository;
+        this.clienteRepository = clienteRepository;
+        this.reservaRepository = reservaRepository;
+    }
+
+    public Evento evento(Long id) {
+        return unico("Evento", id, eventos(List.of(id)));
+    }
+
+    public Cliente cliente(Long id) {
+        return unico("Cliente", id, clientes(List.of(id)));
+    }
+
+    public Reserva reserva(Long id) {
+        return unico("Reserva", id, reservas(List.of(id)));
+    }
+
+    // Los ids que no existen no aparecen en el resultado
+    public Map<Long, Evento> eventos(Collection<Long> ids) {
+        return cargar(Evento.class, ids, eventoRepository::findAllConEntradasById, Evento::getId);
+    }
+
+    public Map<Long, Cliente> clientes(Collection<Long> ids) {
+        return cargar(Cliente.class, ids, clienteRepository::findAllById, Cliente::getId);
+    }
+
+    public Map<Long, Reserva> reservas(Collection<Long> ids) {
+        Map<Long, Reserva> reservas = cargar(Reserva.class, ids, reservaRepository::findAllConRelacionesById, Reserva::getId);
+        Map<Long, Object> eventos = cargadas(Evento.class);
+        Map<Long, Object> clientes = cargadas(Cliente.class);
+        for (Reserva reserva : reservas.values()) {
+            eventos.putIfAbsent(reserva.getEvento().getId(), reserva.getEvento());
+            clientes.putIfAbsent(reserva.getCliente().getId(), reserva.getCliente());
+        }
+        return reservas;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <E> Map<Long, E> cargar(Class<E> tipo, Collection<Long> ids,
+                                    Function<Collection<Long>, List<E>> consulta,
+                                    Function<E, Long> idDe) {
+        Map<Long, Object> cargadas = cargadas(tipo);
+        List<Long> faltantes = new ArrayList<>();
+        for (Long id : ids) {
+            if (!cargadas.containsKey(id)) {
+                faltantes.add(id);
+            }
+        }
+        if (!faltantes.isEmpty()) {
+            for (E entidad : consulta.apply(faltantes)) {
+                cargadas.put(idDe.apply(entidad), entidad);
+            }
+        }
+
+        Map<Long, E> resultado = new LinkedHashMap<>();
+        for (Long id : ids) {
+            E entidad = (E) cargadas.get(id);
+            if (entidad != null) {
+                resultado.put(id, entidad);
+            }
+        }
+        return resultado;
+    }
+
+    private static <E> E unico(String recurso, Long id, Map<Long, E> cargadas) {
+        E entidad = cargadas.get(id);
+        if (entidad == null) {
+            throw new ResourceNotFoundException(recurso, "id", id);
+        }
+        return entidad;
+    }
+
+    // Entidades ya cargadas en el request actual, por tipo; sin request, un mapa descartable
+    @SuppressWarnings("unchecked")
+    private Map<Long, Object> cargadas(Class<?> tipo) {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request == null) {
+            return new HashMap<>();
+        }
+        Map<Class<?>, Map<Long, Object>> porTipo =
+                (Map<Class<?>, Map<Long, Object>>) request.getAttribute(ATRIBUTO, RequestAttributes.SCOPE_REQUEST);
+        if (porTipo == null) {
+            porTipo = new HashMap<>();
+            request.setAttribute(ATRIBUTO, porTipo, RequestAttributes.SCOPE_REQUEST);
+        }
+        return porTipo.computeIfAbsent(tipo, t -> new HashMap<>());
+    }
+}
@@ -4,6 +4,7 @@ import org.springframework.data.domain.Page;
 import teatro_reservas.backend.dto.ClienteRequestDTO;
 import teatro_reservas.backend.dto.ClienteResponseDTO;
 import teatro_reservas.backend.dto.ClienteResumenDTO;
+import teatro_reservas.backend.dto.PaginaDTO;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -17,7 +18,7 @@ public interface ClienteService {
     void eliminarCliente(Long id); // soft delete
     void activarCliente(Long id);
 
-    List<ClienteResponseDTO> obtenerTodosLosClientes();
+    PaginaDTO<ClienteResponseDTO> obtenerTodosLosClientes(String cursor, int tamanio);
     List<ClienteResumenDTO> obtenerClientesActivos();
     Optional<ClienteResponseDTO> obtenerClientePorEmail(String email);
     List<ClienteResumenDTO> buscarClientesPorNombre(String termino);
@@ -1,8 +1,10 @@
 package teatro_reservas.backend.service;
 
 import jakarta.transaction.Transactional;
-import org.modelmapper.ModelMapper;
-import org.modelmapper.convention.MatchingStrategies;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -10,35 +12,55 @@ import org.springframework.stereotype.Service;
 import teatro_reservas.backend.dto.ClienteRequestDTO;
 import teatro_reservas.backend.dto.ClienteResponseDTO;
 import teatro_reservas.backend.dto.ClienteResumenDTO;
+import teatro_reservas.backend.dto.PaginaDTO;
 import teatro_reservas.backend.entity.Cliente;
 import teatro_reservas.backend.exception.BusinessException;
 import teatro_reservas.backend.exception.ResourceNotFoundException;
+import teatro_reservas.backend.mapper.ClienteMapper;
 import teatro_reservas.backend.repository.ClienteRepository;
+import teatro_reservas.backend.repository.ReservaRepository;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 
 @Service
 @Transactional
+@Slf4j
 public class ClienteServiceImpl implements ClienteService {
 
     private final ClienteRepository clienteRepository;
-    private final ModelMapper modelMapper = new ModelMapper();
-
-    public ClienteServiceImpl(ClienteRepository clienteRepository) {
+    private final ReservaRepository reservaRepository;
+    private final ClienteMapper clienteMapper;
+    private final IndiceTrigramasClientes indiceNombres;
+    private final CargadorEntidades cargador;
+    private final int maximoResultadosBusqueda;
+
+    public ClienteServiceImpl(ClienteRepository clienteRepository,
+                              ReservaRepository reservaRepository,
+                              ClienteMapper clienteMapper,
+                              IndiceTrigramasClientes indiceNombres,
+                              CargadorEntidades cargador,
+                              @Value("${teatro.busqueda.maximo-resultados:50}") int maximoResultadosBusqueda) {
         this.clienteRepository = clienteRepository;
-        configurarModelMapper();
+        this.reservaRepository = reservaRepository;
+        this.clienteMapper = clienteMapper;
+        this.indiceNombres = indiceNombres;
+        this.cargador = cargador;
+        this.maximoResultadosBusqueda = maximoResultadosBusqueda;
     }
 
-    private void configurarModelMapper() {
-        modelMapper.getConfiguration()
-                .setMatchingStrategy(MatchingStrategies.STRICT);
-
-        modelMapper.createTypeMap(Cliente.class, ClienteResponseDTO.class)
-                .addMapping(src -> src.esClienteFrecuente(), ClienteResponseDTO::setEsClienteFrecuente)
-                .addMapping(src -> src.getReservasActivas(), ClienteResponseDTO::setReservasActivas);
+    @EventListener(ApplicationReadyEvent.class)
+    public void construirIndiceNombres() {
+        for (Object[] fila : clienteRepository.findNombresParaBusqueda()) {
+            indiceNombres.indexar((Long) fila[0], (String) fila[1], (String) fila[2]);
+        }
+        log.info("Índice de nombres de clientes construido: {} clientes", indiceNombres.cantidadClientes());
     }
 
     @Override
@@ -47,17 +69,17 @@ public class ClienteServiceImpl implements ClienteService {
             throw new BusinessException("Ya existe un cliente con este email: " + clienteDTO.getEmail());
         }
 
-        Cliente cliente = modelMapper.map(clienteDTO, Cliente.class);
+        Cliente cliente = clienteMapper.toEntity(clienteDTO);
         Cliente clienteGuardado = clienteRepository.save(cliente);
-        return modelMapper.map(clienteGuardado, ClienteResponseDTO.class);
+        indiceNombres.indexarAlConfirmar(clienteGuardado.getId(), clienteGuardado.getNombre(), clienteGuardado.getApellido());
+        return clienteMapper.toResponse(clienteGuardado, 0);
     }
 
     @Override
     @Transactional
     public ClienteResponseDTO obtenerClientePorId(Long id) {
-        Cliente cliente = clienteRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Cliente", "id", id));
-        return modelMapper.map(cliente, ClienteResponseDTO.class);
+        Cliente cliente = cargador.cliente(id);
+        return mapToClienteResponseDTO(cliente);
     }
 
     @Override
@@ -79,7 +101,8 @@ public class ClienteServiceImpl implements ClienteService {
         cliente.setFechaNacimiento(clienteDTO.getFechaNacimiento());
 
         Cliente clienteActualizado = clienteRepository.save(cliente);
-        return modelMapper.map(clienteActualizado, ClienteResponseDTO.class);
+        indiceNombres.indexarAlConfirmar(id, clienteActualizado.getNombre(), clienteActualizado.getApellido());
+        return mapToClienteResponseDTO(clienteActualizado);
     }
 
     @Override
@@ -101,9 +124,12 @@ public class ClienteServiceImpl implements ClienteService {
     // Consultas
     @Override
     @Transactional
-    public List<ClienteResponseDTO> obtenerTodosLosClientes() {
-        List<Cliente> clientes = clienteRepository.findAll();
-        return mapToClienteResponseDTOList(clientes);
+    public PaginaDTO<ClienteResponseDTO> obtenerTodosLosClientes(String cursor, int tamanio) {
+        CursorPaginacion.validarTamanio(tamanio);
+        List<Cliente> clientes = clienteRepository.findPaginaDesde(
+                CursorPaginacion.leerId(cursor), PageRequest.of(0, tamanio + 1));
+        return CursorPaginacion.armarPagina(clientes, tamanio,
+                cliente -> CursorPaginacion.porId(cliente.getId()), this::mapToClienteResponseDTOList);
     }
 
     @Override
@@ -117,13 +143,24 @@ public class ClienteServiceImpl implements ClienteService {
     @Transactional
     public Optional<ClienteResponseDTO> obtenerClientePorEmail(String email) {
         Optional<Cliente> cliente = clienteRepository.findByEmail(email);
-        return cliente.map(c -> modelMapper.map(c, ClienteResponseDTO.class));
+        return cliente.map(this::mapToClienteResponseDTO);
     }
 
     @Override
     @Transactional
     public List<ClienteResumenDTO> buscarClientesPorNombre(String termino) {
-        List<Cliente> clientes = clienteRepository.findByNombreOrApellidoContainingIgnoreCase(termino);
+        // El índice de trigramas resuelve el texto; la base solo carga los clientes encontrados
+        List<Long> ids = indiceNombres.buscar(termino, maximoResultadosBusqueda);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Integer> posiciones = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            posiciones.put(ids.get(i), i);
+        }
+        List<Cliente> clientes = new ArrayList<>(clienteRepository.findAllById(ids));
+        clientes.sort(Comparator.comparing(cliente -> posiciones.get(cliente.getId())));
         return mapToClienteResumenDTOList(clientes);
     }
 
@@ -144,29 +181,27 @@ public class ClienteServiceImpl implements ClienteService {
     @Override
     @Transactional
     public boolean puedeUsarPaseGratuito(Long clienteId) {
-        Cliente cliente = clienteRepository.findById(clienteId)
-                .orElseThrow(() -> new ResourceNotFoundException("Cliente", "id", clienteId));
+        Cliente cliente = cargador.cliente(clienteId);
         return cliente.tienePasesGratuitos();
     }
 
     @Override
     public void usarPaseGratuito(Long clienteId) {
-        Cliente cliente = clienteRepository.findById(clienteId)
-                .orElseThrow(() -> new ResourceNotFoundException("Cliente", "id", clienteId));
-
-        if (!cliente.tienePasesGratuitos()) {
+        // UPDATE condicional: dos consumos simultáneos no pueden gastar el mismo pase
+        if (clienteRepository.consumirPaseGratuito(clienteId) == 0) {
+            if (!clienteRepository.existsById(clienteId)) {
+                throw new ResourceNotFoundException("Cliente", "id", clienteId);
+            }
             throw new BusinessException("El cliente no tiene pases gratuitos disponibles");
         }
-
-        cliente.usarPaseGratuito();
-        clienteRepository.save(cliente);
     }
 
     @Override
     public Page<ClienteResponseDTO> obtenerTopClientesPorAsistencia(int page, int size) {
         Pageable pageable = (Pageable) PageRequest.of(page, size);
         Page<Cliente> clientes = clienteRepository.findTopClientesByEventosAsistidos(pageable);
-        return clientes.map(cliente -> modelMapper.map(cliente, ClienteResponseDTO.class));
+        Map<Long, Long> reservasActivas = contarReservasActivas(clientes.getContent());
+        return clientes.map(cliente -> clienteMapper.toResponse(cliente, reservasActivas.getOrDefault(cliente.getId(), 0L)));
     }
 
     @Override
@@ -186,23 +221,33 @@ public class ClienteServiceImpl implements ClienteService {
     @Override
     @Transactional
     public void validarClienteActivo(Long clienteId) {
-        Cliente cliente = clienteRepository.findById(clienteId)
-                .orElseThrow(() -> new ResourceNotFoundException("Cliente", "id", clienteId));
+        Cliente cliente = cargador.cliente(clienteId);
 
         if (!cliente.getActivo()) {
             throw new BusinessException("El cliente está inactivo y no puede realizar operaciones");
         }
     }
 
+    private ClienteResponseDTO mapToClienteResponseDTO(Cliente cliente) {
+        return mapToClienteResponseDTOList(List.of(cliente)).get(0);
+    }
+
+    // Reservas activas de todos los clientes en una consulta agrupada
     private List<ClienteResponseDTO> mapToClienteResponseDTOList(List<Cliente> clientes) {
+        Map<Long, Long> reservasActivas = contarReservasActivas(clientes);
         return clientes.stream()
-                .map(cliente -> modelMapper.map(cliente, ClienteResponseDTO.class))
+                .map(cliente -> clienteMapper.toResponse(cliente, reservasActivas.getOrDefault(cliente.getId(), 0L)))
                 .collect(Collectors.toList());
     }
 
     private List<ClienteResumenDTO> mapToClienteResumenDTOList(List<Cliente> clientes) {
         return clientes.stream()
-                .map(cliente -> modelMapper.map(cliente, ClienteResumenDTO.class))
+                .map(clienteMapper::toResumen)
                 .collect(Collectors.toList());
     }
+
+    private Map<Long, Long> contarReservasActivas(List<Cliente> clientes) {
+        return reservaRepository.contarConfirmadasPorCliente(
+                clientes.stream().map(Cliente::getId).collect(Collectors.toList()));
+    }
 }
@@ -0,0 +1,91 @@
+package teatro_reservas.backend.service;
+
+import teatro_reservas.backend.dto.PaginaDTO;
+import teatro_reservas.backend.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Posición dentro de un listado paginado por clave (keyset): clave de orden e id
+ * de la última fila entregada. Viaja al cliente como un token opaco y la página
+ * siguiente se lee con un WHERE sobre (clave, id) en lugar de OFFSET, por lo que
+ * el costo de cada página no depende de cuántas filas quedaron atrás.
+ */
+public record CursorPaginacion(LocalDateTime fecha, long id) {
+
+    public static final int TAMANIO_MAXIMO = 500;
+
+    private static final String SEPARADOR = "|";
+
+    public static CursorPaginacion porId(long id) {
+        return new CursorPaginacion(null, id);
+    }
+
+    public String codificar() {
+        String valor = fecha == null ? String.valueOf(id) : fecha + SEPARADOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Listados ordenados por id: sin cursor se empieza desde el principio
+    public static long leerId(String cursor) {
+        CursorPaginacion posicion = leer(cursor);
+        if (posicion == null) {
+            return 0L;
+        }
+        if (posicion.fecha != null) {
+            throw cursorInvalido();
+        }
+        return posicion.id;
+    }
+
+    // Listados ordenados por fecha e id: devuelve null para la primera página
+    public static CursorPaginacion leerFecha(String cursor) {
+        CursorPaginacion posicion = leer(cursor);
+        if (posicion != null && posicion.fecha == null) {
+            throw cursorInvalido();
+        }
+        return posicion;
+    }
+
+    public static void validarTamanio(int tamanio) {
+        if (tamanio < 1 || tamanio > TAMANIO_MAXIMO) {
+            throw new BusinessException("El tamaño de página debe estar entre 1 y " + TAMANIO_MAXIMO);
+        }
+    }
+
+    // Las consultas piden una fila de más: si llega, hay otra página y no hace falta un COUNT
+    public static <E, T> PaginaDTO<T> armarPagina(List<E> filas, int tamanio,
+                                                  Function<E, CursorPaginacion> posicionDe,
+                                                  Function<List<E>, List<T>> mapear) {
+        boolean hayMas = filas.size() > tamanio;
+        List<E> pagina = hayMas ? filas.subList(0, tamanio) : filas;
+        String siguiente = hayMas ? posicionDe.apply(pagina.get(pagina.size() - 1)).codificar() : null;
+        return new PaginaDTO<>(mapear.apply(pagina), siguiente, hayMas);
+    }
+
+    private static CursorPaginacion leer(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separador = valor.indexOf(SEPARADOR);
+            if (separador < 0) {
+                return porId(Long.parseLong(valor));
+            }
+            return new CursorPaginacion(LocalDateTime.parse(valor.substring(0, separador)),
+                    Long.parseLong(valor.substring(separador + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw cursorInvalido();
+        }
+    }
+
+    private static BusinessException cursorInvalido() {
+        return new BusinessException("Cursor de paginación inválido");
+    }
+}
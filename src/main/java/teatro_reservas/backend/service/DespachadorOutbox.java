@@ -0,0 +1,80 @@
+package teatro_reservas.backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Lee la tabla outbox y entrega los eventos pendientes en lotes a los manejadores
+@Component
+@Slf4j
+public class DespachadorOutbox {
+
+    private final OutboxService outboxService;
+    private final CandadoDespachoOutbox candado;
+    private final int tamanoLote;
+    private final Duration retencionProcesados;
+
+    public DespachadorOutbox(OutboxService outboxService,
+                             CandadoDespachoOutbox candado,
+                             @Value("${teatro.outbox.lote:200}") int tamanoLote,
+                             @Value("${teatro.outbox.retencion-procesados:7d}") Duration retencionProcesados) {
+        this.outboxService = outboxService;
+        this.candado = candado;
+        this.tamanoLote = tamanoLote;
+        this.retencionProcesados = retencionProcesados;
+    }
+
+    // Si hay una reconstrucción en curso, el ciclo espera a que termine
+    @Scheduled(fixedDelayString = "${teatro.outbox.intervalo-ms:500}")
+    public void despachar() {
+        candado.ejecutar(this::despacharPendientes);
+    }
+
+    private void despacharPendientes() {
+        List<Long> pendientes;
+        do {
+            pendientes = outboxService.obtenerPendientes(tamanoLote);
+            if (pendientes.isEmpty()) {
+                return;
+            }
+            try {
+                outboxService.procesar(pendientes);
+            } catch (RuntimeException e) {
+                // Se reintenta de a uno para aislar el evento que falla; el resto del lote sigue
+                if (!procesarIndividualmente(pendientes)) {
+                    return;
+                }
+            }
+        } while (pendientes.size() == tamanoLote);
+    }
+
+    @Scheduled(fixedDelay = 3_600_000)
+    public void depurarProcesados() {
+        int eliminados = outboxService.depurarProcesados(LocalDateTime.now().minus(retencionProcesados));
+        long agotados = outboxService.contarAgotados();
+        log.debug("Eventos de outbox depurados: {}", eliminados);
+        if (agotados > 0) {
+            log.warn("Eventos de outbox sin procesar que agotaron los reintentos: {}", agotados);
+        }
+    }
+
+    // Devuelve false si algún evento falló: se espera al próximo ciclo antes de reintentarlo
+    private boolean procesarIndividualmente(List<Long> eventoIds) {
+        boolean todosProcesados = true;
+        for (Long eventoId : eventoIds) {
+            try {
+                outboxService.procesar(List.of(eventoId));
+            } catch (RuntimeException e) {
+                todosProcesados = false;
+                log.warn("No se pudo procesar el evento de outbox {}: {}", eventoId, e.getMessage());
+                outboxService.registrarFallo(eventoId, e.getMessage());
+            }
+        }
+        return todosProcesados;
+    }
+}
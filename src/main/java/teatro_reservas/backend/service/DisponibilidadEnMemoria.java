@@ -0,0 +1,124 @@
+package teatro_reservas.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import teatro_reservas.backend.entity.enums.TipoEntrada;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+/**
+ * Contadores de entradas disponibles por evento y tipo, mantenidos en memoria con CAS.
+ * Sirven de primer filtro antes del UPDATE condicional sobre inventario_entradas:
+ * las reservas para tipos agotados se rechazan sin tocar la base. La base sigue
+ * siendo la fuente de verdad; ante un faltante se vuelve a leer, como mucho una
+ * vez por intervalo de resincronización.
+ */
+@Component
+public class DisponibilidadEnMemoria {
+
+    private final Map<ClaveEntrada, Contador> contadores = new ConcurrentHashMap<>();
+    private final long intervaloResincronizacionNanos;
+
+    public DisponibilidadEnMemoria(
+            @Value("${teatro.inventario.memoria.resincronizacion-ms:1000}") long intervaloResincronizacionMs) {
+        this.intervaloResincronizacionNanos = intervaloResincronizacionMs * 1_000_000L;
+    }
+
+    // Intenta tomar entradas; si la transacción en curso se revierte, se devuelven solas
+    public boolean intentarReservar(Long eventoId, TipoEntrada tipoEntrada, int cantidad, IntSupplier cargarDisponibles) {
+        ClaveEntrada clave = new ClaveEntrada(eventoId, tipoEntrada);
+        Contador contador = contadores.get(clave);
+        if (contador == null) {
+            // La lectura a la base se hace fuera del mapa para no bloquear otras claves
+            Contador nuevo = new Contador(cargarDisponibles.getAsInt());
+            contador = Objects.requireNonNullElse(contadores.putIfAbsent(clave, nuevo), nuevo);
+        }
+
+        boolean reservado = contador.descontar(cantidad);
+        if (!reservado && contador.puedeResincronizar(intervaloResincronizacionNanos)) {
+            contador.restablecer(cargarDisponibles.getAsInt());
+            reservado = contador.descontar(cantidad);
+        }
+
+        if (reservado) {
+            SincronizacionTransaccion.alRevertir(() -> liberar(eventoId, tipoEntrada, cantidad));
+        }
+        return reservado;
+    }
+
+    // Refleja entradas ya descontadas en la base sin pasar por el filtro (reservas en lote)
+    public void registrarDescuento(Long eventoId, TipoEntrada tipoEntrada, int cantidad) {
+        Contador contador = contadores.get(new ClaveEntrada(eventoId, tipoEntrada));
+        if (contador == null) {
+            return;
+        }
+        int anterior = contador.disponibles.getAndUpdate(actual -> Math.max(actual - cantidad, 0));
+        int descontadas = Math.min(anterior, cantidad);
+        SincronizacionTransaccion.alRevertir(() -> liberar(eventoId, tipoEntrada, descontadas));
+    }
+
+    public void liberar(Long eventoId, TipoEntrada tipoEntrada, int cantidad) {
+        Contador contador = contadores.get(new ClaveEntrada(eventoId, tipoEntrada));
+        if (contador != null) {
+            contador.disponibles.addAndGet(cantidad);
+        }
+    }
+
+    // Devuelve entradas recién cuando la liberación quedó confirmada en la base
+    public void liberarAlConfirmar(Long eventoId, TipoEntrada tipoEntrada, int cantidad) {
+        SincronizacionTransaccion.alConfirmar(() -> liberar(eventoId, tipoEntrada, cantidad));
+    }
+
+    // Descarta los contadores del evento (cambio de capacidad o eliminación); se recargan al próximo uso
+    public void invalidarAlConfirmar(Long eventoId) {
+        SincronizacionTransaccion.alConfirmar(() -> contadores.keySet().removeIf(clave -> clave.eventoId().equals(eventoId)));
+    }
+
+    public void reconstruir(Map<ClaveEntrada, Integer> disponibles) {
+        contadores.clear();
+        disponibles.forEach((clave, cantidad) -> contadores.put(clave, new Contador(cantidad)));
+    }
+
+    public int cantidadContadores() {
+        return contadores.size();
+    }
+
+    public record ClaveEntrada(Long eventoId, TipoEntrada tipoEntrada) {
+    }
+
+    private static class Contador {
+        private final AtomicInteger disponibles;
+        private final AtomicLong ultimaSincronizacion = new AtomicLong(System.nanoTime());
+
+        private Contador(int disponibles) {
+            this.disponibles = new AtomicInteger(disponibles);
+        }
+
+        private boolean descontar(int cantidad) {
+            int actual;
+            do {
+                actual = disponibles.get();
+                if (actual < cantidad) {
+                    return false;
+                }
+            } while (!disponibles.compareAndSet(actual, actual - cantidad));
+            return true;
+        }
+
+        private boolean puedeResincronizar(long intervaloNanos) {
+            long ahora = System.nanoTime();
+            long ultima = ultimaSincronizacion.get();
+            // Un solo hilo por intervalo vuelve a leer la base
+            return ahora - ultima >= intervaloNanos && ultimaSincronizacion.compareAndSet(ultima, ahora);
+        }
+
+        private void restablecer(int cantidad) {
+            disponibles.set(cantidad);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import teatro_reservas.backend.dto.EventoFiltroDTO;
 import teatro_reservas.backend.dto.EventoRequestDTO;
 import teatro_reservas.backend.dto.EventoResponseDTO;
 import teatro_reservas.backend.dto.EventoResumenDTO;
+import teatro_reservas.backend.dto.PaginaDTO;
 import teatro_reservas.backend.entity.enums.TipoEntrada;
 import teatro_reservas.backend.entity.enums.TipoEvento;
 import java.math.BigDecimal;
@@ -18,7 +19,7 @@ public interface EventoService {
     EventoResponseDTO actualizarEvento(Long id, EventoRequestDTO eventoDTO);
     void eliminarEvento(Long id); // soft delete
 
-    List<EventoResponseDTO> obtenerTodosLosEventos();
+    PaginaDTO<EventoResponseDTO> obtenerTodosLosEventos(String cursor, int tamanio);
     List<EventoResumenDTO> obtenerEventosVigentes();
     List<EventoResumenDTO> obtenerEventosPorTipo(TipoEvento tipoEvento);
     List<EventoResumenDTO> buscarEventosPorNombre(String nombre);
@@ -32,6 +33,7 @@ public interface EventoService {
     // Filtros y búsquedas
     List<EventoResumenDTO> obtenerEventosProximos(int dias);
     List<EventoResumenDTO> obtenerEventosEnRango(LocalDateTime desde, LocalDateTime hasta);
+    PaginaDTO<EventoResumenDTO> filtrarEventos(EventoFiltroDTO filtro, String cursor, int tamanio);
 
     // Precios
     BigDecimal obtenerPrecioEntrada(Long eventoId, TipoEntrada tipoEntrada);
@@ -42,5 +44,5 @@ public interface EventoService {
     void validarCompatibilidadTipoEntrada(Long eventoId, TipoEntrada tipoEntrada);
     void validarDisponibilidad(Long eventoId, TipoEntrada tipoEntrada);
 
-    List<EventoResumenDTO> obtenerEventosMasPopulares(LocalDateTime desde, LocalDateTime hasta);
+    List<EventoResumenDTO> obtenerEventosMasPopulares(LocalDateTime desde, LocalDateTime hasta, int cantidad);
 }
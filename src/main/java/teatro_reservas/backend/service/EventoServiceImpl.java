@@ -1,8 +1,11 @@
 package teatro_reservas.backend.service;
 
 import jakarta.transaction.Transactional;
-import org.modelmapper.ModelMapper;
-import org.modelmapper.convention.MatchingStrategies;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import teatro_reservas.backend.dto.*;
 import teatro_reservas.backend.entity.Evento;
@@ -10,10 +13,14 @@ import teatro_reservas.backend.entity.enums.TipoEntrada;
 import teatro_reservas.backend.entity.enums.TipoEvento;
 import teatro_reservas.backend.exception.BusinessException;
 import teatro_reservas.backend.exception.ResourceNotFoundException;
+import teatro_reservas.backend.mapper.EventoMapper;
 import teatro_reservas.backend.repository.EventoRepository;
+import teatro_reservas.backend.repository.ReservaRepository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -22,23 +29,57 @@ import java.util.stream.Collectors;
 
 @Service
 @Transactional
+@Slf4j
 public class EventoServiceImpl implements EventoService {
 
-    private final EventoRepository eventoRepository;
-    private final ModelMapper modelMapper = new ModelMapper();
+    // Ids de más que se piden al ranking para completar la cantidad si falta alguno en la base
+    private static final int MARGEN_POPULARES = 5;
 
-    public EventoServiceImpl(EventoRepository eventoRepository) {
+    private final EventoRepository eventoRepository;
+    private final InventarioService inventarioService;
+    private final ReservaRepository reservaRepository;
+    private final EventoMapper eventoMapper;
+    private final IndiceBusquedaEventos indiceBusqueda;
+    private final PopularidadEventos popularidad;
+    private final CargadorEntidades cargador;
+    private final int maximoResultadosBusqueda;
+    private final int maximoPopulares;
+
+    public EventoServiceImpl(EventoRepository eventoRepository,
+                             InventarioService inventarioService,
+                             ReservaRepository reservaRepository,
+                             EventoMapper eventoMapper,
+                             IndiceBusquedaEventos indiceBusqueda,
+                             PopularidadEventos popularidad,
+                             CargadorEntidades cargador,
+                             @Value("${teatro.busqueda.maximo-resultados:50}") int maximoResultadosBusqueda,
+                             @Value("${teatro.eventos.populares.maximo:50}") int maximoPopulares) {
         this.eventoRepository = eventoRepository;
-        configurarModelMapper();
+        this.inventarioService = inventarioService;
+        this.reservaRepository = reservaRepository;
+        this.eventoMapper = eventoMapper;
+        this.indiceBusqueda = indiceBusqueda;
+        this.popularidad = popularidad;
+        this.cargador = cargador;
+        this.maximoResultadosBusqueda = maximoResultadosBusqueda;
+        this.maximoPopulares = maximoPopulares;
     }
 
-    private void configurarModelMapper() {
-        modelMapper.getConfiguration()
-                .setMatchingStrategy(MatchingStrategies.STRICT);
+    @EventListener(ApplicationReadyEvent.class)
+    public void construirIndiceBusqueda() {
+        for (Object[] fila : eventoRepository.findTextosParaBusqueda()) {
+            indiceBusqueda.indexar((Long) fila[0], (String) fila[1], (String) fila[2], (Boolean) fila[3]);
+        }
+        log.info("Índice de búsqueda de eventos construido: {} eventos", indiceBusqueda.cantidadEventos());
+    }
 
-        modelMapper.createTypeMap(Evento.class, EventoResponseDTO.class)
-                .addMapping(src -> src.estaVigente(), EventoResponseDTO::setEstaVigente)
-                .addMapping(src -> src.getReservasActivas(), EventoResponseDTO::setTotalReservasActivas);
+    @EventListener(ApplicationReadyEvent.class)
+    public void construirRankingPopularidad() {
+        for (Object[] fila : eventoRepository.findConfirmadasPorEvento()) {
+            popularidad.ubicar((Long) fila[0], (LocalDateTime) fila[1]);
+            popularidad.sumarConfirmadas((Long) fila[0], (LocalDateTime) fila[1], (Long) fila[2]);
+        }
+        log.info("Ranking de popularidad construido: {} eventos", popularidad.cantidadEventos());
     }
 
     // CRUD básico
@@ -49,13 +90,16 @@ public class EventoServiceImpl implements EventoService {
 
         Evento evento = mapToEventoEntity(eventoDTO);
         Evento eventoGuardado = eventoRepository.save(evento);
+        inventarioService.sincronizarInventario(eventoGuardado);
+        indiceBusqueda.indexarAlConfirmar(eventoGuardado.getId(), eventoGuardado.getNombre(),
+                eventoGuardado.getDescripcion(), eventoGuardado.getActivo());
+        popularidad.ubicarAlConfirmar(eventoGuardado.getId(), eventoGuardado.getFechaHora());
         return mapToEventoResponseDTO(eventoGuardado);
     }
 
     @Override
     public EventoResponseDTO obtenerEventoPorId(Long id) {
-        Evento evento = eventoRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Evento", "id", id));
+        Evento evento = cargador.evento(id);
         return mapToEventoResponseDTO(evento);
     }
 
@@ -83,6 +127,10 @@ public class EventoServiceImpl implements EventoService {
         actualizarConfiguracionesEntrada(evento, eventoDTO.getConfiguracionEntradas());
 
         Evento eventoActualizado = eventoRepository.save(evento);
+        inventarioService.sincronizarInventario(eventoActualizado);
+        indiceBusqueda.indexarAlConfirmar(id, eventoActualizado.getNombre(),
+                eventoActualizado.getDescripcion(), eventoActualizado.getActivo());
+        popularidad.ubicarAlConfirmar(id, eventoActualizado.getFechaHora());
         return mapToEventoResponseDTO(eventoActualizado);
     }
 
@@ -92,90 +140,98 @@ public class EventoServiceImpl implements EventoService {
                 .orElseThrow(() -> new ResourceNotFoundException("Evento", "id", id));
 
         // Verificar que no tenga reservas confirmadas
-        if (evento.getReservasActivas() > 0) {
+        if (reservaRepository.contarConfirmadasPorEvento(List.of(id)).getOrDefault(id, 0L) > 0) {
             throw new BusinessException("No se puede eliminar un evento con reservas confirmadas");
         }
 
+        inventarioService.eliminarInventario(id);
         eventoRepository.delete(evento);
+        indiceBusqueda.quitarAlConfirmar(id);
+        popularidad.quitarAlConfirmar(id);
     }
 
     // Consultas básicas
     @Override
-    public List<EventoResponseDTO> obtenerTodosLosEventos() {
-        List<Evento> eventos = eventoRepository.findAll();
-        return mapToEventoResponseDTOList(eventos);
+    public PaginaDTO<EventoResponseDTO> obtenerTodosLosEventos(String cursor, int tamanio) {
+        CursorPaginacion.validarTamanio(tamanio);
+        List<Evento> eventos = eventoRepository.findPaginaDesde(
+                CursorPaginacion.leerId(cursor), PageRequest.of(0, tamanio + 1));
+        return CursorPaginacion.armarPagina(eventos, tamanio,
+                evento -> CursorPaginacion.porId(evento.getId()), this::mapToEventoResponseDTOList);
     }
 
     @Override
     public List<EventoResumenDTO> obtenerEventosVigentes() {
-        List<Evento> eventos = eventoRepository.findEventosVigentes(LocalDateTime.now());
-        return mapToEventoResumenDTOList(eventos);
+        return eventoRepository.findCatalogoVigentes(LocalDateTime.now());
     }
 
     @Override
     public List<EventoResumenDTO> obtenerEventosPorTipo(TipoEvento tipoEvento) {
-        List<Evento> eventos = eventoRepository.findByTipoEventoAndActivoTrue(tipoEvento);
-        return mapToEventoResumenDTOList(eventos);
+        return eventoRepository.findCatalogoPorTipo(tipoEvento, LocalDateTime.now());
     }
 
     @Override
     public List<EventoResumenDTO> buscarEventosPorNombre(String nombre) {
-        List<Evento> eventos = eventoRepository.findByNombreContainingIgnoreCase(nombre);
-        return mapToEventoResumenDTOList(eventos);
+        // El índice en memoria resuelve el texto; la base solo completa los eventos encontrados
+        return catalogoEnOrden(indiceBusqueda.buscar(nombre, maximoResultadosBusqueda));
     }
 
     // Disponibilidad
     @Override
     public List<EventoResumenDTO> obtenerEventosConDisponibilidad() {
-        List<Evento> eventos = eventoRepository.findEventosConDisponibilidad(LocalDateTime.now());
-        return mapToEventoResumenDTOList(eventos);
+        return eventoRepository.findCatalogoConDisponibilidad(LocalDateTime.now());
     }
 
     @Override
     public boolean tieneDisponibilidad(Long eventoId, TipoEntrada tipoEntrada) {
-        Evento evento = eventoRepository.findById(eventoId)
-                .orElseThrow(() -> new ResourceNotFoundException("Evento", "id", eventoId));
-        return evento.tieneDisponibilidad(tipoEntrada);
+        return inventarioService.obtenerDisponibles(eventoId, tipoEntrada) > 0;
     }
 
     @Override
     public long obtenerCapacidadDisponible(Long eventoId, TipoEntrada tipoEntrada) {
-        Evento evento = eventoRepository.findById(eventoId)
-                .orElseThrow(() -> new ResourceNotFoundException("Evento", "id", eventoId));
-        return evento.getCapacidadDisponible(tipoEntrada);
+        return inventarioService.obtenerDisponibles(eventoId, tipoEntrada);
     }
 
     @Override
     public Map<TipoEntrada, Long> obtenerDisponibilidadPorTipo(Long eventoId) {
-        Evento evento = eventoRepository.findById(eventoId)
-                .orElseThrow(() -> new ResourceNotFoundException("Evento", "id", eventoId));
+        Evento evento = cargador.evento(eventoId);
 
-        Map<TipoEntrada, Long> disponibilidad = new HashMap<>();
-        for (TipoEntrada tipo : evento.getPrecios().keySet()) {
-            disponibilidad.put(tipo, evento.getCapacidadDisponible(tipo));
-        }
-        return disponibilidad;
+        return calcularDisponibilidadPorTipo(evento, inventarioService.obtenerDisponiblesPorTipo(eventoId));
     }
 
     @Override
     public List<EventoResumenDTO> obtenerEventosProximos(int dias) {
         LocalDateTime ahora = LocalDateTime.now();
         LocalDateTime limite = ahora.plusDays(dias);
-        List<Evento> eventos = eventoRepository.findEventosProximos(ahora, limite);
-        return mapToEventoResumenDTOList(eventos);
+        return eventoRepository.findCatalogoEnRango(ahora, limite, ahora);
     }
 
     @Override
     public List<EventoResumenDTO> obtenerEventosEnRango(LocalDateTime desde, LocalDateTime hasta) {
-        List<Evento> eventos = eventoRepository.findEventosByFechaBetween(desde, hasta);
-        return mapToEventoResumenDTOList(eventos);
+        return eventoRepository.findCatalogoEnRango(desde, hasta, LocalDateTime.now());
+    }
+
+    @Override
+    public PaginaDTO<EventoResumenDTO> filtrarEventos(EventoFiltroDTO filtro, String cursor, int tamanio) {
+        CursorPaginacion.validarTamanio(tamanio);
+        if (filtro.getFechaDesde() != null && filtro.getFechaHasta() != null
+                && filtro.getFechaDesde().isAfter(filtro.getFechaHasta())) {
+            throw new BusinessException("La fecha desde no puede ser posterior a la fecha hasta");
+        }
+
+        CursorPaginacion desde = CursorPaginacion.leerFecha(cursor);
+        List<EventoResumenDTO> eventos = eventoRepository.filtrarCatalogo(filtro,
+                desde != null ? desde.fecha() : null,
+                desde != null ? desde.id() : null,
+                tamanio + 1, LocalDateTime.now());
+        return CursorPaginacion.armarPagina(eventos, tamanio,
+                evento -> new CursorPaginacion(evento.getFechaHora(), evento.getId()), pagina -> pagina);
     }
 
     // Precios
     @Override
     public BigDecimal obtenerPrecioEntrada(Long eventoId, TipoEntrada tipoEntrada) {
-        Evento evento = eventoRepository.findById(eventoId)
-                .orElseThrow(() -> new ResourceNotFoundException("Evento", "id", eventoId));
+        Evento evento = cargador.evento(eventoId);
 
         BigDecimal precio = evento.getPrecios().get(tipoEntrada);
         if (precio == null) {
@@ -186,16 +242,14 @@ public class EventoServiceImpl implements EventoService {
 
     @Override
     public Map<TipoEntrada, BigDecimal> obtenerTodosLosPrecios(Long eventoId) {
-        Evento evento = eventoRepository.findById(eventoId)
-                .orElseThrow(() -> new ResourceNotFoundException("Evento", "id", eventoId));
+        Evento evento = cargador.evento(eventoId);
         return new HashMap<>(evento.getPrecios());
     }
 
     // Validaciones
     @Override
     public void validarEventoVigente(Long eventoId) {
-        Evento evento = eventoRepository.findById(eventoId)
-                .orElseThrow(() -> new ResourceNotFoundException("Evento", "id", eventoId));
+        Evento evento = cargador.evento(eventoId);
 
         if (!evento.estaVigente()) {
             throw new BusinessException("El evento no está vigente");
@@ -204,8 +258,7 @@ public class EventoServiceImpl implements EventoService {
 
     @Override
     public void validarCompatibilidadTipoEntrada(Long eventoId, TipoEntrada tipoEntrada) {
-        Evento evento = eventoRepository.findById(eventoId)
-                .orElseThrow(() -> new ResourceNotFoundException("Evento", "id", eventoId));
+        Evento evento = cargador.evento(eventoId);
 
         if (!evento.getPrecios().containsKey(tipoEntrada)) {
             throw new BusinessException("Tipo de entrada no válido para este evento");
@@ -220,19 +273,36 @@ public class EventoServiceImpl implements EventoService {
     }
 
     @Override
-    public List<EventoResumenDTO> obtenerEventosMasPopulares(LocalDateTime desde, LocalDateTime hasta) {
-        List<Object[]> resultados = eventoRepository.findEventosMasPopulares(desde, hasta);
-        return resultados.stream()
-                .map(result -> {
-                    Evento evento = (Evento) result[0];
-                    return mapToEventoResumenDTO(evento);
-                })
-                .collect(Collectors.toList());
+    public List<EventoResumenDTO> obtenerEventosMasPopulares(LocalDateTime desde, LocalDateTime hasta, int cantidad) {
+        if (cantidad < 1 || cantidad > maximoPopulares) {
+            throw new BusinessException("La cantidad de eventos debe estar entre 1 y " + maximoPopulares);
+        }
+
+        // El ranking en memoria elige y ordena los eventos (inactivos incluidos); la base solo completa
+        // sus datos. Se piden ids de más por si alguno se eliminó y el ranking todavía no se enteró
+        List<EventoResumenDTO> eventos = catalogoEnOrden(
+                popularidad.masPopulares(desde, hasta, cantidad + MARGEN_POPULARES));
+        return eventos.size() > cantidad ? eventos.subList(0, cantidad) : eventos;
     }
 
     // Métodos helper privados
+    private List<EventoResumenDTO> catalogoEnOrden(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        // Una sola consulta; el resultado respeta el orden de los ids
+        Map<Long, Integer> posiciones = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            posiciones.put(ids.get(i), i);
+        }
+        List<EventoResumenDTO> eventos = new ArrayList<>(eventoRepository.findCatalogoPorIds(ids, LocalDateTime.now()));
+        eventos.sort(Comparator.comparing(evento -> posiciones.get(evento.getId())));
+        return eventos;
+    }
+
     private Evento mapToEventoEntity(EventoRequestDTO dto) {
-        Evento evento = modelMapper.map(dto, Evento.class);
+        Evento evento = eventoMapper.toEntity(dto);
 
         // Mapear configuraciones manualmente
         Map<TipoEntrada, BigDecimal> precios = new HashMap<>();
@@ -250,46 +320,27 @@ public class EventoServiceImpl implements EventoService {
     }
 
     private EventoResponseDTO mapToEventoResponseDTO(Evento evento) {
-        EventoResponseDTO dto = modelMapper.map(evento, EventoResponseDTO.class);
+        return mapToEventoResponseDTOList(List.of(evento)).get(0);
+    }
 
-        // Calcular disponibilidad por tipo
+    // Disponibilidad leída del inventario, sin recorrer las reservas del evento
+    private Map<TipoEntrada, Long> calcularDisponibilidadPorTipo(Evento evento, Map<TipoEntrada, Long> inventario) {
         Map<TipoEntrada, Long> disponibilidad = new HashMap<>();
         for (TipoEntrada tipo : evento.getPrecios().keySet()) {
-            disponibilidad.put(tipo, evento.getCapacidadDisponible(tipo));
+            disponibilidad.put(tipo, inventario.getOrDefault(tipo, 0L));
         }
-        dto.setDisponibilidadPorTipo(disponibilidad);
-
-        // Establecer los tipos de entrada
-        dto.setTiposEntrada(evento.getPrecios().keySet());
-
-        return dto;
-    }
-
-    private EventoResumenDTO mapToEventoResumenDTO(Evento evento) {
-        EventoResumenDTO dto = modelMapper.map(evento, EventoResumenDTO.class);
-
-        // Calcular precio mínimo
-        BigDecimal precioMinimo = evento.getPrecios().values().stream()
-                .min(BigDecimal::compareTo)
-                .orElse(BigDecimal.ZERO);
-        dto.setPrecioDesde(precioMinimo);
-
-        // Capacidad disponible total
-        long capacidadDisponible = evento.getCapacidadTotal() - evento.getReservasActivas();
-        dto.setCapacidadDisponible(capacidadDisponible);
-
-        return dto;
+        return disponibilidad;
     }
 
+    // Inventario y reservas activas de todos los eventos en una consulta cada uno
     private List<EventoResponseDTO> mapToEventoResponseDTOList(List<Evento> eventos) {
+        List<Long> ids = eventos.stream().map(Evento::getId).collect(Collectors.toList());
+        Map<Long, Map<TipoEntrada, Long>> inventarios = inventarioService.obtenerDisponiblesPorEvento(ids);
+        Map<Long, Long> reservasActivas = reservaRepository.contarConfirmadasPorEvento(ids);
         return eventos.stream()
-                .map(this::mapToEventoResponseDTO)
-                .collect(Collectors.toList());
-    }
-
-    private List<EventoResumenDTO> mapToEventoResumenDTOList(List<Evento> eventos) {
-        return eventos.stream()
-                .map(this::mapToEventoResumenDTO)
+                .map(evento -> eventoMapper.toResponse(evento,
+                        calcularDisponibilidadPorTipo(evento, inventarios.get(evento.getId())),
+                        reservasActivas.getOrDefault(evento.getId(), 0L)))
                 .collect(Collectors.toList());
     }
 
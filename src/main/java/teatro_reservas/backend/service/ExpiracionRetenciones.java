@@ -0,0 +1,65 @@
+package teatro_reservas.backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import teatro_reservas.backend.repository.ReservaRepository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+// Avanza la rueda de retenciones y libera en lotes las entradas de las que vencieron
+@Component
+@Slf4j
+public class ExpiracionRetenciones {
+
+    private final RuedaRetenciones ruedaRetenciones;
+    private final ReservaService reservaService;
+    private final ReservaRepository reservaRepository;
+    private final int tamanoLote;
+
+    public ExpiracionRetenciones(RuedaRetenciones ruedaRetenciones,
+                                 ReservaService reservaService,
+                                 ReservaRepository reservaRepository,
+                                 @Value("${teatro.reservas.retencion.lote-expiracion:200}") int tamanoLote) {
+        this.ruedaRetenciones = ruedaRetenciones;
+        this.reservaService = reservaService;
+        this.reservaRepository = reservaRepository;
+        this.tamanoLote = tamanoLote;
+    }
+
+    @Scheduled(fixedDelayString = "${teatro.reservas.retencion.tick-ms:1000}")
+    public void procesarVencimientos() {
+        long ahora = System.currentTimeMillis();
+        List<Long> vencidas = ruedaRetenciones.avanzar(ahora);
+
+        for (int desde = 0; desde < vencidas.size(); desde += tamanoLote) {
+            List<Long> lote = vencidas.subList(desde, Math.min(desde + tamanoLote, vencidas.size()));
+            try {
+                int expiradas = reservaService.expirarRetenciones(lote);
+                log.debug("Retenciones expiradas: {} de {}", expiradas, lote.size());
+            } catch (RuntimeException e) {
+                // El lote vuelve a la rueda para el próximo tick
+                log.warn("No se pudo expirar un lote de {} retenciones: {}", lote.size(), e.getMessage());
+                lote.forEach(reservaId -> ruedaRetenciones.programar(reservaId, ahora));
+            }
+        }
+    }
+
+    // La rueda vive en memoria: al iniciar se vuelve a cargar con las retenciones activas
+    @EventListener(ApplicationReadyEvent.class)
+    public void reprogramarAlIniciar() {
+        for (Object[] fila : reservaRepository.findRetencionesActivas()) {
+            LocalDateTime vencimiento = (LocalDateTime) fila[1];
+            long vencimientoMs = vencimiento != null
+                    ? vencimiento.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                    : System.currentTimeMillis();
+            ruedaRetenciones.programar((Long) fila[0], vencimientoMs);
+        }
+        log.info("Retenciones reprogramadas al iniciar: {}", ruedaRetenciones.cantidadProgramadas());
+    }
+}
@@ -0,0 +1,14 @@
+package teatro_reservas.backend.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import teatro_reservas.backend.entity.enums.FormatoExportacion;
+
+import java.time.LocalDateTime;
+
+// Los parámetros se validan al llamar; las filas se leen y escriben recién cuando se envía la respuesta
+public interface ExportacionService {
+
+    StreamingResponseBody exportarReservasPorEvento(Long eventoId, FormatoExportacion formato);
+    StreamingResponseBody exportarReservasEnRango(LocalDateTime desde, LocalDateTime hasta, FormatoExportacion formato);
+    StreamingResponseBody exportarClientes(FormatoExportacion formato);
+}
@@ -0,0 +1,185 @@
+package teatro_reservas.backend.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.transaction.Transactional;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import teatro_reservas.backend.dto.ClienteExportacionDTO;
+import teatro_reservas.backend.dto.ReservaExportacionDTO;
+import teatro_reservas.backend.entity.enums.FormatoExportacion;
+import teatro_reservas.backend.exception.BusinessException;
+import teatro_reservas.backend.exception.ResourceNotFoundException;
+import teatro_reservas.backend.repository.ClienteRepository;
+import teatro_reservas.backend.repository.EventoRepository;
+import teatro_reservas.backend.repository.ReservaRepository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Exportaciones de reservas y clientes escritas directo en la respuesta HTTP.
+ * Las filas llegan como proyecciones desde un Stream del repositorio (cursor JDBC
+ * con tamaño de lectura fijo) y se envían en bloques, así que la memoria usada no
+ * depende de la cantidad de filas y el cliente recibe datos desde el primer bloque.
+ */
+@Service
+@Transactional
+public class ExportacionServiceImpl implements ExportacionService {
+
+    // Filas escritas entre cada envío forzado al cliente
+    private static final int FILAS_POR_ENVIO = 500;
+
+    private static final List<String> COLUMNAS_RESERVA = List.of(
+            "id", "codigoReserva", "clienteId", "emailCliente", "eventoId", "nombreEvento", "fechaEvento",
+            "tipoEntrada", "estado", "esPaseGratuito", "precioPagado", "fechaReserva", "fechaConfirmacion",
+            "fechaCancelacion");
+    private static final List<String> COLUMNAS_CLIENTE = List.of(
+            "id", "nombre", "apellido", "email", "dni", "telefono", "fechaRegistro", "eventosAsistidos",
+            "pasesGratuitos", "activo");
+
+    private final ReservaRepository reservaRepository;
+    private final ClienteRepository clienteRepository;
+    private final EventoRepository eventoRepository;
+    private final ObjectWriter escritorJson;
+    private final TransactionTemplate transaccionLectura;
+
+    public ExportacionServiceImpl(ReservaRepository reservaRepository,
+                                  ClienteRepository clienteRepository,
+                                  EventoRepository eventoRepository,
+                                  ObjectMapper objectMapper,
+                                  PlatformTransactionManager transactionManager) {
+        this.reservaRepository = reservaRepository;
+        this.clienteRepository = clienteRepository;
+        this.eventoRepository = eventoRepository;
+        // Sin flush por fila: los envíos los decide el bucle de escritura
+        this.escritorJson = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.transaccionLectura = new TransactionTemplate(transactionManager);
+        this.transaccionLectura.setReadOnly(true);
+    }
+
+    @Override
+    public StreamingResponseBody exportarReservasPorEvento(Long eventoId, FormatoExportacion formato) {
+        if (!eventoRepository.existsById(eventoId)) {
+            throw new ResourceNotFoundException("Evento", "id", eventoId);
+        }
+        return salida -> escribir(() -> reservaRepository.streamExportacionPorEvento(eventoId),
+                formato, salida, COLUMNAS_RESERVA, this::valoresReserva);
+    }
+
+    @Override
+    public StreamingResponseBody exportarReservasEnRango(LocalDateTime desde, LocalDateTime hasta, FormatoExportacion formato) {
+        if (desde.isAfter(hasta)) {
+            throw new BusinessException("La fecha desde no puede ser posterior a la fecha hasta");
+        }
+        return salida -> escribir(() -> reservaRepository.streamExportacionEnRango(desde, hasta),
+                formato, salida, COLUMNAS_RESERVA, this::valoresReserva);
+    }
+
+    @Override
+    public StreamingResponseBody exportarClientes(FormatoExportacion formato) {
+        return salida -> escribir(clienteRepository::streamExportacion,
+                formato, salida, COLUMNAS_CLIENTE, this::valoresCliente);
+    }
+
+    // Se ejecuta al enviar la respuesta, fuera de la llamada al servicio: abre su propia transacción de lectura
+    private <T> void escribir(Supplier<Stream<T>> consulta, FormatoExportacion formato, OutputStream salida,
+                              List<String> columnas, Function<T, List<Object>> valores) throws IOException {
+        try {
+            transaccionLectura.executeWithoutResult(estado -> {
+                try (Stream<T> filas = consulta.get()) {
+                    if (formato == FormatoExportacion.CSV) {
+                        escribirCsv(filas.iterator(), salida, columnas, valores);
+                    } else {
+                        escribirNdjson(filas.iterator(), salida);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private <T> void escribirNdjson(Iterator<T> filas, OutputStream salida) throws IOException {
+        try (JsonGenerator generador = escritorJson.createGenerator(salida)) {
+            generador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            int escritas = 0;
+            while (filas.hasNext()) {
+                escritorJson.writeValue(generador, filas.next());
+                generador.writeRaw('\n');
+                // La primera fila sale enseguida; después se envía cada FILAS_POR_ENVIO filas
+                if (++escritas % FILAS_POR_ENVIO == 1) {
+                    generador.flush();
+                }
+            }
+        }
+    }
+
+    private <T> void escribirCsv(Iterator<T> filas, OutputStream salida, List<String> columnas,
+                                 Function<T, List<Object>> valores) throws IOException {
+        Writer escritor = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+        escribirLineaCsv(escritor, columnas);
+        escritor.flush();
+
+        int escritas = 0;
+        while (filas.hasNext()) {
+            escribirLineaCsv(escritor, valores.apply(filas.next()));
+            if (++escritas % FILAS_POR_ENVIO == 0) {
+                escritor.flush();
+            }
+        }
+        escritor.flush();
+    }
+
+    private void escribirLineaCsv(Writer escritor, List<?> campos) throws IOException {
+        for (int i = 0; i < campos.size(); i++) {
+            if (i > 0) {
+                escritor.write(',');
+            }
+            Object campo = campos.get(i);
+            if (campo != null) {
+                escritor.write(escaparCsv(campo.toString()));
+            }
+        }
+        escritor.write("\r\n");
+    }
+
+    // RFC 4180: entre comillas si el valor tiene separadores, comillas o saltos de línea
+    private String escaparCsv(String valor) {
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            return valor;
+        }
+        return '"' + valor.replace("\"", "\"\"") + '"';
+    }
+
+    private List<Object> valoresReserva(ReservaExportacionDTO reserva) {
+        return Arrays.asList(reserva.getId(), reserva.getCodigoReserva(), reserva.getClienteId(),
+                reserva.getEmailCliente(), reserva.getEventoId(), reserva.getNombreEvento(), reserva.getFechaEvento(),
+                reserva.getTipoEntrada(), reserva.getEstado(), reserva.getEsPaseGratuito(), reserva.getPrecioPagado(),
+                reserva.getFechaReserva(), reserva.getFechaConfirmacion(), reserva.getFechaCancelacion());
+    }
+
+    private List<Object> valoresCliente(ClienteExportacionDTO cliente) {
+        return Arrays.asList(cliente.getId(), cliente.getNombre(), cliente.getApellido(), cliente.getEmail(),
+                cliente.getDni(), cliente.getTelefono(), cliente.getFechaRegistro(), cliente.getEventosAsistidos(),
+                cliente.getPasesGratuitos(), cliente.getActivo());
+    }
+}
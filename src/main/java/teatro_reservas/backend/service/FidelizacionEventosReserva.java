@@ -0,0 +1,44 @@
+package teatro_reservas.backend.service;
+
+import org.springframework.stereotype.Component;
+import teatro_reservas.backend.entity.EventoOutbox;
+import teatro_reservas.backend.entity.enums.TipoEventoReserva;
+import teatro_reservas.backend.repository.ClienteRepository;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Asistencias y devolución de pases: un UPDATE por cliente y por lote de eventos
+@Component
+public class FidelizacionEventosReserva implements ManejadorEventosReserva {
+
+    private final ClienteRepository clienteRepository;
+
+    public FidelizacionEventosReserva(ClienteRepository clienteRepository) {
+        this.clienteRepository = clienteRepository;
+    }
+
+    @Override
+    public boolean atiende(TipoEventoReserva tipo) {
+        return tipo == TipoEventoReserva.RESERVA_CREADA || tipo == TipoEventoReserva.RESERVA_CANCELADA;
+    }
+
+    @Override
+    public void manejar(List<EventoOutbox> eventos) {
+        Map<Long, Integer> asistenciasPorCliente = new LinkedHashMap<>();
+        Map<Long, Integer> pasesADevolver = new LinkedHashMap<>();
+
+        for (EventoOutbox evento : eventos) {
+            if (evento.getTipo() == TipoEventoReserva.RESERVA_CREADA) {
+                asistenciasPorCliente.merge(evento.getClienteId(), 1, Integer::sum);
+            } else if (evento.getPaseGratuito()) {
+                pasesADevolver.merge(evento.getClienteId(), 1, Integer::sum);
+            }
+        }
+
+        asistenciasPorCliente.forEach((clienteId, asistencias) ->
+                clienteRepository.registrarAsistencias(clienteId, asistencias, 0));
+        pasesADevolver.forEach(clienteRepository::devolverPasesGratuitos);
+    }
+}
@@ -2,6 +2,9 @@ package teatro_reservas.backend.service;
 
 import teatro_reservas.backend.dto.ClienteResponseDTO;
 import teatro_reservas.backend.dto.ClienteResumenDTO;
+import teatro_reservas.backend.dto.EstadisticasFidelizacionDTO;
+import teatro_reservas.backend.dto.InconsistenciaFidelizacionDTO;
+import teatro_reservas.backend.dto.PaginaDTO;
 
 import java.util.List;
 import java.util.Map;
@@ -14,7 +17,7 @@ public interface FidelizacionService {
     List<ClienteResumenDTO> obtenerClientesElegiblesParaPase();
 
     // Estadísticas de fidelización
-    Map<String, Long> obtenerEstadisticasFidelizacion();
+    EstadisticasFidelizacionDTO obtenerEstadisticasFidelizacion();
     List<ClienteResponseDTO> obtenerRankingClientesFrecuentes();
 
     // Estadísticas detalladas
@@ -22,5 +25,5 @@ public interface FidelizacionService {
 
     // Métodos administrativos
     void actualizarSistemaFidelizacion();
-    Map<String, Object> validarIntegridadSistema();
+    PaginaDTO<InconsistenciaFidelizacionDTO> validarIntegridadSistema(String cursor, int tamanio);
 }
@@ -1,19 +1,21 @@
 package teatro_reservas.backend.service;
 
 import jakarta.transaction.Transactional;
-import org.modelmapper.ModelMapper;
-import org.modelmapper.convention.MatchingStrategies;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import teatro_reservas.backend.dto.ClienteResponseDTO;
 import teatro_reservas.backend.dto.ClienteResumenDTO;
+import teatro_reservas.backend.dto.EstadisticasFidelizacionDTO;
+import teatro_reservas.backend.dto.InconsistenciaFidelizacionDTO;
+import teatro_reservas.backend.dto.PaginaDTO;
 import teatro_reservas.backend.entity.Cliente;
 import teatro_reservas.backend.entity.Reserva;
 import teatro_reservas.backend.exception.ResourceNotFoundException;
+import teatro_reservas.backend.mapper.ClienteMapper;
 import teatro_reservas.backend.repository.ClienteRepository;
 import teatro_reservas.backend.repository.ReservaRepository;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
@@ -26,22 +28,20 @@ public class FidelizacionServiceImpl implements FidelizacionService {
 
     private final ClienteRepository clienteRepository;
     private final ReservaRepository reservaRepository;
-    private final ModelMapper modelMapper = new ModelMapper();
+    private final ClienteMapper clienteMapper;
+    private final long vigenciaEstadisticasMs;
+
+    // Estadísticas calculadas en el intervalo de vigencia actual (la hora dividida por la vigencia)
+    private volatile EstadisticasGuardadas estadisticasGuardadas;
 
     public FidelizacionServiceImpl(ClienteRepository clienteRepository,
-                                   ReservaRepository reservaRepository) {
+                                   ReservaRepository reservaRepository,
+                                   ClienteMapper clienteMapper,
+                                   @Value("${teatro.fidelizacion.estadisticas.vigencia:30s}") Duration vigenciaEstadisticas) {
         this.clienteRepository = clienteRepository;
         this.reservaRepository = reservaRepository;
-        configurarModelMapper();
-    }
-
-    private void configurarModelMapper() {
-        modelMapper.getConfiguration()
-                .setMatchingStrategy(MatchingStrategies.STRICT);
-
-        modelMapper.createTypeMap(Cliente.class, ClienteResponseDTO.class)
-                .addMapping(src -> src.esClienteFrecuente(), ClienteResponseDTO::setEsClienteFrecuente)
-                .addMapping(src -> src.getReservasActivas(), ClienteResponseDTO::setReservasActivas);
+        this.clienteMapper = clienteMapper;
+        this.vigenciaEstadisticasMs = vigenciaEstadisticas.toMillis();
     }
 
     // Consultas de fidelización
@@ -78,55 +78,22 @@ public class FidelizacionServiceImpl implements FidelizacionService {
 
     // Estadísticas de fidelización
     @Override
-    public Map<String, Long> obtenerEstadisticasFidelizacion() {
-        Map<String, Long> estadisticas = new HashMap<>();
-
-        // Total de clientes
-        long totalClientes = clienteRepository.count();
-        estadisticas.put("totalClientes", totalClientes);
-
-        // Clientes frecuentes (5+ eventos)
-        List<Cliente> clientesFrecuentes = clienteRepository.findClientesFrecuentes();
-        estadisticas.put("clientesFrecuentes", (long) clientesFrecuentes.size());
-
-        // Clientes con pases gratuitos disponibles
-        List<Cliente> clientesConPases = clienteRepository.findClientesConPasesGratuitos();
-        estadisticas.put("clientesConPasesDisponibles", (long) clientesConPases.size());
-
-        // Total de pases gratuitos otorgados
-        long totalPasesOtorgados = clienteRepository.findAll().stream()
-                .mapToLong(Cliente::getPasesGratuitos)
-                .sum();
-        estadisticas.put("totalPasesOtorgados", totalPasesOtorgados);
-
-        // Total de pases gratuitos usados (calculado)
-        long totalPasesUsados = calcularTotalPasesUsados();
-        estadisticas.put("totalPasesUsados", totalPasesUsados);
-
-        // Promedio de eventos por cliente
-        double promedioEventos = clienteRepository.findAll().stream()
-                .mapToInt(Cliente::getEventosAsistidos)
-                .average()
-                .orElse(0.0);
-        estadisticas.put("promedioEventosPorCliente", Math.round(promedioEventos));
-
-        // Porcentaje de fidelización
-        double porcentajeFidelizacion = totalClientes > 0 ?
-                (double) clientesFrecuentes.size() / totalClientes * 100 : 0.0;
-        estadisticas.put("porcentajeFidelizacion", Math.round(porcentajeFidelizacion));
-
+    public EstadisticasFidelizacionDTO obtenerEstadisticasFidelizacion() {
+        // Una sola consulta agregada; dentro del mismo intervalo de vigencia se reutiliza el resultado
+        long intervalo = vigenciaEstadisticasMs > 0 ? System.currentTimeMillis() / vigenciaEstadisticasMs : -1;
+        EstadisticasGuardadas guardadas = estadisticasGuardadas;
+        if (guardadas != null && intervalo >= 0 && guardadas.intervalo() == intervalo) {
+            return guardadas.estadisticas();
+        }
+        EstadisticasFidelizacionDTO estadisticas = clienteRepository.calcularEstadisticasFidelizacion();
+        estadisticasGuardadas = new EstadisticasGuardadas(intervalo, estadisticas);
         return estadisticas;
     }
 
     @Override
     public List<ClienteResponseDTO> obtenerRankingClientesFrecuentes() {
-        // Obtener los top 10 clientes por eventos asistidos
-        Pageable topTen = (Pageable) PageRequest.of(0, 10);
-        Page<Cliente> topClientes = clienteRepository.findTopClientesByEventosAsistidos(topTen);
-
-        return topClientes.getContent().stream()
-                .map(cliente -> modelMapper.map(cliente, ClienteResponseDTO.class))
-                .collect(Collectors.toList());
+        // Top 10 clientes por eventos asistidos, proyectados con sus reservas confirmadas
+        return clienteRepository.findRankingPorEventosAsistidos(PageRequest.of(0, 10));
     }
 
     // Estadísticas detalladas por cliente
@@ -178,53 +145,22 @@ public class FidelizacionServiceImpl implements FidelizacionService {
         }
     }
 
-    // Validar integridad del sistema de fidelización
-    public Map<String, Object> validarIntegridadSistema() {
-        Map<String, Object> reporte = new HashMap<>();
-        List<String> inconsistencias = new ArrayList<>();
-
-        List<Cliente> todosClientes = clienteRepository.findAll();
-
-        for (Cliente cliente : todosClientes) {
-            int eventosAsistidos = cliente.getEventosAsistidos();
-            int pasesActuales = cliente.getPasesGratuitos();
-            int pasesQueDebeTener = eventosAsistidos / 5;
-
-            // Calcular pases usados por el cliente
-            long pasesUsados = reservaRepository.findAll().stream()
-                    .filter(r -> r.getCliente().getId().equals(cliente.getId()))
-                    .filter(Reserva::getEsPaseGratuito)
-                    .count();
-
-            if (pasesActuales + pasesUsados < pasesQueDebeTener) {
-                inconsistencias.add(String.format(
-                        "Cliente %s (%s): Debe tener %d pases pero solo tiene %d disponibles + %d usados",
-                        cliente.getNombre() + " " + cliente.getApellido(),
-                        cliente.getId(),
-                        pasesQueDebeTener,
-                        pasesActuales,
-                        pasesUsados
-                ));
-            }
-        }
-
-        reporte.put("inconsistenciasEncontradas", inconsistencias.size());
-        reporte.put("detalleInconsistencias", inconsistencias);
-        reporte.put("sistemaIntegro", inconsistencias.isEmpty());
-
-        return reporte;
+    // Validar integridad del sistema de fidelización: una consulta agrupada por página de inconsistencias
+    public PaginaDTO<InconsistenciaFidelizacionDTO> validarIntegridadSistema(String cursor, int tamanio) {
+        CursorPaginacion.validarTamanio(tamanio);
+        List<InconsistenciaFidelizacionDTO> inconsistencias = clienteRepository.findInconsistenciasFidelizacionDesde(
+                CursorPaginacion.leerId(cursor), PageRequest.of(0, tamanio + 1));
+        return CursorPaginacion.armarPagina(inconsistencias, tamanio,
+                inconsistencia -> CursorPaginacion.porId(inconsistencia.getClienteId()), pagina -> pagina);
     }
 
     // Métodos helper privados
-    private long calcularTotalPasesUsados() {
-        return reservaRepository.findAll().stream()
-                .filter(Reserva::getEsPaseGratuito)
-                .count();
-    }
-
     private List<ClienteResumenDTO> mapToClienteResumenDTOList(List<Cliente> clientes) {
         return clientes.stream()
-                .map(cliente -> modelMapper.map(cliente, ClienteResumenDTO.class))
+                .map(clienteMapper::toResumen)
                 .collect(Collectors.toList());
     }
+
+    private record EstadisticasGuardadas(long intervalo, EstadisticasFidelizacionDTO estadisticas) {
+    }
 }
@@ -0,0 +1,92 @@
+package teatro_reservas.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Códigos de reserva sin colisiones y sin coordinación: 64 bits formados por
+ * milisegundos desde 2025 (42), nodo (10) y secuencia (12), codificados en
+ * base32 de Crockford más un símbolo de control módulo 37. Ejemplo: RES-06JEJ7HWW0000M.
+ * Dentro de un nodo los valores son estrictamente crecientes; si se agotan las
+ * 4096 secuencias de un milisegundo se continúa con el siguiente.
+ */
+@Component
+public class GeneradorCodigoCrockford implements GeneradorCodigoReserva {
+
+    private static final String PREFIJO = "RES-";
+    private static final char[] SIMBOLOS = "0123456789ABCDEFGHJKMNPQRSTVWXYZ*~$=U".toCharArray();
+    private static final int CARACTERES_VALOR = 13;
+    private static final int LONGITUD = PREFIJO.length() + CARACTERES_VALOR + 1;
+
+    private static final long EPOCA_MS = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli();
+    private static final int BITS_NODO = 10;
+    private static final int BITS_SECUENCIA = 12;
+    private static final long MASCARA_SECUENCIA = (1L << BITS_SECUENCIA) - 1;
+
+    private final long nodoDesplazado;
+    // Milisegundo y secuencia del último código emitido, empaquetados para avanzar con un solo CAS
+    private final AtomicLong ultimo = new AtomicLong();
+
+    public GeneradorCodigoCrockford(@Value("${teatro.reservas.codigo.nodo:0}") int nodo) {
+        if (nodo < 0 || nodo >= (1 << BITS_NODO)) {
+            throw new IllegalArgumentException("El nodo del generador de códigos debe estar entre 0 y " + ((1 << BITS_NODO) - 1));
+        }
+        this.nodoDesplazado = (long) nodo << BITS_SECUENCIA;
+    }
+
+    @Override
+    public String generar() {
+        long marca = (System.currentTimeMillis() - EPOCA_MS) << BITS_SECUENCIA;
+        // Nunca retrocede: ni por el reloj ni entre hilos
+        long actual = ultimo.accumulateAndGet(marca, (anterior, nueva) -> Math.max(nueva, anterior + 1));
+
+        long valor = ((actual >>> BITS_SECUENCIA) << (BITS_NODO + BITS_SECUENCIA))
+                | nodoDesplazado
+                | (actual & MASCARA_SECUENCIA);
+        return codificar(valor);
+    }
+
+    @Override
+    public boolean puedeExistir(String codigo) {
+        if (codigo == null || codigo.length() != LONGITUD || !codigo.startsWith(PREFIJO)) {
+            // Formatos anteriores: solo la base puede responder
+            return codigo != null && !codigo.isBlank();
+        }
+
+        long valor = 0;
+        for (int i = PREFIJO.length(); i < LONGITUD - 1; i++) {
+            int digito = indiceSimbolo(codigo.charAt(i));
+            if (digito < 0 || digito >= 32) {
+                return false;
+            }
+            valor = (valor << 5) | digito;
+        }
+        return indiceSimbolo(codigo.charAt(LONGITUD - 1)) == Long.remainderUnsigned(valor, 37);
+    }
+
+    // Un único char[] por código: el prefijo, 13 dígitos de 5 bits y el símbolo de control
+    private static String codificar(long valor) {
+        char[] codigo = new char[LONGITUD];
+        PREFIJO.getChars(0, PREFIJO.length(), codigo, 0);
+
+        long resto = valor;
+        for (int i = LONGITUD - 2; i >= PREFIJO.length(); i--) {
+            codigo[i] = SIMBOLOS[(int) (resto & 31)];
+            resto >>>= 5;
+        }
+        codigo[LONGITUD - 1] = SIMBOLOS[(int) Long.remainderUnsigned(valor, 37)];
+        return new String(codigo);
+    }
+
+    private static int indiceSimbolo(char simbolo) {
+        for (int i = 0; i < SIMBOLOS.length; i++) {
+            if (SIMBOLOS[i] == simbolo) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
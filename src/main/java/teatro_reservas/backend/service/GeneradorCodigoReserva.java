@@ -0,0 +1,12 @@
+package teatro_reservas.backend.service;
+
+// Genera los códigos únicos que identifican a cada reserva ante el cliente
+public interface GeneradorCodigoReserva {
+
+    String generar();
+
+    // Descarta sin consultar la base los códigos que este generador nunca pudo emitir
+    default boolean puedeExistir(String codigo) {
+        return codigo != null && !codigo.isBlank();
+    }
+}
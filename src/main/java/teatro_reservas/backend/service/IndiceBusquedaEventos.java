@@ -0,0 +1,187 @@
+package teatro_reservas.backend.service;
+
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido en memoria sobre el nombre y la descripción de los eventos.
+ * Los textos se pasan a minúsculas sin tildes ("Bernarda Álba" y "bernarda alba"
+ * son lo mismo) y se parten en términos; cada término guarda los eventos que lo
+ * contienen con un peso mayor si aparece en el nombre. Una búsqueda devuelve los
+ * eventos que contienen todos los términos pedidos, ordenados por relevancia
+ * (peso × rareza del término); el último término vale también como prefijo para
+ * acompañar lo que el usuario va escribiendo. Los eventos inactivos quedan
+ * indexados pero se descartan antes de aplicar el límite de resultados.
+ */
+@Component
+public class IndiceBusquedaEventos {
+
+    private static final int PESO_NOMBRE = 3;
+    private static final int PESO_DESCRIPCION = 1;
+    // Prefijos más cortos abarcarían medio vocabulario
+    private static final int LONGITUD_MINIMA_PREFIJO = 2;
+
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // Término → (evento → peso); ordenado para poder recorrer los términos de un prefijo
+    private final NavigableMap<String, Map<Long, Integer>> terminos = new TreeMap<>();
+    private final Map<Long, Set<String>> terminosPorEvento = new HashMap<>();
+    private final Set<Long> inactivos = new HashSet<>();
+    private final ReadWriteLock candado = new ReentrantReadWriteLock();
+
+    public void indexar(Long eventoId, String nombre, String descripcion, boolean activo) {
+        Map<String, Integer> pesos = new HashMap<>();
+        for (String termino : terminosDe(nombre)) {
+            pesos.merge(termino, PESO_NOMBRE, Integer::sum);
+        }
+        for (String termino : terminosDe(descripcion)) {
+            pesos.merge(termino, PESO_DESCRIPCION, Integer::sum);
+        }
+
+        candado.writeLock().lock();
+        try {
+            quitarSinBloquear(eventoId);
+            pesos.forEach((termino, peso) ->
+                    terminos.computeIfAbsent(termino, t -> new HashMap<>()).put(eventoId, peso));
+            terminosPorEvento.put(eventoId, pesos.keySet());
+            if (!activo) {
+                inactivos.add(eventoId);
+            }
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    public void quitar(Long eventoId) {
+        candado.writeLock().lock();
+        try {
+            quitarSinBloquear(eventoId);
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    // Ids de los eventos activos que contienen todos los términos, del más relevante al menos relevante
+    public List<Long> buscar(String texto, int limite) {
+        List<String> consulta = terminosDe(texto);
+        if (consulta.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Double> puntajes = null;
+        candado.readLock().lock();
+        try {
+            int totalEventos = Math.max(terminosPorEvento.size(), 1);
+            for (int i = 0; i < consulta.size(); i++) {
+                String termino = consulta.get(i);
+                boolean esPrefijo = i == consulta.size() - 1 && termino.length() >= LONGITUD_MINIMA_PREFIJO;
+                Map<Long, Double> coincidencias = puntuar(termino, esPrefijo, totalEventos);
+
+                if (puntajes == null) {
+                    puntajes = coincidencias;
+                } else {
+                    Map<Long, Double> acumulados = puntajes;
+                    puntajes = new HashMap<>();
+                    for (Map.Entry<Long, Double> coincidencia : coincidencias.entrySet()) {
+                        Double previo = acumulados.get(coincidencia.getKey());
+                        if (previo != null) {
+                            puntajes.put(coincidencia.getKey(), previo + coincidencia.getValue());
+                        }
+                    }
+                }
+                if (puntajes.isEmpty()) {
+                    return List.of();
+                }
+            }
+            puntajes.keySet().removeAll(inactivos);
+        } finally {
+            candado.readLock().unlock();
+        }
+
+        List<Map.Entry<Long, Double>> ordenados = new ArrayList<>(puntajes.entrySet());
+        ordenados.sort(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry.comparingByKey()));
+        List<Long> ids = new ArrayList<>(Math.min(limite, ordenados.size()));
+        for (int i = 0; i < ordenados.size() && i < limite; i++) {
+            ids.add(ordenados.get(i).getKey());
+        }
+        return ids;
+    }
+
+    public int cantidadEventos() {
+        candado.readLock().lock();
+        try {
+            return terminosPorEvento.size();
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    // El índice solo cambia si la transacción que modificó el evento se confirma
+    public void indexarAlConfirmar(Long eventoId, String nombre, String descripcion, boolean activo) {
+        SincronizacionTransaccion.alConfirmar(() -> indexar(eventoId, nombre, descripcion, activo));
+    }
+
+    public void quitarAlConfirmar(Long eventoId) {
+        SincronizacionTransaccion.alConfirmar(() -> quitar(eventoId));
+    }
+
+    static List<String> terminosDe(String texto) {
+        if (texto == null || texto.isBlank()) {
+            return List.of();
+        }
+        String plano = MARCAS_DIACRITICAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        List<String> resultado = new ArrayList<>();
+        for (String termino : SEPARADORES.split(plano.toLowerCase(Locale.ROOT))) {
+            if (!termino.isEmpty()) {
+                resultado.add(termino);
+            }
+        }
+        return resultado;
+    }
+
+    // Un término raro pesa más que uno que aparece en casi todos los eventos (idf)
+    private Map<Long, Double> puntuar(String termino, boolean esPrefijo, int totalEventos) {
+        Map<String, Map<Long, Integer>> alcanzados = esPrefijo
+                ? terminos.subMap(termino, true, termino + Character.MAX_VALUE, false)
+                : terminos.containsKey(termino) ? Map.of(termino, terminos.get(termino)) : Map.of();
+
+        Map<Long, Double> puntajes = new HashMap<>();
+        alcanzados.values().forEach(eventos -> {
+            double rareza = Math.log(1 + (double) totalEventos / eventos.size());
+            // Con varios términos del mismo prefijo en un evento cuenta el mejor
+            eventos.forEach((eventoId, peso) -> puntajes.merge(eventoId, peso * rareza, Math::max));
+        });
+        return puntajes;
+    }
+
+    private void quitarSinBloquear(Long eventoId) {
+        inactivos.remove(eventoId);
+        Set<String> anteriores = terminosPorEvento.remove(eventoId);
+        if (anteriores == null) {
+            return;
+        }
+        for (String termino : anteriores) {
+            Map<Long, Integer> eventos = terminos.get(termino);
+            eventos.remove(eventoId);
+            if (eventos.isEmpty()) {
+                terminos.remove(termino);
+            }
+        }
+    }
+}
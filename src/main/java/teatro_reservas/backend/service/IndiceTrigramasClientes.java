@@ -0,0 +1,216 @@
+package teatro_reservas.backend.service;
+
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Índice de trigramas en memoria sobre "nombre apellido" de los clientes, en
+ * minúsculas y sin tildes ("Gonz" encuentra a "González"). Cada trigrama guarda
+ * los clientes que lo contienen, así que una búsqueda solo revisa los clientes
+ * que comparten todos los trigramas del término en lugar de recorrer la tabla.
+ * Si ningún nombre contiene el término se devuelven los más parecidos (errores
+ * de tipeo como "Gonzales"), ordenados por la proporción de trigramas en común.
+ */
+@Component
+public class IndiceTrigramasClientes {
+
+    // Proporción mínima de trigramas compartidos para aceptar una coincidencia aproximada
+    private static final double SIMILITUD_MINIMA = 0.5;
+
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+    private static final Pattern ESPACIOS = Pattern.compile("\\s+");
+
+    // Trigrama → clientes que lo contienen
+    private final Map<String, Set<Long>> trigramas = new HashMap<>();
+    private final Map<Long, String> textoPorCliente = new HashMap<>();
+    private final ReadWriteLock candado = new ReentrantReadWriteLock();
+
+    public void indexar(Long clienteId, String nombre, String apellido) {
+        String texto = normalizar(nombre + " " + apellido);
+        Set<String> nuevos = trigramasDe(texto);
+
+        candado.writeLock().lock();
+        try {
+            quitarSinBloquear(clienteId);
+            for (String trigrama : nuevos) {
+                trigramas.computeIfAbsent(trigrama, t -> new HashSet<>()).add(clienteId);
+            }
+            textoPorCliente.put(clienteId, texto);
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    public void quitar(Long clienteId) {
+        candado.writeLock().lock();
+        try {
+            quitarSinBloquear(clienteId);
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    // Ids de los clientes cuyo nombre completo contiene el término; si no hay, los más parecidos
+    public List<Long> buscar(String termino, int limite) {
+        String consulta = normalizar(termino);
+        if (consulta.isEmpty()) {
+            return List.of();
+        }
+
+        candado.readLock().lock();
+        try {
+            List<Long> exactos = buscarContenidos(consulta, limite);
+            return exactos.isEmpty() ? buscarParecidos(consulta, limite) : exactos;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    public int cantidadClientes() {
+        candado.readLock().lock();
+        try {
+            return textoPorCliente.size();
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    // El índice solo cambia si la transacción que guardó al cliente se confirma
+    public void indexarAlConfirmar(Long clienteId, String nombre, String apellido) {
+        SincronizacionTransaccion.alConfirmar(() -> indexar(clienteId, nombre, apellido));
+    }
+
+    static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String plano = MARCAS_DIACRITICAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return ESPACIOS.matcher(plano.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    // Trigramas del texto con dos espacios al inicio y uno al final de cada palabra (como pg_trgm),
+    // así el comienzo de cada palabra tiene sus propios trigramas
+    static Set<String> trigramasDe(String texto) {
+        Set<String> resultado = new LinkedHashSet<>();
+        if (texto.isEmpty()) {
+            return resultado;
+        }
+        String relleno = "  " + texto.replace(" ", "  ") + " ";
+        for (int i = 0; i + 3 <= relleno.length(); i++) {
+            resultado.add(relleno.substring(i, i + 3));
+        }
+        return resultado;
+    }
+
+    private List<Long> buscarContenidos(String consulta, int limite) {
+        // Una palabra de menos de tres letras solo aporta su trigrama de comienzo de palabra, y
+        // únicamente si se sabe que empieza una palabra (no es la primera, o es la única)
+        String[] palabras = consulta.split(" ");
+        Set<String> requeridos = new HashSet<>();
+        for (int p = 0; p < palabras.length; p++) {
+            String palabra = palabras[p];
+            if (palabra.length() >= 3) {
+                for (int i = 0; i + 3 <= palabra.length(); i++) {
+                    requeridos.add(palabra.substring(i, i + 3));
+                }
+            } else if (p > 0 || palabras.length == 1) {
+                requeridos.add((palabra.length() == 1 ? "  " : " ") + palabra);
+            }
+        }
+
+        // Se parte del trigrama menos frecuente y se descartan los que no tengan el resto
+        List<Set<Long>> listas = new ArrayList<>();
+        for (String trigrama : requeridos) {
+            Set<Long> clientes = trigramas.get(trigrama);
+            if (clientes == null) {
+                return List.of();
+            }
+            listas.add(clientes);
+        }
+        listas.sort(Comparator.comparingInt(Set::size));
+
+        List<Long> comienzoDePalabra = new ArrayList<>();
+        List<Long> dentroDePalabra = new ArrayList<>();
+        for (Long clienteId : listas.get(0)) {
+            if (!estaEnTodas(clienteId, listas)) {
+                continue;
+            }
+            // Los trigramas no garantizan el orden: se confirma sobre el texto
+            String texto = textoPorCliente.get(clienteId);
+            if (texto.startsWith(consulta) || texto.contains(" " + consulta)) {
+                comienzoDePalabra.add(clienteId);
+            } else if (consulta.length() >= 3 && texto.contains(consulta)) {
+                dentroDePalabra.add(clienteId);
+            }
+        }
+
+        comienzoDePalabra.sort(Comparator.naturalOrder());
+        dentroDePalabra.sort(Comparator.naturalOrder());
+        List<Long> ids = new ArrayList<>(comienzoDePalabra);
+        ids.addAll(dentroDePalabra);
+        return ids.size() > limite ? new ArrayList<>(ids.subList(0, limite)) : ids;
+    }
+
+    private List<Long> buscarParecidos(String consulta, int limite) {
+        Set<String> deConsulta = trigramasDe(consulta);
+        Map<Long, Integer> compartidos = new HashMap<>();
+        for (String trigrama : deConsulta) {
+            Set<Long> clientes = trigramas.get(trigrama);
+            if (clientes != null) {
+                clientes.forEach(clienteId -> compartidos.merge(clienteId, 1, Integer::sum));
+            }
+        }
+
+        int minimo = (int) Math.ceil(deConsulta.size() * SIMILITUD_MINIMA);
+        List<Map.Entry<Long, Integer>> candidatos = new ArrayList<>();
+        for (Map.Entry<Long, Integer> candidato : compartidos.entrySet()) {
+            if (candidato.getValue() >= minimo) {
+                candidatos.add(candidato);
+            }
+        }
+        candidatos.sort(Map.Entry.<Long, Integer>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry.comparingByKey()));
+
+        List<Long> ids = new ArrayList<>(Math.min(limite, candidatos.size()));
+        for (int i = 0; i < candidatos.size() && i < limite; i++) {
+            ids.add(candidatos.get(i).getKey());
+        }
+        return ids;
+    }
+
+    private static boolean estaEnTodas(Long clienteId, List<Set<Long>> listas) {
+        for (int i = 1; i < listas.size(); i++) {
+            if (!listas.get(i).contains(clienteId)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void quitarSinBloquear(Long clienteId) {
+        String anterior = textoPorCliente.remove(clienteId);
+        if (anterior == null) {
+            return;
+        }
+        for (String trigrama : trigramasDe(anterior)) {
+            Set<Long> clientes = trigramas.get(trigrama);
+            clientes.remove(clienteId);
+            if (clientes.isEmpty()) {
+                trigramas.remove(trigrama);
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package teatro_reservas.backend.service;
+
+import teatro_reservas.backend.entity.Evento;
+import teatro_reservas.backend.entity.enums.TipoEntrada;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface InventarioService {
+
+    // Mantenimiento del inventario al crear/actualizar/eliminar eventos
+    void sincronizarInventario(Evento evento);
+    void eliminarInventario(Long eventoId);
+
+    // Movimientos de entradas
+    void reservarEntrada(Long eventoId, TipoEntrada tipoEntrada);
+    int reservarEntradas(Long eventoId, TipoEntrada tipoEntrada, int cantidad);
+    void liberarEntrada(Long eventoId, TipoEntrada tipoEntrada);
+    void liberarEntradas(Long eventoId, TipoEntrada tipoEntrada, int cantidad);
+
+    // Reconstruye contadores y disponibilidad en memoria a partir de las reservas
+    int reconciliarInventario();
+
+    // Consultas de disponibilidad
+    long obtenerDisponibles(Long eventoId, TipoEntrada tipoEntrada);
+    Map<TipoEntrada, Long> obtenerDisponiblesPorTipo(Long eventoId);
+    Map<Long, Map<TipoEntrada, Long>> obtenerDisponiblesPorEvento(Collection<Long> eventoIds);
+}
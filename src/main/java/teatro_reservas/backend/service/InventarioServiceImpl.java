@@ -0,0 +1,266 @@
+package teatro_reservas.backend.service;
+
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import teatro_reservas.backend.entity.Evento;
+import teatro_reservas.backend.entity.InventarioEntrada;
+import teatro_reservas.backend.entity.enums.TipoEntrada;
+import teatro_reservas.backend.exception.BusinessException;
+import teatro_reservas.backend.exception.ResourceNotFoundException;
+import teatro_reservas.backend.repository.EventoRepository;
+import teatro_reservas.backend.repository.InventarioEntradaRepository;
+import teatro_reservas.backend.repository.ReservaRepository;
+import teatro_reservas.backend.service.DisponibilidadEnMemoria.ClaveEntrada;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+@Transactional
+@Slf4j
+public class InventarioServiceImpl implements InventarioService {
+
+    // Intentos para tomar lo que queda cuando un lote pide más entradas de las disponibles
+    private static final int INTENTOS_RESERVA_PARCIAL = 3;
+
+    private final InventarioEntradaRepository inventarioRepository;
+    private final EventoRepository eventoRepository;
+    private final ReservaRepository reservaRepository;
+    private final DisponibilidadEnMemoria disponibilidadEnMemoria;
+    private final VersionesCatalogo versionesCatalogo;
+    private final TransactionTemplate transaccionPropia;
+
+    public InventarioServiceImpl(InventarioEntradaRepository inventarioRepository,
+                                 EventoRepository eventoRepository,
+                                 ReservaRepository reservaRepository,
+                                 DisponibilidadEnMemoria disponibilidadEnMemoria,
+                                 VersionesCatalogo versionesCatalogo,
+                                 PlatformTransactionManager transactionManager) {
+        this.inventarioRepository = inventarioRepository;
+        this.eventoRepository = eventoRepository;
+        this.reservaRepository = reservaRepository;
+        this.disponibilidadEnMemoria = disponibilidadEnMemoria;
+        this.versionesCatalogo = versionesCatalogo;
+        // El inventario faltante se crea aparte: un choque con la clave única no arrastra a la reserva
+        this.transaccionPropia = new TransactionTemplate(transactionManager);
+        this.transaccionPropia.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public void sincronizarInventario(Evento evento) {
+        Set<TipoEntrada> sobrantes = EnumSet.noneOf(TipoEntrada.class);
+        inventarioRepository.findByEventoId(evento.getId())
+                .forEach(inventario -> sobrantes.add(inventario.getTipoEntrada()));
+
+        evento.getCapacidades().forEach((tipo, capacidad) -> {
+            if (sobrantes.remove(tipo)) {
+                // UPDATE atómico: no pisa ventas que ocurran en paralelo
+                if (inventarioRepository.actualizarCapacidad(evento.getId(), tipo, capacidad) == 0) {
+                    throw new BusinessException("La capacidad de " + tipo + " no puede ser menor a las entradas ya vendidas");
+                }
+            } else {
+                inventarioRepository.save(crearInventario(evento, tipo, capacidad));
+            }
+        });
+
+        // Tipos de entrada que dejaron de venderse
+        for (TipoEntrada tipo : sobrantes) {
+            if (inventarioRepository.eliminarTipoSinVentas(evento.getId(), tipo) == 0) {
+                throw new BusinessException("No se puede quitar el tipo de entrada " + tipo + " porque tiene entradas vendidas");
+            }
+        }
+
+        disponibilidadEnMemoria.invalidarAlConfirmar(evento.getId());
+        versionesCatalogo.registrarCambioAlConfirmar(evento.getId());
+    }
+
+    @Override
+    public void eliminarInventario(Long eventoId) {
+        inventarioRepository.deleteByEventoId(eventoId);
+        disponibilidadEnMemoria.invalidarAlConfirmar(eventoId);
+        versionesCatalogo.registrarCambioAlConfirmar(eventoId);
+    }
+
+    @Override
+    public void reservarEntrada(Long eventoId, TipoEntrada tipoEntrada) {
+        // Primer filtro en memoria: si está agotado se rechaza sin tocar la base
+        boolean hayDisponibilidad = disponibilidadEnMemoria.intentarReservar(eventoId, tipoEntrada, 1,
+                () -> (int) obtenerDisponibles(eventoId, tipoEntrada));
+        if (!hayDisponibilidad) {
+            throw new BusinessException("No hay disponibilidad para este tipo de entrada");
+        }
+
+        if (descontar(eventoId, tipoEntrada, 1) == 0) {
+            throw new BusinessException("No hay disponibilidad para este tipo de entrada");
+        }
+        versionesCatalogo.registrarCambioAlConfirmar(eventoId);
+    }
+
+    // Toma hasta 'cantidad' entradas en un solo UPDATE y devuelve cuántas consiguió
+    @Override
+    public int reservarEntradas(Long eventoId, TipoEntrada tipoEntrada, int cantidad) {
+        int pedidas = cantidad;
+        for (int intento = 0; intento < INTENTOS_RESERVA_PARCIAL && pedidas > 0; intento++) {
+            if (descontar(eventoId, tipoEntrada, pedidas) > 0) {
+                disponibilidadEnMemoria.registrarDescuento(eventoId, tipoEntrada, pedidas);
+                versionesCatalogo.registrarCambioAlConfirmar(eventoId);
+                return pedidas;
+            }
+            // No alcanzan: se vuelve a pedir lo que realmente queda en la base
+            pedidas = Math.min(cantidad, inventarioRepository.findDisponibles(eventoId, tipoEntrada).orElse(0));
+        }
+        return 0;
+    }
+
+    @Override
+    public void liberarEntrada(Long eventoId, TipoEntrada tipoEntrada) {
+        liberarEntradas(eventoId, tipoEntrada, 1);
+    }
+
+    @Override
+    public void liberarEntradas(Long eventoId, TipoEntrada tipoEntrada, int cantidad) {
+        int repuestas = inventarioRepository.reponerDisponibles(eventoId, tipoEntrada, cantidad);
+        if (repuestas == 0) {
+            asegurarInventario(eventoId);
+            repuestas = inventarioRepository.reponerDisponibles(eventoId, tipoEntrada, cantidad);
+        }
+        if (repuestas > 0) {
+            disponibilidadEnMemoria.liberarAlConfirmar(eventoId, tipoEntrada, cantidad);
+            versionesCatalogo.registrarCambioAlConfirmar(eventoId);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconciliarAlIniciar() {
+        int corregidos = reconciliarInventario();
+        log.info("Inventario reconciliado al iniciar: {} contadores en memoria, {} corregidos",
+                disponibilidadEnMemoria.cantidadContadores(), corregidos);
+    }
+
+    @Override
+    public int reconciliarInventario() {
+        LocalDateTime ahora = LocalDateTime.now();
+        eventoRepository.findAllById(inventarioRepository.findEventosVigentesSinInventario(ahora))
+                .forEach(this::sincronizarInventario);
+
+        Map<ClaveEntrada, Integer> vendidasPorClave = new HashMap<>();
+        for (Object[] fila : reservaRepository.countEntradasOcupadasAgrupadasPorEventoYTipo()) {
+            vendidasPorClave.put(new ClaveEntrada((Long) fila[0], (TipoEntrada) fila[1]), ((Long) fila[2]).intValue());
+        }
+
+        int corregidos = 0;
+        Map<ClaveEntrada, Integer> disponibles = new HashMap<>();
+        for (InventarioEntrada inventario : inventarioRepository.findInventarioEventosVigentes(ahora)) {
+            ClaveEntrada clave = new ClaveEntrada(inventario.getEvento().getId(), inventario.getTipoEntrada());
+            int vendidas = vendidasPorClave.getOrDefault(clave, 0);
+
+            if (vendidas != inventario.getVendidas()) {
+                inventarioRepository.corregirVendidas(inventario.getId(), vendidas);
+                corregidos++;
+            }
+            disponibles.put(clave, Math.max(inventario.getCapacidad() - vendidas, 0));
+        }
+
+        disponibilidadEnMemoria.reconstruir(disponibles);
+        versionesCatalogo.registrarCambioGeneralAlConfirmar();
+        return corregidos;
+    }
+
+    @Override
+    public long obtenerDisponibles(Long eventoId, TipoEntrada tipoEntrada) {
+        Optional<InventarioEntrada> inventario = inventarioRepository.findByEventoIdAndTipoEntrada(eventoId, tipoEntrada);
+        if (inventario.isPresent()) {
+            return inventario.get().getDisponibles();
+        }
+        return disponiblesSinInventario(eventoId).getOrDefault(tipoEntrada, 0L);
+    }
+
+    @Override
+    public Map<TipoEntrada, Long> obtenerDisponiblesPorTipo(Long eventoId) {
+        return obtenerDisponiblesPorEvento(List.of(eventoId)).get(eventoId);
+    }
+
+    // Una consulta para todos los eventos; solo los que todavía no tienen inventario se calculan aparte
+    @Override
+    public Map<Long, Map<TipoEntrada, Long>> obtenerDisponiblesPorEvento(Collection<Long> eventoIds) {
+        Map<Long, Map<TipoEntrada, Long>> disponibles = new HashMap<>();
+        if (eventoIds.isEmpty()) {
+            return disponibles;
+        }
+        for (InventarioEntrada inventario : inventarioRepository.findByEventoIdIn(eventoIds)) {
+            disponibles.computeIfAbsent(inventario.getEvento().getId(), id -> new EnumMap<>(TipoEntrada.class))
+                    .put(inventario.getTipoEntrada(), inventario.getDisponibles().longValue());
+        }
+        for (Long eventoId : eventoIds) {
+            if (!disponibles.containsKey(eventoId)) {
+                disponibles.put(eventoId, disponiblesSinInventario(eventoId));
+            }
+        }
+        return disponibles;
+    }
+
+    // El UPDATE va directo; solo si no toca ninguna fila se revisa que el evento tenga inventario.
+    // Se reintenta aunque ya exista: otra reserva pudo crearlo entre el UPDATE y la verificación
+    private int descontar(Long eventoId, TipoEntrada tipoEntrada, int cantidad) {
+        int descontadas = inventarioRepository.descontarDisponibles(eventoId, tipoEntrada, cantidad);
+        if (descontadas == 0) {
+            asegurarInventario(eventoId);
+            descontadas = inventarioRepository.descontarDisponibles(eventoId, tipoEntrada, cantidad);
+        }
+        return descontadas;
+    }
+
+    // Eventos cargados antes de existir el inventario (los vigentes se completan al iniciar):
+    // se inicializa a partir de las reservas confirmadas y retenidas
+    private void asegurarInventario(Long eventoId) {
+        if (inventarioRepository.existsByEventoId(eventoId)) {
+            return;
+        }
+
+        try {
+            transaccionPropia.executeWithoutResult(estado -> {
+                Evento evento = eventoRepository.findById(eventoId)
+                        .orElseThrow(() -> new ResourceNotFoundException("Evento", "id", eventoId));
+                inventarioRepository.saveAll(evento.getCapacidades().entrySet().stream()
+                        .map(entry -> crearInventario(evento, entry.getKey(), entry.getValue()))
+                        .collect(Collectors.toList()));
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Otra reserva del mismo evento lo creó primero (uk_inventario_evento_tipo)
+            log.debug("Inventario del evento {} creado en paralelo", eventoId);
+        }
+    }
+
+    // Sin inventario todavía la consulta no lo crea: lo calcula, y lo crea la primera reserva
+    private Map<TipoEntrada, Long> disponiblesSinInventario(Long eventoId) {
+        Evento evento = eventoRepository.findById(eventoId)
+                .orElseThrow(() -> new ResourceNotFoundException("Evento", "id", eventoId));
+
+        Map<TipoEntrada, Long> disponibles = new EnumMap<>(TipoEntrada.class);
+        evento.getCapacidades().forEach((tipo, capacidad) ->
+                disponibles.put(tipo, (long) crearInventario(evento, tipo, capacidad).getDisponibles()));
+        return disponibles;
+    }
+
+    private InventarioEntrada crearInventario(Evento evento, TipoEntrada tipo, int capacidad) {
+        long vendidas = evento.getId() != null
+                ? reservaRepository.countEntradasOcupadasByEventoAndTipo(evento.getId(), tipo)
+                : 0;
+        return new InventarioEntrada(evento, tipo, capacidad, (int) vendidas);
+    }
+}
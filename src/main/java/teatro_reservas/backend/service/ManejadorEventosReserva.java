@@ -0,0 +1,19 @@
+package teatro_reservas.backend.service;
+
+import teatro_reservas.backend.entity.EventoOutbox;
+import teatro_reservas.backend.entity.enums.TipoEventoReserva;
+
+import java.util.List;
+
+/**
+ * Efecto secundario de una reserva que se ejecuta fuera de la transacción que la creó.
+ * Recibe los eventos en lotes, dentro de la transacción que los marca como procesados:
+ * los cambios en la base se aplican una sola vez, pero cualquier otro efecto debe tolerar
+ * que un lote se entregue de nuevo si la transacción no llega a confirmarse.
+ */
+public interface ManejadorEventosReserva {
+
+    boolean atiende(TipoEventoReserva tipo);
+
+    void manejar(List<EventoOutbox> eventos);
+}
@@ -0,0 +1,24 @@
+package teatro_reservas.backend.service;
+
+import teatro_reservas.backend.entity.Reserva;
+import teatro_reservas.backend.entity.enums.TipoEventoReserva;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxService {
+
+    // Publicación dentro de la transacción de la reserva
+    void registrar(TipoEventoReserva tipo, Reserva reserva, boolean paseGratuito);
+    void registrarTodos(TipoEventoReserva tipo, Collection<Reserva> reservas);
+
+    // Despacho a los manejadores registrados
+    List<Long> obtenerPendientes(int cantidad);
+    int procesar(List<Long> eventoIds);
+    void registrarFallo(Long eventoId, String error);
+
+    // Mantenimiento
+    long contarAgotados();
+    int depurarProcesados(LocalDateTime limite);
+}
@@ -0,0 +1,111 @@
+package teatro_reservas.backend.service;
+
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import teatro_reservas.backend.entity.EventoOutbox;
+import teatro_reservas.backend.entity.Reserva;
+import teatro_reservas.backend.entity.enums.TipoEventoReserva;
+import teatro_reservas.backend.repository.EventoOutboxRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+@Transactional
+public class OutboxServiceImpl implements OutboxService {
+
+    private static final int LONGITUD_MAXIMA_ERROR = 500;
+
+    private final EventoOutboxRepository outboxRepository;
+    private final List<ManejadorEventosReserva> manejadores;
+    private final VersionesCatalogo versionesCatalogo;
+    private final VentasEnMemoria ventasEnMemoria;
+    private final PopularidadEventos popularidad;
+    private final int maximoIntentos;
+
+    public OutboxServiceImpl(EventoOutboxRepository outboxRepository,
+                             List<ManejadorEventosReserva> manejadores,
+                             VersionesCatalogo versionesCatalogo,
+                             VentasEnMemoria ventasEnMemoria,
+                             PopularidadEventos popularidad,
+                             @Value("${teatro.outbox.maximo-intentos:10}") int maximoIntentos) {
+        this.outboxRepository = outboxRepository;
+        this.manejadores = manejadores;
+        this.versionesCatalogo = versionesCatalogo;
+        this.ventasEnMemoria = ventasEnMemoria;
+        this.popularidad = popularidad;
+        this.maximoIntentos = maximoIntentos;
+    }
+
+    @Override
+    public void registrar(TipoEventoReserva tipo, Reserva reserva, boolean paseGratuito) {
+        outboxRepository.save(new EventoOutbox(tipo, reserva, paseGratuito));
+        // Todo cambio de estado de una reserva pasa por acá: el evento y el catálogo cambian de versión
+        versionesCatalogo.registrarCambioAlConfirmar(reserva.getEvento().getId());
+        ventasEnMemoria.registrarAlConfirmar(tipo, List.of(reserva));
+        popularidad.registrarAlConfirmar(tipo, List.of(reserva));
+    }
+
+    // IDs por secuencia en bloque: los INSERT de un lote de reservas viajan agrupados
+    @Override
+    public void registrarTodos(TipoEventoReserva tipo, Collection<Reserva> reservas) {
+        outboxRepository.saveAll(reservas.stream()
+                .map(reserva -> new EventoOutbox(tipo, reserva, reserva.getEsPaseGratuito()))
+                .collect(Collectors.toList()));
+        reservas.stream()
+                .map(reserva -> reserva.getEvento().getId())
+                .distinct()
+                .forEach(versionesCatalogo::registrarCambioAlConfirmar);
+        ventasEnMemoria.registrarAlConfirmar(tipo, reservas);
+        popularidad.registrarAlConfirmar(tipo, reservas);
+    }
+
+    @Override
+    public List<Long> obtenerPendientes(int cantidad) {
+        return outboxRepository.findIdsPendientes(maximoIntentos, PageRequest.of(0, cantidad));
+    }
+
+    // Entrega el lote a cada manejador y lo marca procesado en la misma transacción
+    @Override
+    public int procesar(List<Long> eventoIds) {
+        List<EventoOutbox> eventos = outboxRepository.findPendientesParaProcesar(eventoIds);
+        if (eventos.isEmpty()) {
+            return 0;
+        }
+
+        for (ManejadorEventosReserva manejador : manejadores) {
+            List<EventoOutbox> atendidos = eventos.stream()
+                    .filter(evento -> manejador.atiende(evento.getTipo()))
+                    .collect(Collectors.toList());
+            if (!atendidos.isEmpty()) {
+                manejador.manejar(atendidos);
+            }
+        }
+
+        outboxRepository.marcarProcesados(
+                eventos.stream().map(EventoOutbox::getId).collect(Collectors.toList()), LocalDateTime.now());
+        return eventos.size();
+    }
+
+    @Override
+    public void registrarFallo(Long eventoId, String error) {
+        String detalle = error != null && error.length() > LONGITUD_MAXIMA_ERROR
+                ? error.substring(0, LONGITUD_MAXIMA_ERROR)
+                : error;
+        outboxRepository.registrarFallo(eventoId, detalle);
+    }
+
+    @Override
+    public long contarAgotados() {
+        return outboxRepository.countAgotados(maximoIntentos);
+    }
+
+    @Override
+    public int depurarProcesados(LocalDateTime limite) {
+        return outboxRepository.deleteProcesadosAntesDe(limite);
+    }
+}
@@ -0,0 +1,195 @@
+package teatro_reservas.backend.service;
+
+import org.springframework.stereotype.Component;
+import teatro_reservas.backend.entity.Reserva;
+import teatro_reservas.backend.entity.enums.TipoEventoReserva;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Ranking en memoria de los eventos por reservas confirmadas, para /api/eventos/mas-populares.
+ * Los eventos se agrupan por día de función y cada día los mantiene ordenados de más a menos
+ * vendido; las reservas confirmadas y las cancelaciones mueven al evento dentro de su día una
+ * vez confirmada la transacción. Los más populares de un período se obtienen mezclando los días
+ * del período con un heap: se recorren solo los primeros de cada día, sin agrupar reservas.
+ */
+@Component
+public class PopularidadEventos {
+
+    // Más vendido primero; a igual cantidad, la función más próxima
+    private static final Comparator<Posicion> ORDEN = Comparator.comparingLong(Posicion::confirmadas).reversed()
+            .thenComparing(Posicion::fechaHora)
+            .thenComparing(Posicion::eventoId);
+
+    private final NavigableMap<LocalDate, NavigableSet<Posicion>> dias = new TreeMap<>();
+    private final Map<Long, Posicion> posiciones = new HashMap<>();
+    private final ReadWriteLock candado = new ReentrantReadWriteLock();
+
+    // Alta o cambio de fecha de un evento: conserva sus reservas confirmadas
+    public void ubicar(Long eventoId, LocalDateTime fechaHora) {
+        candado.writeLock().lock();
+        try {
+            Posicion actual = quitarSinBloquear(eventoId);
+            agregarSinBloquear(new Posicion(eventoId, fechaHora, actual != null ? actual.confirmadas() : 0L));
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    public void quitar(Long eventoId) {
+        candado.writeLock().lock();
+        try {
+            quitarSinBloquear(eventoId);
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    public void sumarConfirmadas(Long eventoId, LocalDateTime fechaHora, long cantidad) {
+        candado.writeLock().lock();
+        try {
+            Posicion actual = quitarSinBloquear(eventoId);
+            // La fecha registrada manda; la de la reserva solo sirve si el evento todavía no se ubicó
+            LocalDateTime fecha = actual != null ? actual.fechaHora() : fechaHora;
+            long confirmadas = (actual != null ? actual.confirmadas() : 0L) + cantidad;
+            agregarSinBloquear(new Posicion(eventoId, fecha, Math.max(confirmadas, 0L)));
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    // Los eventos con función dentro del período, de más a menos reservas confirmadas
+    public List<Long> masPopulares(LocalDateTime desde, LocalDateTime hasta, int limite) {
+        if (desde.isAfter(hasta)) {
+            return List.of();
+        }
+
+        candado.readLock().lock();
+        try {
+            PriorityQueue<Recorrido> frentes = new PriorityQueue<>(Comparator.comparing(Recorrido::actual, ORDEN));
+            for (NavigableSet<Posicion> dia : dias.subMap(desde.toLocalDate(), true, hasta.toLocalDate(), true).values()) {
+                Recorrido recorrido = new Recorrido(dia.iterator(), desde, hasta);
+                if (recorrido.avanzar()) {
+                    frentes.add(recorrido);
+                }
+            }
+
+            List<Long> ids = new ArrayList<>(limite);
+            while (ids.size() < limite && !frentes.isEmpty()) {
+                Recorrido primero = frentes.poll();
+                ids.add(primero.actual().eventoId());
+                if (primero.avanzar()) {
+                    frentes.add(primero);
+                }
+            }
+            return ids;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    public int cantidadEventos() {
+        candado.readLock().lock();
+        try {
+            return posiciones.size();
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    // El ranking solo cambia si la transacción que modificó el evento se confirma
+    public void ubicarAlConfirmar(Long eventoId, LocalDateTime fechaHora) {
+        SincronizacionTransaccion.alConfirmar(() -> ubicar(eventoId, fechaHora));
+    }
+
+    public void quitarAlConfirmar(Long eventoId) {
+        SincronizacionTransaccion.alConfirmar(() -> quitar(eventoId));
+    }
+
+    // Solo las creaciones y las cancelaciones de confirmadas cambian el ranking
+    public void registrarAlConfirmar(TipoEventoReserva tipo, Collection<Reserva> reservas) {
+        long signo;
+        if (tipo == TipoEventoReserva.RESERVA_CREADA) {
+            signo = 1;
+        } else if (tipo == TipoEventoReserva.RESERVA_CANCELADA) {
+            signo = -1;
+        } else {
+            return;
+        }
+
+        Map<Long, Long> cambios = new HashMap<>();
+        Map<Long, LocalDateTime> fechas = new HashMap<>();
+        for (Reserva reserva : reservas) {
+            Long eventoId = reserva.getEvento().getId();
+            cambios.merge(eventoId, signo, Long::sum);
+            fechas.putIfAbsent(eventoId, reserva.getEvento().getFechaHora());
+        }
+        SincronizacionTransaccion.alConfirmar(() -> cambios.forEach((eventoId, cantidad) ->
+                sumarConfirmadas(eventoId, fechas.get(eventoId), cantidad)));
+    }
+
+    private Posicion quitarSinBloquear(Long eventoId) {
+        Posicion actual = posiciones.remove(eventoId);
+        if (actual != null) {
+            LocalDate dia = actual.fechaHora().toLocalDate();
+            NavigableSet<Posicion> eventosDelDia = dias.get(dia);
+            eventosDelDia.remove(actual);
+            if (eventosDelDia.isEmpty()) {
+                dias.remove(dia);
+            }
+        }
+        return actual;
+    }
+
+    private void agregarSinBloquear(Posicion posicion) {
+        posiciones.put(posicion.eventoId(), posicion);
+        dias.computeIfAbsent(posicion.fechaHora().toLocalDate(), d -> new TreeSet<>(ORDEN)).add(posicion);
+    }
+
+    private record Posicion(Long eventoId, LocalDateTime fechaHora, long confirmadas) {
+    }
+
+    // Avanza por los eventos de un día; en el primer y el último día del período saltea los de otra hora
+    private static class Recorrido {
+        private final Iterator<Posicion> eventos;
+        private final LocalDateTime desde;
+        private final LocalDateTime hasta;
+        private Posicion actual;
+
+        private Recorrido(Iterator<Posicion> eventos, LocalDateTime desde, LocalDateTime hasta) {
+            this.eventos = eventos;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        private Posicion actual() {
+            return actual;
+        }
+
+        private boolean avanzar() {
+            while (eventos.hasNext()) {
+                Posicion siguiente = eventos.next();
+                if (!siguiente.fechaHora().isBefore(desde) && !siguiente.fechaHora().isAfter(hasta)) {
+                    actual = siguiente;
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package teatro_reservas.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import teatro_reservas.backend.exception.BusinessException;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Respuestas de operaciones que crean reservas, indexadas por el encabezado Idempotency-Key.
+ * Un reintento con la misma clave recibe la respuesta original sin volver a reservar
+ * ni consumir pases; si la primera ejecución sigue en curso, el duplicado espera su resultado.
+ * Cada clave recuerda el SHA-256 del cuerpo serializado, para rechazar su reutilización con
+ * una solicitud distinta. El almacén es acotado: se descartan las entradas más viejas al
+ * superar el máximo o el TTL.
+ * <p>
+ * Las claves en curso y las respuestas viven solo en la memoria de esta instancia, igual que
+ * la rueda de retenciones: no se persisten. Un reintento que llega después de un reinicio, o
+ * a otra instancia detrás del balanceador, vuelve a ejecutar la operación. Con una sola
+ * instancia alcanza; para varias, el registro debería pasar a una tabla con la clave única.
+ */
+@Component
+public class RegistroIdempotencia {
+
+    public static final String ENCABEZADO_CLAVE = "Idempotency-Key";
+    public static final String ENCABEZADO_REPETIDA = "Idempotency-Replayed";
+
+    private static final int LONGITUD_MAXIMA_CLAVE = 255;
+
+    private final ObjectMapper objectMapper;
+    private final int maximoEntradas;
+    private final long ttlNanos;
+    private final long esperaEnCursoMs;
+
+    // Orden de inserción: las entradas vencidas quedan siempre al principio
+    private final LinkedHashMap<String, RespuestaGuardada> completadas = new LinkedHashMap<>();
+    private final Map<String, EjecucionEnCurso> enCurso = new ConcurrentHashMap<>();
+
+    public RegistroIdempotencia(ObjectMapper objectMapper,
+                                @Value("${teatro.idempotencia.maximo-entradas:10000}") int maximoEntradas,
+                                @Value("${teatro.idempotencia.ttl:1h}") Duration ttl,
+                                @Value("${teatro.idempotencia.espera-en-curso:30s}") Duration esperaEnCurso) {
+        this.objectMapper = objectMapper;
+        this.maximoEntradas = maximoEntradas;
+        this.ttlNanos = ttl.toNanos();
+        this.esperaEnCursoMs = esperaEnCurso.toMillis();
+    }
+
+    public <T> ResponseEntity<T> ejecutar(String clave, String operacion, Object solicitud,
+                                          Supplier<ResponseEntity<T>> accion) {
+        if (clave == null || clave.isBlank()) {
+            return accion.get();
+        }
+        if (clave.length() > LONGITUD_MAXIMA_CLAVE) {
+            throw new BusinessException("La clave de idempotencia no puede superar " + LONGITUD_MAXIMA_CLAVE + " caracteres");
+        }
+
+        String claveCompleta = operacion + ":" + clave;
+        byte[] huella = huella(solicitud);
+
+        RespuestaGuardada guardada = buscar(claveCompleta);
+        if (guardada != null) {
+            return repetir(guardada, huella);
+        }
+
+        EjecucionEnCurso propia = new EjecucionEnCurso(huella);
+        EjecucionEnCurso existente = enCurso.putIfAbsent(claveCompleta, propia);
+        if (existente != null) {
+            return esperar(existente, huella);
+        }
+
+        try {
+            // Pudo completarse entre la búsqueda y el registro en curso
+            guardada = buscar(claveCompleta);
+            if (guardada != null) {
+                propia.resultado.complete(guardada);
+                return repetir(guardada, huella);
+            }
+
+            ResponseEntity<T> respuesta = accion.get();
+            guardada = new RespuestaGuardada(respuesta, huella, System.nanoTime());
+            // Solo se recuerdan respuestas exitosas; los errores pueden reintentarse
+            if (respuesta.getStatusCode().is2xxSuccessful()) {
+                guardar(claveCompleta, guardada);
+            }
+            propia.resultado.complete(guardada);
+            return respuesta;
+        } catch (RuntimeException e) {
+            propia.resultado.completeExceptionally(e);
+            throw e;
+        } finally {
+            enCurso.remove(claveCompleta, propia);
+        }
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public synchronized void depurarVencidas() {
+        long ahora = System.nanoTime();
+        Iterator<RespuestaGuardada> iterador = completadas.values().iterator();
+        while (iterador.hasNext() && ahora - iterador.next().guardadaEn > ttlNanos) {
+            iterador.remove();
+        }
+    }
+
+    private synchronized RespuestaGuardada buscar(String clave) {
+        RespuestaGuardada guardada = completadas.get(clave);
+        if (guardada != null && System.nanoTime() - guardada.guardadaEn > ttlNanos) {
+            completadas.remove(clave);
+            return null;
+        }
+        return guardada;
+    }
+
+    private synchronized void guardar(String clave, RespuestaGuardada guardada) {
+        completadas.put(clave, guardada);
+        Iterator<RespuestaGuardada> iterador = completadas.values().iterator();
+        while (completadas.size() > maximoEntradas && iterador.hasNext()) {
+            iterador.next();
+            iterador.remove();
+        }
+    }
+
+    private <T> ResponseEntity<T> esperar(EjecucionEnCurso ejecucion, byte[] huella) {
+        if (!MessageDigest.isEqual(ejecucion.huella, huella)) {
+            throw claveReutilizada();
+        }
+        try {
+            return repetir(ejecucion.resultado.get(esperaEnCursoMs, TimeUnit.MILLISECONDS), huella);
+        } catch (ExecutionException e) {
+            // El duplicado recibe el mismo error que la ejecución original
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException | CancellationException e) {
+            throw new BusinessException("La solicitud original con esta clave de idempotencia sigue en proceso");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException("La solicitud original con esta clave de idempotencia sigue en proceso");
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> ResponseEntity<T> repetir(RespuestaGuardada guardada, byte[] huella) {
+        if (!MessageDigest.isEqual(guardada.huella, huella)) {
+            throw claveReutilizada();
+        }
+        HttpHeaders encabezados = new HttpHeaders();
+        encabezados.putAll(guardada.respuesta.getHeaders());
+        encabezados.set(ENCABEZADO_REPETIDA, "true");
+        return new ResponseEntity<>((T) guardada.respuesta.getBody(), encabezados, guardada.respuesta.getStatusCode());
+    }
+
+    private byte[] huella(Object solicitud) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(solicitud));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar la solicitud idempotente", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private BusinessException claveReutilizada() {
+        return new BusinessException("La clave de idempotencia ya se usó con una solicitud distinta");
+    }
+
+    private record RespuestaGuardada(ResponseEntity<?> respuesta, byte[] huella, long guardadaEn) {
+    }
+
+    private static class EjecucionEnCurso {
+        private final byte[] huella;
+        private final CompletableFuture<RespuestaGuardada> resultado = new CompletableFuture<>();
+
+        private EjecucionEnCurso(byte[] huella) {
+            this.huella = huella;
+        }
+    }
+}
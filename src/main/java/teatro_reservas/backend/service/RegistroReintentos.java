@@ -0,0 +1,66 @@
+package teatro_reservas.backend.service;
+
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.retry.RetryCallback;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryListener;
+import org.springframework.retry.interceptor.MethodInvocationRetryCallback;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Cuenta los conflictos de concurrencia reintentados por operación (@ReintentoOptimista)
+@Component("registroReintentos")
+public class RegistroReintentos implements RetryListener {
+
+    private final Map<String, Contadores> contadores = new ConcurrentHashMap<>();
+
+    @Override
+    public <T, E extends Throwable> void onError(RetryContext context, RetryCallback<T, E> callback,
+                                                 Throwable throwable) {
+        if (throwable instanceof ConcurrencyFailureException) {
+            contadoresDe(callback).conflictos.increment();
+        }
+    }
+
+    @Override
+    public <T, E extends Throwable> void close(RetryContext context, RetryCallback<T, E> callback,
+                                               Throwable throwable) {
+        if (context.getRetryCount() == 0) {
+            return;
+        }
+
+        Contadores contadoresOperacion = contadoresDe(callback);
+        if (throwable instanceof ConcurrencyFailureException) {
+            contadoresOperacion.agotadas.increment();
+        } else {
+            contadoresOperacion.recuperadas.increment();
+        }
+    }
+
+    public Map<String, Map<String, Long>> obtenerEstadisticas() {
+        Map<String, Map<String, Long>> estadisticas = new TreeMap<>();
+        contadores.forEach((operacion, c) -> estadisticas.put(operacion, Map.of(
+                "conflictos", c.conflictos.sum(),
+                "recuperadas", c.recuperadas.sum(),
+                "agotadas", c.agotadas.sum())));
+        return estadisticas;
+    }
+
+    private Contadores contadoresDe(RetryCallback<?, ?> callback) {
+        String operacion = callback instanceof MethodInvocationRetryCallback<?, ?> invocacion
+                ? invocacion.getInvocation().getMethod().getName()
+                : Objects.requireNonNullElse(callback.getLabel(), "desconocida");
+        return contadores.computeIfAbsent(operacion, k -> new Contadores());
+    }
+
+    private static class Contadores {
+        private final LongAdder conflictos = new LongAdder();
+        private final LongAdder recuperadas = new LongAdder();
+        private final LongAdder agotadas = new LongAdder();
+    }
+}
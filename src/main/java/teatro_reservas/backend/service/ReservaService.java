@@ -1,14 +1,19 @@
 package teatro_reservas.backend.service;
 
+import teatro_reservas.backend.dto.PaginaDTO;
+import teatro_reservas.backend.dto.ReservaLoteRequestDTO;
+import teatro_reservas.backend.dto.ReservaLoteResponseDTO;
 import teatro_reservas.backend.dto.ReservaRequestDTO;
 import teatro_reservas.backend.dto.ReservaResponseDTO;
 import teatro_reservas.backend.dto.ReservaResumenDTO;
+import teatro_reservas.backend.dto.VentasPorFechaDTO;
 import teatro_reservas.backend.entity.Reserva;
 import teatro_reservas.backend.entity.enums.EstadoReserva;
 import teatro_reservas.backend.entity.enums.TipoEntrada;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,12 +24,20 @@ public interface ReservaService {
     ReservaResponseDTO obtenerReservaPorId(Long id);
     void eliminarReserva(Long id);
 
+    // Retenciones temporales
+    ReservaResponseDTO retenerReserva(ReservaRequestDTO reservaDTO);
+    ReservaResponseDTO confirmarReserva(Long reservaId);
+    int expirarRetenciones(Collection<Long> reservaIds);
+
+    // Reservas en lote
+    ReservaLoteResponseDTO crearReservasEnLote(ReservaLoteRequestDTO loteDTO);
+
     // Búsquedas
-    List<ReservaResponseDTO> obtenerTodasLasReservas();
-    List<ReservaResumenDTO> obtenerReservasPorCliente(Long clienteId);
-    List<ReservaResumenDTO> obtenerReservasPorEvento(Long eventoId);
+    PaginaDTO<ReservaResponseDTO> obtenerTodasLasReservas(String cursor, int tamanio);
+    PaginaDTO<ReservaResumenDTO> obtenerReservasPorCliente(Long clienteId, String cursor, int tamanio);
+    PaginaDTO<ReservaResumenDTO> obtenerReservasPorEvento(Long eventoId, String cursor, int tamanio);
     Optional<ReservaResponseDTO> obtenerReservaPorCodigo(String codigoReserva);
-    List<ReservaResponseDTO> obtenerReservasPorEstado(EstadoReserva estado);
+    PaginaDTO<ReservaResponseDTO> obtenerReservasPorEstado(EstadoReserva estado, String cursor, int tamanio);
 
     // Gestión de estados
     ReservaResponseDTO cancelarReserva(Long reservaId, String motivo);
@@ -42,5 +55,6 @@ public interface ReservaService {
     // Estadísticas y reportes
     BigDecimal calcularIngresosPorEvento(Long eventoId);
     long contarReservasConfirmadasPorEventoYTipo(Long eventoId, TipoEntrada tipoEntrada);
-    List<Object[]> obtenerEstadisticasPorFecha(LocalDateTime desde, LocalDateTime hasta);
+    List<VentasPorFechaDTO> obtenerEstadisticasPorFecha(LocalDateTime desde, LocalDateTime hasta);
+    int reconstruirVentasDiarias();
 }
@@ -1,25 +1,42 @@
 package teatro_reservas.backend.service;
 
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
-import org.modelmapper.ModelMapper;
-import org.modelmapper.convention.MatchingStrategies;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import teatro_reservas.backend.config.ReintentoOptimista;
 import teatro_reservas.backend.dto.*;
 import teatro_reservas.backend.entity.Cliente;
 import teatro_reservas.backend.entity.Evento;
 import teatro_reservas.backend.entity.Reserva;
 import teatro_reservas.backend.entity.enums.EstadoReserva;
+import teatro_reservas.backend.entity.enums.TipoEventoReserva;
 import teatro_reservas.backend.entity.enums.TipoEntrada;
 import teatro_reservas.backend.exception.BusinessException;
 import teatro_reservas.backend.exception.ResourceNotFoundException;
+import teatro_reservas.backend.mapper.ReservaMapper;
 import teatro_reservas.backend.repository.ClienteRepository;
 import teatro_reservas.backend.repository.EventoRepository;
 import teatro_reservas.backend.repository.ReservaRepository;
+import teatro_reservas.backend.repository.VentaDiariaRepository;
+import teatro_reservas.backend.service.DisponibilidadEnMemoria.ClaveEntrada;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,104 +46,258 @@ public class ReservaServiceImpl implements ReservaService {
     private final ReservaRepository reservaRepository;
     private final ClienteRepository clienteRepository;
     private final EventoRepository eventoRepository;
-    private final ModelMapper modelMapper = new ModelMapper();
+    private final InventarioService inventarioService;
+    private final RuedaRetenciones ruedaRetenciones;
+    private final GeneradorCodigoReserva generadorCodigoReserva;
+    private final OutboxService outboxService;
+    private final Duration duracionRetencion;
+    private final EntityManager entityManager;
+    private final ReservaMapper reservaMapper;
+    private final CargadorEntidades cargador;
+    private final VentaDiariaRepository ventaDiariaRepository;
+    private final VentasDiariasEventosReserva ventasDiarias;
+    private final VentasEnMemoria ventasEnMemoria;
 
     public ReservaServiceImpl(ReservaRepository reservaRepository,
                               ClienteRepository clienteRepository,
-                              EventoRepository eventoRepository) {
+                              EventoRepository eventoRepository,
+                              InventarioService inventarioService,
+                              RuedaRetenciones ruedaRetenciones,
+                              GeneradorCodigoReserva generadorCodigoReserva,
+                              OutboxService outboxService,
+                              @Value("${teatro.reservas.retencion.duracion:10m}") Duration duracionRetencion,
+                              EntityManager entityManager,
+                              ReservaMapper reservaMapper,
+                              CargadorEntidades cargador,
+                              VentaDiariaRepository ventaDiariaRepository,
+                              VentasDiariasEventosReserva ventasDiarias,
+                              VentasEnMemoria ventasEnMemoria) {
         this.reservaRepository = reservaRepository;
         this.clienteRepository = clienteRepository;
         this.eventoRepository = eventoRepository;
-        configurarModelMapper();
+        this.inventarioService = inventarioService;
+        this.ruedaRetenciones = ruedaRetenciones;
+        this.generadorCodigoReserva = generadorCodigoReserva;
+        this.outboxService = outboxService;
+        this.duracionRetencion = duracionRetencion;
+        this.entityManager = entityManager;
+        this.reservaMapper = reservaMapper;
+        this.cargador = cargador;
+        this.ventaDiariaRepository = ventaDiariaRepository;
+        this.ventasDiarias = ventasDiarias;
+        this.ventasEnMemoria = ventasEnMemoria;
     }
 
-    private void configurarModelMapper() {
-        modelMapper.getConfiguration()
-                .setMatchingStrategy(MatchingStrategies.STRICT);
+    @Override
+    @ReintentoOptimista
+    public ReservaResponseDTO crearReserva(ReservaRequestDTO reservaDTO) {
+        // Validaciones previas
+        Cliente cliente = clienteRepository.findById(reservaDTO.getClienteId())
+                .orElseThrow(() -> new ResourceNotFoundException("Cliente", "id", reservaDTO.getClienteId()));
+
+        Evento evento = eventoRepository.findByIdParaReserva(reservaDTO.getEventoId())
+                .orElseThrow(() -> new ResourceNotFoundException("Evento", "id", reservaDTO.getEventoId()));
+
+        validarReserva(cliente, evento, reservaDTO.getTipoEntrada());
 
-        modelMapper.createTypeMap(Reserva.class, ReservaResponseDTO.class)
-                .addMapping(src -> src.puedeSerCancelada(), ReservaResponseDTO::setPuedeSerCancelada)
-                .addMapping(src -> src.estaVigente(), ReservaResponseDTO::setEstaVigente);
+        // VALIDAR PRIMERO QUE TENGA PASES
+        if (reservaDTO.getUsarPaseGratuito() && !cliente.tienePasesGratuitos()) {
+            throw new BusinessException("El cliente no tiene pases gratuitos disponibles");
+        }
+
+        // Validar y descontar disponibilidad con un único UPDATE condicional
+        inventarioService.reservarEntrada(evento.getId(), reservaDTO.getTipoEntrada());
+
+        Reserva reserva = armarReserva(cliente, evento, reservaDTO.getTipoEntrada(), reservaDTO.getUsarPaseGratuito());
+        if (reserva.getEsPaseGratuito()) {
+            consumirPaseGratuito(cliente);
+        }
+
+        Reserva reservaGuardada = reservaRepository.save(reserva);
+        publicarConfirmacion(reservaGuardada);
+        return reservaMapper.toResponse(reservaGuardada);
     }
 
+    // Retenciones temporales
     @Override
-    public ReservaResponseDTO crearReserva(ReservaRequestDTO reservaDTO) {
-        // Validaciones previas
+    @ReintentoOptimista
+    public ReservaResponseDTO retenerReserva(ReservaRequestDTO reservaDTO) {
         Cliente cliente = clienteRepository.findById(reservaDTO.getClienteId())
                 .orElseThrow(() -> new ResourceNotFoundException("Cliente", "id", reservaDTO.getClienteId()));
 
-        Evento evento = eventoRepository.findById(reservaDTO.getEventoId())
+        Evento evento = eventoRepository.findByIdParaReserva(reservaDTO.getEventoId())
                 .orElseThrow(() -> new ResourceNotFoundException("Evento", "id", reservaDTO.getEventoId()));
 
-        // Validar que el cliente esté activo
-        if (!cliente.getActivo()) {
-            throw new BusinessException("El cliente está inactivo");
+        validarReserva(cliente, evento, reservaDTO.getTipoEntrada());
+
+        // El pase se consume al confirmar, pero se valida desde la retención
+        boolean usarPase = Boolean.TRUE.equals(reservaDTO.getUsarPaseGratuito());
+        if (usarPase && !cliente.tienePasesGratuitos()) {
+            throw new BusinessException("El cliente no tiene pases gratuitos disponibles");
         }
 
-        // Validar que el evento esté vigente
-        if (!evento.estaVigente()) {
-            throw new BusinessException("El evento no está vigente");
+        // La retención ocupa inventario igual que una reserva confirmada
+        inventarioService.reservarEntrada(evento.getId(), reservaDTO.getTipoEntrada());
+
+        Reserva reserva = armarReserva(cliente, evento, reservaDTO.getTipoEntrada(), usarPase);
+        reserva.setEstado(EstadoReserva.PENDIENTE);
+        reserva.setFechaConfirmacion(null);
+        reserva.setFechaExpiracion(LocalDateTime.now().plus(duracionRetencion));
+
+        Reserva reservaGuardada = reservaRepository.save(reserva);
+        ruedaRetenciones.programarAlConfirmar(reservaGuardada.getId(),
+                reservaGuardada.getFechaExpiracion().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        return reservaMapper.toResponse(reservaGuardada);
+    }
+
+    @Override
+    @ReintentoOptimista
+    public ReservaResponseDTO confirmarReserva(Long reservaId) {
+        Reserva reserva = reservaRepository.findById(reservaId)
+                .orElseThrow(() -> new ResourceNotFoundException("Reserva", "id", reservaId));
+
+        if (!reserva.estaPendiente()) {
+            throw new BusinessException("La reserva no está pendiente de confirmación");
+        }
+        if (reserva.retencionVencida()) {
+            throw new BusinessException("La retención de la reserva expiró");
         }
 
-        // Validar compatibilidad tipo entrada - tipo evento
-        if (!evento.getPrecios().containsKey(reservaDTO.getTipoEntrada())) {
-            throw new BusinessException("Tipo de entrada no válido para este evento");
+        Cliente cliente = reserva.getCliente();
+        if (reserva.getEsPaseGratuito() && !cliente.tienePasesGratuitos()) {
+            throw new BusinessException("El cliente no tiene pases gratuitos disponibles");
         }
 
-        // Validar disponibilidad
-        if (!evento.tieneDisponibilidad(reservaDTO.getTipoEntrada())) {
-            throw new BusinessException("No hay disponibilidad para este tipo de entrada");
+        if (reserva.getEsPaseGratuito()) {
+            consumirPaseGratuito(cliente);
         }
 
-        // Crear reserva
-        Reserva reserva = new Reserva();
-        reserva.setCliente(cliente);
-        reserva.setEvento(evento);
-        reserva.setTipoEntrada(reservaDTO.getTipoEntrada());
-        reserva.setEstado(EstadoReserva.CONFIRMADA);
-        reserva.setFechaConfirmacion(LocalDateTime.now());
+        reserva.confirmar();
+        ruedaRetenciones.cancelarAlConfirmar(reservaId);
+        Reserva reservaConfirmada = reservaRepository.save(reserva);
+        publicarConfirmacion(reservaConfirmada);
+        return reservaMapper.toResponse(reservaConfirmada);
+    }
 
-        // Manejar pase gratuito
-        if (reservaDTO.getUsarPaseGratuito()) {
-            // VALIDAR PRIMERO QUE TENGA PASES
-            if (!cliente.tienePasesGratuitos()) {
-                throw new BusinessException("El cliente no tiene pases gratuitos disponibles");
+    // Expira en lote las retenciones vencidas y devuelve sus entradas al inventario
+    @Override
+    public int expirarRetenciones(Collection<Long> reservaIds) {
+        LocalDateTime ahora = LocalDateTime.now();
+
+        Map<ClaveEntrada, List<Long>> vencidasPorEntrada = new HashMap<>();
+        for (Object[] fila : reservaRepository.findRetencionesVencidas(reservaIds, ahora)) {
+            vencidasPorEntrada.computeIfAbsent(new ClaveEntrada((Long) fila[1], (TipoEntrada) fila[2]),
+                    clave -> new ArrayList<>()).add((Long) fila[0]);
+        }
+
+        int expiradas = 0;
+        for (Map.Entry<ClaveEntrada, List<Long>> entrada : vencidasPorEntrada.entrySet()) {
+            // Solo se liberan las que el UPDATE efectivamente expiró
+            int cantidad = reservaRepository.expirarRetenciones(entrada.getValue(), ahora);
+            if (cantidad > 0) {
+                inventarioService.liberarEntradas(entrada.getKey().eventoId(), entrada.getKey().tipoEntrada(), cantidad);
+                expiradas += cantidad;
             }
+        }
+        return expiradas;
+    }
 
-            // Si llega aquí, sí tiene pases
-            reserva.setEsPaseGratuito(true);
-            reserva.setPrecioPagado(BigDecimal.ZERO);
+    @Override
+    @ReintentoOptimista
+    public ReservaLoteResponseDTO crearReservasEnLote(ReservaLoteRequestDTO loteDTO) {
+        List<ReservaRequestDTO> pedidos = loteDTO.getReservas();
+        boolean todoONada = loteDTO.getModo() == ReservaLoteRequestDTO.Modo.TODO_O_NADA;
+        String[] errores = new String[pedidos.size()];
+
+        // Una sola lectura de clientes y eventos para todo el lote
+        Map<Long, Cliente> clientes = clienteRepository.findAllById(
+                        pedidos.stream().map(ReservaRequestDTO::getClienteId).collect(Collectors.toSet()))
+                .stream().collect(Collectors.toMap(Cliente::getId, Function.identity()));
+        Map<Long, Evento> eventos = eventoRepository.findAllByIdParaReserva(
+                        pedidos.stream().map(ReservaRequestDTO::getEventoId).collect(Collectors.toSet()))
+                .stream().collect(Collectors.toMap(Evento::getId, Function.identity()));
+
+        // Validaciones sobre la foto cargada y agrupación por evento y tipo de entrada
+        Map<ClaveEntrada, List<Integer>> pedidosPorEntrada = new LinkedHashMap<>();
+        for (int i = 0; i < pedidos.size(); i++) {
+            ReservaRequestDTO pedido = pedidos.get(i);
+            try {
+                Cliente cliente = Optional.ofNullable(clientes.get(pedido.getClienteId()))
+                        .orElseThrow(() -> new ResourceNotFoundException("Cliente", "id", pedido.getClienteId()));
+                Evento evento = Optional.ofNullable(eventos.get(pedido.getEventoId()))
+                        .orElseThrow(() -> new ResourceNotFoundException("Evento", "id", pedido.getEventoId()));
+                validarReserva(cliente, evento, pedido.getTipoEntrada());
+                pedidosPorEntrada.computeIfAbsent(new ClaveEntrada(evento.getId(), pedido.getTipoEntrada()),
+                        clave -> new ArrayList<>()).add(i);
+            } catch (BusinessException | ResourceNotFoundException e) {
+                errores[i] = e.getMessage();
+            }
+        }
 
-            // Usar el pase gratuito
-            cliente.usarPaseGratuito();
+        Reserva[] reservas = new Reserva[pedidos.size()];
+        if (!todoONada || Arrays.stream(errores).allMatch(Objects::isNull)) {
+            // Un UPDATE por evento y tipo; si no alcanzan, se atienden en el orden del lote
+            pedidosPorEntrada.forEach((clave, indices) -> {
+                int tomadas = inventarioService.reservarEntradas(clave.eventoId(), clave.tipoEntrada(), indices.size());
+                indices.subList(tomadas, indices.size())
+                        .forEach(i -> errores[i] = "No hay disponibilidad para este tipo de entrada");
+            });
+
+            // Pases en orden del lote: cada UPDATE condicional ve los pases que dejaron las anteriores
+            for (int i = 0; i < pedidos.size(); i++) {
+                if (errores[i] != null) {
+                    continue;
+                }
+                ReservaRequestDTO pedido = pedidos.get(i);
+                boolean usarPase = Boolean.TRUE.equals(pedido.getUsarPaseGratuito());
+                if (usarPase && clienteRepository.consumirPaseGratuito(pedido.getClienteId()) == 0) {
+                    errores[i] = "El cliente no tiene pases gratuitos disponibles";
+                    inventarioService.liberarEntrada(pedido.getEventoId(), pedido.getTipoEntrada());
+                    continue;
+                }
+                reservas[i] = armarReserva(clientes.get(pedido.getClienteId()), eventos.get(pedido.getEventoId()),
+                        pedido.getTipoEntrada(), usarPase);
+            }
+        }
+
+        boolean loteRechazado = todoONada && Arrays.stream(errores).anyMatch(Objects::nonNull);
+        if (loteRechazado) {
+            // Se descartan los descuentos de inventario y los pases ya consumidos
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
         } else {
-            // Reserva normal (sin pase gratuito)
-            reserva.setEsPaseGratuito(false);
+            // IDs tomados de la secuencia en bloque: Hibernate agrupa los INSERT en lotes JDBC
+            List<Reserva> creadas = reservaRepository.saveAll(
+                    Arrays.stream(reservas).filter(Objects::nonNull).collect(Collectors.toList()));
+            outboxService.registrarTodos(TipoEventoReserva.RESERVA_CREADA, creadas);
+            outboxService.registrarTodos(TipoEventoReserva.PASE_USADO,
+                    creadas.stream().filter(Reserva::getEsPaseGratuito).collect(Collectors.toList()));
+        }
 
-            //Obtener y guardar precio del evento
-            BigDecimal precio = evento.getPrecios().get(reservaDTO.getTipoEntrada());
-            if (precio == null) {
-                throw new BusinessException("No se puede determinar el precio para este tipo de entrada");
+        List<ReservaLoteResultadoDTO> resultados = new ArrayList<>();
+        for (int i = 0; i < pedidos.size(); i++) {
+            if (loteRechazado) {
+                resultados.add(new ReservaLoteResultadoDTO(i, false, null,
+                        errores[i] != null ? errores[i] : "No se creó porque otra reserva del lote falló"));
+            } else if (errores[i] != null) {
+                resultados.add(new ReservaLoteResultadoDTO(i, false, null, errores[i]));
+            } else {
+                resultados.add(new ReservaLoteResultadoDTO(i, true, reservaMapper.toResumen(reservas[i]), null));
             }
-            reserva.setPrecioPagado(precio);  // Guardar precio inmediatamente
         }
 
-        //Procesar fidelización al crear reserva
-        cliente.procesarAsistenciaEvento();
-        clienteRepository.save(cliente);  // Guardar cliente con fidelización actualizada
-
-        Reserva reservaGuardada = reservaRepository.save(reserva);
-        return mapToReservaResponseDTO(reservaGuardada);
+        int exitosas = (int) resultados.stream().filter(ReservaLoteResultadoDTO::isExitosa).count();
+        return new ReservaLoteResponseDTO(loteDTO.getModo(), pedidos.size(), exitosas,
+                pedidos.size() - exitosas, resultados);
     }
 
     @Override
     public ReservaResponseDTO obtenerReservaPorId(Long id) {
-        Reserva reserva = reservaRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Reserva", "id", id));
-        return mapToReservaResponseDTO(reserva);
+        Reserva reserva = cargador.reserva(id);
+        return reservaMapper.toResponse(reserva);
     }
 
     @Override
+    @ReintentoOptimista
     public void eliminarReserva(Long id) {
         Reserva reserva = reservaRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Reserva", "id", id));
@@ -135,41 +306,66 @@ public class ReservaServiceImpl implements ReservaService {
             throw new BusinessException("La reserva no puede ser eliminada en su estado actual");
         }
 
+        inventarioService.liberarEntrada(reserva.getEvento().getId(), reserva.getTipoEntrada());
+        ruedaRetenciones.cancelarAlConfirmar(id);
+        // Una confirmada deja de contar en las ventas; el pase no se devuelve al eliminarla
+        if (!reserva.estaPendiente()) {
+            outboxService.registrar(TipoEventoReserva.RESERVA_CANCELADA, reserva, false);
+        }
         reservaRepository.delete(reserva);
     }
 
     // Búsquedas
     @Override
-    public List<ReservaResponseDTO> obtenerTodasLasReservas() {
-        List<Reserva> reservas = reservaRepository.findAll();
-        return mapToReservaResponseDTOList(reservas);
+    public PaginaDTO<ReservaResponseDTO> obtenerTodasLasReservas(String cursor, int tamanio) {
+        CursorPaginacion.validarTamanio(tamanio);
+        List<Reserva> reservas = reservaRepository.findPaginaDesde(
+                CursorPaginacion.leerId(cursor), PageRequest.of(0, tamanio + 1));
+        return CursorPaginacion.armarPagina(reservas, tamanio, this::posicionPorId, this::mapToReservaResponseDTOList);
     }
 
     @Override
-    public List<ReservaResumenDTO> obtenerReservasPorCliente(Long clienteId) {
-        List<Reserva> reservas = reservaRepository.findByClienteIdOrderByFechaReservaDesc(clienteId);
-        return mapToReservaResumenDTOList(reservas);
+    public PaginaDTO<ReservaResumenDTO> obtenerReservasPorCliente(Long clienteId, String cursor, int tamanio) {
+        CursorPaginacion.validarTamanio(tamanio);
+        CursorPaginacion desde = CursorPaginacion.leerFecha(cursor);
+        PageRequest limite = PageRequest.of(0, tamanio + 1);
+        List<Reserva> reservas = desde == null
+                ? reservaRepository.findByClienteIdOrderByFechaReservaDescIdDesc(clienteId, limite)
+                : reservaRepository.findPaginaPorClienteAntesDe(clienteId, desde.fecha(), desde.id(), limite);
+        return CursorPaginacion.armarPagina(reservas, tamanio, this::posicionPorFecha, this::mapToReservaResumenDTOList);
     }
 
     @Override
-    public List<ReservaResumenDTO> obtenerReservasPorEvento(Long eventoId) {
-        List<Reserva> reservas = reservaRepository.findByEventoIdOrderByFechaReservaDesc(eventoId);
-        return mapToReservaResumenDTOList(reservas);
+    public PaginaDTO<ReservaResumenDTO> obtenerReservasPorEvento(Long eventoId, String cursor, int tamanio) {
+        CursorPaginacion.validarTamanio(tamanio);
+        CursorPaginacion desde = CursorPaginacion.leerFecha(cursor);
+        PageRequest limite = PageRequest.of(0, tamanio + 1);
+        List<Reserva> reservas = desde == null
+                ? reservaRepository.findByEventoIdOrderByFechaReservaDescIdDesc(eventoId, limite)
+                : reservaRepository.findPaginaPorEventoAntesDe(eventoId, desde.fecha(), desde.id(), limite);
+        return CursorPaginacion.armarPagina(reservas, tamanio, this::posicionPorFecha, this::mapToReservaResumenDTOList);
     }
 
     @Override
     public Optional<ReservaResponseDTO> obtenerReservaPorCodigo(String codigoReserva) {
+        // Códigos mal tipeados se descartan por el dígito de control, sin ir a la base
+        if (!generadorCodigoReserva.puedeExistir(codigoReserva)) {
+            return Optional.empty();
+        }
         Optional<Reserva> reserva = reservaRepository.findByCodigoReserva(codigoReserva);
-        return reserva.map(this::mapToReservaResponseDTO);
+        return reserva.map(reservaMapper::toResponse);
     }
 
     @Override
-    public List<ReservaResponseDTO> obtenerReservasPorEstado(EstadoReserva estado) {
-        List<Reserva> reservas = reservaRepository.findByEstado(estado);
-        return mapToReservaResponseDTOList(reservas);
+    public PaginaDTO<ReservaResponseDTO> obtenerReservasPorEstado(EstadoReserva estado, String cursor, int tamanio) {
+        CursorPaginacion.validarTamanio(tamanio);
+        List<Reserva> reservas = reservaRepository.findPaginaPorEstado(
+                estado, CursorPaginacion.leerId(cursor), PageRequest.of(0, tamanio + 1));
+        return CursorPaginacion.armarPagina(reservas, tamanio, this::posicionPorId, this::mapToReservaResponseDTOList);
     }
 
     @Override
+    @ReintentoOptimista
     public ReservaResponseDTO cancelarReserva(Long reservaId, String motivo) {
         Reserva reserva = reservaRepository.findById(reservaId)
                 .orElseThrow(() -> new ResourceNotFoundException("Reserva", "id", reservaId));
@@ -178,20 +374,23 @@ public class ReservaServiceImpl implements ReservaService {
             throw new BusinessException("La reserva no puede ser cancelada en su estado actual");
         }
 
-        // Si era un pase gratuito, devolver el pase al cliente
-        if (reserva.getEsPaseGratuito()) {
-            Cliente cliente = reserva.getCliente();
-            cliente.setPasesGratuitos(cliente.getPasesGratuitos() + 1);
-            clienteRepository.save(cliente);
-        }
+        // Si era un pase gratuito ya consumido, el pase se devuelve al procesar el evento
+        boolean devolverPase = reserva.getEsPaseGratuito() && !reserva.estaPendiente();
 
+        inventarioService.liberarEntrada(reserva.getEvento().getId(), reserva.getTipoEntrada());
+        ruedaRetenciones.cancelarAlConfirmar(reservaId);
+        // Una retención cancelada nunca se contó como venta ni consumió el pase: no genera evento
+        if (!reserva.estaPendiente()) {
+            outboxService.registrar(TipoEventoReserva.RESERVA_CANCELADA, reserva, devolverPase);
+        }
         reserva.cancelar(motivo);
         Reserva reservaActualizada = reservaRepository.save(reserva);
-        return mapToReservaResponseDTO(reservaActualizada);
+        return reservaMapper.toResponse(reservaActualizada);
     }
 
     // Pases gratuitos
     @Override
+    @ReintentoOptimista
     public ReservaResponseDTO crearReservaConPaseGratuito(Long clienteId, Long eventoId, TipoEntrada tipoEntrada) {
         ReservaRequestDTO reservaDTO = new ReservaRequestDTO();
         reservaDTO.setClienteId(clienteId);
@@ -223,16 +422,13 @@ public class ReservaServiceImpl implements ReservaService {
     @Override
     public boolean puedeCrearReserva(Long clienteId, Long eventoId, TipoEntrada tipoEntrada) {
         try {
-            Cliente cliente = clienteRepository.findById(clienteId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Cliente", "id", clienteId));
-
-            Evento evento = eventoRepository.findById(eventoId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Evento", "id", eventoId));
+            Cliente cliente = cargador.cliente(clienteId);
+            Evento evento = cargador.evento(eventoId);
 
             return cliente.getActivo() &&
                     evento.estaVigente() &&
                     evento.getPrecios().containsKey(tipoEntrada) &&
-                    evento.tieneDisponibilidad(tipoEntrada);
+                    inventarioService.obtenerDisponibles(eventoId, tipoEntrada) > 0;
         } catch (Exception e) {
             return false;
         }
@@ -241,60 +437,109 @@ public class ReservaServiceImpl implements ReservaService {
     // Estadísticas y reportes
     @Override
     public BigDecimal calcularIngresosPorEvento(Long eventoId) {
-        BigDecimal ingresos = reservaRepository.calcularIngresosPorEvento(eventoId);
-        return ingresos != null ? ingresos : BigDecimal.ZERO;
+        // Contadores en memoria: los tableros consultan en cada refresco sin recorrer las reservas
+        return ventasEnMemoria.calcularIngresos(eventoId);
     }
 
     @Override
     public long contarReservasConfirmadasPorEventoYTipo(Long eventoId, TipoEntrada tipoEntrada) {
-        return reservaRepository.countReservasConfirmadasByEventoAndTipo(eventoId, tipoEntrada);
+        return ventasEnMemoria.contarConfirmadas(eventoId, tipoEntrada);
     }
 
     @Override
-    public List<Object[]> obtenerEstadisticasPorFecha(LocalDateTime desde, LocalDateTime hasta) {
-        return reservaRepository.getEstadisticasPorFecha(desde, hasta);
+    public List<VentasPorFechaDTO> obtenerEstadisticasPorFecha(LocalDateTime desde, LocalDateTime hasta) {
+        // Solo lee el resumen por día: no recorre la tabla de reservas
+        return ventaDiariaRepository.findVentasPorFecha(desde.toLocalDate(), hasta.toLocalDate());
+    }
+
+    @Override
+    public int reconstruirVentasDiarias() {
+        return ventasDiarias.reconstruir();
     }
 
 
     // Métodos helper privados
-    private ReservaResponseDTO mapToReservaResponseDTO(Reserva reserva) {
-        ReservaResponseDTO dto = modelMapper.map(reserva, ReservaResponseDTO.class);
+    private void validarReserva(Cliente cliente, Evento evento, TipoEntrada tipoEntrada) {
+        // Validar que el cliente esté activo
+        if (!cliente.getActivo()) {
+            throw new BusinessException("El cliente está inactivo");
+        }
 
-        // Mapear entidades relacionadas
-        dto.setCliente(modelMapper.map(reserva.getCliente(), ClienteResumenDTO.class));
-        dto.setEvento(mapToEventoResumenDTO(reserva.getEvento()));
+        // Validar que el evento esté vigente
+        if (!evento.estaVigente()) {
+            throw new BusinessException("El evento no está vigente");
+        }
 
-        return dto;
+        // Validar compatibilidad tipo entrada - tipo evento
+        if (!evento.getPrecios().containsKey(tipoEntrada)) {
+            throw new BusinessException("Tipo de entrada no válido para este evento");
+        }
+    }
+
+    // Arma la reserva confirmada con su precio (cero si usa pase gratuito)
+    private Reserva armarReserva(Cliente cliente, Evento evento, TipoEntrada tipoEntrada, boolean usarPaseGratuito) {
+        Reserva reserva = new Reserva();
+        reserva.setCodigoReserva(generadorCodigoReserva.generar());
+        reserva.setCliente(cliente);
+        reserva.setEvento(evento);
+        reserva.setTipoEntrada(tipoEntrada);
+        reserva.setEstado(EstadoReserva.CONFIRMADA);
+        LocalDateTime ahora = LocalDateTime.now();
+        reserva.setFechaReserva(ahora);
+        reserva.setFechaConfirmacion(ahora);
+
+        // Manejar pase gratuito
+        if (usarPaseGratuito) {
+            reserva.setEsPaseGratuito(true);
+            reserva.setPrecioPagado(BigDecimal.ZERO);
+        } else {
+            // Reserva normal (sin pase gratuito)
+            reserva.setEsPaseGratuito(false);
+
+            //Obtener y guardar precio del evento
+            BigDecimal precio = evento.getPrecios().get(tipoEntrada);
+            if (precio == null) {
+                throw new BusinessException("No se puede determinar el precio para este tipo de entrada");
+            }
+            reserva.setPrecioPagado(precio);  // Guardar precio inmediatamente
+        }
+        return reserva;
     }
 
-    private EventoResumenDTO mapToEventoResumenDTO(Evento evento) {
-        EventoResumenDTO dto = modelMapper.map(evento, EventoResumenDTO.class);
+    // El pase se consume en la transacción de la reserva con un UPDATE condicional: dos reservas
+    // simultáneas no pueden gastar el mismo pase. La entidad se recarga para la respuesta.
+    private void consumirPaseGratuito(Cliente cliente) {
+        if (clienteRepository.consumirPaseGratuito(cliente.getId()) == 0) {
+            throw new BusinessException("El cliente no tiene pases gratuitos disponibles");
+        }
+        entityManager.refresh(cliente);
+    }
 
-        // Calcular precio mínimo
-        BigDecimal precioMinimo = evento.getPrecios().values().stream()
-                .min(BigDecimal::compareTo)
-                .orElse(BigDecimal.ZERO);
-        dto.setPrecioDesde(precioMinimo);
+    // La asistencia y los pases que otorga se registran fuera de la transacción (outbox)
+    private void publicarConfirmacion(Reserva reserva) {
+        outboxService.registrar(TipoEventoReserva.RESERVA_CREADA, reserva, reserva.getEsPaseGratuito());
+        if (reserva.getEsPaseGratuito()) {
+            outboxService.registrar(TipoEventoReserva.PASE_USADO, reserva, true);
+        }
+    }
 
-        return dto;
+    private CursorPaginacion posicionPorId(Reserva reserva) {
+        return CursorPaginacion.porId(reserva.getId());
     }
 
-    private ReservaResumenDTO mapToReservaResumenDTO(Reserva reserva) {
-        ReservaResumenDTO dto = modelMapper.map(reserva, ReservaResumenDTO.class);
-        dto.setNombreEvento(reserva.getEvento().getNombre());
-        dto.setFechaEvento(reserva.getEvento().getFechaHora());
-        return dto;
+    private CursorPaginacion posicionPorFecha(Reserva reserva) {
+        return new CursorPaginacion(reserva.getFechaReserva(), reserva.getId());
     }
 
     private List<ReservaResponseDTO> mapToReservaResponseDTOList(List<Reserva> reservas) {
         return reservas.stream()
-                .map(this::mapToReservaResponseDTO)
+                .map(reservaMapper::toResponse)
                 .collect(Collectors.toList());
     }
 
     private List<ReservaResumenDTO> mapToReservaResumenDTOList(List<Reserva> reservas) {
         return reservas.stream()
-                .map(this::mapToReservaResumenDTO)
+                .map(reservaMapper::toResumen)
                 .collect(Collectors.toList());
     }
 }
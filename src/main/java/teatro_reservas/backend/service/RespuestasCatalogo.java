@@ -0,0 +1,89 @@
+package teatro_reservas.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Respuestas del catálogo ya serializadas a JSON (y comprimidas con gzip), iguales
+ * para todos los usuarios mientras el catálogo no cambie. Cada entrada guarda la
+ * versión con la que se armó, tomada de {@link VersionesCatalogo}: una versión distinta
+ * vuelve a consultar y serializar, así que cualquier cambio de eventos, inventario o
+ * reservas invalida las respuestas sin avisos explícitos. En un acierto no se consulta
+ * la base ni se mapean DTOs ni se pasa por Jackson: se devuelven los bytes guardados.
+ */
+@Component
+public class RespuestasCatalogo {
+
+    /** Versión de las respuestas que no cambian mientras la aplicación corre (enumerados). */
+    public static final String SIN_VERSION = "fija";
+
+    private final ObjectMapper objectMapper;
+    private final int maximoEntradas;
+    private final Map<String, RespuestaSerializada> respuestas = new ConcurrentHashMap<>();
+
+    public RespuestasCatalogo(ObjectMapper objectMapper,
+                              @Value("${teatro.catalogo.respuestas.maximo-entradas:64}") int maximoEntradas) {
+        this.objectMapper = objectMapper;
+        this.maximoEntradas = maximoEntradas;
+    }
+
+    /**
+     * Devuelve la respuesta guardada para la clave si se armó con la misma versión;
+     * si no, obtiene el contenido, lo serializa y lo guarda. La versión debe leerse
+     * antes de consultar el contenido: un cambio confirmado en el medio deja datos
+     * nuevos con la versión vieja, que se descartan en la siguiente consulta.
+     */
+    public RespuestaSerializada obtener(String clave, String version, Supplier<?> contenido) {
+        RespuestaSerializada guardada = respuestas.get(clave);
+        if (guardada != null && guardada.version().equals(version)) {
+            return guardada;
+        }
+
+        RespuestaSerializada nueva = serializar(version, contenido.get());
+        // Las claves incluyen parámetros del cliente (días de /proximos): se acota la cantidad
+        if (respuestas.size() >= maximoEntradas && !respuestas.containsKey(clave)) {
+            respuestas.clear();
+        }
+        respuestas.put(clave, nueva);
+        return nueva;
+    }
+
+    public int cantidadRespuestas() {
+        return respuestas.size();
+    }
+
+    private RespuestaSerializada serializar(String version, Object contenido) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(contenido);
+            byte[] gzip = comprimir(json);
+            // En cuerpos chicos (los enumerados) el encabezado de gzip no compensa
+            return new RespuestaSerializada(version, json, gzip.length < json.length ? gzip : null);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar la respuesta del catálogo", e);
+        }
+    }
+
+    private static byte[] comprimir(byte[] datos) {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream(datos.length / 4 + 32);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(salida)) {
+            gzip.write(datos);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return salida.toByteArray();
+    }
+
+    /** Cuerpo JSON de una respuesta y, si conviene, su versión gzip (null si no). */
+    public record RespuestaSerializada(String version, byte[] json, byte[] gzip) {
+    }
+}
@@ -0,0 +1,93 @@
+package teatro_reservas.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Rueda de tiempo (hashed timing wheel) con los vencimientos de las retenciones.
+ * Cada reserva se ubica en la ranura de su tick de vencimiento; en cada avance
+ * solo se recorren las ranuras de los ticks transcurridos, sin consultar la base.
+ * Las entradas con vencimiento a más de una vuelta esperan en su ranura hasta
+ * que llegue su tick.
+ */
+@Component
+public class RuedaRetenciones {
+
+    private final long duracionTickMs;
+    private final Set<Long>[] ranuras;
+    private final Map<Long, Long> tickPorReserva = new HashMap<>();
+    private long ultimoTick;
+
+    @SuppressWarnings("unchecked")
+    public RuedaRetenciones(@Value("${teatro.reservas.retencion.tick-ms:1000}") long duracionTickMs,
+                            @Value("${teatro.reservas.retencion.ranuras:512}") int cantidadRanuras) {
+        this.duracionTickMs = duracionTickMs;
+        this.ranuras = new Set[cantidadRanuras];
+        for (int i = 0; i < cantidadRanuras; i++) {
+            ranuras[i] = new HashSet<>();
+        }
+        this.ultimoTick = System.currentTimeMillis() / duracionTickMs;
+    }
+
+    public synchronized void programar(Long reservaId, long vencimientoMs) {
+        cancelar(reservaId);
+        // Redondeo hacia arriba: nunca se dispara antes del vencimiento
+        long tick = Math.max(Math.floorDiv(vencimientoMs + duracionTickMs - 1, duracionTickMs), ultimoTick + 1);
+        tickPorReserva.put(reservaId, tick);
+        ranura(tick).add(reservaId);
+    }
+
+    public synchronized void cancelar(Long reservaId) {
+        Long tick = tickPorReserva.remove(reservaId);
+        if (tick != null) {
+            ranura(tick).remove(reservaId);
+        }
+    }
+
+    // Avanza hasta el instante indicado y devuelve las reservas vencidas
+    public synchronized List<Long> avanzar(long ahoraMs) {
+        long tickActual = ahoraMs / duracionTickMs;
+        List<Long> vencidas = new ArrayList<>();
+
+        // Tras una pausa larga alcanza con una vuelta completa para ver todas las ranuras
+        long desde = Math.max(ultimoTick + 1, tickActual - ranuras.length + 1);
+        for (long tick = desde; tick <= tickActual; tick++) {
+            Iterator<Long> iterador = ranura(tick).iterator();
+            while (iterador.hasNext()) {
+                Long reservaId = iterador.next();
+                if (tickPorReserva.get(reservaId) <= tickActual) {
+                    iterador.remove();
+                    tickPorReserva.remove(reservaId);
+                    vencidas.add(reservaId);
+                }
+            }
+        }
+        ultimoTick = Math.max(ultimoTick, tickActual);
+        return vencidas;
+    }
+
+    public synchronized int cantidadProgramadas() {
+        return tickPorReserva.size();
+    }
+
+    // La rueda solo cambia si la transacción que creó o cerró la retención se confirma
+    public void programarAlConfirmar(Long reservaId, long vencimientoMs) {
+        SincronizacionTransaccion.alConfirmar(() -> programar(reservaId, vencimientoMs));
+    }
+
+    public void cancelarAlConfirmar(Long reservaId) {
+        SincronizacionTransaccion.alConfirmar(() -> cancelar(reservaId));
+    }
+
+    private Set<Long> ranura(long tick) {
+        return ranuras[(int) Math.floorMod(tick, (long) ranuras.length)];
+    }
+}
@@ -0,0 +1,281 @@
+package teatro_reservas.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import teatro_reservas.backend.dto.ReservaLoteResponseDTO;
+import teatro_reservas.backend.dto.TurnoSalaEsperaDTO;
+import teatro_reservas.backend.exception.AdmisionPendienteException;
+import teatro_reservas.backend.exception.BusinessException;
+import teatro_reservas.backend.exception.ResourceNotFoundException;
+import teatro_reservas.backend.repository.EventoRepository;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Sala de espera por evento delante de la creación de reservas.
+ * Cada cliente recibe un turno numerado y firmado; los turnos se admiten en orden
+ * a un ritmo fijo (token bucket por evento), de modo que la base recibe una
+ * concurrencia sostenible aunque miles de clientes lleguen a la vez.
+ * Sin cola formada, las reservas pasan directo mientras el balde tenga fichas.
+ */
+@Component
+public class SalaDeEspera {
+
+    public static final String ENCABEZADO_TURNO = "X-Turno-Sala-Espera";
+
+    private static final long FILA_INACTIVA_NANOS = 10L * 60 * 1_000_000_000L;
+
+    private final EventoRepository eventoRepository;
+    private final boolean habilitada;
+    private final double admisionesPorSegundo;
+    private final int rafaga;
+    private final Map<Long, FilaEvento> filas = new ConcurrentHashMap<>();
+    private final SecureRandom aleatorio = new SecureRandom();
+    private final SecretKeySpec claveFirma;
+
+    public SalaDeEspera(EventoRepository eventoRepository,
+                        @Value("${teatro.sala-espera.habilitada:true}") boolean habilitada,
+                        @Value("${teatro.sala-espera.admisiones-por-segundo:20}") double admisionesPorSegundo,
+                        @Value("${teatro.sala-espera.rafaga:40}") int rafaga) {
+        this.eventoRepository = eventoRepository;
+        this.habilitada = habilitada;
+        this.admisionesPorSegundo = admisionesPorSegundo;
+        this.rafaga = rafaga;
+
+        // Clave propia de cada arranque: los turnos no sobreviven a un reinicio, igual que la fila
+        byte[] clave = new byte[32];
+        aleatorio.nextBytes(clave);
+        this.claveFirma = new SecretKeySpec(clave, "HmacSHA256");
+    }
+
+    public TurnoSalaEsperaDTO solicitarTurno(Long eventoId) {
+        FilaEvento fila = obtenerFila(eventoId);
+        long turno = fila.emitirTurno();
+        return estadoTurno(eventoId, fila, turno);
+    }
+
+    public TurnoSalaEsperaDTO consultarTurno(Long eventoId, String turno) {
+        FilaEvento fila = filas.get(eventoId);
+        long numero = leerTurno(eventoId, fila, turno);
+        return estadoTurno(eventoId, fila, numero);
+    }
+
+    // Ejecuta la reserva de un cliente admitido; lanza AdmisionPendienteException si debe seguir esperando.
+    // Si la reserva falla, el turno vuelve a quedar libre para reintentar sin volver a la fila
+    public <T> T admitir(Long eventoId, String turno, Supplier<T> reserva) {
+        long numero = validarAdmision(eventoId, turno);
+        return reservarConTurno(eventoId, numero, reserva);
+    }
+
+    // Un lote pasa por la fila de cada evento que incluye; el turno es de un solo evento y se
+    // devuelve también si el lote no llegó a crear ninguna reserva
+    public ReservaLoteResponseDTO admitirLote(Collection<Long> eventoIds, String turno,
+                                              Supplier<ReservaLoteResponseDTO> lote) {
+        if (!habilitada) {
+            return lote.get();
+        }
+
+        Set<Long> eventos = new HashSet<>(eventoIds);
+        if (turno == null || turno.isBlank() || eventos.isEmpty()) {
+            eventos.forEach(eventoId -> validarAdmision(eventoId, null));
+            return lote.get();
+        }
+        if (eventos.size() > 1) {
+            throw new BusinessException("Un lote con turno de sala de espera solo puede incluir reservas de ese evento");
+        }
+
+        Long eventoId = eventos.iterator().next();
+        long numero = validarAdmision(eventoId, turno);
+        ReservaLoteResponseDTO resultado = reservarConTurno(eventoId, numero, lote);
+        if (resultado.getExitosas() == 0) {
+            devolverTurno(eventoId, numero);
+        }
+        return resultado;
+    }
+
+    // Devuelve el número de turno consumido, o 0 si se admitió sin turno
+    private long validarAdmision(Long eventoId, String turno) {
+        if (!habilitada) {
+            return 0;
+        }
+
+        if (turno == null || turno.isBlank()) {
+            FilaEvento fila = obtenerFila(eventoId);
+            if (!fila.admitirSinTurno()) {
+                throw new AdmisionPendienteException(
+                        "Alta demanda para este evento: solicite un turno en la sala de espera",
+                        esperaEstimada(fila.pendientes()));
+            }
+            return 0;
+        }
+
+        FilaEvento fila = filas.get(eventoId);
+        long numero = leerTurno(eventoId, fila, turno);
+        long posicion = fila.posicion(numero);
+        if (posicion > 0) {
+            throw new AdmisionPendienteException(
+                    "Su turno todavía no fue admitido. Posición en la fila: " + posicion,
+                    esperaEstimada(posicion));
+        }
+        if (!fila.usarTurno(numero)) {
+            throw new BusinessException("El turno de la sala de espera ya fue utilizado");
+        }
+        return numero;
+    }
+
+    private <T> T reservarConTurno(Long eventoId, long numero, Supplier<T> reserva) {
+        try {
+            return reserva.get();
+        } catch (RuntimeException e) {
+            devolverTurno(eventoId, numero);
+            throw e;
+        }
+    }
+
+    private void devolverTurno(Long eventoId, long numero) {
+        FilaEvento fila = filas.get(eventoId);
+        if (numero > 0 && fila != null) {
+            fila.devolverTurno(numero);
+        }
+    }
+
+    // Descarta filas sin nadie esperando y sin movimiento reciente
+    @Scheduled(fixedDelay = 60_000)
+    public void depurarFilas() {
+        long ahora = System.nanoTime();
+        filas.values().removeIf(fila -> fila.inactiva(ahora));
+    }
+
+    // Solo se abre fila para eventos existentes: ids inventados no ocupan memoria hasta la depuración
+    private FilaEvento obtenerFila(Long eventoId) {
+        FilaEvento fila = filas.get(eventoId);
+        if (fila != null) {
+            return fila;
+        }
+        if (!eventoRepository.existsById(eventoId)) {
+            throw new ResourceNotFoundException("Evento", "id", eventoId);
+        }
+        return filas.computeIfAbsent(eventoId, id -> new FilaEvento(aleatorio.nextLong() >>> 1));
+    }
+
+    private TurnoSalaEsperaDTO estadoTurno(Long eventoId, FilaEvento fila, long turno) {
+        long posicion = fila.posicion(turno);
+        return new TurnoSalaEsperaDTO(eventoId, firmarTurno(eventoId, fila.generacion, turno),
+                posicion, posicion == 0, esperaEstimada(posicion));
+    }
+
+    private long esperaEstimada(long posicion) {
+        return (long) Math.ceil(posicion / admisionesPorSegundo);
+    }
+
+    // Formato: generación.turno.firma — la generación invalida turnos de filas ya descartadas
+    private String firmarTurno(Long eventoId, long generacion, long turno) {
+        return generacion + "." + turno + "." + firma(eventoId, generacion, turno);
+    }
+
+    private long leerTurno(Long eventoId, FilaEvento fila, String turno) {
+        String[] partes = turno != null ? turno.split("\\.") : new String[0];
+        try {
+            if (fila != null && partes.length == 3 && Long.parseLong(partes[0]) == fila.generacion) {
+                long numero = Long.parseLong(partes[1]);
+                byte[] esperada = firma(eventoId, fila.generacion, numero).getBytes(StandardCharsets.US_ASCII);
+                if (MessageDigest.isEqual(esperada, partes[2].getBytes(StandardCharsets.US_ASCII))) {
+                    return numero;
+                }
+            }
+        } catch (NumberFormatException e) {
+            // Se informa como turno inválido
+        }
+        throw new BusinessException("Turno de sala de espera inválido o vencido para este evento");
+    }
+
+    private String firma(Long eventoId, long generacion, long turno) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(claveFirma);
+            byte[] datos = (eventoId + ":" + generacion + ":" + turno).getBytes(StandardCharsets.US_ASCII);
+            byte[] resultado = mac.doFinal(datos);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(resultado).substring(0, 22);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("No se pudo firmar el turno", e);
+        }
+    }
+
+    private class FilaEvento {
+        private final long generacion;
+        private final Set<Long> turnosUsados = new HashSet<>();
+        private long turnosEmitidos;
+        // Turnos menores o iguales a este valor ya pueden reservar
+        private long admitidosHasta;
+        private double fichas = rafaga;
+        private long ultimaRecarga = System.nanoTime();
+        private long ultimoUso = ultimaRecarga;
+
+        private FilaEvento(long generacion) {
+            this.generacion = generacion;
+        }
+
+        private synchronized long emitirTurno() {
+            avanzar();
+            return ++turnosEmitidos;
+        }
+
+        private synchronized boolean admitirSinTurno() {
+            avanzar();
+            // Solo se pasa directo si nadie está esperando turno
+            if (admitidosHasta < turnosEmitidos || fichas < 1) {
+                return false;
+            }
+            fichas--;
+            return true;
+        }
+
+        private synchronized long posicion(long turno) {
+            avanzar();
+            return Math.max(turno - admitidosHasta, 0);
+        }
+
+        private synchronized boolean usarTurno(long turno) {
+            ultimoUso = System.nanoTime();
+            return turnosUsados.add(turno);
+        }
+
+        private synchronized void devolverTurno(long turno) {
+            turnosUsados.remove(turno);
+        }
+
+        private synchronized long pendientes() {
+            return turnosEmitidos - admitidosHasta;
+        }
+
+        private synchronized boolean inactiva(long ahora) {
+            return admitidosHasta >= turnosEmitidos && ahora - ultimoUso > FILA_INACTIVA_NANOS;
+        }
+
+        // Recarga perezosa del balde y admisión en orden de los turnos que alcanzan
+        private void avanzar() {
+            long ahora = System.nanoTime();
+            fichas += (ahora - ultimaRecarga) / 1e9 * admisionesPorSegundo;
+            ultimaRecarga = ahora;
+            ultimoUso = ahora;
+
+            long admitir = Math.min((long) fichas, turnosEmitidos - admitidosHasta);
+            admitidosHasta += admitir;
+            // El tope de la ráfaga se aplica a lo que sobra: con cola se admite al ritmo configurado
+            fichas = Math.min(rafaga, fichas - admitir);
+        }
+    }
+}
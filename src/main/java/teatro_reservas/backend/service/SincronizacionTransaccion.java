@@ -0,0 +1,44 @@
+package teatro_reservas.backend.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Acciones sobre estado en memoria (índices, contadores, rankings) atadas al resultado de la
+ * transacción en curso. Sin transacción activa (tareas de arranque, tests unitarios) se aplican
+ * en el momento o se descartan, según corresponda.
+ */
+public final class SincronizacionTransaccion {
+
+    private SincronizacionTransaccion() {
+    }
+
+    // La acción corre solo si la transacción se confirma
+    public static void alConfirmar(Runnable accion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            accion.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                accion.run();
+            }
+        });
+    }
+
+    // La acción corre solo si la transacción se revierte; sin transacción no hay nada que deshacer
+    public static void alRevertir(Runnable accion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    accion.run();
+                }
+            }
+        });
+    }
+}
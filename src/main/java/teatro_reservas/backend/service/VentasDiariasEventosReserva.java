@@ -0,0 +1,133 @@
+package teatro_reservas.backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import teatro_reservas.backend.entity.EventoOutbox;
+import teatro_reservas.backend.entity.VentaDiaria;
+import teatro_reservas.backend.entity.enums.TipoEntrada;
+import teatro_reservas.backend.entity.enums.TipoEventoReserva;
+import teatro_reservas.backend.repository.EventoOutboxRepository;
+import teatro_reservas.backend.repository.ReservaRepository;
+import teatro_reservas.backend.repository.VentaDiariaRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Mantiene ventas_diarias: cada reserva confirmada suma una venta al día de la reserva, su
+ * evento y su tipo de entrada, y cada cancelación o eliminación de una confirmada la resta.
+ * Los cambios de un lote de eventos se agrupan por fila y se aplican con un UPDATE cada una,
+ * en el mismo orden de claves en todas las instancias. La tabla se puede reconstruir desde las
+ * reservas; al iniciar se completa sola si está vacía (primer despliegue con reservas previas).
+ */
+@Component
+@Slf4j
+public class VentasDiariasEventosReserva implements ManejadorEventosReserva {
+
+    private static final Comparator<ClaveVenta> ORDEN_CLAVES = Comparator.comparing(ClaveVenta::fecha)
+            .thenComparing(ClaveVenta::eventoId)
+            .thenComparing(ClaveVenta::tipoEntrada);
+
+    private final VentaDiariaRepository ventaDiariaRepository;
+    private final ReservaRepository reservaRepository;
+    private final EventoOutboxRepository outboxRepository;
+    private final CandadoDespachoOutbox candadoDespacho;
+    private final TransactionTemplate transaccionPropia;
+
+    public VentasDiariasEventosReserva(VentaDiariaRepository ventaDiariaRepository,
+                                       ReservaRepository reservaRepository,
+                                       EventoOutboxRepository outboxRepository,
+                                       CandadoDespachoOutbox candadoDespacho,
+                                       PlatformTransactionManager transactionManager) {
+        this.ventaDiariaRepository = ventaDiariaRepository;
+        this.reservaRepository = reservaRepository;
+        this.outboxRepository = outboxRepository;
+        this.candadoDespacho = candadoDespacho;
+        // La reconstrucción confirma antes de soltar el candado, aunque la llame un servicio transaccional
+        this.transaccionPropia = new TransactionTemplate(transactionManager);
+        this.transaccionPropia.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public boolean atiende(TipoEventoReserva tipo) {
+        return tipo == TipoEventoReserva.RESERVA_CREADA || tipo == TipoEventoReserva.RESERVA_CANCELADA;
+    }
+
+    @Override
+    public void manejar(List<EventoOutbox> eventos) {
+        Map<ClaveVenta, VentaDiaria> cambios = new TreeMap<>(ORDEN_CLAVES);
+        for (EventoOutbox evento : eventos) {
+            // Sin la fecha no se sabe qué día tocar: el evento queda con error en el outbox
+            if (evento.getFechaReserva() == null) {
+                throw new IllegalStateException("El evento de outbox " + evento.getId() + " no tiene la fecha de la reserva");
+            }
+            long signo = evento.getTipo() == TipoEventoReserva.RESERVA_CREADA ? 1 : -1;
+            BigDecimal precio = evento.getPrecioPagado() != null ? evento.getPrecioPagado() : BigDecimal.ZERO;
+            VentaDiaria cambio = new VentaDiaria(evento.getFechaReserva().toLocalDate(), evento.getEventoId(),
+                    evento.getTipoEntrada(), signo, precio.multiply(BigDecimal.valueOf(signo)),
+                    Boolean.TRUE.equals(evento.getReservaConPase()) ? signo : 0L);
+            cambios.merge(ClaveVenta.de(cambio), cambio, (acumulado, nuevo) -> {
+                acumulado.sumar(nuevo);
+                return acumulado;
+            });
+        }
+
+        for (VentaDiaria cambio : cambios.values()) {
+            int actualizadas = ventaDiariaRepository.sumar(cambio.getFecha(), cambio.getEventoId(), cambio.getTipoEntrada(),
+                    cambio.getCantidad(), cambio.getIngresos(), cambio.getPasesGratuitos());
+            // Si otra instancia inserta la misma fila a la vez, la clave única rechaza el lote y se reintenta
+            if (actualizadas == 0) {
+                ventaDiariaRepository.save(cambio);
+            }
+        }
+    }
+
+    /**
+     * Vuelve a calcular ventas_diarias con una consulta agrupada sobre las reservas. Los eventos
+     * del outbox que todavía no se procesaron se descuentan: cuando se procesen, su cambio se
+     * aplica sobre este resultado sin contarse dos veces. El despacho de esta instancia queda
+     * detenido hasta confirmar, para que ningún pendiente descontado se procese en el medio.
+     */
+    public int reconstruir() {
+        return candadoDespacho.ejecutar(() -> transaccionPropia.execute(estado -> reconstruirTabla()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void completarAlIniciar() {
+        if (ventaDiariaRepository.count() == 0 && reservaRepository.count() > 0) {
+            log.info("Ventas diarias reconstruidas al iniciar: {} filas", reconstruir());
+        }
+    }
+
+    private int reconstruirTabla() {
+        Map<ClaveVenta, VentaDiaria> ventas = new TreeMap<>(ORDEN_CLAVES);
+        for (VentaDiaria venta : reservaRepository.sumarVentasDiarias()) {
+            ventas.put(ClaveVenta.de(venta), venta);
+        }
+        for (VentaDiaria pendiente : outboxRepository.sumarVentasPendientes()) {
+            ventas.merge(ClaveVenta.de(pendiente), pendiente, (acumulado, nuevo) -> {
+                acumulado.sumar(nuevo);
+                return acumulado;
+            });
+        }
+
+        ventaDiariaRepository.deleteAllInBatch();
+        ventaDiariaRepository.saveAll(ventas.values());
+        return ventas.size();
+    }
+
+    private record ClaveVenta(LocalDate fecha, Long eventoId, TipoEntrada tipoEntrada) {
+        static ClaveVenta de(VentaDiaria venta) {
+            return new ClaveVenta(venta.getFecha(), venta.getEventoId(), venta.getTipoEntrada());
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package teatro_reservas.backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import teatro_reservas.backend.entity.Reserva;
+import teatro_reservas.backend.entity.enums.TipoEntrada;
+import teatro_reservas.backend.entity.enums.TipoEventoReserva;
+import teatro_reservas.backend.repository.ReservaRepository;
+import teatro_reservas.backend.service.DisponibilidadEnMemoria.ClaveEntrada;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Reservas confirmadas e ingresos por evento y tipo de entrada, mantenidos en memoria para
+ * los tableros que los consultan en cada refresco. Cada reserva confirmada suma y cada
+ * cancelación o eliminación de una confirmada resta, una vez confirmada la transacción; los
+ * contadores son LongAdder (muchas escrituras concurrentes, pocas lecturas) y los ingresos se
+ * guardan en centavos. Se cargan desde la base al iniciar y una tarea periódica los compara con
+ * la base: una diferencia que se repite en dos comparaciones seguidas se informa y se corrige
+ * (una sola puede ser una transacción confirmada cuyo aviso todavía no llegó).
+ */
+@Component
+@Slf4j
+public class VentasEnMemoria {
+
+    private static final int DECIMALES = 2;
+
+    private final ReservaRepository reservaRepository;
+    private final Map<ClaveEntrada, Contadores> contadores = new ConcurrentHashMap<>();
+    // Diferencias vistas en la última comparación, pendientes de confirmarse en la siguiente
+    private Map<ClaveEntrada, Totales> diferenciasAnteriores = Map.of();
+
+    public VentasEnMemoria(ReservaRepository reservaRepository) {
+        this.reservaRepository = reservaRepository;
+    }
+
+    // Solo las creaciones y las cancelaciones de confirmadas cambian las ventas
+    public void registrarAlConfirmar(TipoEventoReserva tipo, Collection<Reserva> reservas) {
+        long signo;
+        if (tipo == TipoEventoReserva.RESERVA_CREADA) {
+            signo = 1;
+        } else if (tipo == TipoEventoReserva.RESERVA_CANCELADA) {
+            signo = -1;
+        } else {
+            return;
+        }
+
+        // Los datos se toman ahora: después del commit las entidades ya no pertenecen a la sesión
+        Map<ClaveEntrada, Totales> cambios = new HashMap<>();
+        for (Reserva reserva : reservas) {
+            long centavos = Boolean.TRUE.equals(reserva.getEsPaseGratuito()) ? 0L : centavos(reserva.getPrecioPagado());
+            cambios.merge(new ClaveEntrada(reserva.getEvento().getId(), reserva.getTipoEntrada()),
+                    new Totales(signo, signo * centavos), Totales::mas);
+        }
+        SincronizacionTransaccion.alConfirmar(() -> cambios.forEach(this::sumar));
+    }
+
+    public long contarConfirmadas(Long eventoId, TipoEntrada tipoEntrada) {
+        Contadores contador = contadores.get(new ClaveEntrada(eventoId, tipoEntrada));
+        return contador != null ? contador.confirmadas.sum() : 0L;
+    }
+
+    public BigDecimal calcularIngresos(Long eventoId) {
+        long centavos = 0;
+        for (TipoEntrada tipoEntrada : TipoEntrada.values()) {
+            Contadores contador = contadores.get(new ClaveEntrada(eventoId, tipoEntrada));
+            if (contador != null) {
+                centavos += contador.centavos.sum();
+            }
+        }
+        return BigDecimal.valueOf(centavos, DECIMALES);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarAlIniciar() {
+        Map<ClaveEntrada, Totales> totales = cargarDesdeBase();
+        contadores.clear();
+        totales.forEach(this::sumar);
+        log.info("Ventas en memoria cargadas al iniciar: {} contadores", contadores.size());
+    }
+
+    /**
+     * Compara los contadores con la base y devuelve cuántos se corrigieron. Las claves que
+     * cambian mientras se consulta la base se dejan para la próxima comparación.
+     */
+    @Scheduled(initialDelayString = "${teatro.ventas.memoria.reconciliacion-ms:300000}",
+            fixedDelayString = "${teatro.ventas.memoria.reconciliacion-ms:300000}")
+    public synchronized int reconciliar() {
+        Map<ClaveEntrada, Totales> antes = instantanea();
+        Map<ClaveEntrada, Totales> enBase = cargarDesdeBase();
+        Map<ClaveEntrada, Totales> despues = instantanea();
+
+        Set<ClaveEntrada> claves = new HashSet<>(enBase.keySet());
+        claves.addAll(despues.keySet());
+        Map<ClaveEntrada, Totales> diferencias = new HashMap<>();
+        int corregidos = 0;
+        for (ClaveEntrada clave : claves) {
+            Totales enMemoria = despues.getOrDefault(clave, Totales.CERO);
+            if (!enMemoria.equals(antes.getOrDefault(clave, Totales.CERO))) {
+                continue;
+            }
+            Totales diferencia = enBase.getOrDefault(clave, Totales.CERO).menos(enMemoria);
+            if (diferencia.equals(Totales.CERO)) {
+                continue;
+            }
+            if (diferencia.equals(diferenciasAnteriores.get(clave))) {
+                log.warn("Ventas en memoria desfasadas para el evento {} ({}): {} reservas y {} centavos de diferencia; se corrigen",
+                        clave.eventoId(), clave.tipoEntrada(), diferencia.confirmadas(), diferencia.centavos());
+                sumar(clave, diferencia);
+                corregidos++;
+            } else {
+                diferencias.put(clave, diferencia);
+            }
+        }
+        diferenciasAnteriores = diferencias;
+        return corregidos;
+    }
+
+    private Map<ClaveEntrada, Totales> cargarDesdeBase() {
+        Map<ClaveEntrada, Totales> totales = new HashMap<>();
+        for (Object[] fila : reservaRepository.sumarVentasPorEventoYTipo()) {
+            totales.put(new ClaveEntrada((Long) fila[0], (TipoEntrada) fila[1]),
+                    new Totales(((Number) fila[2]).longValue(), centavos(fila[3])));
+        }
+        return totales;
+    }
+
+    private Map<ClaveEntrada, Totales> instantanea() {
+        return contadores.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey,
+                entrada -> new Totales(entrada.getValue().confirmadas.sum(), entrada.getValue().centavos.sum())));
+    }
+
+    private void sumar(ClaveEntrada clave, Totales totales) {
+        Contadores contador = contadores.computeIfAbsent(clave, c -> new Contadores());
+        contador.confirmadas.add(totales.confirmadas());
+        contador.centavos.add(totales.centavos());
+    }
+
+    private static long centavos(Object importe) {
+        if (importe == null) {
+            return 0L;
+        }
+        BigDecimal valor = importe instanceof BigDecimal decimal ? decimal : new BigDecimal(importe.toString());
+        return valor.setScale(DECIMALES, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static class Contadores {
+        private final LongAdder confirmadas = new LongAdder();
+        private final LongAdder centavos = new LongAdder();
+    }
+
+    private record Totales(long confirmadas, long centavos) {
+        private static final Totales CERO = new Totales(0, 0);
+
+        private Totales mas(Totales otros) {
+            return new Totales(confirmadas + otros.confirmadas, centavos + otros.centavos);
+        }
+
+        private Totales menos(Totales otros) {
+            return new Totales(confirmadas - otros.confirmadas, centavos - otros.centavos);
+        }
+    }
+}
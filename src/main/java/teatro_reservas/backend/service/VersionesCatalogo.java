@@ -0,0 +1,69 @@
+package teatro_reservas.backend.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versiones monótonas del catálogo y de cada evento, para responder con ETag las
+ * consultas que el frontend repite en cada sondeo. Toda modificación de un evento,
+ * de su inventario o de sus reservas incrementa la versión del evento y la del
+ * catálogo, una vez confirmada la transacción: así una lectura nunca guarda datos
+ * viejos con una versión nueva. Los ETag llevan un identificador de arranque, por
+ * lo que un reinicio invalida los que tengan los clientes, y las respuestas que
+ * dependen de la hora (vigencia de los eventos) cambian de ETag cada minuto.
+ * Las versiones viven en memoria de esta instancia, igual que la disponibilidad.
+ */
+@Component
+public class VersionesCatalogo {
+
+    private static final long MILIS_POR_MINUTO = 60_000L;
+
+    private final String arranque = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private final AtomicLong catalogo = new AtomicLong();
+    // Cambios que afectan a todos los eventos (reconciliación del inventario)
+    private final AtomicLong general = new AtomicLong();
+    private final Map<Long, AtomicLong> porEvento = new ConcurrentHashMap<>();
+
+    public void registrarCambioAlConfirmar(Long eventoId) {
+        SincronizacionTransaccion.alConfirmar(() -> {
+            porEvento.computeIfAbsent(eventoId, id -> new AtomicLong()).incrementAndGet();
+            catalogo.incrementAndGet();
+        });
+    }
+
+    public void registrarCambioGeneralAlConfirmar() {
+        SincronizacionTransaccion.alConfirmar(() -> {
+            general.incrementAndGet();
+            catalogo.incrementAndGet();
+        });
+    }
+
+    // Listados del catálogo (incluyen la vigencia de cada evento)
+    public String etagCatalogo() {
+        return "\"c-" + arranque + "-" + catalogo.get() + "-" + minutoActual() + "\"";
+    }
+
+    // Evento completo (incluye su vigencia)
+    public String etagEvento(Long eventoId) {
+        return "\"e-" + arranque + "-" + general.get() + "-" + versionEvento(eventoId) + "-" + minutoActual() + "\"";
+    }
+
+    // Disponibilidad de un evento: solo cambia con las ventas y la configuración de entradas
+    public String etagDisponibilidad(Long eventoId) {
+        return "\"d-" + arranque + "-" + general.get() + "-" + versionEvento(eventoId) + "\"";
+    }
+
+    // Sin crear entradas: un id inexistente consultado no ocupa memoria
+    private long versionEvento(Long eventoId) {
+        AtomicLong version = porEvento.get(eventoId);
+        return version != null ? version.get() : 0L;
+    }
+
+    private static long minutoActual() {
+        return System.currentTimeMillis() / MILIS_POR_MINUTO;
+    }
+}
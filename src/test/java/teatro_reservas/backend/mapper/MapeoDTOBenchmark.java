@@ -0,0 +1,190 @@
+package teatro_reservas.backend.mapper;
+
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import teatro_reservas.backend.dto.ClienteResponseDTO;
+import teatro_reservas.backend.dto.ClienteResumenDTO;
+import teatro_reservas.backend.dto.EventoResponseDTO;
+import teatro_reservas.backend.dto.EventoResumenDTO;
+import teatro_reservas.backend.dto.ReservaResponseDTO;
+import teatro_reservas.backend.entity.Cliente;
+import teatro_reservas.backend.entity.Evento;
+import teatro_reservas.backend.entity.Reserva;
+import teatro_reservas.backend.entity.enums.EstadoReserva;
+import teatro_reservas.backend.entity.enums.TipoEntrada;
+import teatro_reservas.backend.entity.enums.TipoEvento;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara los mappers propios contra la configuración de ModelMapper que usaban los servicios,
+ * mapeando listados de 200 entidades (rendimiento y bytes asignados por operación con -prof gc).
+ * Se ejecuta con el main de esta clase desde el IDE o sobre target/test-classes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapeoDTOBenchmark {
+
+	private static final int CANTIDAD = 200;
+
+	private final List<Cliente> clientes = new ArrayList<>();
+	private final List<Evento> eventos = new ArrayList<>();
+	private final List<Reserva> reservas = new ArrayList<>();
+
+	private ModelMapper modelMapper;
+	private ClienteMapper clienteMapper;
+	private EventoMapper eventoMapper;
+	private ReservaMapper reservaMapper;
+
+	@Setup
+	public void preparar() {
+		for (int i = 0; i < CANTIDAD; i++) {
+			Cliente cliente = new Cliente();
+			cliente.setId((long) i);
+			cliente.setNombre("Cliente");
+			cliente.setApellido("Frecuente");
+			cliente.setEmail("cliente" + i + "@teatro.com");
+			cliente.setDni(String.valueOf(30_000_000 + i));
+			cliente.setTelefono("1140000000");
+			cliente.setFechaRegistro(LocalDateTime.now());
+			cliente.setEventosAsistidos(i % 12);
+			cliente.setPasesGratuitos(i % 3);
+			clientes.add(cliente);
+
+			Evento evento = new Evento();
+			evento.setId((long) i);
+			evento.setNombre("Evento " + i);
+			evento.setDescripcion("Descripción del evento " + i);
+			evento.setFechaHora(LocalDateTime.now().plusDays(10));
+			evento.setTipoEvento(TipoEvento.OBRA_TEATRO);
+			evento.setCapacidadTotal(300);
+			evento.setFechaCreacion(LocalDateTime.now());
+			evento.setPrecios(Map.of(TipoEntrada.GENERAL, new BigDecimal("1500.00"),
+					TipoEntrada.VIP, new BigDecimal("4000.00")));
+			evento.setCapacidades(Map.of(TipoEntrada.GENERAL, 250, TipoEntrada.VIP, 50));
+			eventos.add(evento);
+
+			Reserva reserva = new Reserva();
+			reserva.setId((long) i);
+			reserva.setCodigoReserva("RES-" + i);
+			reserva.setCliente(cliente);
+			reserva.setEvento(evento);
+			reserva.setTipoEntrada(TipoEntrada.GENERAL);
+			reserva.setEstado(EstadoReserva.CONFIRMADA);
+			reserva.setFechaReserva(LocalDateTime.now());
+			reserva.setFechaConfirmacion(LocalDateTime.now());
+			reserva.setPrecioPagado(new BigDecimal("1500.00"));
+			reservas.add(reserva);
+		}
+
+		// Misma configuración que tenían ClienteServiceImpl, EventoServiceImpl y ReservaServiceImpl
+		modelMapper = new ModelMapper();
+		modelMapper.getConfiguration().setMatchingStrategy(MatchingStrategies.STRICT);
+		modelMapper.createTypeMap(Cliente.class, ClienteResponseDTO.class)
+				.addMapping(src -> src.esClienteFrecuente(), ClienteResponseDTO::setEsClienteFrecuente)
+				.addMapping(src -> src.getReservasActivas(), ClienteResponseDTO::setReservasActivas);
+		modelMapper.createTypeMap(Evento.class, EventoResponseDTO.class)
+				.addMapping(src -> src.estaVigente(), EventoResponseDTO::setEstaVigente)
+				.addMapping(src -> src.getReservasActivas(), EventoResponseDTO::setTotalReservasActivas);
+		modelMapper.createTypeMap(Reserva.class, ReservaResponseDTO.class)
+				.addMapping(src -> src.puedeSerCancelada(), ReservaResponseDTO::setPuedeSerCancelada)
+				.addMapping(src -> src.estaVigente(), ReservaResponseDTO::setEstaVigente);
+
+		clienteMapper = new ClienteMapper();
+		eventoMapper = new EventoMapper();
+		reservaMapper = new ReservaMapper(clienteMapper, eventoMapper);
+	}
+
+	@Benchmark
+	public List<ClienteResponseDTO> clientesModelMapper() {
+		List<ClienteResponseDTO> resultado = new ArrayList<>(CANTIDAD);
+		for (Cliente cliente : clientes) {
+			resultado.add(modelMapper.map(cliente, ClienteResponseDTO.class));
+		}
+		return resultado;
+	}
+
+	@Benchmark
+	public List<ClienteResponseDTO> clientesMapper() {
+		List<ClienteResponseDTO> resultado = new ArrayList<>(CANTIDAD);
+		for (Cliente cliente : clientes) {
+			resultado.add(clienteMapper.toResponse(cliente, 0));
+		}
+		return resultado;
+	}
+
+	@Benchmark
+	public List<EventoResponseDTO> eventosModelMapper() {
+		List<EventoResponseDTO> resultado = new ArrayList<>(CANTIDAD);
+		for (Evento evento : eventos) {
+			EventoResponseDTO dto = modelMapper.map(evento, EventoResponseDTO.class);
+			dto.setTiposEntrada(evento.getPrecios().keySet());
+			resultado.add(dto);
+		}
+		return resultado;
+	}
+
+	@Benchmark
+	public List<EventoResponseDTO> eventosMapper() {
+		List<EventoResponseDTO> resultado = new ArrayList<>(CANTIDAD);
+		for (Evento evento : eventos) {
+			resultado.add(eventoMapper.toResponse(evento, Map.of(), 0));
+		}
+		return resultado;
+	}
+
+	@Benchmark
+	public List<ReservaResponseDTO> reservasModelMapper() {
+		List<ReservaResponseDTO> resultado = new ArrayList<>(CANTIDAD);
+		for (Reserva reserva : reservas) {
+			ReservaResponseDTO dto = modelMapper.map(reserva, ReservaResponseDTO.class);
+			dto.setCliente(modelMapper.map(reserva.getCliente(), ClienteResumenDTO.class));
+			EventoResumenDTO evento = modelMapper.map(reserva.getEvento(), EventoResumenDTO.class);
+			evento.setPrecioDesde(reserva.getEvento().getPrecios().values().stream()
+					.min(BigDecimal::compareTo)
+					.orElse(BigDecimal.ZERO));
+			dto.setEvento(evento);
+			resultado.add(dto);
+		}
+		return resultado;
+	}
+
+	@Benchmark
+	public List<ReservaResponseDTO> reservasMapper() {
+		List<ReservaResponseDTO> resultado = new ArrayList<>(CANTIDAD);
+		for (Reserva reserva : reservas) {
+			resultado.add(reservaMapper.toResponse(reserva));
+		}
+		return resultado;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(MapeoDTOBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build()).run();
+	}
+}
@@ -0,0 +1,129 @@
+package teatro_reservas.backend.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latencia de una búsqueda de la caja del frontend: índice invertido en memoria contra
+ * el LIKE '%término%' que usaba el repositorio, sobre una tabla de eventos en H2 (modo MySQL).
+ * Se ejecuta con el main de esta clase desde el IDE o sobre target/test-classes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BusquedaEventosBenchmark {
+
+	private static final String[] PALABRAS = {
+			"casa", "bernarda", "alba", "noche", "tango", "hamlet", "sueño", "verano", "recital", "orquesta",
+			"comedia", "drama", "charla", "lorca", "buenos", "aires", "función", "estreno", "gira", "acústico",
+			"sinfónica", "jazz", "danza", "ópera", "clásico", "nacional", "teatro", "último", "gran", "festival"};
+
+	@Param({"10000", "100000"})
+	private int cantidadEventos;
+
+	@Param({"bernarda", "noche tango"})
+	private String consulta;
+
+	private IndiceBusquedaEventos indice;
+	private Connection conexion;
+	private PreparedStatement busquedaLike;
+
+	@Setup(Level.Trial)
+	public void preparar() throws SQLException {
+		indice = new IndiceBusquedaEventos();
+		conexion = DriverManager.getConnection("jdbc:h2:mem:busqueda;MODE=MySQL;DB_CLOSE_DELAY=-1");
+		try (Statement sentencia = conexion.createStatement()) {
+			sentencia.execute("DROP TABLE IF EXISTS eventos");
+			sentencia.execute("CREATE TABLE eventos (id BIGINT PRIMARY KEY, nombre VARCHAR(150), descripcion VARCHAR(2000), activo BOOLEAN)");
+		}
+
+		Random aleatorio = new Random(42);
+		try (PreparedStatement insercion = conexion.prepareStatement("INSERT INTO eventos VALUES (?, ?, ?, TRUE)")) {
+			for (long id = 1; id <= cantidadEventos; id++) {
+				String nombre = frase(aleatorio, 4);
+				String descripcion = frase(aleatorio, 20);
+				indice.indexar(id, nombre, descripcion, true);
+				insercion.setLong(1, id);
+				insercion.setString(2, nombre);
+				insercion.setString(3, descripcion);
+				insercion.addBatch();
+				if (id % 1000 == 0) {
+					insercion.executeBatch();
+				}
+			}
+			insercion.executeBatch();
+		}
+
+		// Misma condición que la consulta anterior por nombre, extendida a la descripción
+		busquedaLike = conexion.prepareStatement("SELECT id FROM eventos WHERE activo = TRUE AND " +
+				"(LOWER(nombre) LIKE LOWER(CONCAT('%', ?, '%')) OR LOWER(descripcion) LIKE LOWER(CONCAT('%', ?, '%')))");
+	}
+
+	@TearDown(Level.Trial)
+	public void cerrar() throws SQLException {
+		conexion.close();
+	}
+
+	@Benchmark
+	public List<Long> indiceInvertido() {
+		return indice.buscar(consulta, 50);
+	}
+
+	@Benchmark
+	public List<Long> consultaLike() throws SQLException {
+		busquedaLike.setString(1, consulta);
+		busquedaLike.setString(2, consulta);
+		List<Long> ids = new ArrayList<>();
+		try (ResultSet filas = busquedaLike.executeQuery()) {
+			while (filas.next() && ids.size() < 50) {
+				ids.add(filas.getLong(1));
+			}
+		}
+		return ids;
+	}
+
+	private static String frase(Random aleatorio, int palabras) {
+		StringBuilder texto = new StringBuilder();
+		for (int i = 0; i < palabras; i++) {
+			if (i > 0) {
+				texto.append(' ');
+			}
+			texto.append(PALABRAS[aleatorio.nextInt(PALABRAS.length)]);
+		}
+		return texto.toString();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(BusquedaEventosBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
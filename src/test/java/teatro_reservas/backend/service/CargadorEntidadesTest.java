@@ -0,0 +1,99 @@
+package teatro_reservas.backend.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import teatro_reservas.backend.dto.ClienteRequestDTO;
+import teatro_reservas.backend.dto.ReservaRequestDTO;
+import teatro_reservas.backend.dto.ReservaResponseDTO;
+import teatro_reservas.backend.entity.Cliente;
+import teatro_reservas.backend.entity.Evento;
+import teatro_reservas.backend.entity.enums.TipoEntrada;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+// Sin tareas programadas en segundo plano que sumen consultas a las estadísticas durante la medición
+@SpringBootTest(properties = {
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"teatro.outbox.intervalo-ms=3600000",
+		"teatro.reservas.retencion.tick-ms=3600000"
+})
+class CargadorEntidadesTest {
+
+	@Autowired
+	private EventoService eventoService;
+
+	@Autowired
+	private ClienteService clienteService;
+
+	@Autowired
+	private ReservaService reservaService;
+
+	@Autowired
+	private CargadorEntidades cargador;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@AfterEach
+	void terminarRequest() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	@Test
+	void cadaEventoSeCargaUnaVezPorRequest() {
+		Long eventoId = FixturasReservas.crearEvento(eventoService, "Cargador Evento", 15, 20);
+		Statistics estadisticas = estadisticas();
+
+		iniciarRequest();
+		eventoService.obtenerEventoPorId(eventoId);
+		eventoService.obtenerTodosLosPrecios(eventoId);
+		eventoService.validarEventoVigente(eventoId);
+		eventoService.validarCompatibilidadTipoEntrada(eventoId, TipoEntrada.GENERAL);
+		assertEquals(1, estadisticas.getEntityStatistics(Evento.class.getName()).getLoadCount());
+
+		// Un request nuevo vuelve a leer la base
+		iniciarRequest();
+		eventoService.obtenerTodosLosPrecios(eventoId);
+		assertEquals(2, estadisticas.getEntityStatistics(Evento.class.getName()).getLoadCount());
+	}
+
+	@Test
+	void reservaTraeClienteYEventoEnUnaConsulta() {
+		Long clienteId = clienteService.crearCliente(new ClienteRequestDTO(
+				"Carla", "Cargador", "cargador@teatro.com", "+5491100000007", "30111777", null)).getId();
+		Long eventoId = FixturasReservas.crearEvento(eventoService, "Cargador Reserva", 15, 20);
+		ReservaResponseDTO creada = reservaService.crearReserva(
+				new ReservaRequestDTO(clienteId, eventoId, TipoEntrada.GENERAL, false));
+		Statistics estadisticas = estadisticas();
+
+		iniciarRequest();
+		reservaService.obtenerReservaPorId(creada.getId());
+		reservaService.obtenerReservaPorId(creada.getId());
+		assertEquals(1, estadisticas.getPrepareStatementCount());
+
+		// Cliente y evento de la reserva quedan cargados para el resto del request
+		Cliente cliente = cargador.cliente(clienteId);
+		assertSame(cliente, cargador.reserva(creada.getId()).getCliente());
+		cargador.evento(eventoId);
+		assertEquals(1, estadisticas.getPrepareStatementCount());
+	}
+
+	private Statistics estadisticas() {
+		Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		estadisticas.clear();
+		return estadisticas;
+	}
+
+	private void iniciarRequest() {
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+	}
+}
@@ -0,0 +1,221 @@
+package teatro_reservas.backend.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import teatro_reservas.backend.dto.ClienteRequestDTO;
+import teatro_reservas.backend.dto.ConfiguracionEntradaDTO;
+import teatro_reservas.backend.dto.EventoFiltroDTO;
+import teatro_reservas.backend.dto.EventoRequestDTO;
+import teatro_reservas.backend.dto.EventoResponseDTO;
+import teatro_reservas.backend.dto.EventoResumenDTO;
+import teatro_reservas.backend.dto.PaginaDTO;
+import teatro_reservas.backend.dto.ReservaRequestDTO;
+import teatro_reservas.backend.entity.Evento;
+import teatro_reservas.backend.entity.enums.TipoEntrada;
+import teatro_reservas.backend.entity.enums.TipoEvento;
+import teatro_reservas.backend.repository.EventoRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Sin tareas programadas en segundo plano que sumen consultas a las estadísticas durante la medición
+@SpringBootTest(properties = {
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"teatro.outbox.intervalo-ms=3600000",
+		"teatro.reservas.retencion.tick-ms=3600000"
+})
+class CatalogoEventosTest {
+
+	@Autowired
+	private EventoService eventoService;
+
+	@Autowired
+	private ClienteService clienteService;
+
+	@Autowired
+	private ReservaService reservaService;
+
+	@Autowired
+	private EventoRepository eventoRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	// Los listados del catálogo no deben crecer en consultas con la cantidad de eventos ni de reservas
+	@Test
+	void listadosUsanUnaSolaConsultaSinImportarLaCantidadDeEventos() {
+		Long clienteId = clienteService.crearCliente(new ClienteRequestDTO(
+				"Catalina", "Catalogo", "catalogo@teatro.com", "+5491100000001", "30111222", null)).getId();
+		crearEventos("Catalogo Uno", 2, clienteId);
+		List<Long> antes = consultasPorListado();
+
+		crearEventos("Catalogo Dos", 6, clienteId);
+		List<Long> despues = consultasPorListado();
+
+		assertEquals(antes, despues);
+		despues.forEach(consultas -> assertEquals(1L, consultas));
+	}
+
+	// El listado paginado completo lee ids, eventos con sus entradas, inventario y reservas activas: cuatro consultas
+	@Test
+	void paginaDeEventosNoConsultaPorCadaEvento() {
+		Long clienteId = clienteService.crearCliente(new ClienteRequestDTO(
+				"Pablo", "Paginas", "paginas.eventos@teatro.com", "+5491130111223", "30111223", null)).getId();
+		crearEventos("Pagina Uno", 2, clienteId);
+		long antes = consultasPorPagina();
+
+		crearEventos("Pagina Dos", 6, clienteId);
+		assertEquals(antes, consultasPorPagina());
+		assertEquals(4L, antes);
+
+		PaginaDTO<EventoResponseDTO> pagina = eventoService.obtenerTodosLosEventos(null, 500);
+		EventoResponseDTO ultimo = pagina.getContenido().get(pagina.getContenido().size() - 1);
+		assertEquals(Map.of(TipoEntrada.GENERAL, 39L, TipoEntrada.VIP, 10L), ultimo.getDisponibilidadPorTipo());
+		assertEquals(new BigDecimal("2500.00"), ultimo.getPrecios().get(TipoEntrada.VIP));
+		assertEquals(1L, ultimo.getTotalReservasActivas());
+	}
+
+	// Un evento inactivo sigue en el ranking y no deja la lista con menos eventos que los pedidos
+	@Test
+	void masPopularesDevuelveLaCantidadPedidaConEventosInactivos() {
+		Long clienteId = clienteService.crearCliente(new ClienteRequestDTO(
+				"Ramiro", "Ranking", "ranking.populares@teatro.com", "+5491130111224", "30111224", null)).getId();
+		LocalDateTime funcion = LocalDateTime.now().plusDays(300).withHour(21).withMinute(0).withSecond(0).withNano(0);
+		List<Long> ids = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			Long eventoId = eventoService.crearEvento(new EventoRequestDTO(
+					"Ranking " + i, "Obra para validar el ranking de populares", funcion,
+					TipoEvento.OBRA_TEATRO, 10, Map.of(
+							TipoEntrada.GENERAL, new ConfiguracionEntradaDTO(new BigDecimal("1000.00"), 10)))).getId();
+			for (int j = 0; j < 3 - i; j++) {
+				reservaService.crearReserva(new ReservaRequestDTO(clienteId, eventoId, TipoEntrada.GENERAL, false));
+			}
+			ids.add(eventoId);
+		}
+		Evento masVendido = eventoRepository.findById(ids.get(0)).orElseThrow();
+		masVendido.setActivo(false);
+		eventoRepository.save(masVendido);
+
+		List<EventoResumenDTO> populares = eventoService.obtenerEventosMasPopulares(funcion, funcion, 2);
+		assertEquals(ids.subList(0, 2), populares.stream().map(EventoResumenDTO::getId).toList());
+		assertFalse(populares.get(0).getEstaVigente());
+	}
+
+	@Test
+	void proyeccionCalculaPrecioMinimoYDisponibilidad() {
+		Long clienteId = clienteService.crearCliente(new ClienteRequestDTO(
+				"Valentin", "Proyeccion", "proyeccion@teatro.com", "+5491100000002", "30111333", null)).getId();
+		EventoResponseDTO evento = eventoService.crearEvento(new EventoRequestDTO(
+				"Proyeccion Unica", "Obra para validar la proyeccion del catalogo", LocalDateTime.now().plusDays(20),
+				TipoEvento.OBRA_TEATRO, 30, Map.of(
+						TipoEntrada.GENERAL, new ConfiguracionEntradaDTO(new BigDecimal("1500.00"), 20),
+						TipoEntrada.VIP, new ConfiguracionEntradaDTO(new BigDecimal("4000.00"), 10))));
+		reservaService.crearReserva(new ReservaRequestDTO(clienteId, evento.getId(), TipoEntrada.GENERAL, false));
+		reservaService.crearReserva(new ReservaRequestDTO(clienteId, evento.getId(), TipoEntrada.VIP, false));
+
+		List<EventoResumenDTO> encontrados = eventoService.buscarEventosPorNombre("Proyeccion Unica");
+
+		assertEquals(1, encontrados.size());
+		EventoResumenDTO resumen = encontrados.get(0);
+		assertEquals(0, new BigDecimal("1500.00").compareTo(resumen.getPrecioDesde()));
+		assertEquals(28L, resumen.getCapacidadDisponible());
+		assertTrue(resumen.getEstaVigente());
+	}
+
+	@Test
+	void filtroCombinaCriteriosEnUnaConsultaYPagina() {
+		Long clienteId = clienteService.crearCliente(new ClienteRequestDTO(
+				"Federico", "Filtro", "filtro@teatro.com", "+5491100000006", "30111666", null)).getId();
+		// Rango lejano para no mezclarse con los eventos de los otros tests
+		LocalDateTime base = LocalDateTime.now().plusDays(400);
+		EventoResponseDTO campoAgotado = eventoService.crearEvento(new EventoRequestDTO(
+				"Filtro Recital Uno", "Recital para validar el filtro del catalogo", base.plusDays(1),
+				TipoEvento.RECITAL, 6, Map.of(
+						TipoEntrada.CAMPO, new ConfiguracionEntradaDTO(new BigDecimal("1000.00"), 1),
+						TipoEntrada.PLATEA, new ConfiguracionEntradaDTO(new BigDecimal("3000.00"), 5))));
+		reservaService.crearReserva(new ReservaRequestDTO(clienteId, campoAgotado.getId(), TipoEntrada.CAMPO, false));
+		EventoResponseDTO campoCaro = eventoService.crearEvento(new EventoRequestDTO(
+				"Filtro Recital Dos", "Recital para validar el filtro del catalogo", base.plusDays(2),
+				TipoEvento.RECITAL, 10, Map.of(
+						TipoEntrada.CAMPO, new ConfiguracionEntradaDTO(new BigDecimal("2000.00"), 10))));
+		EventoResponseDTO obra = eventoService.crearEvento(new EventoRequestDTO(
+				"Filtro Obra", "Obra para validar el filtro del catalogo", base.plusDays(3),
+				TipoEvento.OBRA_TEATRO, 10, Map.of(
+						TipoEntrada.GENERAL, new ConfiguracionEntradaDTO(new BigDecimal("500.00"), 10))));
+		LocalDateTime hasta = base.plusDays(10);
+
+		assertEquals(List.of(campoAgotado.getId(), campoCaro.getId()),
+				idsFiltrados(new EventoFiltroDTO(TipoEvento.RECITAL, base, hasta, null, null, null)));
+		assertEquals(List.of(campoAgotado.getId()),
+				idsFiltrados(new EventoFiltroDTO(null, base, hasta, null, TipoEntrada.CAMPO, new BigDecimal("1500.00"))));
+		assertEquals(List.of(campoCaro.getId()),
+				idsFiltrados(new EventoFiltroDTO(null, base, hasta, true, TipoEntrada.CAMPO, null)));
+		assertEquals(List.of(obra.getId()),
+				idsFiltrados(new EventoFiltroDTO(null, base, hasta, true, null, new BigDecimal("600.00"))));
+
+		EventoFiltroDTO rango = new EventoFiltroDTO(null, base, hasta, null, null, null);
+		PaginaDTO<EventoResumenDTO> primera = eventoService.filtrarEventos(rango, null, 2);
+		assertTrue(primera.isHayMas());
+		PaginaDTO<EventoResumenDTO> segunda = eventoService.filtrarEventos(rango, primera.getSiguienteCursor(), 2);
+		assertFalse(segunda.isHayMas());
+		assertEquals(List.of(obra.getId()), segunda.getContenido().stream().map(EventoResumenDTO::getId).toList());
+	}
+
+	private List<Long> idsFiltrados(EventoFiltroDTO filtro) {
+		return eventoService.filtrarEventos(filtro, null, 50).getContenido().stream()
+				.map(EventoResumenDTO::getId)
+				.toList();
+	}
+
+	private void crearEventos(String nombre, int cantidad, Long clienteId) {
+		for (int i = 0; i < cantidad; i++) {
+			EventoResponseDTO evento = eventoService.crearEvento(new EventoRequestDTO(
+					nombre, "Obra para medir las consultas del catalogo", LocalDateTime.now().plusDays(3 + i),
+					TipoEvento.OBRA_TEATRO, 50, Map.of(
+							TipoEntrada.GENERAL, new ConfiguracionEntradaDTO(new BigDecimal("1000.00"), 40),
+							TipoEntrada.VIP, new ConfiguracionEntradaDTO(new BigDecimal("2500.00"), 10))));
+			reservaService.crearReserva(new ReservaRequestDTO(clienteId, evento.getId(), TipoEntrada.GENERAL, false));
+		}
+	}
+
+	private List<Long> consultasPorListado() {
+		LocalDateTime ahora = LocalDateTime.now();
+		return List.of(
+				contarConsultas(eventoService::obtenerEventosVigentes),
+				contarConsultas(() -> eventoService.obtenerEventosPorTipo(TipoEvento.OBRA_TEATRO)),
+				contarConsultas(() -> eventoService.buscarEventosPorNombre("Catalogo")),
+				contarConsultas(() -> eventoService.obtenerEventosProximos(30)),
+				contarConsultas(() -> eventoService.obtenerEventosEnRango(ahora, ahora.plusDays(30))),
+				contarConsultas(eventoService::obtenerEventosConDisponibilidad),
+				contarConsultas(() -> eventoService.obtenerEventosMasPopulares(ahora, ahora.plusDays(30), 50)),
+				contarConsultas(() -> eventoService.filtrarEventos(new EventoFiltroDTO(
+						TipoEvento.OBRA_TEATRO, ahora, ahora.plusDays(30), true, TipoEntrada.GENERAL, new BigDecimal("5000.00")),
+						null, 50).getContenido()));
+	}
+
+	private long consultasPorPagina() {
+		Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		estadisticas.clear();
+		assertFalse(eventoService.obtenerTodosLosEventos(null, 500).getContenido().isEmpty());
+		return estadisticas.getPrepareStatementCount();
+	}
+
+	private long contarConsultas(Supplier<List<EventoResumenDTO>> listado) {
+		Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		estadisticas.clear();
+		assertTrue(!listado.get().isEmpty());
+		return estadisticas.getPrepareStatementCount();
+	}
+}
@@ -0,0 +1,73 @@
+package teatro_reservas.backend.service;
+
+import org.junit.jupiter.api.Test;
+import teatro_reservas.backend.entity.enums.TipoEntrada;
+import teatro_reservas.backend.service.DisponibilidadEnMemoria.ClaveEntrada;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DisponibilidadEnMemoriaTest {
+
+	private static final Long EVENTO = 1L;
+
+	private final AtomicInteger enBase = new AtomicInteger();
+	private final AtomicInteger lecturas = new AtomicInteger();
+
+	@Test
+	void cargaDeLaBaseUnaVezYRechazaSinVolverAConsultar() {
+		DisponibilidadEnMemoria disponibilidad = new DisponibilidadEnMemoria(3_600_000);
+		enBase.set(2);
+
+		assertTrue(reservar(disponibilidad, 1));
+		assertTrue(reservar(disponibilidad, 1));
+		assertFalse(reservar(disponibilidad, 1));
+		// Agotado y dentro del intervalo: se rechaza sin leer la base
+		assertFalse(reservar(disponibilidad, 1));
+		assertEquals(1, lecturas.get());
+	}
+
+	@Test
+	void faltanteResincronizaConLaBase() {
+		DisponibilidadEnMemoria disponibilidad = new DisponibilidadEnMemoria(0);
+		enBase.set(1);
+		assertTrue(reservar(disponibilidad, 1));
+
+		// Una cancelación confirmada en otra instancia repuso dos entradas
+		enBase.set(2);
+		assertTrue(reservar(disponibilidad, 2));
+		assertEquals(2, lecturas.get());
+
+		enBase.set(0);
+		assertFalse(reservar(disponibilidad, 1));
+	}
+
+	@Test
+	void liberarYReconstruirActualizanLosContadores() {
+		DisponibilidadEnMemoria disponibilidad = new DisponibilidadEnMemoria(3_600_000);
+		enBase.set(1);
+		assertTrue(reservar(disponibilidad, 1));
+		assertFalse(reservar(disponibilidad, 1));
+
+		// Sin transacción activa la liberación se aplica en el momento
+		disponibilidad.liberarAlConfirmar(EVENTO, TipoEntrada.GENERAL, 1);
+		assertTrue(reservar(disponibilidad, 1));
+
+		disponibilidad.reconstruir(Map.of(new ClaveEntrada(EVENTO, TipoEntrada.GENERAL), 3));
+		assertTrue(reservar(disponibilidad, 3));
+		assertFalse(reservar(disponibilidad, 1));
+		assertEquals(1, disponibilidad.cantidadContadores());
+		assertEquals(1, lecturas.get());
+	}
+
+	private boolean reservar(DisponibilidadEnMemoria disponibilidad, int cantidad) {
+		return disponibilidad.intentarReservar(EVENTO, TipoEntrada.GENERAL, cantidad, () -> {
+			lecturas.incrementAndGet();
+			return enBase.get();
+		});
+	}
+}
@@ -0,0 +1,82 @@
+package teatro_reservas.backend.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import teatro_reservas.backend.dto.ClienteResponseDTO;
+import teatro_reservas.backend.dto.EstadisticasFidelizacionDTO;
+import teatro_reservas.backend.repository.ClienteRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Sin reutilizar estadísticas entre llamadas y sin tareas programadas que sumen consultas
+@SpringBootTest(properties = {
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"teatro.fidelizacion.estadisticas.vigencia=0s",
+		"teatro.outbox.intervalo-ms=3600000",
+		"teatro.reservas.retencion.tick-ms=3600000"
+})
+class EstadisticasFidelizacionTest {
+
+	@Autowired
+	private FidelizacionService fidelizacionService;
+
+	@Autowired
+	private ClienteService clienteService;
+
+	@Autowired
+	private ClienteRepository clienteRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void estadisticasSeCalculanEnUnaConsultaSinCargarEntidades() {
+		crearCliente("Estadistica", "30333001", 7, 1);
+		EstadisticasFidelizacionDTO antes = fidelizacionService.obtenerEstadisticasFidelizacion();
+		crearCliente("Frecuente", "30333002", 12, 2);
+
+		Statistics estadisticas = estadisticas();
+		EstadisticasFidelizacionDTO despues = fidelizacionService.obtenerEstadisticasFidelizacion();
+		assertEquals(1, estadisticas.getPrepareStatementCount());
+		assertEquals(0, estadisticas.getEntityLoadCount());
+
+		assertEquals(antes.getTotalClientes() + 1, despues.getTotalClientes());
+		assertEquals(antes.getClientesFrecuentes() + 1, despues.getClientesFrecuentes());
+		assertEquals(antes.getClientesConPasesDisponibles() + 1, despues.getClientesConPasesDisponibles());
+		assertEquals(antes.getTotalPasesOtorgados() + 2, despues.getTotalPasesOtorgados());
+		assertEquals(clienteRepository.count(), despues.getTotalClientes());
+	}
+
+	@Test
+	void rankingProyectadoSinCargarEntidades() {
+		Long id = crearCliente("Ranking", "30333003", 500, 100);
+
+		Statistics estadisticas = estadisticas();
+		List<ClienteResponseDTO> ranking = fidelizacionService.obtenerRankingClientesFrecuentes();
+		assertEquals(1, estadisticas.getPrepareStatementCount());
+		assertEquals(0, estadisticas.getEntityLoadCount());
+
+		assertEquals(id, ranking.get(0).getId());
+		assertEquals(true, ranking.get(0).getEsClienteFrecuente());
+		assertEquals(0L, ranking.get(0).getReservasActivas());
+	}
+
+	private Long crearCliente(String nombre, String dni, int eventosAsistidos, int pasesGratuitos) {
+		Long id = FixturasReservas.crearCliente(clienteService,
+				nombre.toLowerCase() + ".estadisticas@teatro.com", "+54911" + dni, dni);
+		FixturasReservas.asignarFidelizacion(clienteRepository, id, eventosAsistidos, pasesGratuitos);
+		return id;
+	}
+
+	private Statistics estadisticas() {
+		Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		estadisticas.clear();
+		return estadisticas;
+	}
+}
@@ -0,0 +1,87 @@
+package teatro_reservas.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import teatro_reservas.backend.dto.ClienteRequestDTO;
+import teatro_reservas.backend.dto.ConfiguracionEntradaDTO;
+import teatro_reservas.backend.dto.EventoRequestDTO;
+import teatro_reservas.backend.dto.ReservaRequestDTO;
+import teatro_reservas.backend.entity.enums.EstadoReserva;
+import teatro_reservas.backend.entity.enums.TipoEntrada;
+import teatro_reservas.backend.entity.enums.TipoEvento;
+import teatro_reservas.backend.exception.BusinessException;
+import teatro_reservas.backend.repository.ReservaRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Rueda real con ticks cortos: las retenciones vencen por la tarea periódica, no a mano
+@SpringBootTest(properties = {
+		"teatro.outbox.intervalo-ms=3600000",
+		"teatro.reservas.retencion.duracion=1s",
+		"teatro.reservas.retencion.tick-ms=100",
+		"teatro.reservas.retencion.ranuras=8"
+})
+class ExpiracionRetencionesTest {
+
+	private static final long ESPERA_MAXIMA_MS = 10_000;
+
+	@Autowired
+	private EventoService eventoService;
+
+	@Autowired
+	private ClienteService clienteService;
+
+	@Autowired
+	private ReservaService reservaService;
+
+	@Autowired
+	private InventarioService inventarioService;
+
+	@Autowired
+	private ReservaRepository reservaRepository;
+
+	@Test
+	void retencionVencidaDevuelveSuEntrada() throws InterruptedException {
+		Long clienteId = clienteService.crearCliente(new ClienteRequestDTO(
+				"Retencion", "Vencida", "retencion.vencida@teatro.com", "+5491130999001", "30999001", null)).getId();
+		Long eventoId = eventoService.crearEvento(new EventoRequestDTO(
+				"Retenciones Vencidas", "Obra para validar el vencimiento de retenciones",
+				LocalDateTime.now().plusDays(8), TipoEvento.OBRA_TEATRO, 2, Map.of(
+						TipoEntrada.GENERAL, new ConfiguracionEntradaDTO(new BigDecimal("1500.00"), 2)))).getId();
+		ReservaRequestDTO pedido = new ReservaRequestDTO(clienteId, eventoId, TipoEntrada.GENERAL, false);
+
+		Long confirmada = reservaService.retenerReserva(pedido).getId();
+		Long vencida = reservaService.retenerReserva(pedido).getId();
+		assertThrows(BusinessException.class, () -> reservaService.crearReserva(pedido));
+		// La confirmada sale de la rueda y no vence
+		reservaService.confirmarReserva(confirmada);
+
+		esperarEstado(vencida, EstadoReserva.EXPIRADA);
+		assertEquals(EstadoReserva.CONFIRMADA, estadoDe(confirmada));
+		assertEquals(1, inventarioService.obtenerDisponibles(eventoId, TipoEntrada.GENERAL));
+		assertThrows(BusinessException.class, () -> reservaService.confirmarReserva(vencida));
+
+		// Los contadores en memoria también recibieron la entrada liberada
+		reservaService.crearReserva(pedido);
+		assertThrows(BusinessException.class, () -> reservaService.crearReserva(pedido));
+	}
+
+	private void esperarEstado(Long reservaId, EstadoReserva esperado) throws InterruptedException {
+		long limite = System.currentTimeMillis() + ESPERA_MAXIMA_MS;
+		while (estadoDe(reservaId) != esperado && System.currentTimeMillis() < limite) {
+			Thread.sleep(100);
+		}
+		assertEquals(esperado, estadoDe(reservaId));
+	}
+
+	// Directo al repositorio: el test corre dentro de un request simulado y el cargador de entidades lo recuerda
+	private EstadoReserva estadoDe(Long reservaId) {
+		return reservaRepository.findById(reservaId).orElseThrow().getEstado();
+	}
+}
@@ -0,0 +1,88 @@
+package teatro_reservas.backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import teatro_reservas.backend.dto.ClienteRequestDTO;
+import teatro_reservas.backend.dto.ConfiguracionEntradaDTO;
+import teatro_reservas.backend.dto.EventoRequestDTO;
+import teatro_reservas.backend.dto.ReservaRequestDTO;
+import teatro_reservas.backend.entity.enums.FormatoExportacion;
+import teatro_reservas.backend.entity.enums.TipoEntrada;
+import teatro_reservas.backend.entity.enums.TipoEvento;
+import teatro_reservas.backend.exception.ResourceNotFoundException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"teatro.outbox.intervalo-ms=3600000",
+		"teatro.reservas.retencion.tick-ms=3600000"
+})
+class ExportacionTest {
+
+	@Autowired
+	private ExportacionService exportacionService;
+
+	@Autowired
+	private ClienteService clienteService;
+
+	@Autowired
+	private EventoService eventoService;
+
+	@Autowired
+	private ReservaService reservaService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void exportaReservasDelEventoEnCsvYNdjson() throws IOException {
+		Long clienteId = clienteService.crearCliente(new ClienteRequestDTO(
+				"Ernesto", "Exportado", "exportado@teatro.com", "+5491100000004", "30111555", null)).getId();
+		Long eventoId = eventoService.crearEvento(new EventoRequestDTO(
+				"Hamlet, \"version completa\"", "Obra para validar la exportacion", LocalDateTime.now().plusDays(12),
+				TipoEvento.OBRA_TEATRO, 10, Map.of(
+						TipoEntrada.GENERAL, new ConfiguracionEntradaDTO(new BigDecimal("1200.00"), 10)))).getId();
+		for (int i = 0; i < 3; i++) {
+			reservaService.crearReserva(new ReservaRequestDTO(clienteId, eventoId, TipoEntrada.GENERAL, false));
+		}
+
+		String[] csv = exportar(FormatoExportacion.CSV, eventoId).split("\r\n");
+		assertEquals(4, csv.length);
+		assertTrue(csv[0].startsWith("id,codigoReserva,clienteId,emailCliente,eventoId,nombreEvento,"));
+		// Las comas y comillas del nombre quedan escapadas como pide RFC 4180
+		assertTrue(csv[1].contains(",\"Hamlet, \"\"version completa\"\"\","));
+
+		String[] ndjson = exportar(FormatoExportacion.NDJSON, eventoId).split("\n");
+		assertEquals(3, ndjson.length);
+		for (String linea : ndjson) {
+			JsonNode fila = objectMapper.readTree(linea);
+			assertEquals(eventoId.longValue(), fila.get("eventoId").asLong());
+			assertEquals("exportado@teatro.com", fila.get("emailCliente").asText());
+		}
+	}
+
+	@Test
+	void eventoInexistenteFallaAntesDeEscribir() {
+		assertThrows(ResourceNotFoundException.class,
+				() -> exportacionService.exportarReservasPorEvento(999_999L, FormatoExportacion.CSV));
+	}
+
+	private String exportar(FormatoExportacion formato, Long eventoId) throws IOException {
+		ByteArrayOutputStream salida = new ByteArrayOutputStream();
+		exportacionService.exportarReservasPorEvento(eventoId, formato).writeTo(salida);
+		return salida.toString(StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,78 @@
+package teatro_reservas.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import teatro_reservas.backend.dto.ReservaRequestDTO;
+import teatro_reservas.backend.entity.Cliente;
+import teatro_reservas.backend.entity.enums.TipoEntrada;
+import teatro_reservas.backend.repository.ClienteRepository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// El despachador no corre solo: la fidelización se acredita recién al llamarlo
+@SpringBootTest(properties = {
+		"teatro.outbox.intervalo-ms=3600000",
+		"teatro.reservas.retencion.tick-ms=3600000"
+})
+class FidelizacionOutboxTest {
+
+	@Autowired
+	private EventoService eventoService;
+
+	@Autowired
+	private ClienteService clienteService;
+
+	@Autowired
+	private ReservaService reservaService;
+
+	@Autowired
+	private DespachadorOutbox despachador;
+
+	@Autowired
+	private ClienteRepository clienteRepository;
+
+	@Test
+	void asistenciasYPaseSeAcreditanAlDespacharElOutbox() {
+		Long clienteId = FixturasReservas.crearCliente(clienteService, "fidelizacion.outbox@teatro.com", "+5491131200001", "31200001");
+		Long eventoId = FixturasReservas.crearEvento(eventoService, "Fidelización Outbox", 15, 10);
+
+		for (int i = 0; i < 5; i++) {
+			reservaService.crearReserva(new ReservaRequestDTO(clienteId, eventoId, TipoEntrada.GENERAL, false));
+		}
+		// Fuera de la transacción de la reserva: todavía no se acreditó nada
+		assertFidelizacion(clienteId, 0, 0);
+
+		despachador.despachar();
+		assertFidelizacion(clienteId, 5, 1);
+
+		// Los eventos ya procesados no se vuelven a entregar
+		despachador.despachar();
+		assertFidelizacion(clienteId, 5, 1);
+	}
+
+	@Test
+	void paseDeUnaReservaCanceladaSeDevuelveAlDespachar() {
+		Long clienteId = FixturasReservas.crearCliente(clienteService, "fidelizacion.devolucion@teatro.com", "+5491131200002", "31200002");
+		Long eventoId = FixturasReservas.crearEvento(eventoService, "Fidelización Devolución", 15, 10);
+		Cliente cliente = clienteRepository.findById(clienteId).orElseThrow();
+		cliente.setPasesGratuitos(1);
+		clienteRepository.save(cliente);
+
+		Long reservaId = reservaService.crearReservaConPaseGratuito(clienteId, eventoId, TipoEntrada.GENERAL).getId();
+		// El pase se consume en la transacción de la reserva; la asistencia llega con el outbox
+		assertFidelizacion(clienteId, 0, 0);
+		reservaService.cancelarReserva(reservaId, "Prueba");
+		assertFidelizacion(clienteId, 0, 0);
+
+		despachador.despachar();
+		assertFidelizacion(clienteId, 1, 1);
+	}
+
+	// Directo al repositorio: el test corre dentro de un request simulado y el cargador de entidades lo recuerda
+	private void assertFidelizacion(Long clienteId, int eventosAsistidos, int pasesGratuitos) {
+		Cliente cliente = clienteRepository.findById(clienteId).orElseThrow();
+		assertEquals(eventosAsistidos, cliente.getEventosAsistidos());
+		assertEquals(pasesGratuitos, cliente.getPasesGratuitos());
+	}
+}
@@ -0,0 +1,200 @@
+package teatro_reservas.backend.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latencia de una página del catálogo filtrado (recitales del próximo mes con
+ * campo disponible a menos de un precio) sobre 100.000 eventos en H2 (modo MySQL):
+ * la sentencia única de POST /api/eventos/filtrar, con los índices compuestos de
+ * las entidades, contra el encadenamiento que hacía el frontend (listado por tipo
+ * y luego precio y disponibilidad de cada evento, filtrando en el cliente).
+ * Se ejecuta con el main de esta clase desde el IDE o sobre target/test-classes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FiltroEventosBenchmark {
+
+	private static final String[] TIPOS_EVENTO = {"OBRA_TEATRO", "RECITAL", "CHARLA_CONFERENCIA"};
+	private static final String[][] TIPOS_ENTRADA = {
+			{"GENERAL", "VIP"}, {"CAMPO", "PLATEA", "PALCO"}, {"CON_MEET_GREET", "SIN_MEET_GREET"}};
+	private static final int TAMANIO_PAGINA = 50;
+
+	@Param({"100000"})
+	private int cantidadEventos;
+
+	private final LocalDateTime ahora = LocalDateTime.now();
+	private final BigDecimal precioMaximo = new BigDecimal("20000.00");
+
+	private Connection conexion;
+	private PreparedStatement filtroUnico;
+	private PreparedStatement listadoPorTipo;
+	private PreparedStatement precioDeEvento;
+	private PreparedStatement disponiblesDeEvento;
+
+	@Setup(Level.Trial)
+	public void preparar() throws SQLException {
+		conexion = DriverManager.getConnection("jdbc:h2:mem:filtro;MODE=MySQL;DB_CLOSE_DELAY=-1");
+		try (Statement sentencia = conexion.createStatement()) {
+			sentencia.execute("DROP TABLE IF EXISTS inventario_entradas");
+			sentencia.execute("DROP TABLE IF EXISTS evento_precios");
+			sentencia.execute("DROP TABLE IF EXISTS eventos");
+			sentencia.execute("CREATE TABLE eventos (id BIGINT PRIMARY KEY, nombre VARCHAR(150), fecha_hora TIMESTAMP, " +
+					"tipo_evento VARCHAR(30), capacidad_total INT, activo BOOLEAN)");
+			sentencia.execute("CREATE TABLE evento_precios (evento_id BIGINT, precios_key VARCHAR(30), precio DECIMAL(10,2), " +
+					"PRIMARY KEY (evento_id, precios_key))");
+			sentencia.execute("CREATE TABLE inventario_entradas (id BIGINT AUTO_INCREMENT PRIMARY KEY, evento_id BIGINT, " +
+					"tipo_entrada VARCHAR(30), disponibles INT)");
+			// Los mismos índices que declaran Evento e InventarioEntrada
+			sentencia.execute("CREATE INDEX idx_eventos_activo_fecha ON eventos (activo, fecha_hora, id)");
+			sentencia.execute("CREATE INDEX idx_eventos_tipo_fecha ON eventos (tipo_evento, activo, fecha_hora, id)");
+			sentencia.execute("CREATE INDEX idx_evento_precios_evento_tipo_precio ON evento_precios (evento_id, precios_key, precio)");
+			sentencia.execute("CREATE UNIQUE INDEX uk_inventario_evento_tipo ON inventario_entradas (evento_id, tipo_entrada)");
+		}
+
+		Random aleatorio = new Random(42);
+		try (PreparedStatement evento = conexion.prepareStatement("INSERT INTO eventos VALUES (?, ?, ?, ?, 1000, TRUE)");
+			 PreparedStatement precio = conexion.prepareStatement("INSERT INTO evento_precios VALUES (?, ?, ?)");
+			 PreparedStatement inventario = conexion.prepareStatement(
+					 "INSERT INTO inventario_entradas (evento_id, tipo_entrada, disponibles) VALUES (?, ?, ?)")) {
+			for (long id = 1; id <= cantidadEventos; id++) {
+				int tipo = aleatorio.nextInt(TIPOS_EVENTO.length);
+				evento.setLong(1, id);
+				evento.setString(2, "Evento " + id);
+				// Dos años de programación hacia adelante
+				evento.setTimestamp(3, Timestamp.valueOf(ahora.plusMinutes(aleatorio.nextInt(2 * 365 * 24 * 60))));
+				evento.setString(4, TIPOS_EVENTO[tipo]);
+				evento.addBatch();
+				for (String tipoEntrada : TIPOS_ENTRADA[tipo]) {
+					precio.setLong(1, id);
+					precio.setString(2, tipoEntrada);
+					precio.setBigDecimal(3, BigDecimal.valueOf(1000 + aleatorio.nextInt(40000)));
+					precio.addBatch();
+					inventario.setLong(1, id);
+					inventario.setString(2, tipoEntrada);
+					inventario.setInt(3, aleatorio.nextInt(4) == 0 ? 0 : 1 + aleatorio.nextInt(300));
+					inventario.addBatch();
+				}
+				if (id % 1000 == 0) {
+					evento.executeBatch();
+					precio.executeBatch();
+					inventario.executeBatch();
+				}
+			}
+			evento.executeBatch();
+			precio.executeBatch();
+			inventario.executeBatch();
+		}
+
+		// Forma de la sentencia que arma EventoFiltroRepositoryImpl para este filtro
+		filtroUnico = conexion.prepareStatement("SELECT e.id, e.nombre, e.fecha_hora, MIN(p.precio) FROM eventos e " +
+				"LEFT JOIN evento_precios p ON p.evento_id = e.id " +
+				"WHERE e.activo = TRUE AND e.tipo_evento = ? AND e.fecha_hora >= ? AND e.fecha_hora <= ? " +
+				"AND EXISTS (SELECT 1 FROM evento_precios pr WHERE pr.evento_id = e.id AND pr.precios_key = ? AND pr.precio <= ?) " +
+				"AND EXISTS (SELECT 1 FROM inventario_entradas i WHERE i.evento_id = e.id AND i.disponibles > 0 AND i.tipo_entrada = ?) " +
+				"GROUP BY e.id, e.nombre, e.fecha_hora ORDER BY e.fecha_hora, e.id LIMIT " + (TAMANIO_PAGINA + 1));
+		listadoPorTipo = conexion.prepareStatement("SELECT e.id, e.fecha_hora FROM eventos e " +
+				"WHERE e.activo = TRUE AND e.tipo_evento = ? AND e.fecha_hora > ? ORDER BY e.fecha_hora");
+		precioDeEvento = conexion.prepareStatement(
+				"SELECT precio FROM evento_precios WHERE evento_id = ? AND precios_key = ?");
+		disponiblesDeEvento = conexion.prepareStatement(
+				"SELECT disponibles FROM inventario_entradas WHERE evento_id = ? AND tipo_entrada = ?");
+	}
+
+	@TearDown(Level.Trial)
+	public void cerrar() throws SQLException {
+		conexion.close();
+	}
+
+	@Benchmark
+	public List<Long> sentenciaUnica() throws SQLException {
+		filtroUnico.setString(1, "RECITAL");
+		filtroUnico.setTimestamp(2, Timestamp.valueOf(ahora));
+		filtroUnico.setTimestamp(3, Timestamp.valueOf(ahora.plusDays(30)));
+		filtroUnico.setString(4, "CAMPO");
+		filtroUnico.setBigDecimal(5, precioMaximo);
+		filtroUnico.setString(6, "CAMPO");
+		List<Long> ids = new ArrayList<>();
+		try (ResultSet filas = filtroUnico.executeQuery()) {
+			while (filas.next()) {
+				ids.add(filas.getLong(1));
+			}
+		}
+		return ids;
+	}
+
+	@Benchmark
+	public List<Long> encadenadoEnCliente() throws SQLException {
+		listadoPorTipo.setString(1, "RECITAL");
+		listadoPorTipo.setTimestamp(2, Timestamp.valueOf(ahora));
+		Timestamp hasta = Timestamp.valueOf(ahora.plusDays(30));
+		List<Long> ids = new ArrayList<>();
+		try (ResultSet filas = listadoPorTipo.executeQuery()) {
+			while (filas.next() && ids.size() <= TAMANIO_PAGINA) {
+				// Ordenado por fecha: pasado el mes ya no quedan candidatos
+				if (filas.getTimestamp(2).after(hasta)) {
+					break;
+				}
+				long id = filas.getLong(1);
+				if (cumplePrecio(id) && tieneDisponibles(id)) {
+					ids.add(id);
+				}
+			}
+		}
+		return ids;
+	}
+
+	private boolean cumplePrecio(long eventoId) throws SQLException {
+		precioDeEvento.setLong(1, eventoId);
+		precioDeEvento.setString(2, "CAMPO");
+		try (ResultSet filas = precioDeEvento.executeQuery()) {
+			return filas.next() && filas.getBigDecimal(1).compareTo(precioMaximo) <= 0;
+		}
+	}
+
+	private boolean tieneDisponibles(long eventoId) throws SQLException {
+		disponiblesDeEvento.setLong(1, eventoId);
+		disponiblesDeEvento.setString(2, "CAMPO");
+		try (ResultSet filas = disponiblesDeEvento.executeQuery()) {
+			return filas.next() && filas.getInt(1) > 0;
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(FiltroEventosBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
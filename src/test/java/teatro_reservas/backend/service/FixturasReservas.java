@@ -0,0 +1,57 @@
+package teatro_reservas.backend.service;
+
+import teatro_reservas.backend.dto.ClienteRequestDTO;
+import teatro_reservas.backend.dto.ConfiguracionEntradaDTO;
+import teatro_reservas.backend.dto.EventoRequestDTO;
+import teatro_reservas.backend.entity.Cliente;
+import teatro_reservas.backend.entity.enums.TipoEntrada;
+import teatro_reservas.backend.entity.enums.TipoEvento;
+import teatro_reservas.backend.repository.ClienteRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Clientes y eventos de prueba para los tests de integración.
+ * Los tests que comparten contexto comparten la base: email, teléfono y documento deben ser únicos.
+ */
+final class FixturasReservas {
+
+	private FixturasReservas() {
+	}
+
+	static Long crearCliente(ClienteService clienteService, String email, String telefono, String documento) {
+		return clienteService.crearCliente(new ClienteRequestDTO(
+				"Cliente", "Prueba", email, telefono, documento, null)).getId();
+	}
+
+	static void asignarFidelizacion(ClienteRepository clienteRepository, Long clienteId,
+			int eventosAsistidos, int pasesGratuitos) {
+		Cliente cliente = clienteRepository.findById(clienteId).orElseThrow();
+		cliente.setEventosAsistidos(eventosAsistidos);
+		cliente.setPasesGratuitos(pasesGratuitos);
+		clienteRepository.save(cliente);
+	}
+
+	// Obra de teatro con entradas generales a 1500 y, si vip > 0, entradas VIP a 3000
+	static Long crearEvento(EventoService eventoService, String nombre, int diasHastaFuncion, int general, int vip) {
+		return eventoService.crearEvento(evento(nombre, diasHastaFuncion, general, vip)).getId();
+	}
+
+	static Long crearEvento(EventoService eventoService, String nombre, int diasHastaFuncion, int general) {
+		return crearEvento(eventoService, nombre, diasHastaFuncion, general, 0);
+	}
+
+	static EventoRequestDTO evento(String nombre, int diasHastaFuncion, int general, int vip) {
+		Map<TipoEntrada, ConfiguracionEntradaDTO> entradas = new EnumMap<>(TipoEntrada.class);
+		entradas.put(TipoEntrada.GENERAL, new ConfiguracionEntradaDTO(new BigDecimal("1500.00"), general));
+		if (vip > 0) {
+			entradas.put(TipoEntrada.VIP, new ConfiguracionEntradaDTO(new BigDecimal("3000.00"), vip));
+		}
+		return new EventoRequestDTO(
+				nombre, "Obra de prueba", LocalDateTime.now().plusDays(diasHastaFuncion),
+				TipoEvento.OBRA_TEATRO, general + vip, entradas);
+	}
+}
@@ -0,0 +1,70 @@
+package teatro_reservas.backend.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Códigos de reserva por segundo: el código anterior (8 caracteres de un UUID aleatorio,
+ * que a escala choca con el índice único) contra {@link GeneradorCodigoCrockford}, con un
+ * hilo y con ocho hilos compartiendo el mismo generador, como los requests concurrentes.
+ * También mide el descarte por dígito de control en las búsquedas por código.
+ * Se ejecuta con el main de esta clase desde el IDE o sobre target/test-classes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeneradorCodigoCrockfordBenchmark {
+
+	private final GeneradorCodigoCrockford generador = new GeneradorCodigoCrockford(1);
+	private final String codigoValido = generador.generar();
+
+	@Benchmark
+	public String uuidAleatorio() {
+		return "RES-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+	}
+
+	@Benchmark
+	public String crockford() {
+		return generador.generar();
+	}
+
+	@Benchmark
+	@Threads(8)
+	public String uuidAleatorioOchoHilos() {
+		return uuidAleatorio();
+	}
+
+	@Benchmark
+	@Threads(8)
+	public String crockfordOchoHilos() {
+		return generador.generar();
+	}
+
+	@Benchmark
+	public boolean validarDigitoDeControl() {
+		return generador.puedeExistir(codigoValido);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(GeneradorCodigoCrockfordBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
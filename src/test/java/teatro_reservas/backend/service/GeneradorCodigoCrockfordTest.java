@@ -0,0 +1,89 @@
+package teatro_reservas.backend.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeneradorCodigoCrockfordTest {
+
+	// Códigos de largo fijo en base32 de Crockford: el orden del texto es el orden numérico,
+	// así que una secuencia estrictamente creciente prueba que no hay repetidos.
+	// Tarda unos 25 segundos: fuera de la corrida por defecto (mvn test -Plentos para incluirla)
+	@Test
+	@Tag("lento")
+	void cienMillonesDeCodigosSinColisiones() {
+		GeneradorCodigoCrockford generador = new GeneradorCodigoCrockford(7);
+		String anterior = generador.generar();
+
+		for (int i = 1; i < 100_000_000; i++) {
+			String codigo = generador.generar();
+			if (valor(codigo).compareTo(valor(anterior)) <= 0) {
+				throw new AssertionError("Código repetido o fuera de orden: " + anterior + " -> " + codigo);
+			}
+			anterior = codigo;
+		}
+	}
+
+	@Test
+	void hilosConcurrentesNoRepitenCodigos() throws Exception {
+		GeneradorCodigoCrockford generador = new GeneradorCodigoCrockford(1);
+		Set<String> codigos = ConcurrentHashMap.newKeySet();
+		ExecutorService hilos = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> tareas = new ArrayList<>();
+			for (int h = 0; h < 8; h++) {
+				tareas.add(hilos.submit(() -> {
+					for (int i = 0; i < 250_000; i++) {
+						codigos.add(generador.generar());
+					}
+				}));
+			}
+			for (Future<?> tarea : tareas) {
+				tarea.get();
+			}
+		} finally {
+			hilos.shutdown();
+		}
+		assertEquals(2_000_000, codigos.size());
+	}
+
+	@Test
+	void nodosDistintosGeneranCodigosDistintos() {
+		String codigoNodo1 = new GeneradorCodigoCrockford(1).generar();
+		String codigoNodo2 = new GeneradorCodigoCrockford(2).generar();
+		assertNotEquals(valor(codigoNodo1), valor(codigoNodo2));
+	}
+
+	@Test
+	void digitoDeControlDetectaErroresDeTipeo() {
+		GeneradorCodigoCrockford generador = new GeneradorCodigoCrockford(0);
+		String codigo = generador.generar();
+
+		assertEquals(18, codigo.length());
+		assertTrue(codigo.startsWith("RES-"));
+		assertTrue(generador.puedeExistir(codigo));
+
+		char[] tipeado = codigo.toCharArray();
+		tipeado[8] = tipeado[8] == 'A' ? 'B' : 'A';
+		assertFalse(generador.puedeExistir(new String(tipeado)));
+
+		// Los códigos del formato anterior se siguen buscando en la base
+		assertTrue(generador.puedeExistir("RES-ABC12345"));
+	}
+
+	private static String valor(String codigo) {
+		return codigo.substring(4, codigo.length() - 1);
+	}
+}
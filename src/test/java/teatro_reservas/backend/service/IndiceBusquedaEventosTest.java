@@ -0,0 +1,66 @@
+package teatro_reservas.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IndiceBusquedaEventosTest {
+
+	private final IndiceBusquedaEventos indice = new IndiceBusquedaEventos();
+
+	@Test
+	void ignoraTildesYMayusculas() {
+		indice.indexar(1L, "La Casa de Bernarda Alba", "Drama rural de Federico García Lorca", true);
+
+		assertEquals(List.of(1L), indice.buscar("bernarda ALBA", 10));
+		assertEquals(List.of(1L), indice.buscar("garcia lorca", 10));
+		assertEquals(List.of(1L), indice.buscar("Gárcía", 10));
+	}
+
+	@Test
+	void exigeTodosLosTerminosYCompletaElUltimo() {
+		indice.indexar(1L, "La Casa de Bernarda Alba", "Drama rural", true);
+		indice.indexar(2L, "Casa de Muñecas", "Obra de Henrik Ibsen", true);
+
+		assertEquals(List.of(1L), indice.buscar("casa bern", 10));
+		assertEquals(List.of(2L), indice.buscar("munecas", 10));
+		assertTrue(indice.buscar("casa tango", 10).isEmpty());
+	}
+
+	@Test
+	void ordenaPorRelevancia() {
+		indice.indexar(1L, "Noche de tango", "Orquesta en vivo", true);
+		indice.indexar(2L, "Recital acústico", "Incluye un tango al cierre", true);
+
+		// Coincidir en el nombre pesa más que en la descripción
+		assertEquals(List.of(1L, 2L), indice.buscar("tango", 10));
+		assertEquals(List.of(1L), indice.buscar("tango", 1));
+	}
+
+	@Test
+	void inactivosSeDescartanAntesDelLimite() {
+		indice.indexar(1L, "Tango inactivo", "Función suspendida", false);
+		indice.indexar(2L, "Tango del sur", "Orquesta en vivo", true);
+
+		// El inactivo es el más relevante pero no ocupa el único lugar pedido
+		assertEquals(List.of(2L), indice.buscar("tango", 1));
+
+		indice.indexar(1L, "Tango inactivo", "Función repuesta", true);
+		assertEquals(List.of(1L, 2L), indice.buscar("tango", 10));
+	}
+
+	@Test
+	void reindexarYQuitarActualizanLosResultados() {
+		indice.indexar(1L, "Hamlet", "Tragedia de Shakespeare", true);
+		indice.indexar(1L, "Macbeth", "Tragedia de Shakespeare", true);
+		assertTrue(indice.buscar("hamlet", 10).isEmpty());
+		assertEquals(List.of(1L), indice.buscar("macbeth", 10));
+
+		indice.quitar(1L);
+		assertTrue(indice.buscar("tragedia", 10).isEmpty());
+		assertEquals(0, indice.cantidadEventos());
+	}
+}
@@ -0,0 +1,55 @@
+package teatro_reservas.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IndiceTrigramasClientesTest {
+
+	private final IndiceTrigramasClientes indice = new IndiceTrigramasClientes();
+
+	@Test
+	void encuentraSubcadenasSinTildesNiMayusculas() {
+		indice.indexar(1L, "María", "González");
+		indice.indexar(2L, "Juan", "Pérez");
+
+		assertEquals(List.of(1L), indice.buscar("gonzalez", 10));
+		assertEquals(List.of(1L), indice.buscar("ONZÁL", 10));
+		assertEquals(List.of(1L), indice.buscar("maria gonz", 10));
+		assertEquals(List.of(2L), indice.buscar("ju", 10));
+	}
+
+	@Test
+	void priorizaComienzoDePalabra() {
+		indice.indexar(1L, "Lucas", "Marino");
+		indice.indexar(2L, "Ana", "Rinaldi");
+
+		assertEquals(List.of(2L, 1L), indice.buscar("rin", 10));
+		assertEquals(List.of(2L), indice.buscar("rin", 1));
+	}
+
+	@Test
+	void toleraErroresDeTipeoSiNadaContieneElTermino() {
+		indice.indexar(1L, "María", "González");
+		indice.indexar(2L, "Juan", "Pérez");
+
+		assertEquals(List.of(1L), indice.buscar("Gonzales", 10));
+		assertTrue(indice.buscar("Fernández", 10).isEmpty());
+	}
+
+	@Test
+	void reindexarActualizaLosResultados() {
+		indice.indexar(1L, "Juan", "Pérez");
+		indice.indexar(1L, "Juan", "Gómez");
+
+		assertTrue(indice.buscar("perez", 10).isEmpty());
+		assertEquals(List.of(1L), indice.buscar("gomez", 10));
+		assertEquals(1, indice.cantidadClientes());
+
+		indice.quitar(1L);
+		assertEquals(0, indice.cantidadClientes());
+	}
+}
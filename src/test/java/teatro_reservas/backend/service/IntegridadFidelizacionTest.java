@@ -0,0 +1,59 @@
+package teatro_reservas.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import teatro_reservas.backend.dto.InconsistenciaFidelizacionDTO;
+import teatro_reservas.backend.dto.PaginaDTO;
+import teatro_reservas.backend.repository.ClienteRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class IntegridadFidelizacionTest {
+
+	@Autowired
+	private FidelizacionService fidelizacionService;
+
+	@Autowired
+	private ClienteService clienteService;
+
+	@Autowired
+	private ClienteRepository clienteRepository;
+
+	@Test
+	void listaPorPaginasSoloLosClientesConPasesFaltantes() {
+		Long sinPases = crearCliente("Sin", "30222001", 10, 0);
+		Long completo = crearCliente("Completo", "30222002", 10, 2);
+		Long pocasAsistencias = crearCliente("Pocas", "30222003", 4, 0);
+		Long leFaltaUno = crearCliente("Falta", "30222004", 15, 2);
+
+		// Página de a una fila para recorrer el cursor
+		List<InconsistenciaFidelizacionDTO> encontradas = new ArrayList<>();
+		String cursor = null;
+		do {
+			PaginaDTO<InconsistenciaFidelizacionDTO> pagina = fidelizacionService.validarIntegridadSistema(cursor, 1);
+			encontradas.addAll(pagina.getContenido());
+			cursor = pagina.getSiguienteCursor();
+		} while (cursor != null);
+
+		List<InconsistenciaFidelizacionDTO> propias = encontradas.stream()
+				.filter(i -> List.of(sinPases, completo, pocasAsistencias, leFaltaUno).contains(i.getClienteId()))
+				.toList();
+		assertEquals(List.of(sinPases, leFaltaUno), propias.stream().map(InconsistenciaFidelizacionDTO::getClienteId).toList());
+		assertEquals(2, propias.get(0).getPasesQueDebeTener());
+		assertEquals(0L, propias.get(0).getPasesUsados());
+		assertEquals(3, propias.get(1).getPasesQueDebeTener());
+		assertEquals(2, propias.get(1).getPasesDisponibles());
+	}
+
+	private Long crearCliente(String nombre, String dni, int eventosAsistidos, int pasesGratuitos) {
+		Long id = FixturasReservas.crearCliente(clienteService,
+				nombre.toLowerCase() + ".auditoria@teatro.com", "+54911" + dni, dni);
+		FixturasReservas.asignarFidelizacion(clienteRepository, id, eventosAsistidos, pasesGratuitos);
+		return id;
+	}
+}
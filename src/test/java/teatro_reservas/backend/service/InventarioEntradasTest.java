@@ -0,0 +1,145 @@
+package teatro_reservas.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import teatro_reservas.backend.dto.ReservaRequestDTO;
+import teatro_reservas.backend.entity.enums.TipoEntrada;
+import teatro_reservas.backend.exception.BusinessException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+		"teatro.outbox.intervalo-ms=3600000",
+		"teatro.reservas.retencion.tick-ms=3600000"
+})
+class InventarioEntradasTest {
+
+	@Autowired
+	private EventoService eventoService;
+
+	@Autowired
+	private ClienteService clienteService;
+
+	@Autowired
+	private ReservaService reservaService;
+
+	@Autowired
+	private InventarioService inventarioService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void contadoresSiguenReservasCancelacionesYCapacidad() {
+		Long clienteId = FixturasReservas.crearCliente(clienteService, "inventario.contadores@teatro.com", "+5491131000001", "31000001");
+		Long eventoId = FixturasReservas.crearEvento(eventoService, "Inventario Contadores", 14, 3, 2);
+
+		Long reservaId = reservar(clienteId, eventoId);
+		reservar(clienteId, eventoId);
+		assertEquals(Map.of(TipoEntrada.GENERAL, 1L, TipoEntrada.VIP, 2L), inventarioService.obtenerDisponiblesPorTipo(eventoId));
+		assertEquals(2, vendidas(eventoId));
+
+		reservaService.cancelarReserva(reservaId, "Prueba");
+		assertEquals(2, inventarioService.obtenerDisponibles(eventoId, TipoEntrada.GENERAL));
+		assertEquals(1, vendidas(eventoId));
+
+		// La capacidad se ajusta sobre lo vendido y no puede quedar por debajo
+		eventoService.actualizarEvento(eventoId, FixturasReservas.evento("Inventario Contadores", 14, 5, 2));
+		assertEquals(4, inventarioService.obtenerDisponibles(eventoId, TipoEntrada.GENERAL));
+		assertThrows(BusinessException.class, () -> eventoService.actualizarEvento(eventoId, FixturasReservas.evento("Inventario Contadores", 14, 0, 2)));
+		assertEquals(4, inventarioService.obtenerDisponibles(eventoId, TipoEntrada.GENERAL));
+	}
+
+	@Test
+	void reservasConcurrentesNoSobrevenden() throws Exception {
+		Long clienteId = FixturasReservas.crearCliente(clienteService, "inventario.concurrencia@teatro.com", "+5491131000002", "31000002");
+		Long eventoId = FixturasReservas.crearEvento(eventoService, "Inventario Concurrente", 14, 5, 2);
+
+		List<Throwable> errores = reservarEnParalelo(clienteId, eventoId, 20);
+
+		assertEquals(15, errores.size());
+		errores.forEach(error -> assertInstanceOf(BusinessException.class, error));
+		assertEquals(0, inventarioService.obtenerDisponibles(eventoId, TipoEntrada.GENERAL));
+		assertEquals(5, vendidas(eventoId));
+		assertEquals(5, reservaService.contarReservasConfirmadasPorEventoYTipo(eventoId, TipoEntrada.GENERAL));
+	}
+
+	@Test
+	void eventoSinInventarioLoCreaUnaSolaVezConReservasConcurrentes() throws Exception {
+		Long clienteId = FixturasReservas.crearCliente(clienteService, "inventario.faltante@teatro.com", "+5491131000003", "31000003");
+		Long eventoId = FixturasReservas.crearEvento(eventoService, "Inventario Faltante", 14, 10, 2);
+		reservar(clienteId, eventoId);
+		// Evento anterior a la tabla de inventario
+		jdbcTemplate.update("DELETE FROM inventario_entradas WHERE evento_id = ?", eventoId);
+
+		// Consultar no lo crea: lo calcula desde las reservas
+		assertEquals(9, inventarioService.obtenerDisponibles(eventoId, TipoEntrada.GENERAL));
+		assertEquals(0, filasInventario(eventoId));
+
+		assertEquals(List.of(), reservarEnParalelo(clienteId, eventoId, 8));
+		assertEquals(2, filasInventario(eventoId));
+		assertEquals(9, vendidas(eventoId));
+		assertEquals(1, inventarioService.obtenerDisponibles(eventoId, TipoEntrada.GENERAL));
+	}
+
+	// Devuelve los errores de las reservas que no se pudieron crear
+	private List<Throwable> reservarEnParalelo(Long clienteId, Long eventoId, int cantidad) throws InterruptedException {
+		CountDownLatch largada = new CountDownLatch(1);
+		ExecutorService hilos = Executors.newFixedThreadPool(cantidad);
+		try {
+			List<Future<Long>> reservas = new ArrayList<>();
+			for (int i = 0; i < cantidad; i++) {
+				Callable<Long> reserva = () -> {
+					largada.await();
+					return reservar(clienteId, eventoId);
+				};
+				reservas.add(hilos.submit(reserva));
+			}
+			largada.countDown();
+
+			List<Throwable> errores = new ArrayList<>();
+			for (Future<Long> reserva : reservas) {
+				try {
+					reserva.get(30, TimeUnit.SECONDS);
+				} catch (ExecutionException e) {
+					errores.add(e.getCause());
+				} catch (Exception e) {
+					errores.add(e);
+				}
+			}
+			return errores;
+		} finally {
+			hilos.shutdownNow();
+		}
+	}
+
+	private Long reservar(Long clienteId, Long eventoId) {
+		return reservaService.crearReserva(
+				new ReservaRequestDTO(clienteId, eventoId, TipoEntrada.GENERAL, false)).getId();
+	}
+
+	private int vendidas(Long eventoId) {
+		return jdbcTemplate.queryForObject("SELECT vendidas FROM inventario_entradas " +
+				"WHERE evento_id = ? AND tipo_entrada = 'GENERAL'", Integer.class, eventoId);
+	}
+
+	private int filasInventario(Long eventoId) {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM inventario_entradas WHERE evento_id = ?",
+				Integer.class, eventoId);
+	}
+}
@@ -0,0 +1,143 @@
+package teatro_reservas.backend.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import teatro_reservas.backend.dto.ClienteRequestDTO;
+import teatro_reservas.backend.dto.ConfiguracionEntradaDTO;
+import teatro_reservas.backend.dto.EventoRequestDTO;
+import teatro_reservas.backend.dto.PaginaDTO;
+import teatro_reservas.backend.dto.ReservaRequestDTO;
+import teatro_reservas.backend.dto.ReservaResponseDTO;
+import teatro_reservas.backend.dto.ReservaResumenDTO;
+import teatro_reservas.backend.entity.enums.EstadoReserva;
+import teatro_reservas.backend.entity.enums.TipoEntrada;
+import teatro_reservas.backend.entity.enums.TipoEvento;
+import teatro_reservas.backend.exception.BusinessException;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"teatro.outbox.intervalo-ms=3600000",
+		"teatro.reservas.retencion.tick-ms=3600000"
+})
+class PaginacionCursorTest {
+
+	@Autowired
+	private ClienteService clienteService;
+
+	@Autowired
+	private EventoService eventoService;
+
+	@Autowired
+	private ReservaService reservaService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	// Recorrer todas las páginas devuelve cada reserva una sola vez y en orden, aunque compartan fecha
+	@Test
+	void recorreLasReservasDelClienteSinRepetirNiSaltear() {
+		Long clienteId = clienteService.crearCliente(new ClienteRequestDTO(
+				"Paula", "Paginada", "paginada@teatro.com", "+5491100000003", "30111444", null)).getId();
+		Long eventoId = eventoService.crearEvento(new EventoRequestDTO(
+				"Paginacion", "Obra para recorrer reservas por cursor", LocalDateTime.now().plusDays(15),
+				TipoEvento.OBRA_TEATRO, 20, Map.of(
+						TipoEntrada.GENERAL, new ConfiguracionEntradaDTO(new BigDecimal("1000.00"), 20)))).getId();
+		List<Long> creadas = new ArrayList<>();
+		for (int i = 0; i < 7; i++) {
+			creadas.add(reservaService.crearReserva(
+					new ReservaRequestDTO(clienteId, eventoId, TipoEntrada.GENERAL, false)).getId());
+		}
+
+		List<Long> recorridas = new ArrayList<>();
+		List<Integer> tamanios = new ArrayList<>();
+		String cursor = null;
+		do {
+			PaginaDTO<ReservaResumenDTO> pagina = reservaService.obtenerReservasPorCliente(clienteId, cursor, 3);
+			pagina.getContenido().forEach(reserva -> recorridas.add(reserva.getId()));
+			tamanios.add(pagina.getContenido().size());
+			assertEquals(pagina.isHayMas(), pagina.getSiguienteCursor() != null);
+			cursor = pagina.getSiguienteCursor();
+		} while (cursor != null);
+
+		assertEquals(List.of(3, 3, 1), tamanios);
+		Collections.reverse(recorridas);
+		assertEquals(creadas, recorridas);
+
+		PaginaDTO<ReservaResumenDTO> delEvento = reservaService.obtenerReservasPorEvento(eventoId, null, 10);
+		assertFalse(delEvento.isHayMas());
+		assertNull(delEvento.getSiguienteCursor());
+		assertEquals(creadas, delEvento.getContenido().stream().map(ReservaResumenDTO::getId).sorted().toList());
+
+		// El listado general avanza por id
+		List<Long> todas = new ArrayList<>();
+		cursor = null;
+		do {
+			PaginaDTO<ReservaResponseDTO> pagina = reservaService.obtenerTodasLasReservas(cursor, 4);
+			pagina.getContenido().forEach(reserva -> todas.add(reserva.getId()));
+			cursor = pagina.getSiguienteCursor();
+		} while (cursor != null);
+		assertEquals(todas.stream().sorted().distinct().toList(), todas);
+		assertTrue(todas.containsAll(creadas));
+	}
+
+	// Los precios de los eventos llegan con la página: la cantidad de consultas no depende de cuántos eventos haya
+	@Test
+	void paginaConEventosDistintosNoCargaPreciosPorSeparado() {
+		Long clienteId = clienteService.crearCliente(new ClienteRequestDTO(
+				"Pedro", "Precios", "precios.pagina@teatro.com", "+5491130111445", "30111445", null)).getId();
+		for (int i = 0; i < 3; i++) {
+			Long eventoId = eventoService.crearEvento(new EventoRequestDTO(
+					"Paginacion Precios " + i, "Obra para paginar reservas de varios eventos", LocalDateTime.now().plusDays(16 + i),
+					TipoEvento.OBRA_TEATRO, 5, Map.of(
+							TipoEntrada.GENERAL, new ConfiguracionEntradaDTO(new BigDecimal("900.00"), 5)))).getId();
+			reservaService.crearReserva(new ReservaRequestDTO(clienteId, eventoId, TipoEntrada.GENERAL, false));
+		}
+
+		Statistics estadisticas = estadisticas();
+		PaginaDTO<ReservaResponseDTO> pagina = reservaService.obtenerReservasPorEstado(EstadoReserva.CONFIRMADA, null, 500);
+		// Ids de la página y reservas con cliente, evento y precios
+		assertEquals(2, estadisticas.getPrepareStatementCount());
+		assertTrue(pagina.getContenido().stream()
+				.allMatch(reserva -> reserva.getEvento().getPrecioDesde().signum() > 0));
+
+		estadisticas.clear();
+		List<ReservaResponseDTO> confirmadas = reservaService.obtenerReservasConfirmadas(clienteId);
+		assertEquals(1, estadisticas.getPrepareStatementCount());
+		assertEquals(3, confirmadas.size());
+		assertTrue(confirmadas.stream()
+				.allMatch(reserva -> new BigDecimal("900.00").equals(reserva.getEvento().getPrecioDesde())));
+	}
+
+	@Test
+	void rechazaCursoresYTamaniosInvalidos() {
+		assertThrows(BusinessException.class, () -> reservaService.obtenerTodasLasReservas("no-es-un-cursor", 10));
+		assertThrows(BusinessException.class, () -> reservaService.obtenerTodasLasReservas(null, 0));
+		assertThrows(BusinessException.class, () -> reservaService.obtenerTodasLasReservas(null, 501));
+		// Un cursor por id no sirve para un listado ordenado por fecha
+		String cursorPorId = CursorPaginacion.porId(10).codificar();
+		assertThrows(BusinessException.class, () -> reservaService.obtenerReservasPorCliente(1L, cursorPorId, 10));
+	}
+
+	private Statistics estadisticas() {
+		Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		estadisticas.clear();
+		return estadisticas;
+	}
+}
@@ -0,0 +1,116 @@
+package teatro_reservas.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import teatro_reservas.backend.dto.ClienteRequestDTO;
+import teatro_reservas.backend.entity.Cliente;
+import teatro_reservas.backend.entity.enums.TipoEntrada;
+import teatro_reservas.backend.exception.BusinessException;
+import teatro_reservas.backend.repository.ClienteRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+// Varias reservas intentan gastar el mismo pase a la vez: el UPDATE condicional deja pasar una sola
+@SpringBootTest(properties = {
+		"teatro.outbox.intervalo-ms=3600000",
+		"teatro.reservas.retencion.tick-ms=3600000"
+})
+class PasesGratuitosConcurrentesTest {
+
+	private static final int HILOS = 8;
+
+	@Autowired
+	private EventoService eventoService;
+
+	@Autowired
+	private ClienteService clienteService;
+
+	@Autowired
+	private ReservaService reservaService;
+
+	@Autowired
+	private InventarioService inventarioService;
+
+	@Autowired
+	private ClienteRepository clienteRepository;
+
+	@Test
+	void unSoloPaseSeGastaUnaSolaVezEnReservasConcurrentes() throws Exception {
+		Long clienteId = crearClienteConUnPase("pase.reservas@teatro.com", "+5491131100001", "31100001");
+		Long eventoId = FixturasReservas.crearEvento(eventoService, "Pase Concurrente", 13, 10);
+
+		List<Throwable> errores = enParalelo(() ->
+				reservaService.crearReservaConPaseGratuito(clienteId, eventoId, TipoEntrada.GENERAL));
+
+		assertEquals(HILOS - 1, errores.size());
+		errores.forEach(error -> assertInstanceOf(BusinessException.class, error));
+		assertEquals(0, clienteService.obtenerClientePorId(clienteId).getPasesGratuitos());
+		// Las reservas rechazadas devolvieron su entrada
+		assertEquals(9, inventarioService.obtenerDisponibles(eventoId, TipoEntrada.GENERAL));
+	}
+
+	@Test
+	void unSoloPaseSeGastaUnaSolaVezAlUsarloDirecto() throws Exception {
+		Long clienteId = crearClienteConUnPase("pase.directo@teatro.com", "+5491131100002", "31100002");
+
+		List<Throwable> errores = enParalelo(() -> {
+			clienteService.usarPaseGratuito(clienteId);
+			return null;
+		});
+
+		assertEquals(HILOS - 1, errores.size());
+		errores.forEach(error -> assertInstanceOf(BusinessException.class, error));
+		assertEquals(0, clienteService.obtenerClientePorId(clienteId).getPasesGratuitos());
+	}
+
+	// Devuelve los errores de las llamadas que fallaron
+	private List<Throwable> enParalelo(Callable<?> llamada) throws InterruptedException {
+		CountDownLatch largada = new CountDownLatch(1);
+		ExecutorService hilos = Executors.newFixedThreadPool(HILOS);
+		try {
+			List<Future<?>> resultados = new ArrayList<>();
+			for (int i = 0; i < HILOS; i++) {
+				resultados.add(hilos.submit(() -> {
+					largada.await();
+					return llamada.call();
+				}));
+			}
+			largada.countDown();
+
+			List<Throwable> errores = new ArrayList<>();
+			for (Future<?> resultado : resultados) {
+				try {
+					resultado.get(30, TimeUnit.SECONDS);
+				} catch (ExecutionException e) {
+					errores.add(e.getCause());
+				} catch (Exception e) {
+					errores.add(e);
+				}
+			}
+			return errores;
+		} finally {
+			hilos.shutdownNow();
+		}
+	}
+
+	private Long crearClienteConUnPase(String email, String telefono, String documento) {
+		Long clienteId = clienteService.crearCliente(new ClienteRequestDTO(
+				"Pase", "Concurrente", email, telefono, documento, null)).getId();
+		Cliente cliente = clienteRepository.findById(clienteId).orElseThrow();
+		cliente.setPasesGratuitos(1);
+		clienteRepository.save(cliente);
+		return clienteId;
+	}
+}
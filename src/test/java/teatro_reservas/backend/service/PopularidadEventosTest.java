@@ -0,0 +1,69 @@
+package teatro_reservas.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PopularidadEventosTest {
+
+	private static final LocalDateTime INICIO = LocalDateTime.of(2030, 5, 1, 20, 0);
+
+	private final PopularidadEventos popularidad = new PopularidadEventos();
+
+	@Test
+	void mezclaLosDiasDelPeriodoDeMasAMenosVendido() {
+		ubicar(1L, INICIO, 3);
+		ubicar(2L, INICIO.plusDays(1), 8);
+		ubicar(3L, INICIO.plusDays(2), 5);
+		ubicar(4L, INICIO.plusDays(2), 1);
+		// Fuera del período
+		ubicar(5L, INICIO.plusDays(10), 20);
+
+		assertEquals(List.of(2L, 3L), popularidad.masPopulares(INICIO, INICIO.plusDays(3), 2));
+		assertEquals(List.of(2L, 3L, 1L, 4L), popularidad.masPopulares(INICIO, INICIO.plusDays(3), 10));
+	}
+
+	@Test
+	void respetaLaHoraEnLosDiasDelBorde() {
+		ubicar(1L, INICIO.minusHours(2), 9);
+		ubicar(2L, INICIO, 4);
+		ubicar(3L, INICIO.plusDays(1).plusHours(1), 7);
+
+		assertEquals(List.of(2L), popularidad.masPopulares(INICIO, INICIO.plusDays(1), 10));
+	}
+
+	@Test
+	void reservasYCancelacionesReordenan() {
+		ubicar(1L, INICIO, 2);
+		ubicar(2L, INICIO, 3);
+
+		// Sin transacción activa los cambios se aplican en el momento
+		popularidad.sumarConfirmadas(1L, INICIO, 2);
+		assertEquals(List.of(1L, 2L), popularidad.masPopulares(INICIO, INICIO, 10));
+
+		popularidad.sumarConfirmadas(1L, INICIO, -3);
+		assertEquals(List.of(2L, 1L), popularidad.masPopulares(INICIO, INICIO, 10));
+	}
+
+	@Test
+	void cambioDeFechaConservaLasVentasYEliminarQuita() {
+		ubicar(1L, INICIO, 6);
+		ubicar(2L, INICIO.plusDays(5), 2);
+
+		popularidad.ubicarAlConfirmar(1L, INICIO.plusDays(5));
+		assertEquals(List.of(), popularidad.masPopulares(INICIO, INICIO, 10));
+		assertEquals(List.of(1L, 2L), popularidad.masPopulares(INICIO.plusDays(5), INICIO.plusDays(5), 10));
+
+		popularidad.quitarAlConfirmar(1L);
+		assertEquals(List.of(2L), popularidad.masPopulares(INICIO, INICIO.plusDays(5), 10));
+		assertEquals(1, popularidad.cantidadEventos());
+	}
+
+	private void ubicar(Long eventoId, LocalDateTime fechaHora, long confirmadas) {
+		popularidad.ubicar(eventoId, fechaHora);
+		popularidad.sumarConfirmadas(eventoId, fechaHora, confirmadas);
+	}
+}
@@ -0,0 +1,80 @@
+package teatro_reservas.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import teatro_reservas.backend.dto.ReservaRequestDTO;
+import teatro_reservas.backend.entity.enums.TipoEntrada;
+import teatro_reservas.backend.exception.BusinessException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Sin resincronización por faltante: los contadores en memoria solo cambian con reservas o reconciliando
+@SpringBootTest(properties = {
+		"teatro.outbox.intervalo-ms=3600000",
+		"teatro.reservas.retencion.tick-ms=3600000",
+		"teatro.inventario.memoria.resincronizacion-ms=3600000"
+})
+class ReconciliacionInventarioTest {
+
+	@Autowired
+	private EventoService eventoService;
+
+	@Autowired
+	private ClienteService clienteService;
+
+	@Autowired
+	private ReservaService reservaService;
+
+	@Autowired
+	private InventarioService inventarioService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void contadoresEnMemoriaRechazanLoAgotadoAunqueLaBaseDigaOtraCosa() {
+		Long clienteId = FixturasReservas.crearCliente(clienteService, "reconciliacion.memoria@teatro.com", "+5491130888001", "30888001");
+		Long eventoId = FixturasReservas.crearEvento(eventoService, "Reconciliación en Memoria", 11, 2);
+		reservar(clienteId, eventoId);
+		reservar(clienteId, eventoId);
+
+		// Contador de la base desfasado por fuera del servicio
+		desfasarInventario(eventoId);
+		assertEquals(2, inventarioService.obtenerDisponibles(eventoId, TipoEntrada.GENERAL));
+		assertThrows(BusinessException.class, () -> reservar(clienteId, eventoId));
+	}
+
+	@Test
+	void reconciliarCorrigeLaBaseYReconstruyeLaMemoria() {
+		Long clienteId = FixturasReservas.crearCliente(clienteService, "reconciliacion.base@teatro.com", "+5491130888002", "30888002");
+		Long eventoId = FixturasReservas.crearEvento(eventoService, "Reconciliación con la Base", 11, 2);
+		reservar(clienteId, eventoId);
+		Long cancelada = reservar(clienteId, eventoId);
+		reservaService.cancelarReserva(cancelada, "Prueba");
+		// Las retenciones también ocupan inventario
+		reservaService.retenerReserva(new ReservaRequestDTO(clienteId, eventoId, TipoEntrada.GENERAL, false));
+
+		// Se parte de un inventario consistente: solo queda por corregir el desfase de este evento
+		inventarioService.reconciliarInventario();
+		desfasarInventario(eventoId);
+		assertEquals(1, inventarioService.reconciliarInventario());
+		assertEquals(0, inventarioService.obtenerDisponibles(eventoId, TipoEntrada.GENERAL));
+		assertThrows(BusinessException.class, () -> reservar(clienteId, eventoId));
+
+		// Ya corregido, la siguiente pasada no encuentra diferencias en el evento
+		assertEquals(0, inventarioService.reconciliarInventario());
+	}
+
+	private void desfasarInventario(Long eventoId) {
+		jdbcTemplate.update("UPDATE inventario_entradas SET vendidas = 0, disponibles = capacidad " +
+				"WHERE evento_id = ? AND tipo_entrada = 'GENERAL'", eventoId);
+	}
+
+	private Long reservar(Long clienteId, Long eventoId) {
+		return reservaService.crearReserva(
+				new ReservaRequestDTO(clienteId, eventoId, TipoEntrada.GENERAL, false)).getId();
+	}
+}
@@ -0,0 +1,163 @@
+package teatro_reservas.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import teatro_reservas.backend.exception.BusinessException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RegistroIdempotenciaTest {
+
+	private final AtomicInteger ejecuciones = new AtomicInteger();
+
+	@Test
+	void reintentoRepiteLaRespuestaSinVolverAEjecutar() {
+		RegistroIdempotencia registro = registro(100, Duration.ofHours(1));
+
+		ResponseEntity<String> original = registro.ejecutar("k1", "crearReserva", "cuerpo", () -> creada("RES-1"));
+		ResponseEntity<String> repetida = registro.ejecutar("k1", "crearReserva", "cuerpo", () -> creada("RES-2"));
+
+		assertEquals(1, ejecuciones.get());
+		assertNull(original.getHeaders().getFirst(RegistroIdempotencia.ENCABEZADO_REPETIDA));
+		assertEquals("true", repetida.getHeaders().getFirst(RegistroIdempotencia.ENCABEZADO_REPETIDA));
+		assertEquals(HttpStatus.CREATED, repetida.getStatusCode());
+		assertEquals("RES-1", repetida.getBody());
+		// La misma clave en otra operación es otra entrada
+		assertEquals("RES-3", registro.ejecutar("k1", "retenerReserva", "cuerpo", () -> creada("RES-3")).getBody());
+	}
+
+	@Test
+	void duplicadosEnCursoEsperanLaPrimeraEjecucion() throws Exception {
+		RegistroIdempotencia registro = registro(100, Duration.ofHours(1));
+		CountDownLatch largada = new CountDownLatch(1);
+		ExecutorService hilos = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<ResponseEntity<String>>> respuestas = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				respuestas.add(hilos.submit(() -> {
+					largada.await();
+					return registro.ejecutar("k1", "crearReserva", "cuerpo", () -> {
+						ResponseEntity<String> respuesta = creada("RES-1");
+						dormir(300);
+						return respuesta;
+					});
+				}));
+			}
+			largada.countDown();
+
+			int repetidas = 0;
+			for (Future<ResponseEntity<String>> respuesta : respuestas) {
+				assertEquals("RES-1", respuesta.get(10, TimeUnit.SECONDS).getBody());
+				if (respuesta.get().getHeaders().containsKey(RegistroIdempotencia.ENCABEZADO_REPETIDA)) {
+					repetidas++;
+				}
+			}
+			assertEquals(1, ejecuciones.get());
+			assertEquals(7, repetidas);
+		} finally {
+			hilos.shutdownNow();
+		}
+	}
+
+	@Test
+	void duplicadoEnCursoRecibeElMismoErrorYElErrorNoSeRecuerda() throws Exception {
+		RegistroIdempotencia registro = registro(100, Duration.ofHours(1));
+		CountDownLatch enCurso = new CountDownLatch(1);
+		ExecutorService hilo = Executors.newSingleThreadExecutor();
+		try {
+			Future<?> original = hilo.submit(() -> registro.ejecutar("k1", "crearReserva", "cuerpo", () -> {
+				enCurso.countDown();
+				dormir(300);
+				throw new BusinessException("No hay disponibilidad para este tipo de entrada");
+			}));
+			enCurso.await();
+
+			BusinessException error = assertThrows(BusinessException.class,
+					() -> registro.ejecutar("k1", "crearReserva", "cuerpo", () -> creada("RES-1")));
+			assertEquals("No hay disponibilidad para este tipo de entrada", error.getMessage());
+			assertThrows(Exception.class, () -> original.get(10, TimeUnit.SECONDS));
+		} finally {
+			hilo.shutdownNow();
+		}
+
+		// La clave queda libre para reintentar
+		assertEquals("RES-2", registro.ejecutar("k1", "crearReserva", "cuerpo", () -> creada("RES-2")).getBody());
+	}
+
+	@Test
+	void claveReutilizadaConOtraSolicitudSeRechaza() {
+		RegistroIdempotencia registro = registro(100, Duration.ofHours(1));
+		registro.ejecutar("k1", "crearReserva", "Aa", () -> creada("RES-1"));
+
+		// "Aa" y "BB" tienen el mismo hashCode: la huella es del cuerpo serializado
+		assertEquals("Aa".hashCode(), "BB".hashCode());
+		assertThrows(BusinessException.class,
+				() -> registro.ejecutar("k1", "crearReserva", "BB", () -> creada("RES-2")));
+		assertThrows(BusinessException.class,
+				() -> registro.ejecutar("k1", "crearReserva", List.of(1L, 2L), () -> creada("RES-2")));
+		assertEquals(1, ejecuciones.get());
+	}
+
+	@Test
+	void almacenAcotadoPorCantidadYPorTtl() throws InterruptedException {
+		RegistroIdempotencia registro = registro(2, Duration.ofMillis(300));
+		registro.ejecutar("k1", "crearReserva", "cuerpo", () -> creada("RES-1"));
+		registro.ejecutar("k2", "crearReserva", "cuerpo", () -> creada("RES-2"));
+		registro.ejecutar("k3", "crearReserva", "cuerpo", () -> creada("RES-3"));
+
+		// La más vieja se descartó al superar el máximo
+		assertEquals("RES-4", registro.ejecutar("k1", "crearReserva", "cuerpo", () -> creada("RES-4")).getBody());
+		assertTrue(registro.ejecutar("k3", "crearReserva", "cuerpo", () -> creada("RES-5"))
+				.getHeaders().containsKey(RegistroIdempotencia.ENCABEZADO_REPETIDA));
+
+		Thread.sleep(400);
+		registro.depurarVencidas();
+		ResponseEntity<String> vencida = registro.ejecutar("k3", "crearReserva", "cuerpo", () -> creada("RES-6"));
+		assertEquals("RES-6", vencida.getBody());
+		assertFalse(vencida.getHeaders().containsKey(RegistroIdempotencia.ENCABEZADO_REPETIDA));
+	}
+
+	@Test
+	void sinClaveSeEjecutaSiempre() {
+		RegistroIdempotencia registro = registro(100, Duration.ofHours(1));
+		registro.ejecutar(null, "crearReserva", "cuerpo", () -> creada("RES-1"));
+		registro.ejecutar(" ", "crearReserva", "cuerpo", () -> creada("RES-2"));
+
+		assertEquals(2, ejecuciones.get());
+		assertThrows(BusinessException.class,
+				() -> registro.ejecutar("k".repeat(256), "crearReserva", "cuerpo", () -> creada("RES-3")));
+	}
+
+	private RegistroIdempotencia registro(int maximoEntradas, Duration ttl) {
+		return new RegistroIdempotencia(new ObjectMapper(), maximoEntradas, ttl, Duration.ofSeconds(5));
+	}
+
+	private ResponseEntity<String> creada(String codigo) {
+		ejecuciones.incrementAndGet();
+		return new ResponseEntity<>(codigo, HttpStatus.CREATED);
+	}
+
+	private static void dormir(long milisegundos) {
+		try {
+			Thread.sleep(milisegundos);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,86 @@
+package teatro_reservas.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import teatro_reservas.backend.dto.ClienteRequestDTO;
+import teatro_reservas.backend.dto.ReservaRequestDTO;
+import teatro_reservas.backend.entity.enums.EstadoReserva;
+import teatro_reservas.backend.entity.enums.TipoEntrada;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.doAnswer;
+
+// La cancelación choca con una escritura concurrente en el medio de su primera transacción
+@SpringBootTest(properties = {
+		"teatro.outbox.intervalo-ms=3600000",
+		"teatro.reservas.retencion.tick-ms=3600000"
+})
+class ReintentosOptimistasTest {
+
+	@Autowired
+	private EventoService eventoService;
+
+	@Autowired
+	private ClienteService clienteService;
+
+	@Autowired
+	private ReservaService reservaService;
+
+	@MockitoSpyBean
+	private InventarioService inventarioService;
+
+	@Autowired
+	private RegistroReintentos registroReintentos;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void conflictoDeVersionSeReintentaConDatosFrescos() {
+		Long clienteId = clienteService.crearCliente(new ClienteRequestDTO(
+				"Reintentos", "Optimistas", "reintentos@teatro.com", "+5491130777001", "30777001", null)).getId();
+		Long eventoId = FixturasReservas.crearEvento(eventoService, "Reintentos Optimistas", 9, 5);
+		Long reservaId = reservaService.crearReserva(
+				new ReservaRequestDTO(clienteId, eventoId, TipoEntrada.GENERAL, false)).getId();
+		long recuperadasAntes = estadistica("recuperadas");
+		long conflictosAntes = estadistica("conflictos");
+
+		// Otra transacción modifica la reserva después de que el primer intento la leyó
+		TransactionTemplate otraTransaccion = new TransactionTemplate(transactionManager);
+		otraTransaccion.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		AtomicBoolean primerIntento = new AtomicBoolean(true);
+		doAnswer(invocacion -> {
+			Object resultado = invocacion.callRealMethod();
+			if (primerIntento.getAndSet(false)) {
+				otraTransaccion.executeWithoutResult(estado -> jdbcTemplate.update(
+						"UPDATE reservas SET version = version + 1 WHERE id = ?", reservaId));
+			}
+			return resultado;
+		}).when(inventarioService).liberarEntrada(eventoId, TipoEntrada.GENERAL);
+
+		assertEquals(EstadoReserva.CANCELADA, reservaService.cancelarReserva(reservaId, "Prueba").getEstado());
+
+		assertEquals(conflictosAntes + 1, estadistica("conflictos"));
+		assertEquals(recuperadasAntes + 1, estadistica("recuperadas"));
+		// El descuento del intento fallido se deshizo: la entrada se repone una sola vez
+		assertEquals(5, inventarioService.obtenerDisponibles(eventoId, TipoEntrada.GENERAL));
+	}
+
+	private long estadistica(String nombre) {
+		return registroReintentos.obtenerEstadisticas()
+				.getOrDefault("cancelarReserva", Map.of())
+				.getOrDefault(nombre, 0L);
+	}
+}
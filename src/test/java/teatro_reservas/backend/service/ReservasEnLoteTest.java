@@ -0,0 +1,128 @@
+package teatro_reservas.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import teatro_reservas.backend.dto.ReservaLoteRequestDTO;
+import teatro_reservas.backend.dto.ReservaLoteResponseDTO;
+import teatro_reservas.backend.dto.ReservaLoteResultadoDTO;
+import teatro_reservas.backend.dto.ReservaRequestDTO;
+import teatro_reservas.backend.dto.ReservaResponseDTO;
+import teatro_reservas.backend.entity.EventoOutbox;
+import teatro_reservas.backend.entity.enums.TipoEntrada;
+import teatro_reservas.backend.repository.ClienteRepository;
+import teatro_reservas.backend.repository.EventoOutboxRepository;
+import teatro_reservas.backend.repository.ReservaRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// El outbox no se despacha solo: las filas de cada reserva siguen pendientes al consultarlas
+@SpringBootTest(properties = {
+		"teatro.outbox.intervalo-ms=3600000",
+		"teatro.reservas.retencion.tick-ms=3600000"
+})
+class ReservasEnLoteTest {
+
+	@Autowired
+	private EventoService eventoService;
+
+	@Autowired
+	private ClienteService clienteService;
+
+	@Autowired
+	private ReservaService reservaService;
+
+	@Autowired
+	private InventarioService inventarioService;
+
+	@Autowired
+	private ClienteRepository clienteRepository;
+
+	@Autowired
+	private ReservaRepository reservaRepository;
+
+	@Autowired
+	private EventoOutboxRepository outboxRepository;
+
+	@Test
+	void reservasNuevasLlevanFechaDeReserva() {
+		Long clienteId = FixturasReservas.crearCliente(clienteService, "lote.fecha@teatro.com", "+5491130666001", "30666001");
+		Long eventoId = FixturasReservas.crearEvento(eventoService, "Lote Fecha", 12, 3, 1);
+
+		ReservaResponseDTO creada = reservaService.crearReserva(
+				new ReservaRequestDTO(clienteId, eventoId, TipoEntrada.GENERAL, false));
+		ReservaResponseDTO retenida = reservaService.retenerReserva(
+				new ReservaRequestDTO(clienteId, eventoId, TipoEntrada.GENERAL, false));
+		ReservaLoteResponseDTO lote = reservaService.crearReservasEnLote(new ReservaLoteRequestDTO(
+				List.of(new ReservaRequestDTO(clienteId, eventoId, TipoEntrada.VIP, false)),
+				ReservaLoteRequestDTO.Modo.MEJOR_ESFUERZO));
+
+		assertNotNull(creada.getFechaReserva());
+		assertNotNull(retenida.getFechaReserva());
+		// La fila del outbox se arma antes del INSERT de la reserva
+		assertNotNull(eventoOutboxDe(creada.getId()).getFechaReserva());
+		assertNotNull(eventoOutboxDe(lote.getResultados().get(0).getReserva().getId()).getFechaReserva());
+	}
+
+	@Test
+	void todoONadaDescartaElLoteCompletoSiUnaReservaFalla() {
+		Long clienteId = FixturasReservas.crearCliente(clienteService, "lote.todo@teatro.com", "+5491130666002", "30666002");
+		FixturasReservas.asignarFidelizacion(clienteRepository, clienteId, 0, 1);
+		Long eventoId = FixturasReservas.crearEvento(eventoService, "Lote Todo o Nada", 12, 3, 1);
+		long reservasAntes = reservaRepository.count();
+
+		// La segunda VIP no tiene lugar: tampoco se crean las otras tres ni se usa el pase
+		ReservaLoteResponseDTO respuesta = reservaService.crearReservasEnLote(new ReservaLoteRequestDTO(List.of(
+				new ReservaRequestDTO(clienteId, eventoId, TipoEntrada.GENERAL, false),
+				new ReservaRequestDTO(clienteId, eventoId, TipoEntrada.GENERAL, true),
+				new ReservaRequestDTO(clienteId, eventoId, TipoEntrada.VIP, false),
+				new ReservaRequestDTO(clienteId, eventoId, TipoEntrada.VIP, false)),
+				ReservaLoteRequestDTO.Modo.TODO_O_NADA));
+
+		assertEquals(0, respuesta.getExitosas());
+		assertEquals(4, respuesta.getFallidas());
+		assertTrue(respuesta.getResultados().stream().noneMatch(ReservaLoteResultadoDTO::isExitosa));
+		assertEquals(reservasAntes, reservaRepository.count());
+		assertEquals(3, inventarioService.obtenerDisponibles(eventoId, TipoEntrada.GENERAL));
+		assertEquals(1, inventarioService.obtenerDisponibles(eventoId, TipoEntrada.VIP));
+		assertEquals(1, clienteService.obtenerClientePorId(clienteId).getPasesGratuitos());
+
+		// Los contadores en memoria también volvieron atrás: el lugar VIP sigue disponible
+		reservaService.crearReserva(new ReservaRequestDTO(clienteId, eventoId, TipoEntrada.VIP, false));
+		assertEquals(0, inventarioService.obtenerDisponibles(eventoId, TipoEntrada.VIP));
+	}
+
+	@Test
+	void mejorEsfuerzoCreaLasValidasEInformaLasDemas() {
+		Long clienteId = FixturasReservas.crearCliente(clienteService, "lote.esfuerzo@teatro.com", "+5491130666003", "30666003");
+		Long eventoId = FixturasReservas.crearEvento(eventoService, "Lote Mejor Esfuerzo", 12, 3, 1);
+
+		ReservaLoteResponseDTO respuesta = reservaService.crearReservasEnLote(new ReservaLoteRequestDTO(List.of(
+				new ReservaRequestDTO(clienteId, eventoId, TipoEntrada.VIP, false),
+				new ReservaRequestDTO(clienteId, eventoId, TipoEntrada.VIP, false),
+				new ReservaRequestDTO(clienteId, eventoId, TipoEntrada.GENERAL, true),
+				new ReservaRequestDTO(clienteId, eventoId, TipoEntrada.GENERAL, false)),
+				ReservaLoteRequestDTO.Modo.MEJOR_ESFUERZO));
+
+		assertEquals(2, respuesta.getExitosas());
+		assertTrue(respuesta.getResultados().get(0).isExitosa());
+		assertFalse(respuesta.getResultados().get(1).isExitosa());
+		// Sin pases disponibles
+		assertFalse(respuesta.getResultados().get(2).isExitosa());
+		assertTrue(respuesta.getResultados().get(3).isExitosa());
+		assertEquals(0, inventarioService.obtenerDisponibles(eventoId, TipoEntrada.VIP));
+		assertEquals(2, inventarioService.obtenerDisponibles(eventoId, TipoEntrada.GENERAL));
+	}
+
+	private EventoOutbox eventoOutboxDe(Long reservaId) {
+		return outboxRepository.findAll().stream()
+				.filter(evento -> reservaId.equals(evento.getReservaId()))
+				.findFirst()
+				.orElseThrow();
+	}
+}
@@ -0,0 +1,96 @@
+package teatro_reservas.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import teatro_reservas.backend.dto.EventoResumenDTO;
+import teatro_reservas.backend.entity.enums.TipoEvento;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Respuestas por segundo de /api/eventos/vigentes con 200 eventos: serializar con Jackson
+ * (y comprimir con gzip) en cada pedido, como hacía el controlador, contra servir los
+ * bytes guardados en {@link RespuestasCatalogo} mientras la versión del catálogo no cambia.
+ * La consulta a la base, que el acierto también evita, queda fuera de la medición.
+ * Se ejecuta con el main de esta clase desde el IDE o sobre target/test-classes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RespuestasCatalogoBenchmark {
+
+	private static final int CANTIDAD = 200;
+
+	private final List<EventoResumenDTO> eventos = new ArrayList<>();
+
+	private ObjectMapper objectMapper;
+	private RespuestasCatalogo respuestas;
+	private VersionesCatalogo versiones;
+
+	@Setup
+	public void preparar() {
+		LocalDateTime ahora = LocalDateTime.now();
+		TipoEvento[] tipos = TipoEvento.values();
+		for (int i = 0; i < CANTIDAD; i++) {
+			eventos.add(new EventoResumenDTO((long) i, "Evento " + i, ahora.plusDays(i), tipos[i % tipos.length],
+					500, true, BigDecimal.valueOf(1500 + i * 10L), (long) (i % 500)));
+		}
+		// Misma configuración de fechas que el ObjectMapper de Spring Boot
+		objectMapper = new ObjectMapper().findAndRegisterModules()
+				.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+		respuestas = new RespuestasCatalogo(objectMapper, 64);
+		versiones = new VersionesCatalogo();
+	}
+
+	@Benchmark
+	public byte[] serializarEnCadaPedido() throws IOException {
+		return comprimir(objectMapper.writeValueAsBytes(eventos));
+	}
+
+	@Benchmark
+	public byte[] serializarEnCadaPedidoSinGzip() throws IOException {
+		return objectMapper.writeValueAsBytes(eventos);
+	}
+
+	@Benchmark
+	public byte[] bytesGuardados() {
+		return respuestas.obtener("vigentes", versiones.etagCatalogo(), () -> eventos).gzip();
+	}
+
+	private static byte[] comprimir(byte[] datos) throws IOException {
+		ByteArrayOutputStream salida = new ByteArrayOutputStream();
+		try (GZIPOutputStream gzip = new GZIPOutputStream(salida)) {
+			gzip.write(datos);
+		}
+		return salida.toByteArray();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(RespuestasCatalogoBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
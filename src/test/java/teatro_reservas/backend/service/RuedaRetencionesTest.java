@@ -0,0 +1,58 @@
+package teatro_reservas.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RuedaRetencionesTest {
+
+	private static final long TICK_MS = 100;
+
+	@Test
+	void venceRecienEnElTickDeSuVencimiento() {
+		long inicio = System.currentTimeMillis();
+		RuedaRetenciones rueda = new RuedaRetenciones(TICK_MS, 8);
+		rueda.programar(1L, inicio + 250);
+		rueda.programar(2L, inicio + 450);
+
+		// Redondeo hacia arriba: a los 250 ms la primera todavía no venció
+		assertEquals(List.of(), rueda.avanzar(inicio + 250 - TICK_MS));
+		assertEquals(List.of(1L), rueda.avanzar(inicio + 350));
+		assertEquals(List.of(2L), rueda.avanzar(inicio + 550));
+		assertEquals(0, rueda.cantidadProgramadas());
+	}
+
+	@Test
+	void vencimientoAMasDeUnaVueltaEsperaEnSuRanura() {
+		long inicio = System.currentTimeMillis();
+		RuedaRetenciones rueda = new RuedaRetenciones(TICK_MS, 8);
+		// Diez ticks en una rueda de ocho ranuras: comparte ranura con el tick 2
+		rueda.programar(1L, inicio + 10 * TICK_MS);
+		rueda.programar(2L, inicio + 2 * TICK_MS);
+
+		assertEquals(List.of(2L), rueda.avanzar(inicio + 3 * TICK_MS));
+		assertEquals(List.of(), rueda.avanzar(inicio + 8 * TICK_MS));
+		assertEquals(List.of(1L), rueda.avanzar(inicio + 11 * TICK_MS));
+	}
+
+	@Test
+	void canceladasNoVencenYUnaPausaLargaNoPierdeNinguna() {
+		long inicio = System.currentTimeMillis();
+		RuedaRetenciones rueda = new RuedaRetenciones(TICK_MS, 8);
+		rueda.programar(1L, inicio + TICK_MS);
+		rueda.programar(2L, inicio + 3 * TICK_MS);
+		rueda.programar(3L, inicio + 20 * TICK_MS);
+		rueda.cancelar(2L);
+		// Reprogramar reemplaza el vencimiento anterior
+		rueda.programar(1L, inicio + 5 * TICK_MS);
+
+		assertEquals(List.of(), rueda.avanzar(inicio + 4 * TICK_MS));
+		// Sin avanzar durante varias vueltas: una sola recorrida encuentra las dos
+		List<Long> vencidas = rueda.avanzar(inicio + 50 * TICK_MS);
+		assertEquals(2, vencidas.size());
+		assertEquals(List.of(1L, 3L), vencidas.stream().sorted().toList());
+		assertEquals(0, rueda.cantidadProgramadas());
+	}
+}
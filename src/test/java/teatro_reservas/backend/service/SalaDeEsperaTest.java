@@ -0,0 +1,163 @@
+package teatro_reservas.backend.service;
+
+import org.junit.jupiter.api.Test;
+import teatro_reservas.backend.dto.ReservaLoteRequestDTO;
+import teatro_reservas.backend.dto.ReservaLoteResponseDTO;
+import teatro_reservas.backend.dto.TurnoSalaEsperaDTO;
+import teatro_reservas.backend.exception.AdmisionPendienteException;
+import teatro_reservas.backend.exception.BusinessException;
+import teatro_reservas.backend.exception.ResourceNotFoundException;
+import teatro_reservas.backend.repository.EventoRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SalaDeEsperaTest {
+
+	private static final Long EVENTO = 1L;
+	private static final Long OTRO_EVENTO = 2L;
+	private static final Long INEXISTENTE = 99L;
+
+	@Test
+	void sinColaAdmiteAlRitmoDelBalde() {
+		SalaDeEspera sala = sala(true, 0.01, 3);
+
+		for (int i = 0; i < 3; i++) {
+			assertDoesNotThrow(() -> admitir(sala, EVENTO, null));
+		}
+		// Ráfaga agotada: hay que esperar la recarga
+		assertThrows(AdmisionPendienteException.class, () -> admitir(sala, EVENTO, null));
+		// Cada evento tiene su propio balde
+		assertDoesNotThrow(() -> admitir(sala, OTRO_EVENTO, null));
+	}
+
+	@Test
+	void turnosSeAdmitenEnOrden() throws InterruptedException {
+		SalaDeEspera sala = sala(true, 4, 2);
+		List<TurnoSalaEsperaDTO> turnos = List.of(
+				sala.solicitarTurno(EVENTO), sala.solicitarTurno(EVENTO), sala.solicitarTurno(EVENTO),
+				sala.solicitarTurno(EVENTO), sala.solicitarTurno(EVENTO));
+
+		// La ráfaga admite los dos primeros; los demás quedan en fila
+		assertTrue(turnos.get(0).isAdmitido());
+		assertTrue(turnos.get(1).isAdmitido());
+		assertEquals(List.of(1L, 2L, 3L), turnos.subList(2, 5).stream().map(TurnoSalaEsperaDTO::getPosicion).toList());
+		assertThrows(AdmisionPendienteException.class, () -> admitir(sala, EVENTO, turnos.get(2).getTurno()));
+		// Con fila formada nadie pasa sin turno
+		assertThrows(AdmisionPendienteException.class, () -> admitir(sala, EVENTO, null));
+
+		Thread.sleep(400);
+		assertEquals(0, sala.consultarTurno(EVENTO, turnos.get(2).getTurno()).getPosicion());
+		assertTrue(sala.consultarTurno(EVENTO, turnos.get(4).getTurno()).getPosicion() > 0);
+		assertDoesNotThrow(() -> admitir(sala, EVENTO, turnos.get(2).getTurno()));
+	}
+
+	@Test
+	void turnoUsadoSeRechaza() {
+		SalaDeEspera sala = sala(true, 10, 5);
+		String turno = sala.solicitarTurno(EVENTO).getTurno();
+
+		admitir(sala, EVENTO, turno);
+		BusinessException error = assertThrows(BusinessException.class, () -> admitir(sala, EVENTO, turno));
+		assertEquals("El turno de la sala de espera ya fue utilizado", error.getMessage());
+	}
+
+	@Test
+	void reservaFallidaDevuelveElTurno() {
+		SalaDeEspera sala = sala(true, 10, 5);
+		String turno = sala.solicitarTurno(EVENTO).getTurno();
+
+		assertThrows(BusinessException.class, () -> sala.admitir(EVENTO, turno, () -> {
+			throw new BusinessException("No hay disponibilidad para este tipo de entrada");
+		}));
+		// Un lote que no creó ninguna reserva tampoco gasta el turno
+		assertEquals(0, sala.admitirLote(List.of(EVENTO), turno, () -> lote(0)).getExitosas());
+		assertEquals(1, sala.admitirLote(List.of(EVENTO), turno, () -> lote(1)).getExitosas());
+		assertThrows(BusinessException.class, () -> admitir(sala, EVENTO, turno));
+	}
+
+	@Test
+	void firmaYGeneracionDelTurnoSeValidan() {
+		SalaDeEspera sala = sala(true, 10, 5);
+		String turno = sala.solicitarTurno(EVENTO).getTurno();
+		sala.solicitarTurno(OTRO_EVENTO);
+		String[] partes = turno.split("\\.");
+
+		// Número de turno cambiado: la firma ya no corresponde
+		assertInvalido(sala, EVENTO, partes[0] + "." + (Long.parseLong(partes[1]) + 1) + "." + partes[2]);
+		assertInvalido(sala, EVENTO, partes[0] + "." + partes[1] + "." + "A".repeat(partes[2].length()));
+		// Otra generación: turno de una fila ya descartada
+		assertInvalido(sala, EVENTO, (Long.parseLong(partes[0]) + 1) + "." + partes[1] + "." + partes[2]);
+		// El turno es de un evento
+		assertInvalido(sala, OTRO_EVENTO, turno);
+		// Otra instancia (o un reinicio) firma con otra clave
+		SalaDeEspera reiniciada = sala(true, 10, 5);
+		reiniciada.solicitarTurno(EVENTO);
+		assertInvalido(reiniciada, EVENTO, turno);
+		assertInvalido(sala, EVENTO, "no-es-un-turno");
+
+		assertDoesNotThrow(() -> admitir(sala, EVENTO, turno));
+	}
+
+	@Test
+	void loteConTurnoSoloParaUnEvento() {
+		SalaDeEspera sala = sala(true, 0.01, 1);
+		String turno = sala.solicitarTurno(EVENTO).getTurno();
+
+		assertThrows(BusinessException.class, () -> admitirLote(sala, List.of(EVENTO, OTRO_EVENTO), turno));
+		assertDoesNotThrow(() -> admitirLote(sala, List.of(EVENTO, EVENTO), turno));
+		// Sin turno, una admisión por evento del lote; la ficha del primero se la llevó el turno
+		assertDoesNotThrow(() -> admitirLote(sala, List.of(OTRO_EVENTO, OTRO_EVENTO), null));
+		assertThrows(AdmisionPendienteException.class, () -> admitirLote(sala, List.of(EVENTO), null));
+	}
+
+	@Test
+	void eventoInexistenteNoAbreFila() {
+		SalaDeEspera sala = sala(true, 10, 5);
+
+		assertThrows(ResourceNotFoundException.class, () -> sala.solicitarTurno(INEXISTENTE));
+		assertThrows(ResourceNotFoundException.class, () -> admitir(sala, INEXISTENTE, null));
+		assertThrows(BusinessException.class, () -> sala.consultarTurno(INEXISTENTE, "1.1.firma"));
+	}
+
+	@Test
+	void deshabilitadaNoValidaNada() {
+		SalaDeEspera sala = sala(false, 0.01, 0);
+
+		assertDoesNotThrow(() -> admitir(sala, EVENTO, null));
+		assertDoesNotThrow(() -> admitir(sala, EVENTO, "no-es-un-turno"));
+		assertDoesNotThrow(() -> admitirLote(sala, List.of(EVENTO, OTRO_EVENTO), "no-es-un-turno"));
+		assertFalse(sala.solicitarTurno(EVENTO).getTurno().isBlank());
+	}
+
+	private static SalaDeEspera sala(boolean habilitada, double admisionesPorSegundo, int rafaga) {
+		EventoRepository eventos = mock(EventoRepository.class);
+		when(eventos.existsById(EVENTO)).thenReturn(true);
+		when(eventos.existsById(OTRO_EVENTO)).thenReturn(true);
+		return new SalaDeEspera(eventos, habilitada, admisionesPorSegundo, rafaga);
+	}
+
+	private static void admitir(SalaDeEspera sala, Long eventoId, String turno) {
+		sala.admitir(eventoId, turno, () -> null);
+	}
+
+	private static void admitirLote(SalaDeEspera sala, List<Long> eventoIds, String turno) {
+		sala.admitirLote(eventoIds, turno, () -> lote(1));
+	}
+
+	private static ReservaLoteResponseDTO lote(int exitosas) {
+		return new ReservaLoteResponseDTO(ReservaLoteRequestDTO.Modo.MEJOR_ESFUERZO, 1, exitosas, 1 - exitosas, List.of());
+	}
+
+	private static void assertInvalido(SalaDeEspera sala, Long eventoId, String turno) {
+		BusinessException error = assertThrows(BusinessException.class, () -> admitir(sala, eventoId, turno));
+		assertEquals("Turno de sala de espera inválido o vencido para este evento", error.getMessage());
+	}
+}
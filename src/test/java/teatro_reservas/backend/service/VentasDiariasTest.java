@@ -0,0 +1,112 @@
+package teatro_reservas.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import teatro_reservas.backend.dto.ClienteRequestDTO;
+import teatro_reservas.backend.dto.ConfiguracionEntradaDTO;
+import teatro_reservas.backend.dto.EventoRequestDTO;
+import teatro_reservas.backend.dto.ReservaRequestDTO;
+import teatro_reservas.backend.dto.VentasPorFechaDTO;
+import teatro_reservas.backend.entity.enums.TipoEntrada;
+import teatro_reservas.backend.entity.enums.TipoEvento;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// El outbox se despacha a mano para medir el resumen antes y después de cada paso
+@SpringBootTest(properties = {
+		"teatro.outbox.intervalo-ms=3600000",
+		"teatro.reservas.retencion.tick-ms=3600000"
+})
+class VentasDiariasTest {
+
+	@Autowired
+	private EventoService eventoService;
+
+	@Autowired
+	private ClienteService clienteService;
+
+	@Autowired
+	private ReservaService reservaService;
+
+	@Autowired
+	private DespachadorOutbox despachador;
+
+	@Autowired
+	private CandadoDespachoOutbox candado;
+
+	@Test
+	void resumenSeActualizaConCreacionesYCancelaciones() {
+		Long clienteId = clienteService.crearCliente(new ClienteRequestDTO(
+				"Ventas", "Diarias", "ventas.diarias@teatro.com", "+5491130444001", "30444001", null)).getId();
+		Long eventoId = eventoService.crearEvento(new EventoRequestDTO(
+				"Ventas Diarias", "Obra para validar el resumen de ventas", LocalDateTime.now().plusDays(10),
+				TipoEvento.OBRA_TEATRO, 20, Map.of(
+						TipoEntrada.GENERAL, new ConfiguracionEntradaDTO(new BigDecimal("1500.00"), 20)))).getId();
+		despachador.despachar();
+		VentasPorFechaDTO antes = ventasDeHoy();
+
+		reservaService.crearReserva(new ReservaRequestDTO(clienteId, eventoId, TipoEntrada.GENERAL, false));
+		Long cancelada = reservaService.crearReserva(
+				new ReservaRequestDTO(clienteId, eventoId, TipoEntrada.GENERAL, false)).getId();
+		reservaService.cancelarReserva(cancelada, "Prueba");
+		// Una retención cancelada no cuenta como venta
+		Long retenida = reservaService.retenerReserva(
+				new ReservaRequestDTO(clienteId, eventoId, TipoEntrada.GENERAL, false)).getId();
+		reservaService.cancelarReserva(retenida, "Prueba");
+		despachador.despachar();
+
+		VentasPorFechaDTO despues = ventasDeHoy();
+		assertEquals(antes.getCantidadReservas() + 1, despues.getCantidadReservas());
+		assertEquals(0, antes.getIngresos().add(new BigDecimal("1500.00")).compareTo(despues.getIngresos()));
+
+		// La reconstrucción desde las reservas llega al mismo resultado
+		reservaService.reconstruirVentasDiarias();
+		VentasPorFechaDTO reconstruido = ventasDeHoy();
+		assertEquals(despues.getCantidadReservas(), reconstruido.getCantidadReservas());
+		assertEquals(0, despues.getIngresos().compareTo(reconstruido.getIngresos()));
+	}
+
+	@Test
+	void reconstruccionConPendientesNoSeSuperponeConElDespacho() {
+		Long clienteId = clienteService.crearCliente(new ClienteRequestDTO(
+				"Ventas", "Pendientes", "ventas.pendientes@teatro.com", "+5491130444002", "30444002", null)).getId();
+		Long eventoId = eventoService.crearEvento(new EventoRequestDTO(
+				"Ventas Pendientes", "Obra para validar la reconstruccion con el outbox pendiente", LocalDateTime.now().plusDays(11),
+				TipoEvento.OBRA_TEATRO, 20, Map.of(
+						TipoEntrada.GENERAL, new ConfiguracionEntradaDTO(new BigDecimal("1500.00"), 20)))).getId();
+		despachador.despachar();
+		long antes = ventasDeHoy().getCantidadReservas();
+		reservaService.crearReserva(new ReservaRequestDTO(clienteId, eventoId, TipoEntrada.GENERAL, false));
+
+		// Mientras se reconstruye, el despacho espera: el evento descontado no se procesa en el medio
+		CompletableFuture<Void> despacho = candado.ejecutar(() -> {
+			CompletableFuture<Void> enCurso = CompletableFuture.runAsync(despachador::despachar);
+			reservaService.reconstruirVentasDiarias();
+			assertThrows(TimeoutException.class, () -> enCurso.get(200, TimeUnit.MILLISECONDS));
+			assertEquals(antes, ventasDeHoy().getCantidadReservas());
+			return enCurso;
+		});
+		despacho.join();
+
+		assertEquals(antes + 1, ventasDeHoy().getCantidadReservas());
+	}
+
+	private VentasPorFechaDTO ventasDeHoy() {
+		LocalDateTime hoy = LocalDate.now().atStartOfDay();
+		List<VentasPorFechaDTO> ventas = reservaService.obtenerEstadisticasPorFecha(hoy, hoy);
+		return ventas.isEmpty()
+				? new VentasPorFechaDTO(hoy.toLocalDate(), 0L, BigDecimal.ZERO, 0L)
+				: ventas.get(0);
+	}
+}
@@ -0,0 +1,79 @@
+package teatro_reservas.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import teatro_reservas.backend.dto.ReservaRequestDTO;
+import teatro_reservas.backend.entity.Reserva;
+import teatro_reservas.backend.entity.enums.TipoEntrada;
+import teatro_reservas.backend.repository.ReservaRepository;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// La reconciliación se ejecuta a mano para controlar cuántas comparaciones ve cada diferencia
+@SpringBootTest(properties = {
+		"teatro.outbox.intervalo-ms=3600000",
+		"teatro.reservas.retencion.tick-ms=3600000",
+		"teatro.ventas.memoria.reconciliacion-ms=3600000"
+})
+class VentasEnMemoriaTest {
+
+	@Autowired
+	private EventoService eventoService;
+
+	@Autowired
+	private ClienteService clienteService;
+
+	@Autowired
+	private ReservaService reservaService;
+
+	@Autowired
+	private ReservaRepository reservaRepository;
+
+	@Autowired
+	private VentasEnMemoria ventasEnMemoria;
+
+	@Test
+	void contadoresSiguenCreacionesYCancelaciones() {
+		Long clienteId = FixturasReservas.crearCliente(clienteService, "ventas.memoria@teatro.com", "+5491130555001", "30555001");
+		Long eventoId = FixturasReservas.crearEvento(eventoService, "Ventas en Memoria", 10, 10, 10);
+
+		reservaService.crearReserva(new ReservaRequestDTO(clienteId, eventoId, TipoEntrada.GENERAL, false));
+		reservaService.crearReserva(new ReservaRequestDTO(clienteId, eventoId, TipoEntrada.VIP, false));
+		Long cancelada = reservaService.crearReserva(
+				new ReservaRequestDTO(clienteId, eventoId, TipoEntrada.GENERAL, false)).getId();
+		reservaService.cancelarReserva(cancelada, "Prueba");
+		// Una retención no es una venta ni al crearse ni al cancelarse
+		Long retenida = reservaService.retenerReserva(
+				new ReservaRequestDTO(clienteId, eventoId, TipoEntrada.GENERAL, false)).getId();
+		reservaService.cancelarReserva(retenida, "Prueba");
+
+		assertEquals(1, reservaService.contarReservasConfirmadasPorEventoYTipo(eventoId, TipoEntrada.GENERAL));
+		assertEquals(1, reservaService.contarReservasConfirmadasPorEventoYTipo(eventoId, TipoEntrada.VIP));
+		assertEquals(0, reservaService.contarReservasConfirmadasPorEventoYTipo(eventoId, TipoEntrada.PLATEA));
+		assertEquals(new BigDecimal("4500.00"), reservaService.calcularIngresosPorEvento(eventoId));
+	}
+
+	@Test
+	void diferenciaPersistenteSeCorrige() {
+		Long clienteId = FixturasReservas.crearCliente(clienteService, "ventas.desfase@teatro.com", "+5491130555002", "30555002");
+		Long eventoId = FixturasReservas.crearEvento(eventoService, "Ventas Desfasadas", 10, 10, 10);
+		Long reservaId = reservaService.crearReserva(
+				new ReservaRequestDTO(clienteId, eventoId, TipoEntrada.GENERAL, false)).getId();
+		assertEquals(new BigDecimal("1500.00"), reservaService.calcularIngresosPorEvento(eventoId));
+
+		// Cambio hecho por fuera del servicio: los contadores no se enteran
+		Reserva reserva = reservaRepository.findById(reservaId).orElseThrow();
+		reserva.setPrecioPagado(new BigDecimal("1000.00"));
+		reservaRepository.save(reserva);
+
+		// La primera comparación solo anota la diferencia; la segunda la confirma y corrige
+		ventasEnMemoria.reconciliar();
+		assertEquals(new BigDecimal("1500.00"), reservaService.calcularIngresosPorEvento(eventoId));
+		ventasEnMemoria.reconciliar();
+		assertEquals(new BigDecimal("1000.00"), reservaService.calcularIngresosPorEvento(eventoId));
+		assertEquals(1, reservaService.contarReservasConfirmadasPorEventoYTipo(eventoId, TipoEntrada.GENERAL));
+	}
+}
@@ -0,0 +1,41 @@
+package teatro_reservas.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class VersionesCatalogoTest {
+
+	private final VersionesCatalogo versiones = new VersionesCatalogo();
+
+	@Test
+	void cambioDeUnEventoNoAfectaALosDemas() {
+		String evento1 = versiones.etagDisponibilidad(1L);
+		String evento2 = versiones.etagDisponibilidad(2L);
+		String catalogo = versiones.etagCatalogo();
+
+		// Sin transacción activa el cambio se registra en el momento
+		versiones.registrarCambioAlConfirmar(1L);
+
+		assertNotEquals(evento1, versiones.etagDisponibilidad(1L));
+		assertEquals(evento2, versiones.etagDisponibilidad(2L));
+		assertNotEquals(catalogo, versiones.etagCatalogo());
+	}
+
+	@Test
+	void cambioGeneralAfectaATodosLosEventos() {
+		String evento1 = versiones.etagDisponibilidad(1L);
+		String evento2 = versiones.etagDisponibilidad(2L);
+
+		versiones.registrarCambioGeneralAlConfirmar();
+
+		assertNotEquals(evento1, versiones.etagDisponibilidad(1L));
+		assertNotEquals(evento2, versiones.etagDisponibilidad(2L));
+	}
+
+	@Test
+	void otroArranqueNoRepiteLosEtag() {
+		assertNotEquals(versiones.etagDisponibilidad(1L), new VersionesCatalogo().etagDisponibilidad(1L));
+	}
+}